@@ -5,6 +5,10 @@
 CREATE DATABASE IF NOT EXISTS voyage_affaires;
 USE voyage_affaires;
 
+-- The ngram FULLTEXT indexes below must be built without the stopword list,
+-- otherwise bigrams such as "is" or "on" are dropped (e.g. from "Paris").
+SET SESSION innodb_ft_enable_stopword = OFF;
+
 -- =====================================================
 -- Table: utilisateur (Users)
 -- =====================================================
@@ -20,7 +24,8 @@ CREATE TABLE IF NOT EXISTS utilisateur (
     date_creation TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     actif BOOLEAN DEFAULT TRUE,
     INDEX idx_email (email),
-    INDEX idx_role (role)
+    INDEX idx_role (role),
+    FULLTEXT INDEX ft_utilisateur_recherche (nom, prenom, email) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- =====================================================
@@ -37,8 +42,14 @@ CREATE TABLE IF NOT EXISTS vol (
     nombre_places INT NOT NULL,
     classe VARCHAR(50) DEFAULT 'ECONOMIE',
     disponible BOOLEAN DEFAULT TRUE,
+    date_modification TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_destination (destination),
-    INDEX idx_date_depart (date_depart)
+    INDEX idx_date_depart (date_depart),
+    INDEX idx_destination_date_prix (destination, date_depart, prix),
+    INDEX idx_disponible_date (disponible, date_depart),
+    INDEX idx_date_modification (date_modification),
+    FULLTEXT INDEX ft_origine (origine) WITH PARSER ngram,
+    FULLTEXT INDEX ft_destination (destination) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- =====================================================
@@ -53,7 +64,10 @@ CREATE TABLE IF NOT EXISTS hotel (
     etoiles INT CHECK (etoiles BETWEEN 1 AND 5),
     prix_par_nuit DOUBLE NOT NULL,
     disponible BOOLEAN DEFAULT TRUE,
-    INDEX idx_ville (ville)
+    date_modification TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_ville (ville),
+    INDEX idx_date_modification (date_modification),
+    FULLTEXT INDEX ft_ville (ville) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- =====================================================
@@ -72,12 +86,52 @@ CREATE TABLE IF NOT EXISTS reservation (
     nombre_chambres INT DEFAULT 1,
     motif_voyage TEXT,
     commentaire TEXT,
+    -- Destination the reservation is counted under in reservation_stats_jour
+    -- (NULL until counted), kept when the flight or hotel changes later
+    destination_stats VARCHAR(100) NULL,
     FOREIGN KEY (id_utilisateur) REFERENCES utilisateur(id_utilisateur) ON DELETE CASCADE,
     FOREIGN KEY (id_vol) REFERENCES vol(id_vol) ON DELETE SET NULL,
     FOREIGN KEY (id_hotel) REFERENCES hotel(id_hotel) ON DELETE SET NULL,
     INDEX idx_utilisateur (id_utilisateur),
     INDEX idx_statut (statut),
-    INDEX idx_date_creation (date_creation)
+    INDEX idx_date_creation (date_creation, id_reservation),
+    INDEX idx_utilisateur_date (id_utilisateur, date_creation, id_reservation)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- Table: reservation_stats_jour (Dashboard summary)
+-- One counter per day, user, destination and status, kept up to date by
+-- the application when reservations are created or change status.
+-- =====================================================
+CREATE TABLE IF NOT EXISTS reservation_stats_jour (
+    jour DATE NOT NULL,
+    id_utilisateur INT NOT NULL,
+    destination VARCHAR(100) NOT NULL DEFAULT '',
+    statut VARCHAR(50) NOT NULL,
+    nombre INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (jour, id_utilisateur, destination, statut),
+    CONSTRAINT chk_stats_nombre CHECK (nombre >= 0),
+    FOREIGN KEY (id_utilisateur) REFERENCES utilisateur(id_utilisateur) ON DELETE CASCADE,
+    INDEX idx_utilisateur_jour (id_utilisateur, jour)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- Table: email_outbox (Pending notifications)
+-- Written in the same transaction as the reservation change and sent by
+-- the email dispatcher; failed messages are retried, then kept as ECHEC.
+-- =====================================================
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id_email BIGINT PRIMARY KEY AUTO_INCREMENT,
+    cle_idempotence VARCHAR(100) NOT NULL UNIQUE,
+    type VARCHAR(30) NOT NULL,
+    id_reservation VARCHAR(50) NOT NULL,
+    statut VARCHAR(20) NOT NULL DEFAULT 'EN_ATTENTE',
+    tentatives INT NOT NULL DEFAULT 0,
+    prochaine_tentative DATETIME NULL,
+    derniere_erreur TEXT,
+    date_creation DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    date_envoi DATETIME NULL,
+    INDEX idx_statut_prochaine (statut, prochaine_tentative)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- =====================================================
@@ -127,11 +181,127 @@ CREATE TABLE IF NOT EXISTS paiement (
     INDEX idx_statut (statut)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- =====================================================
+-- Migrations for existing databases
+-- (CREATE TABLE IF NOT EXISTS leaves existing tables unchanged,
+-- so each change is applied here only when it is missing; this runs
+-- before the sample data, whose inserts are skipped on existing rows)
+-- =====================================================
+DELIMITER $$
+
+DROP PROCEDURE IF EXISTS migration_add_column$$
+CREATE PROCEDURE migration_add_column(IN p_table VARCHAR(64), IN p_column VARCHAR(64), IN p_definition TEXT)
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = p_table
+                     AND COLUMN_NAME = p_column) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' ADD COLUMN ', p_column, ' ', p_definition);
+        PREPARE migration FROM @ddl;
+        EXECUTE migration;
+        DEALLOCATE PREPARE migration;
+    END IF;
+END$$
+
+-- Adds the index, or rebuilds it when it exists on other columns
+-- (p_columns is the comma-separated column list, without spaces)
+DROP PROCEDURE IF EXISTS migration_ensure_index$$
+CREATE PROCEDURE migration_ensure_index(IN p_table VARCHAR(64), IN p_index VARCHAR(64),
+                                        IN p_columns TEXT, IN p_definition TEXT)
+BEGIN
+    DECLARE v_columns TEXT;
+    SELECT GROUP_CONCAT(COLUMN_NAME ORDER BY SEQ_IN_INDEX) INTO v_columns
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = p_table AND INDEX_NAME = p_index;
+
+    IF v_columns IS NULL THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' ADD ', p_definition);
+    ELSEIF v_columns <> p_columns THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' DROP INDEX ', p_index, ', ADD ', p_definition);
+    ELSE
+        SET @ddl = 'DO 0';
+    END IF;
+    PREPARE migration FROM @ddl;
+    EXECUTE migration;
+    DEALLOCATE PREPARE migration;
+END$$
+
+DROP PROCEDURE IF EXISTS migration_add_check$$
+CREATE PROCEDURE migration_add_check(IN p_table VARCHAR(64), IN p_constraint VARCHAR(64), IN p_condition TEXT)
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.TABLE_CONSTRAINTS
+                   WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = p_table
+                     AND CONSTRAINT_NAME = p_constraint) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' ADD CONSTRAINT ', p_constraint, ' CHECK (', p_condition, ')');
+        PREPARE migration FROM @ddl;
+        EXECUTE migration;
+        DEALLOCATE PREPARE migration;
+    END IF;
+END$$
+
+DELIMITER ;
+
+-- Incremental catalog refresh
+CALL migration_add_column('vol', 'date_modification',
+    'TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP');
+CALL migration_add_column('hotel', 'date_modification',
+    'TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP');
+CALL migration_ensure_index('vol', 'idx_date_modification', 'date_modification',
+    'INDEX idx_date_modification (date_modification)');
+CALL migration_ensure_index('hotel', 'idx_date_modification', 'date_modification',
+    'INDEX idx_date_modification (date_modification)');
+
+-- Flight search
+CALL migration_ensure_index('vol', 'idx_destination_date_prix', 'destination,date_depart,prix',
+    'INDEX idx_destination_date_prix (destination, date_depart, prix)');
+CALL migration_ensure_index('vol', 'idx_disponible_date', 'disponible,date_depart',
+    'INDEX idx_disponible_date (disponible, date_depart)');
+
+-- Text search
+CALL migration_ensure_index('utilisateur', 'ft_utilisateur_recherche', 'nom,prenom,email',
+    'FULLTEXT INDEX ft_utilisateur_recherche (nom, prenom, email) WITH PARSER ngram');
+CALL migration_ensure_index('vol', 'ft_origine', 'origine',
+    'FULLTEXT INDEX ft_origine (origine) WITH PARSER ngram');
+CALL migration_ensure_index('vol', 'ft_destination', 'destination',
+    'FULLTEXT INDEX ft_destination (destination) WITH PARSER ngram');
+CALL migration_ensure_index('hotel', 'ft_ville', 'ville',
+    'FULLTEXT INDEX ft_ville (ville) WITH PARSER ngram');
+
+-- Keyset pagination of reservations (idx_date_creation was on date_creation only)
+CALL migration_ensure_index('reservation', 'idx_date_creation', 'date_creation,id_reservation',
+    'INDEX idx_date_creation (date_creation, id_reservation)');
+CALL migration_ensure_index('reservation', 'idx_utilisateur_date', 'id_utilisateur,date_creation,id_reservation',
+    'INDEX idx_utilisateur_date (id_utilisateur, date_creation, id_reservation)');
+
+-- Dashboard summary
+CALL migration_add_column('reservation', 'destination_stats', 'VARCHAR(100) NULL');
+CALL migration_add_check('reservation_stats_jour', 'chk_stats_nombre', 'nombre >= 0');
+
+DROP PROCEDURE migration_add_column;
+DROP PROCEDURE migration_ensure_index;
+DROP PROCEDURE migration_add_check;
+
+-- =====================================================
+-- Backfill the dashboard summary from existing reservations
+-- (only needed when upgrading an existing database; reservations counted
+-- before keep the destination recorded on them)
+-- =====================================================
+UPDATE reservation r
+LEFT JOIN vol v ON r.id_vol = v.id_vol
+LEFT JOIN hotel h ON r.id_hotel = h.id_hotel
+SET r.destination_stats = COALESCE(v.destination, h.ville, '')
+WHERE r.destination_stats IS NULL;
+
+DELETE FROM reservation_stats_jour;
+INSERT INTO reservation_stats_jour (jour, id_utilisateur, destination, statut, nombre)
+SELECT r.date_creation, r.id_utilisateur, r.destination_stats, r.statut, COUNT(*)
+FROM reservation r
+GROUP BY r.date_creation, r.id_utilisateur, r.destination_stats, r.statut;
+
 -- =====================================================
 -- Insert Default Admin User
 -- Password: admin123 (hashed with BCrypt)
 -- =====================================================
-INSERT INTO utilisateur (nom, prenom, email, telephone, departement, mot_de_passe, role) 
+INSERT IGNORE INTO utilisateur (nom, prenom, email, telephone, departement, mot_de_passe, role)
 VALUES (
     'Admin',
     'Système',
@@ -145,7 +315,8 @@ VALUES (
 -- =====================================================
 -- Insert Sample Flights
 -- =====================================================
-INSERT INTO vol VALUES
+INSERT IGNORE INTO vol (id_vol, compagnie, origine, destination, date_depart, date_arrivee,
+                        prix, nombre_places, classe, disponible) VALUES
 ('TU001', 'Tunisair', 'Tunis-Carthage', 'Paris CDG', '2026-03-15 08:00:00', '2026-03-15 11:00:00', 280.00, 200, 'ECONOMIE', TRUE),
 ('TU002', 'Tunisair', 'Tunis-Carthage', 'London Heathrow', '2026-03-16 09:30:00', '2026-03-16 13:00:00', 320.00, 180, 'ECONOMIE', TRUE),
 ('TU003', 'Tunisair', 'Tunis-Carthage', 'Istanbul', '2026-03-17 14:00:00', '2026-03-17 17:30:00', 250.00, 150, 'ECONOMIE', TRUE),
@@ -158,7 +329,7 @@ INSERT INTO vol VALUES
 -- =====================================================
 -- Insert Sample Hotels
 -- =====================================================
-INSERT INTO hotel VALUES
+INSERT IGNORE INTO hotel (id_hotel, nom, adresse, ville, pays, etoiles, prix_par_nuit, disponible) VALUES
 ('H001', 'Hilton Paris Opera', '108 Rue Saint-Lazare', 'Paris', 'France', 5, 250.00, TRUE),
 ('H002', 'Ibis Budget Paris', '15 Rue de la Convention', 'Paris', 'France', 2, 80.00, TRUE),
 ('H003', 'Marriott London', '140 Park Lane', 'London', 'UK', 5, 300.00, TRUE),
@@ -1,5 +1,12 @@
 package com.voyageaffaires;
 
+import com.voyageaffaires.services.CatalogService;
+import com.voyageaffaires.services.EmailOutboxDispatcher;
+import com.voyageaffaires.utils.DatabaseConnection;
+import com.voyageaffaires.utils.ExportJobManager;
+import com.voyageaffaires.utils.PasswordUtil;
+import com.voyageaffaires.utils.PasswordVerifier;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -35,6 +42,15 @@ public class Main extends Application {
             // Show the stage
             primaryStage.show();
             
+            // Load the flight and hotel catalog used by the search screens
+            CatalogService.getInstance().start();
+            
+            // Tune the password hashing cost to this machine
+            PasswordVerifier.getInstance().calibrateAsync(PasswordUtil.DEFAULT_TARGET_MILLIS);
+            
+            // Send the notifications queued in the email outbox
+            EmailOutboxDispatcher.getInstance().start();
+            
             System.out.println("Application started successfully");
             
         } catch (Exception e) {
@@ -46,7 +62,12 @@ public class Main extends Application {
     @Override
     public void stop() {
         System.out.println("Application closing...");
-        // Cleanup resources if needed
+        TaskRunner.getInstance().shutdown();
+        ExportJobManager.getInstance().shutdown();
+        EmailOutboxDispatcher.getInstance().shutdown();
+        CatalogService.getInstance().shutdown();
+        PasswordVerifier.getInstance().shutdown();
+        DatabaseConnection.getInstance().closeConnection();
     }
     
     /**
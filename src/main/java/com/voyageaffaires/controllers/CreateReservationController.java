@@ -1,13 +1,14 @@
 package com.voyageaffaires.controllers;
 
-import com.voyageaffaires.dao.VolDAO;
-import com.voyageaffaires.dao.HotelDAO;
 import com.voyageaffaires.models.Vol;
 import com.voyageaffaires.models.Hotel;
 import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.services.CatalogService;
 import com.voyageaffaires.services.ReservationService;
 import com.voyageaffaires.utils.AlertUtil;
+import com.voyageaffaires.utils.AutoCompleteUtil;
 import com.voyageaffaires.utils.SessionManager;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -18,7 +19,9 @@ import javafx.stage.Stage;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 /**
  * Controller for creating new reservations.
@@ -106,20 +109,21 @@ public class CreateReservationController {
     @FXML
     private Label errorLabel;
     
-    private VolDAO volDAO;
-    private HotelDAO hotelDAO;
+    private CatalogService catalogService;
     private ReservationService reservationService;
     
     private Vol selectedVol;
     private Hotel selectedHotel;
     
+    private final TaskRunner.Slot volTask = new TaskRunner.Slot();
+    private final TaskRunner.Slot hotelTask = new TaskRunner.Slot();
+    
     /**
      * Initializes the controller.
      */
     @FXML
     public void initialize() {
-        volDAO = new VolDAO();
-        hotelDAO = new HotelDAO();
+        catalogService = CatalogService.getInstance();
         reservationService = new ReservationService();
         
         // Configure vol table
@@ -165,6 +169,12 @@ public class CreateReservationController {
         addVolActionButtons();
         addHotelActionButtons();
         
+        // Type-ahead suggestions; picking one runs the search
+        AutoCompleteUtil.attach(volSearchField,
+                text -> catalogService.suggestFlightCities(text, AutoCompleteUtil.MAX_ITEMS), this::handleSearchVol);
+        AutoCompleteUtil.attach(hotelSearchField,
+                text -> catalogService.suggestVilles(text, AutoCompleteUtil.MAX_ITEMS), this::handleSearchHotel);
+        
         // Load initial data
         loadVols();
         loadHotels();
@@ -181,21 +191,43 @@ public class CreateReservationController {
     }
     
     private void loadVols() {
-        try {
-            ObservableList<Vol> vols = FXCollections.observableArrayList(volDAO.findAllAvailable());
-            volTable.setItems(vols);
-        } catch (Exception e) {
-            System.err.println("Error loading vols: " + e.getMessage());
-        }
+        showVols(catalogService::getAvailableFlights);
     }
     
     private void loadHotels() {
-        try {
-            ObservableList<Hotel> hotels = FXCollections.observableArrayList(hotelDAO.findAllAvailable());
-            hotelTable.setItems(hotels);
-        } catch (Exception e) {
-            System.err.println("Error loading hotels: " + e.getMessage());
-        }
+        showHotels(catalogService::getAvailableHotels);
+    }
+    
+    /**
+     * Fills the flight table from a background query, cancelling any
+     * flight query still running.
+     */
+    private void showVols(Callable<List<Vol>> query) {
+        TaskRunner.setLoading(volTable, true);
+        volTask.run(query, vols -> {
+            TaskRunner.setLoading(volTable, false);
+            ObservableList<Vol> items = FXCollections.observableArrayList(vols);
+            volTable.setItems(items);
+        }, error -> {
+            TaskRunner.setLoading(volTable, false);
+            System.err.println("Error loading vols: " + error.getMessage());
+        });
+    }
+    
+    /**
+     * Fills the hotel table from a background query, cancelling any
+     * hotel query still running.
+     */
+    private void showHotels(Callable<List<Hotel>> query) {
+        TaskRunner.setLoading(hotelTable, true);
+        hotelTask.run(query, hotels -> {
+            TaskRunner.setLoading(hotelTable, false);
+            ObservableList<Hotel> items = FXCollections.observableArrayList(hotels);
+            hotelTable.setItems(items);
+        }, error -> {
+            TaskRunner.setLoading(hotelTable, false);
+            System.err.println("Error loading hotels: " + error.getMessage());
+        });
     }
     
     private void addVolActionButtons() {
@@ -257,14 +289,7 @@ public class CreateReservationController {
         if (keyword.isEmpty()) {
             loadVols();
         } else {
-            try {
-                ObservableList<Vol> vols = FXCollections.observableArrayList(
-                    volDAO.searchFlightsAdvanced(keyword, keyword, Double.MAX_VALUE)
-                );
-                volTable.setItems(vols);
-            } catch (Exception e) {
-                System.err.println("Error searching vols: " + e.getMessage());
-            }
+            showVols(() -> catalogService.searchFlights(keyword, keyword, Double.MAX_VALUE));
         }
     }
     
@@ -274,14 +299,7 @@ public class CreateReservationController {
         if (ville.isEmpty()) {
             loadHotels();
         } else {
-            try {
-                ObservableList<Hotel> hotels = FXCollections.observableArrayList(
-                    hotelDAO.searchHotelsAdvanced(ville, 0, Double.MAX_VALUE)
-                );
-                hotelTable.setItems(hotels);
-            } catch (Exception e) {
-                System.err.println("Error searching hotels: " + e.getMessage());
-            }
+            showHotels(() -> catalogService.searchHotels(ville, 0, Double.MAX_VALUE));
         }
     }
     
@@ -365,16 +383,16 @@ public class CreateReservationController {
             reservation.setMotifVoyage(motifField.getText());
             reservation.setCommentaire(commentaireArea.getText());
             
-            boolean success = reservationService.createReservation(reservation);
-            
-            if (success) {
-                AlertUtil.showSuccess("Succès", 
-                                    "Votre réservation a été créée avec succès.\nNuméro: " + 
-                                    reservation.getIdReservation());
-                closeWindow();
-            } else {
-                showError("Erreur lors de la création de la réservation.");
-            }
+            TaskRunner.getInstance().run(() -> reservationService.createReservation(reservation), success -> {
+                if (success) {
+                    AlertUtil.showSuccess("Succès", 
+                                        "Votre réservation a été créée avec succès.\nNuméro: " + 
+                                        reservation.getIdReservation());
+                    closeWindow();
+                } else {
+                    showError("Erreur lors de la création de la réservation.");
+                }
+            }, error -> showError("Une erreur est survenue: " + error.getMessage()));
             
         } catch (Exception e) {
             System.err.println("Error creating reservation: " + e.getMessage());
@@ -394,6 +412,8 @@ public class CreateReservationController {
     }
     
     private void closeWindow() {
+        volTask.cancel();
+        hotelTask.cancel();
         Stage stage = (Stage) volTable.getScene().getWindow();
         stage.close();
     }
@@ -3,10 +3,11 @@ package com.voyageaffaires.controllers;
 import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.services.AuthService;
 import com.voyageaffaires.services.UserService;
-import com.voyageaffaires.services.ReservationService;
+import com.voyageaffaires.services.StatistiqueService;
 import com.voyageaffaires.utils.AlertUtil;
 import com.voyageaffaires.utils.NavigationUtil;
 import com.voyageaffaires.utils.SessionManager;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -20,6 +21,8 @@ import javafx.stage.Stage;
 import org.kordamp.ikonli.javafx.FontIcon;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Controller for the Dashboard screen.
@@ -27,6 +30,12 @@ import java.time.format.DateTimeFormatter;
  */
 public class DashboardController {
     
+    /** Number of days shown in the reservations chart. */
+    private static final int CHART_DAYS = 7;
+    
+    /** Number of destinations shown in the destinations chart. */
+    private static final int TOP_DESTINATIONS = 5;
+    
     @FXML
     private Label welcomeLabel;
     
@@ -83,8 +92,9 @@ public class DashboardController {
     
     private AuthService authService;
     private UserService userService;
-    private ReservationService reservationService;
+    private StatistiqueService statistiqueService;
     private Utilisateur currentUser;
+    private final TaskRunner.Slot statisticsTask = new TaskRunner.Slot();
     
     /**
      * Initializes the controller.
@@ -93,7 +103,7 @@ public class DashboardController {
     public void initialize() {
         authService = new AuthService();
         userService = new UserService();
-        reservationService = new ReservationService();
+        statistiqueService = new StatistiqueService();
         
         // Get current user
         currentUser = SessionManager.getInstance().getCurrentUser();
@@ -159,84 +169,89 @@ public class DashboardController {
     }
     
     /**
-     * Loads statistics for the dashboard.
+     * Loads statistics and chart data for the dashboard in the background.
+     * Counts come from the daily summary table, so this does not depend on
+     * the size of the reservation table.
      */
     private void loadStatistics() {
-        try {
-            // Load reservation count
-            int reservationCount = 0;
-            if (currentUser.isAdmin() || currentUser.isManager()) {
-                reservationCount = reservationService.getAllReservations().size();
-            } else {
-                reservationCount = reservationService.getUserReservations(currentUser.getIdUtilisateur()).size();
-            }
-            statsReservations.setText(String.valueOf(reservationCount));
-            
-            // Load user count (admin only)
-            if (currentUser.isAdmin()) {
-                int userCount = userService.getAllUsers().size();
-                statsUsers.setText(String.valueOf(userCount));
-            } else {
-                statsUsers.setText("-");
-            }
-            
-            // Count pending reservations
-            long pendingCount = reservationService.getUserReservations(currentUser.getIdUtilisateur())
-                .stream()
-                .filter(r -> "EN_ATTENTE".equals(r.getStatut()))
-                .count();
-            statsPending.setText(String.valueOf(pendingCount));
-            
-        } catch (Exception e) {
-            System.err.println("Error loading statistics: " + e.getMessage());
-        }
+        statsReservations.setText("...");
+        statsUsers.setText("...");
+        statsPending.setText("...");
+        
+        boolean admin = currentUser.isAdmin();
+        // Admins and managers see every reservation, employees their own
+        Integer scope = admin || currentUser.isManager() ? null : currentUser.getIdUtilisateur();
+        
+        statisticsTask.run(() -> {
+            DashboardData data = new DashboardData();
+            data.reservations = statistiqueService.countReservations(scope);
+            data.users = admin ? userService.countUsers() : -1;
+            data.pending = statistiqueService.countPendingReservations(scope);
+            data.perDay = statistiqueService.getReservationsPerDay(CHART_DAYS, scope);
+            data.destinations = statistiqueService.getTopDestinations(TOP_DESTINATIONS, scope);
+            return data;
+        }, data -> {
+            statsReservations.setText(formatCount(data.reservations));
+            statsUsers.setText(formatCount(data.users));
+            statsPending.setText(formatCount(data.pending));
+            populateReservationsChart(data.perDay);
+            populateDestinationsChart(data.destinations);
+        }, error -> {
+            System.err.println("Error loading statistics: " + error.getMessage());
+            statsReservations.setText("-");
+            statsUsers.setText("-");
+            statsPending.setText("-");
+        });
+    }
+    
+    private String formatCount(long count) {
+        return count >= 0 ? String.valueOf(count) : "-";
     }
     
     /**
-     * Initializes charts with data.
+     * Initializes chart styling; data is filled in by loadStatistics.
      */
     private void initializeCharts() {
         if (reservationsChart != null && destinationsChart != null) {
-            populateReservationsChart();
-            populateDestinationsChart();
             applyChartStyling();
         }
     }
     
     /**
-     * Populates the reservations line chart with last 7 days data.
+     * Populates the reservations line chart with the last days' counts.
+     * 
+     * @param perDay Number of reservations keyed by day, oldest first
      */
-    private void populateReservationsChart() {
+    private void populateReservationsChart(Map<LocalDate, Long> perDay) {
+        if (reservationsChart == null) {
+            return;
+        }
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
         
-        // Generate last 7 days
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            String dateLabel = date.format(formatter);
-            
-            // Simulate data - in production, query database by date
-            int count = (int) (Math.random() * 10) + 1;
-            series.getData().add(new XYChart.Data<>(dateLabel, count));
+        for (Map.Entry<LocalDate, Long> entry : perDay.entrySet()) {
+            series.getData().add(new XYChart.Data<>(entry.getKey().format(formatter), entry.getValue()));
         }
         
-        reservationsChart.getData().add(series);
+        reservationsChart.getData().setAll(Collections.singletonList(series));
     }
     
     /**
-     * Populates the destinations bar chart with popular destinations.
+     * Populates the destinations bar chart with the most booked destinations.
+     * 
+     * @param destinations Number of reservations keyed by destination, most booked first
      */
-    private void populateDestinationsChart() {
+    private void populateDestinationsChart(Map<String, Long> destinations) {
+        if (destinationsChart == null) {
+            return;
+        }
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         
-        // Popular destinations - in production, query from database
-        series.getData().add(new XYChart.Data<>("Paris", 8));
-        series.getData().add(new XYChart.Data<>("London", 6));
-        series.getData().add(new XYChart.Data<>("New York", 5));
-        series.getData().add(new XYChart.Data<>("Berlin", 4));
-        series.getData().add(new XYChart.Data<>("Tokyo", 3));
+        for (Map.Entry<String, Long> entry : destinations.entrySet()) {
+            series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
+        }
         
-        destinationsChart.getData().add(series);
+        destinationsChart.getData().setAll(Collections.singletonList(series));
     }
     
     /**
@@ -504,4 +519,15 @@ public class DashboardController {
             }
         }
     }
+    
+    /**
+     * Dashboard figures loaded together in one background task.
+     */
+    private static class DashboardData {
+        long reservations;
+        long users;
+        long pending;
+        Map<LocalDate, Long> perDay;
+        Map<String, Long> destinations;
+    }
 }
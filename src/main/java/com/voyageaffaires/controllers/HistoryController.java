@@ -1,18 +1,17 @@
 package com.voyageaffaires.controllers;
 
-import com.voyageaffaires.dao.VolDAO;
-import com.voyageaffaires.dao.HotelDAO;
-import com.voyageaffaires.dao.UtilisateurDAO;
+import com.voyageaffaires.models.Hotel;
 import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.ReservationFilter;
+import com.voyageaffaires.models.ReservationPage;
+import com.voyageaffaires.models.ReservationTotaux;
 import com.voyageaffaires.models.Vol;
-import com.voyageaffaires.models.Hotel;
-import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.services.ReservationService;
 import com.voyageaffaires.utils.AlertUtil;
 import com.voyageaffaires.utils.NavigationUtil;
 import com.voyageaffaires.utils.SessionManager;
-import com.voyageaffaires.utils.ExcelExportUtil;
-import com.voyageaffaires.utils.PdfExportUtil;
+import com.voyageaffaires.utils.TaskRunner;
+import com.voyageaffaires.utils.ExportJobManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -24,12 +23,11 @@ import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Controller for the History screen.
  * Displays historical travel reservations with filtering capabilities.
+ * Filters run in the database and the table is filled page by page.
  */
 public class HistoryController {
     
@@ -52,29 +50,32 @@ public class HistoryController {
     @FXML private Label statsCancelled;
     @FXML private Label statsTotalAmount;
     @FXML private Label lblResultCount;
+    @FXML private Button btnLoadMore;
+    
+    private static final int PAGE_SIZE = 50;
+    private static final String ALL_STATUSES = "Tous les statuts";
     
     private ReservationService reservationService;
-    private VolDAO volDAO;
-    private HotelDAO hotelDAO;
-    private UtilisateurDAO utilisateurDAO;
-    private ObservableList<Reservation> allReservations;
+    private final ObservableList<Reservation> loadedReservations = FXCollections.observableArrayList();
+    private ReservationFilter currentFilter;
+    private ReservationPage.Cursor nextCursor;
     private boolean isAdmin = false;
+    private final TaskRunner.Slot loadTask = new TaskRunner.Slot();
+    private final TaskRunner.Slot countTask = new TaskRunner.Slot();
+    private final TaskRunner.Slot statisticsTask = new TaskRunner.Slot();
     
     @FXML
     public void initialize() {
         reservationService = new ReservationService();
-        volDAO = new VolDAO();
-        hotelDAO = new HotelDAO();
-        utilisateurDAO = new UtilisateurDAO();
         
         // Check if current user is admin
         isAdmin = SessionManager.getInstance().isAdmin();
         
         // Initialize status filter
         filterStatut.setItems(FXCollections.observableArrayList(
-            "Tous les statuts", "EN_ATTENTE", "CONFIRMEE", "ANNULEE"
+            ALL_STATUSES, "EN_ATTENTE", "CONFIRMEE", "ANNULEE"
         ));
-        filterStatut.setValue("Tous les statuts");
+        filterStatut.setValue(ALL_STATUSES);
         
         // Set default date range (last 6 months)
         filterEndDate.setValue(LocalDate.now());
@@ -82,11 +83,10 @@ public class HistoryController {
         
         // Configure table columns
         setupTableColumns();
+        historyTable.setItems(loadedReservations);
         
-        // Load reservations
+        // Load the first page and the statistics
         loadHistory();
-        
-        // Update statistics
         updateStatistics();
     }
     
@@ -133,13 +133,7 @@ public class HistoryController {
                         Reservation reservation = getTableView().getItems().get(getIndex());
                         
                         if (utilisateurNom == null || utilisateurNom.isEmpty()) {
-                            Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-                            if (user != null) {
-                                utilisateurNom = user.getPrenom() + " " + user.getNom();
-                                reservation.setUtilisateurNom(utilisateurNom);
-                            } else {
-                                utilisateurNom = "Utilisateur #" + reservation.getIdUtilisateur();
-                            }
+                            utilisateurNom = "Utilisateur #" + reservation.getIdUtilisateur();
                         }
                         
                         setText(utilisateurNom);
@@ -171,40 +165,30 @@ public class HistoryController {
             }
         });
         
-        // Destination - fetch from Vol
-        colDestination.setCellValueFactory(new PropertyValueFactory<>("idVol"));
+        // Destination - route of the Vol loaded with the reservation
+        colDestination.setCellValueFactory(new PropertyValueFactory<>("volLibelle"));
         colDestination.setCellFactory(column -> new TableCell<Reservation, String>() {
             @Override
-            protected void updateItem(String idVol, boolean empty) {
-                super.updateItem(idVol, empty);
-                if (empty || idVol == null) {
-                    setText("-");
+            protected void updateItem(String volLibelle, boolean empty) {
+                super.updateItem(volLibelle, empty);
+                if (empty) {
+                    setText(null);
                 } else {
-                    Vol vol = volDAO.findById(idVol);
-                    if (vol != null) {
-                        setText(vol.getOrigine() + " → " + vol.getDestination());
-                    } else {
-                        setText("-");
-                    }
+                    setText(volLibelle != null ? volLibelle : "-");
                 }
             }
         });
         
-        // Hotel - fetch from Hotel
-        colHotel.setCellValueFactory(new PropertyValueFactory<>("idHotel"));
+        // Hotel - name of the Hotel loaded with the reservation
+        colHotel.setCellValueFactory(new PropertyValueFactory<>("hotelNom"));
         colHotel.setCellFactory(column -> new TableCell<Reservation, String>() {
             @Override
-            protected void updateItem(String idHotel, boolean empty) {
-                super.updateItem(idHotel, empty);
-                if (empty || idHotel == null) {
-                    setText("-");
+            protected void updateItem(String hotelNom, boolean empty) {
+                super.updateItem(hotelNom, empty);
+                if (empty) {
+                    setText(null);
                 } else {
-                    Hotel hotel = hotelDAO.findById(idHotel);
-                    if (hotel != null) {
-                        setText(hotel.getNom());
-                    } else {
-                        setText("-");
-                    }
+                    setText(hotelNom != null ? hotelNom : "-");
                 }
             }
         });
@@ -292,77 +276,134 @@ public class HistoryController {
     }
     
     /**
-     * Loads reservation history.
+     * Loads the first page of reservations matching the filters, and their
+     * count, in the background.
      */
     private void loadHistory() {
-        if (isAdmin) {
-            // Admin sees all reservations
-            allReservations = FXCollections.observableArrayList(
-                reservationService.getAllReservations()
-            );
-        } else {
-            // Regular users see only their own
-            int userId = SessionManager.getInstance().getCurrentUser().getIdUtilisateur();
-            allReservations = FXCollections.observableArrayList(
-                reservationService.getUserReservations(userId)
-            );
-        }
+        ReservationFilter filter = buildFilter();
+        currentFilter = filter;
+        nextCursor = null;
+        loadedReservations.clear();
+        TaskRunner.setLoading(historyTable, true);
+        btnLoadMore.setVisible(false);
+        btnLoadMore.setManaged(false);
+        lblResultCount.setText("Chargement...");
+        
+        loadTask.run(() -> fetchPage(filter, null),
+            page -> {
+                TaskRunner.setLoading(historyTable, false);
+                showPage(page);
+            },
+            error -> {
+                TaskRunner.setLoading(historyTable, false);
+                countTask.cancel();
+                lblResultCount.setText("");
+                AlertUtil.showError("Erreur", "Chargement échoué",
+                                  "Impossible de charger l'historique.");
+            });
         
-        applyFilters();
+        countTask.run(() -> reservationService.countReservations(filter),
+            count -> lblResultCount.setText(count < 0 ? ""
+                    : count + " résultat" + (count > 1 ? "s" : "")),
+            error -> lblResultCount.setText(""));
     }
     
     /**
-     * Applies current filters to reservation list.
+     * Appends the next page of reservations to the table.
      */
-    private void applyFilters() {
-        LocalDate startDate = filterStartDate.getValue();
-        LocalDate endDate = filterEndDate.getValue();
-        String statut = filterStatut.getValue();
-        
-        List<Reservation> filtered = allReservations.stream()
-            .filter(r -> {
-                // Date filter
-                if (startDate != null && r.getDateCreation().isBefore(startDate)) {
-                    return false;
-                }
-                if (endDate != null && r.getDateCreation().isAfter(endDate)) {
-                    return false;
-                }
-                
-                // Status filter
-                if (statut != null && !statut.equals("Tous les statuts") && !statut.equals(r.getStatut())) {
-                    return false;
-                }
-                
-                return true;
-            })
-            .collect(Collectors.toList());
+    @FXML
+    private void handleLoadMore() {
+        if (nextCursor == null) {
+            return;
+        }
+        ReservationFilter filter = currentFilter;
+        ReservationPage.Cursor after = nextCursor;
+        btnLoadMore.setDisable(true);
+        
+        loadTask.run(() -> fetchPage(filter, after),
+            this::showPage,
+            error -> {
+                btnLoadMore.setDisable(false);
+                AlertUtil.showError("Erreur", "Chargement échoué",
+                                  "Impossible de charger la suite de l'historique.");
+            });
+    }
+    
+    private ReservationPage fetchPage(ReservationFilter filter, ReservationPage.Cursor after) {
+        ReservationPage page = reservationService.getReservationsPage(filter, after, PAGE_SIZE);
+        if (page == null) {
+            throw new IllegalStateException("Reservation page unavailable");
+        }
+        return page;
+    }
+    
+    private void showPage(ReservationPage page) {
+        loadedReservations.addAll(page.getReservations());
+        nextCursor = page.getNextCursor();
+        btnLoadMore.setVisible(page.hasNext());
+        btnLoadMore.setManaged(page.hasNext());
+        btnLoadMore.setDisable(false);
+    }
+    
+    /**
+     * Builds the database filter from the filter fields. Regular users
+     * only see their own reservations.
+     */
+    private ReservationFilter buildFilter() {
+        ReservationFilter filter = scopeFilter();
+        filter.setDateDebut(filterStartDate.getValue());
+        filter.setDateFin(filterEndDate.getValue());
         
-        historyTable.setItems(FXCollections.observableArrayList(filtered));
-        lblResultCount.setText(filtered.size() + " résultat" + (filtered.size() > 1 ? "s" : ""));
+        String statut = filterStatut.getValue();
+        if (statut != null && !statut.equals(ALL_STATUSES)) {
+            filter.setStatut(statut);
+        }
+        return filter;
+    }
+    
+    private ReservationFilter scopeFilter() {
+        return isAdmin
+                ? new ReservationFilter()
+                : ReservationFilter.forUser(SessionManager.getInstance().getCurrentUser().getIdUtilisateur());
     }
     
     /**
-     * Updates statistics cards.
+     * Updates statistics cards over all visible reservations, whatever the
+     * filters. The figures are computed by the database.
      */
     private void updateStatistics() {
-        if (allReservations == null) return;
-        
-        statsTotal.setText(String.valueOf(allReservations.size()));
-        
-        long completed = allReservations.stream()
-            .filter(r -> "CONFIRMEE".equals(r.getStatut())).count();
-        statsCompleted.setText(String.valueOf(completed));
-        
-        long cancelled = allReservations.stream()
-            .filter(r -> "ANNULEE".equals(r.getStatut())).count();
-        statsCancelled.setText(String.valueOf(cancelled));
-        
-        double totalAmount = allReservations.stream()
-            .filter(r -> !"ANNULEE".equals(r.getStatut()))
-            .mapToDouble(Reservation::getMontantTotal)
-            .sum();
-        statsTotalAmount.setText(String.format("%.0f €", totalAmount));
+        ReservationFilter all = scopeFilter();
+        ReservationFilter confirmed = scopeFilter();
+        confirmed.setStatut("CONFIRMEE");
+        ReservationFilter cancelled = scopeFilter();
+        cancelled.setStatut("ANNULEE");
+        
+        statisticsTask.run(() -> new ReservationTotaux[] {
+                totals(all), totals(confirmed), totals(cancelled)
+            },
+            totals -> {
+                statsTotal.setText(String.valueOf(totals[0].getNombre()));
+                statsCompleted.setText(String.valueOf(totals[1].getNombre()));
+                statsCancelled.setText(String.valueOf(totals[2].getNombre()));
+                // Total amount EXCLUDING cancelled reservations
+                double totalAmount = totals[0].getMontantTotal() - totals[2].getMontantTotal();
+                statsTotalAmount.setText(String.format("%.0f €", totalAmount));
+            },
+            error -> {
+                System.err.println("Error loading history statistics: " + error.getMessage());
+                statsTotal.setText("-");
+                statsCompleted.setText("-");
+                statsCancelled.setText("-");
+                statsTotalAmount.setText("-");
+            });
+    }
+    
+    private ReservationTotaux totals(ReservationFilter filter) {
+        ReservationTotaux totals = reservationService.getReservationTotals(filter);
+        if (totals == null) {
+            throw new IllegalStateException("Reservation totals unavailable");
+        }
+        return totals;
     }
     
     /**
@@ -370,7 +411,7 @@ public class HistoryController {
      */
     @FXML
     private void handleFilter() {
-        applyFilters();
+        loadHistory();
     }
     
     /**
@@ -380,8 +421,8 @@ public class HistoryController {
     private void handleReset() {
         filterStartDate.setValue(LocalDate.now().minusMonths(6));
         filterEndDate.setValue(LocalDate.now());
-        filterStatut.setValue("Tous les statuts");
-        applyFilters();
+        filterStatut.setValue(ALL_STATUSES);
+        loadHistory();
     }
     
     /**
@@ -389,10 +430,10 @@ public class HistoryController {
      */
     @FXML
     private void handleExport() {
-        // Get current filtered data
-        List<Reservation> dataToExport = historyTable.getItems().stream().collect(Collectors.toList());
+        // Export every reservation matching the filters, not only the loaded pages
+        ReservationFilter filter = currentFilter;
         
-        if (dataToExport.isEmpty()) {
+        if (filter == null || loadedReservations.isEmpty()) {
             AlertUtil.showWarning("Aucune donnée", "Pas de données à exporter", 
                                 "Il n'y a aucune réservation à exporter.");
             return;
@@ -414,32 +455,19 @@ public class HistoryController {
         java.io.File file = fileChooser.showSaveDialog(stage);
         
         if (file != null) {
-            String filePath = file.getAbsolutePath();
-            boolean success = false;
-            String format = "";
-            
-            // Determine format from file extension
-            if (filePath.toLowerCase().endsWith(".xlsx")) {
-                format = "Excel";
-                success = ExcelExportUtil.exportToExcel(dataToExport, filePath, isAdmin);
-            } else if (filePath.toLowerCase().endsWith(".pdf")) {
-                format = "PDF";
-                success = PdfExportUtil.exportToPdf(dataToExport, filePath, isAdmin);
-            } else {
+            ExportJobManager.Format format = ExportJobManager.Format.fromFile(file);
+            if (format == null) {
                 AlertUtil.showError("Format invalide", "Extension non supportée", 
                                   "Veuillez choisir .xlsx ou .pdf");
                 return;
             }
             
-            if (success) {
-                AlertUtil.showSuccess("Export réussi", 
-                                    "L'historique a été exporté avec succès en format " + format + ".\n\n" +
-                                    dataToExport.size() + " réservation(s) exportée(s).\n" +
-                                    "Fichier: " + file.getName());
-            } else {
-                AlertUtil.showError("Erreur d'export", "L'export a échoué", 
-                                  "Une erreur s'est produite lors de l'export. Veuillez réessayer.");
-            }
+            // Export runs in the background with a progress window
+            ExportJobManager.getInstance().start(stage, new ExportJobManager.ExportJob(
+                format, file, isAdmin,
+                () -> reservationService.countReservations(filter),
+                () -> reservationService.streamReservations(filter)
+            ));
         }
     }
     
@@ -452,12 +480,7 @@ public class HistoryController {
         // Get user information
         String userName = reservation.getUtilisateurNom();
         if (userName == null || userName.isEmpty()) {
-            Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-            if (user != null) {
-                userName = user.getPrenom() + " " + user.getNom();
-            } else {
-                userName = "Utilisateur #" + reservation.getIdUtilisateur();
-            }
+            userName = "Utilisateur #" + reservation.getIdUtilisateur();
         }
         
         details.append("Réservé par: ").append(userName).append("\n");
@@ -467,7 +490,7 @@ public class HistoryController {
         details.append("Montant: ").append(String.format("%.2f €", reservation.getMontantTotal())).append("\n\n");
         
         if (reservation.getIdVol() != null) {
-            Vol vol = volDAO.findById(reservation.getIdVol());
+            Vol vol = reservation.getVol();
             if (vol != null) {
                 details.append("Vol: ").append(vol.getOrigine()).append(" → ").append(vol.getDestination()).append("\n");
                 details.append("Compagnie: ").append(vol.getCompagnie()).append("\n");
@@ -475,7 +498,7 @@ public class HistoryController {
         }
         
         if (reservation.getIdHotel() != null) {
-            Hotel hotel = hotelDAO.findById(reservation.getIdHotel());
+            Hotel hotel = reservation.getHotel();
             if (hotel != null) {
                 details.append("\nHôtel: ").append(hotel.getNom()).append("\n");
                 details.append("Ville: ").append(hotel.getVille()).append("\n");
@@ -503,6 +526,7 @@ public class HistoryController {
      */
     @FXML
     private void goBack() {
+        loadTask.cancel();
         try {
             Stage stage = (Stage) historyTable.getScene().getWindow();
             NavigationUtil.navigateTo(stage, "/fxml/DashboardView.fxml", "Dashboard", 1280, 800);
@@ -4,6 +4,7 @@ import com.voyageaffaires.services.AuthService;
 import com.voyageaffaires.utils.AlertUtil;
 import com.voyageaffaires.utils.DatabaseConnection;
 import com.voyageaffaires.utils.NavigationUtil;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -57,15 +58,42 @@ public class LoginController {
             return;
         }
         
-        // Attempt login
-        boolean success = authService.login(email, password);
-        
-        if (success) {
-            System.out.println("Login successful for: " + email);
-            navigateToDashboard();
-        } else {
-            showError("Email ou mot de passe incorrect.");
-        }
+        // Attempt login off the FX thread: the password check is CPU-bound
+        setBusy(true);
+        TaskRunner.getInstance().run(
+            () -> authService.login(email, password),
+            result -> {
+                setBusy(false);
+                switch (result) {
+                    case SUCCESS:
+                        System.out.println("Login successful for: " + email);
+                        navigateToDashboard();
+                        break;
+                    case LOCKED:
+                        showError("Trop de tentatives échouées. Réessayez dans quelques minutes.");
+                        break;
+                    case BUSY:
+                        showError("Trop de connexions en cours, veuillez réessayer.");
+                        break;
+                    default:
+                        showError("Email ou mot de passe incorrect.");
+                }
+            },
+            error -> {
+                setBusy(false);
+                showError("Erreur lors de la connexion, veuillez réessayer.");
+            });
+    }
+    
+    /**
+     * Disables the form while a login attempt is running.
+     * 
+     * @param busy true while the attempt is running
+     */
+    private void setBusy(boolean busy) {
+        loginButton.setDisable(busy);
+        emailField.setDisable(busy);
+        passwordField.setDisable(busy);
     }
     
     /**
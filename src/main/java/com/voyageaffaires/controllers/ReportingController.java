@@ -1,12 +1,18 @@
 package com.voyageaffaires.controllers;
 
+import com.voyageaffaires.models.ReservationFilter;
+import com.voyageaffaires.models.ReservationTotaux;
 import com.voyageaffaires.services.ReservationService;
 import com.voyageaffaires.utils.AlertUtil;
+import com.voyageaffaires.utils.ExportJobManager;
 import com.voyageaffaires.utils.NavigationUtil;
 import com.voyageaffaires.utils.SessionManager;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import java.io.File;
 import java.time.LocalDate;
 
 public class ReportingController {
@@ -17,6 +23,7 @@ public class ReportingController {
     @FXML private Label statsCost;
     
     private ReservationService reservationService;
+    private final TaskRunner.Slot statisticsTask = new TaskRunner.Slot();
     
     @FXML
     public void initialize() {
@@ -26,43 +33,103 @@ public class ReportingController {
         endDatePicker.setValue(LocalDate.now());
         startDatePicker.setValue(LocalDate.now().minusDays(30));
         
+        // Refresh figures when the period changes
+        startDatePicker.valueProperty().addListener((obs, oldValue, newValue) -> loadStatistics());
+        endDatePicker.valueProperty().addListener((obs, oldValue, newValue) -> loadStatistics());
+        
         loadStatistics();
     }
     
     private void loadStatistics() {
-        try {
-            LocalDate start = startDatePicker.getValue();
-            LocalDate end = endDatePicker.getValue();
+        LocalDate start = startDatePicker.getValue();
+        LocalDate end = endDatePicker.getValue();
+        
+        if (start != null && end != null) {
+            ReservationFilter filter = periodFilter(start, end);
+            statsTotal.setText("...");
+            statsCost.setText("...");
             
-            if (start != null && end != null) {
-                var reservations = reservationService.getReservationsByDateRange(start, end);
-                
-                statsTotal.setText(String.valueOf(reservations.size()));
-                
-                double totalCost = reservations.stream()
-                    .mapToDouble(r -> r.getMontantTotal())
-                    .sum();
-                statsCost.setText(String.format("%.2f €", totalCost));
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading statistics: " + e.getMessage());
+            // Totals are computed by the database in one aggregate query
+            statisticsTask.run(() -> {
+                ReservationTotaux totals = reservationService.getReservationTotals(filter);
+                if (totals == null) {
+                    throw new IllegalStateException("Reservation totals unavailable");
+                }
+                return totals;
+            }, totals -> {
+                statsTotal.setText(String.valueOf(totals.getNombre()));
+                statsCost.setText(String.format("%.2f €", totals.getMontantTotal()));
+            }, error -> {
+                System.err.println("Error loading statistics: " + error.getMessage());
+                statsTotal.setText("-");
+                statsCost.setText("-");
+            });
         }
     }
     
     @FXML
     private void exportPDF() {
-        AlertUtil.showInfo("Export PDF", "Fonctionnalité en développement", 
-                          "L'export PDF sera disponible prochainement.");
+        exportReport(ExportJobManager.Format.PDF, ".pdf");
     }
     
     @FXML
     private void exportExcel() {
-        AlertUtil.showInfo("Export Excel", "Fonctionnalité en développement", 
-                          "L'export Excel sera disponible prochainement.");
+        exportReport(ExportJobManager.Format.EXCEL, ".xlsx");
+    }
+    
+    /**
+     * Exports the reservations of the selected period in the background.
+     * Rows are streamed from the database straight into the file.
+     */
+    private void exportReport(ExportJobManager.Format format, String extension) {
+        LocalDate start = startDatePicker.getValue();
+        LocalDate end = endDatePicker.getValue();
+        
+        if (start == null || end == null || end.isBefore(start)) {
+            AlertUtil.showWarning("Période invalide", "Dates manquantes ou incorrectes", 
+                                "Veuillez choisir une date de début et une date de fin valides.");
+            return;
+        }
+        
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Exporter le rapport");
+        fileChooser.setInitialFileName("rapport_voyages_" + start + "_" + end + extension);
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter(format.getLabel() + " (*" + extension + ")", "*" + extension)
+        );
+        
+        Stage stage = (Stage) startDatePicker.getScene().getWindow();
+        File file = fileChooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        
+        ReservationFilter filter = periodFilter(start, end);
+        boolean includeUserColumn = SessionManager.getInstance().isAdmin();
+        ExportJobManager.getInstance().start(stage, new ExportJobManager.ExportJob(
+            format, file, includeUserColumn,
+            () -> reservationService.countReservations(filter),
+            () -> reservationService.streamReservations(filter)
+        ));
+    }
+    
+    /**
+     * Builds the filter of the selected period. Administrators see every
+     * reservation; other users only their own, as in the history screen.
+     */
+    private ReservationFilter periodFilter(LocalDate start, LocalDate end) {
+        SessionManager session = SessionManager.getInstance();
+        ReservationFilter filter = session.isAdmin()
+                ? new ReservationFilter()
+                : ReservationFilter.forUser(session.getCurrentUser().getIdUtilisateur());
+        filter.setDateDebut(start);
+        filter.setDateFin(end);
+        return filter;
     }
     
     @FXML
     private void goBack() {
+        statisticsTask.cancel();
         try {
             Stage stage = (Stage) startDatePicker.getScene().getWindow();
             NavigationUtil.navigateTo(stage, "/fxml/DashboardView.fxml", "Dashboard", 1280, 800);
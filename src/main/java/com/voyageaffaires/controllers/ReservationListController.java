@@ -1,16 +1,11 @@
 package com.voyageaffaires.controllers;
 
-import com.voyageaffaires.dao.VolDAO;
-import com.voyageaffaires.dao.HotelDAO;
-import com.voyageaffaires.dao.UtilisateurDAO;
 import com.voyageaffaires.models.Reservation;
-import com.voyageaffaires.models.Vol;
-import com.voyageaffaires.models.Hotel;
-import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.services.ReservationService;
 import com.voyageaffaires.utils.AlertUtil;
 import com.voyageaffaires.utils.NavigationUtil;
 import com.voyageaffaires.utils.SessionManager;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -54,19 +49,14 @@ public class ReservationListController {
     @FXML private Button btnNewReservation;
     
     private ReservationService reservationService;
-    private VolDAO volDAO;
-    private HotelDAO hotelDAO;
-    private UtilisateurDAO utilisateurDAO;
     private ObservableList<Reservation> allReservations;
     private String currentFilter = "ALL";
     private boolean isAdmin = false;
+    private final TaskRunner.Slot loadTask = new TaskRunner.Slot();
     
     @FXML
     public void initialize() {
         reservationService = new ReservationService();
-        volDAO = new VolDAO();
-        hotelDAO = new HotelDAO();
-        utilisateurDAO = new UtilisateurDAO();
         
         // Check if current user is admin
         isAdmin = SessionManager.getInstance().isAdmin();
@@ -110,7 +100,7 @@ public class ReservationListController {
         // Utilisateur column
         colUtilisateur.setCellValueFactory(new PropertyValueFactory<>("utilisateurNom"));
         
-        // Custom cell factory for Utilisateur - fetch and display user name
+        // Custom cell factory for Utilisateur - name is loaded with the reservation
         colUtilisateur.setCellFactory(column -> new TableCell<Reservation, String>() {
             @Override
             protected void updateItem(String utilisateurNom, boolean empty) {
@@ -121,15 +111,8 @@ public class ReservationListController {
                 } else {
                     Reservation reservation = getTableView().getItems().get(getIndex());
                     
-                    // Fetch user if not already loaded
                     if (utilisateurNom == null || utilisateurNom.isEmpty()) {
-                        Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-                        if (user != null) {
-                            utilisateurNom = user.getPrenom() + " " + user.getNom();
-                            reservation.setUtilisateurNom(utilisateurNom);
-                        } else {
-                            utilisateurNom = "Utilisateur #" + reservation.getIdUtilisateur();
-                        }
+                        utilisateurNom = "Utilisateur #" + reservation.getIdUtilisateur();
                     }
                     
                     setText(utilisateurNom);
@@ -167,23 +150,21 @@ public class ReservationListController {
             }
         });
         
-        colVol.setCellValueFactory(new PropertyValueFactory<>("idVol"));
-        colHotel.setCellValueFactory(new PropertyValueFactory<>("idHotel"));
+        // Vol and Hotel display names are resolved when the reservations are
+        // loaded, so rendering a cell never queries the database
+        colVol.setCellValueFactory(new PropertyValueFactory<>("volLibelle"));
+        colHotel.setCellValueFactory(new PropertyValueFactory<>("hotelLibelle"));
         
-        // Custom cell factory for Vol - display name instead of ID
+        // Custom cell factory for Vol - display route instead of ID
         colVol.setCellFactory(column -> new TableCell<Reservation, String>() {
             @Override
-            protected void updateItem(String idVol, boolean empty) {
-                super.updateItem(idVol, empty);
-                if (empty || idVol == null) {
+            protected void updateItem(String volLibelle, boolean empty) {
+                super.updateItem(volLibelle, empty);
+                if (empty) {
                     setText(null);
                 } else {
-                    Vol vol = volDAO.findById(idVol);
-                    if (vol != null) {
-                        setText(vol.getOrigine() + " → " + vol.getDestination());
-                    } else {
-                        setText(idVol);
-                    }
+                    Reservation reservation = getTableView().getItems().get(getIndex());
+                    setText(volLibelle != null ? volLibelle : reservation.getIdVol());
                 }
             }
         });
@@ -191,16 +172,16 @@ public class ReservationListController {
         // Custom cell factory for Hotel - display name instead of ID
         colHotel.setCellFactory(column -> new TableCell<Reservation, String>() {
             @Override
-            protected void updateItem(String idHotel, boolean empty) {
-                super.updateItem(idHotel, empty);
-                if (empty || idHotel == null) {
-                    setText("-");
+            protected void updateItem(String hotelLibelle, boolean empty) {
+                super.updateItem(hotelLibelle, empty);
+                if (empty) {
+                    setText(null);
                 } else {
-                    Hotel hotel = hotelDAO.findById(idHotel);
-                    if (hotel != null) {
-                        setText(hotel.getNom() + " (" + hotel.getVille() + ")");
+                    Reservation reservation = getTableView().getItems().get(getIndex());
+                    if (hotelLibelle != null) {
+                        setText(hotelLibelle);
                     } else {
-                        setText(idHotel);
+                        setText(reservation.getIdHotel() != null ? reservation.getIdHotel() : "-");
                     }
                 }
             }
@@ -228,11 +209,8 @@ public class ReservationListController {
         // Add action buttons
         addActionButtons();
         
-        // Load reservations
+        // Load reservations (statistics are updated once loaded)
         loadReservations();
-        
-        // Update statistics
-        updateStatistics();
     }
     
     private String getStatusStyle(String statut) {
@@ -324,22 +302,30 @@ public class ReservationListController {
     }
     
     private void loadReservations() {
-        if (isAdmin) {
-            // Admin sees ALL reservations
-            allReservations = FXCollections.observableArrayList(
-                reservationService.getAllReservations()
-            );
-        } else {
-            // Regular users see only their own reservations
-            int userId = SessionManager.getInstance().getCurrentUser().getIdUtilisateur();
-            allReservations = FXCollections.observableArrayList(
-                reservationService.getUserReservations(userId)
-            );
-        }
-        applyFilter();
+        int userId = SessionManager.getInstance().getCurrentUser().getIdUtilisateur();
+        TaskRunner.setLoading(reservationsTable, true);
+        
+        loadTask.run(() -> isAdmin
+                // Admin sees ALL reservations
+                ? reservationService.getAllReservations()
+                // Regular users see only their own reservations
+                : reservationService.getUserReservations(userId),
+            reservations -> {
+                TaskRunner.setLoading(reservationsTable, false);
+                allReservations = FXCollections.observableArrayList(reservations);
+                applyFilter();
+                updateStatistics();
+            },
+            error -> {
+                TaskRunner.setLoading(reservationsTable, false);
+                AlertUtil.showError("Erreur", "Chargement échoué",
+                                  "Impossible de charger les réservations.");
+            });
     }
     
     private void applyFilter() {
+        if (allReservations == null) return;
+        
         List<Reservation> filtered;
         
         switch (currentFilter) {
@@ -432,24 +418,17 @@ public class ReservationListController {
     @FXML
     private void handleSearch() {
         String keyword = searchField.getText().trim();
+        if (allReservations == null) {
+            return;
+        }
         if (keyword.isEmpty()) {
             applyFilter();
         } else {
             List<Reservation> filtered = allReservations.stream()
-                .filter(r -> {
-                    // Ensure user name is loaded
-                    if (r.getUtilisateurNom() == null || r.getUtilisateurNom().isEmpty()) {
-                        Utilisateur user = utilisateurDAO.findById(r.getIdUtilisateur());
-                        if (user != null) {
-                            r.setUtilisateurNom(user.getPrenom() + " " + user.getNom());
-                        }
-                    }
-                    
-                    return r.getIdReservation().toLowerCase().contains(keyword.toLowerCase()) ||
+                .filter(r -> r.getIdReservation().toLowerCase().contains(keyword.toLowerCase()) ||
                            (r.getIdVol() != null && r.getIdVol().toLowerCase().contains(keyword.toLowerCase())) ||
                            (r.getIdHotel() != null && r.getIdHotel().toLowerCase().contains(keyword.toLowerCase())) ||
-                           (r.getUtilisateurNom() != null && r.getUtilisateurNom().toLowerCase().contains(keyword.toLowerCase()));
-                })
+                           (r.getUtilisateurNom() != null && r.getUtilisateurNom().toLowerCase().contains(keyword.toLowerCase())))
                 .collect(Collectors.toList());
             reservationsTable.setItems(FXCollections.observableArrayList(filtered));
         }
@@ -480,7 +459,6 @@ public class ReservationListController {
             
             // Reload after dialog closes
             loadReservations();
-            updateStatistics();
             
         } catch (Exception e) {
             System.err.println("Error opening reservation form: " + e.getMessage());
@@ -494,12 +472,7 @@ public class ReservationListController {
         // Get user information
         String userName = reservation.getUtilisateurNom();
         if (userName == null || userName.isEmpty()) {
-            Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-            if (user != null) {
-                userName = user.getPrenom() + " " + user.getNom();
-            } else {
-                userName = "Utilisateur #" + reservation.getIdUtilisateur();
-            }
+            userName = "Utilisateur #" + reservation.getIdUtilisateur();
         }
         
         details.append("Réservé par: ").append(userName).append("\n");
@@ -555,15 +528,16 @@ public class ReservationListController {
         if (confirmed) {
             // Update reservation status to CONFIRMEE
             reservation.setStatut("CONFIRMEE");
-            boolean success = reservationService.updateReservation(reservation);
-            if (success) {
-                AlertUtil.showSuccess("Succès", "La réservation a été confirmée avec succès.");
-                loadReservations();
-                updateStatistics();
-            } else {
-                AlertUtil.showError("Erreur", "Confirmation échouée", 
-                                  "Impossible de confirmer la réservation.");
-            }
+            TaskRunner.getInstance().run(() -> reservationService.updateReservation(reservation), success -> {
+                if (success) {
+                    AlertUtil.showSuccess("Succès", "La réservation a été confirmée avec succès.");
+                    loadReservations();
+                } else {
+                    AlertUtil.showError("Erreur", "Confirmation échouée", 
+                                      "Impossible de confirmer la réservation.");
+                }
+            }, error -> AlertUtil.showError("Erreur", "Confirmation échouée", 
+                                          "Impossible de confirmer la réservation."));
         }
     }
     
@@ -582,20 +556,23 @@ public class ReservationListController {
         );
         
         if (confirmed) {
-            boolean success = reservationService.cancelReservation(reservation.getIdReservation());
-            if (success) {
-                AlertUtil.showSuccess("Succès", "La réservation a été annulée avec succès.");
-                loadReservations();
-                updateStatistics();
-            } else {
-                AlertUtil.showError("Erreur", "Annulation échouée", 
-                                  "Impossible d'annuler la réservation.");
-            }
+            String idReservation = reservation.getIdReservation();
+            TaskRunner.getInstance().run(() -> reservationService.cancelReservation(idReservation), success -> {
+                if (success) {
+                    AlertUtil.showSuccess("Succès", "La réservation a été annulée avec succès.");
+                    loadReservations();
+                } else {
+                    AlertUtil.showError("Erreur", "Annulation échouée", 
+                                      "Impossible d'annuler la réservation.");
+                }
+            }, error -> AlertUtil.showError("Erreur", "Annulation échouée", 
+                                          "Impossible d'annuler la réservation."));
         }
     }
     
     @FXML
     private void goBack() {
+        loadTask.cancel();
         try {
             Stage stage = (Stage) reservationsTable.getScene().getWindow();
             NavigationUtil.navigateTo(stage, "/fxml/DashboardView.fxml", "Dashboard", 1280, 800);
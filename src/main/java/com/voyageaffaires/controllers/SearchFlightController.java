@@ -1,15 +1,22 @@
 package com.voyageaffaires.controllers;
 
+import com.voyageaffaires.models.Itineraire;
 import com.voyageaffaires.models.Vol;
+import com.voyageaffaires.services.CatalogService;
 import com.voyageaffaires.services.ReservationService;
 import com.voyageaffaires.utils.AlertUtil;
+import com.voyageaffaires.utils.AutoCompleteUtil;
 import com.voyageaffaires.utils.NavigationUtil;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
 public class SearchFlightController {
     
     @FXML private TextField origineField;
@@ -24,7 +31,11 @@ public class SearchFlightController {
     @FXML private TableColumn<Vol, Double> colPrix;
     @FXML private TableColumn<Vol, Void> colActions;
     
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int MAX_ITINERAIRES = 3;
+    
     private ReservationService reservationService;
+    private final TaskRunner.Slot searchTask = new TaskRunner.Slot();
     
     @FXML
     public void initialize() {
@@ -37,6 +48,13 @@ public class SearchFlightController {
         colArrivee.setCellValueFactory(new PropertyValueFactory<>("dateArrivee"));
         colPrix.setCellValueFactory(new PropertyValueFactory<>("prix"));
         
+        // Type-ahead suggestions from the in-memory catalog
+        CatalogService catalog = CatalogService.getInstance();
+        AutoCompleteUtil.attach(origineField,
+                text -> catalog.suggestOrigines(text, AutoCompleteUtil.MAX_ITEMS), null);
+        AutoCompleteUtil.attach(destinationField,
+                text -> catalog.suggestDestinations(text, AutoCompleteUtil.MAX_ITEMS), null);
+        
         handleSearch(); // Load all flights initially
     }
     
@@ -55,13 +73,50 @@ public class SearchFlightController {
             return;
         }
         
-        flightsTable.setItems(FXCollections.observableArrayList(
-            reservationService.searchFlights(origine, destination, maxPrix)
-        ));
+        // A new search supersedes any search still running
+        Double prixMax = maxPrix;
+        TaskRunner.setLoading(flightsTable, true);
+        searchTask.run(() -> reservationService.searchFlights(origine, destination, prixMax), vols -> {
+            TaskRunner.setLoading(flightsTable, false);
+            flightsTable.setItems(FXCollections.observableArrayList(vols));
+            if (vols.isEmpty() && !origine.trim().isEmpty() && !destination.trim().isEmpty()) {
+                searchConnections(origine, destination, prixMax);
+            }
+        }, error -> {
+            TaskRunner.setLoading(flightsTable, false);
+            AlertUtil.showError("Erreur", "Recherche échouée", "Impossible de rechercher les vols.");
+        });
+    }
+    
+    /**
+     * Looks for itineraries with connections when no direct flight matches.
+     */
+    private void searchConnections(String origine, String destination, Double maxPrix) {
+        searchTask.run(() -> reservationService.searchItineraries(origine, destination, maxPrix, MAX_ITINERAIRES),
+                this::showConnections,
+                error -> System.err.println("Error searching itineraries: " + error.getMessage()));
+    }
+    
+    private void showConnections(List<Itineraire> itineraires) {
+        if (itineraires.isEmpty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (Itineraire itineraire : itineraires) {
+            content.append(itineraire.getEtapes())
+                   .append("\n  Départ : ").append(itineraire.getDateDepart().format(DATE_FORMAT))
+                   .append(" - Arrivée : ").append(itineraire.getDateArrivee().format(DATE_FORMAT))
+                   .append("\n  ").append(itineraire.getNombreEscales()).append(" escale(s) - ")
+                   .append(String.format("%.2f €", itineraire.getPrixTotal()))
+                   .append("\n\n");
+        }
+        AlertUtil.showInfo("Vols avec escale", "Aucun vol direct trouvé, voici des itinéraires avec escale",
+                           content.toString().trim());
     }
     
     @FXML
     private void goBack() {
+        searchTask.cancel();
         try {
             Stage stage = (Stage) flightsTable.getScene().getWindow();
             NavigationUtil.navigateTo(stage, "/fxml/DashboardView.fxml", "Dashboard", 1280, 800);
@@ -1,9 +1,12 @@
 package com.voyageaffaires.controllers;
 
 import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.services.CatalogService;
 import com.voyageaffaires.services.ReservationService;
 import com.voyageaffaires.utils.AlertUtil;
+import com.voyageaffaires.utils.AutoCompleteUtil;
 import com.voyageaffaires.utils.NavigationUtil;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -24,6 +27,7 @@ public class SearchHotelController {
     @FXML private TableColumn<Hotel, Void> colActions;
     
     private ReservationService reservationService;
+    private final TaskRunner.Slot searchTask = new TaskRunner.Slot();
     
     @FXML
     public void initialize() {
@@ -35,6 +39,10 @@ public class SearchHotelController {
         colEtoiles.setCellValueFactory(new PropertyValueFactory<>("etoiles"));
         colPrix.setCellValueFactory(new PropertyValueFactory<>("prixParNuit"));
         
+        // Type-ahead suggestions from the in-memory catalog
+        AutoCompleteUtil.attach(villeField,
+                text -> CatalogService.getInstance().suggestVilles(text, AutoCompleteUtil.MAX_ITEMS), null);
+        
         // Custom cell factory for stars - display golden ★ icons instead of numbers
         colEtoiles.setCellFactory(column -> new TableCell<Hotel, Integer>() {
             @Override
@@ -80,13 +88,22 @@ public class SearchHotelController {
             return;
         }
         
-        hotelsTable.setItems(FXCollections.observableArrayList(
-            reservationService.searchHotels(ville, minEtoiles, maxPrix)
-        ));
+        // A new search supersedes any search still running
+        Integer etoilesMin = minEtoiles;
+        Double prixMax = maxPrix;
+        TaskRunner.setLoading(hotelsTable, true);
+        searchTask.run(() -> reservationService.searchHotels(ville, etoilesMin, prixMax), hotels -> {
+            TaskRunner.setLoading(hotelsTable, false);
+            hotelsTable.setItems(FXCollections.observableArrayList(hotels));
+        }, error -> {
+            TaskRunner.setLoading(hotelsTable, false);
+            AlertUtil.showError("Erreur", "Recherche échouée", "Impossible de rechercher les hôtels.");
+        });
     }
     
     @FXML
     private void goBack() {
+        searchTask.cancel();
         try {
             Stage stage = (Stage) hotelsTable.getScene().getWindow();
             NavigationUtil.navigateTo(stage, "/fxml/DashboardView.fxml", "Dashboard", 1280, 800);
@@ -4,6 +4,7 @@ import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.services.UserService;
 import com.voyageaffaires.utils.AlertUtil;
 import com.voyageaffaires.utils.NavigationUtil;
+import com.voyageaffaires.utils.TaskRunner;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,6 +17,9 @@ import javafx.scene.layout.HBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+
 /**
  * Controller for User Management screen.
  */
@@ -53,6 +57,7 @@ public class UserManagementController {
     
     private UserService userService;
     private ObservableList<Utilisateur> usersList;
+    private final TaskRunner.Slot loadTask = new TaskRunner.Slot();
     
     @FXML
     public void initialize() {
@@ -75,14 +80,25 @@ public class UserManagementController {
     }
     
     private void loadUsers() {
-        try {
-            usersList = FXCollections.observableArrayList(userService.getAllUsers());
+        showUsers(userService::getAllUsers);
+    }
+    
+    /**
+     * Fills the users table from a background query, cancelling any
+     * query still running.
+     */
+    private void showUsers(Callable<List<Utilisateur>> query) {
+        TaskRunner.setLoading(usersTable, true);
+        loadTask.run(query, users -> {
+            TaskRunner.setLoading(usersTable, false);
+            usersList = FXCollections.observableArrayList(users);
             usersTable.setItems(usersList);
-        } catch (Exception e) {
+        }, error -> {
+            TaskRunner.setLoading(usersTable, false);
             AlertUtil.showError("Erreur", "Chargement des utilisateurs", 
                               "Impossible de charger la liste des utilisateurs.");
-            System.err.println("Error loading users: " + e.getMessage());
-        }
+            System.err.println("Error loading users: " + error.getMessage());
+        });
     }
     
     private void addActionButtons() {
@@ -146,8 +162,7 @@ public class UserManagementController {
         if (keyword.isEmpty()) {
             loadUsers();
         } else {
-            usersList = FXCollections.observableArrayList(userService.searchUsers(keyword));
-            usersTable.setItems(usersList);
+            showUsers(() -> userService.searchUsers(keyword));
         }
     }
     
@@ -0,0 +1,235 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.models.EmailOutbox;
+import com.voyageaffaires.utils.DatabaseConnection;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for the email_outbox table.
+ * Messages are queued inside the caller's transaction (see ReservationDAO)
+ * and claimed by the email dispatcher with SELECT ... FOR UPDATE SKIP LOCKED,
+ * so several application instances can drain the same outbox without
+ * sending a message twice.
+ */
+public class EmailOutboxDAO {
+
+    /** Maximum length stored for the last delivery error. */
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ENQUEUE_QUERY =
+            "INSERT IGNORE INTO email_outbox (cle_idempotence, type, id_reservation, statut, " +
+            "tentatives, prochaine_tentative, date_creation) VALUES (?, ?, ?, ?, 0, NOW(), NOW())";
+
+    /**
+     * Queues a notification using the caller's connection, so it commits or
+     * rolls back together with the reservation change. A notification with the
+     * same idempotency key is queued only once.
+     *
+     * @param connection Connection of the caller's transaction
+     * @param message Notification to queue
+     * @throws SQLException if the insert fails
+     */
+    static void enqueue(Connection connection, EmailOutbox message) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(ENQUEUE_QUERY)) {
+            bindEnqueue(stmt, message);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Queues many notifications in one JDBC batch using the caller's
+     * connection (e.g. a bulk cancellation), like {@link #enqueue}.
+     *
+     * @param connection Connection of the caller's transaction
+     * @param messages Notifications to queue
+     * @throws SQLException if the insert fails
+     */
+    static void enqueueAll(Connection connection, Collection<EmailOutbox> messages) throws SQLException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(ENQUEUE_QUERY)) {
+            for (EmailOutbox message : messages) {
+                bindEnqueue(stmt, message);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void bindEnqueue(PreparedStatement stmt, EmailOutbox message) throws SQLException {
+        stmt.setString(1, message.getCleIdempotence());
+        stmt.setString(2, message.getType());
+        stmt.setString(3, message.getIdReservation());
+        stmt.setString(4, EmailOutbox.STATUT_EN_ATTENTE);
+    }
+
+    /**
+     * Claims the messages due for delivery. Claimed messages are marked
+     * EN_COURS with a lease; if the sender dies before reporting, they
+     * become due again once the lease expires.
+     *
+     * @param limit Maximum number of messages to claim
+     * @param leaseSeconds How long the claim is held
+     * @return Claimed messages, oldest due first
+     */
+    public List<EmailOutbox> claimDue(int limit, int leaseSeconds) {
+        List<EmailOutbox> messages = new ArrayList<>();
+        String select = "SELECT * FROM email_outbox WHERE statut IN (?, ?) AND prochaine_tentative <= NOW() " +
+                       "ORDER BY prochaine_tentative LIMIT ? FOR UPDATE SKIP LOCKED";
+        String claim = "UPDATE email_outbox SET statut = ?, " +
+                      "prochaine_tentative = NOW() + INTERVAL ? SECOND WHERE id_email = ?";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement selectStmt = connection.prepareStatement(select);
+                 PreparedStatement claimStmt = connection.prepareStatement(claim)) {
+                selectStmt.setString(1, EmailOutbox.STATUT_EN_ATTENTE);
+                selectStmt.setString(2, EmailOutbox.STATUT_EN_COURS);
+                selectStmt.setInt(3, limit);
+                ResultSet rs = selectStmt.executeQuery();
+                while (rs.next()) {
+                    messages.add(mapResultSetToEmailOutbox(rs));
+                }
+
+                for (EmailOutbox message : messages) {
+                    claimStmt.setString(1, EmailOutbox.STATUT_EN_COURS);
+                    claimStmt.setInt(2, leaseSeconds);
+                    claimStmt.setLong(3, message.getIdEmail());
+                    claimStmt.addBatch();
+                }
+                if (!messages.isEmpty()) {
+                    claimStmt.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error claiming outbox messages: " + e.getMessage());
+            messages.clear();
+        }
+        return messages;
+    }
+
+    /**
+     * Marks a message as sent.
+     *
+     * @param idEmail Message ID
+     * @return true if successful, false otherwise
+     */
+    public boolean markSent(long idEmail) {
+        String query = "UPDATE email_outbox SET statut = ?, date_envoi = NOW(), derniere_erreur = NULL " +
+                      "WHERE id_email = ?";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, EmailOutbox.STATUT_ENVOYE);
+            stmt.setLong(2, idEmail);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error marking outbox message as sent: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Records a failed attempt and schedules the next one. The retry time is
+     * computed from the database clock, which claimDue compares it with.
+     *
+     * @param idEmail Message ID
+     * @param tentatives Number of attempts made so far
+     * @param delaiSecondes Delay before the next attempt, in seconds
+     * @param erreur Delivery error
+     * @return true if successful, false otherwise
+     */
+    public boolean markRetry(long idEmail, int tentatives, long delaiSecondes, String erreur) {
+        return updateFailure(idEmail, EmailOutbox.STATUT_EN_ATTENTE, tentatives, delaiSecondes, erreur);
+    }
+
+    /**
+     * Moves a message to the dead letters: it will not be retried.
+     *
+     * @param idEmail Message ID
+     * @param tentatives Number of attempts made
+     * @param erreur Last delivery error
+     * @return true if successful, false otherwise
+     */
+    public boolean markDead(long idEmail, int tentatives, String erreur) {
+        return updateFailure(idEmail, EmailOutbox.STATUT_ECHEC, tentatives, null, erreur);
+    }
+
+    /**
+     * Counts messages in a given status (e.g. dead letters to investigate).
+     *
+     * @param statut Message status
+     * @return Number of messages, or -1 on error
+     */
+    public long countByStatut(String statut) {
+        String query = "SELECT COUNT(*) FROM email_outbox WHERE statut = ?";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, statut);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting outbox messages: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    private boolean updateFailure(long idEmail, String statut, int tentatives,
+                                  Long delaiSecondes, String erreur) {
+        String query = "UPDATE email_outbox SET statut = ?, tentatives = ?, " +
+                      "prochaine_tentative = IF(? IS NULL, NULL, NOW() + INTERVAL ? SECOND), " +
+                      "derniere_erreur = ? WHERE id_email = ?";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, statut);
+            stmt.setInt(2, tentatives);
+            if (delaiSecondes != null) {
+                stmt.setLong(3, delaiSecondes);
+                stmt.setLong(4, delaiSecondes);
+            } else {
+                stmt.setNull(3, Types.BIGINT);
+                stmt.setNull(4, Types.BIGINT);
+            }
+            if (erreur != null && erreur.length() > MAX_ERROR_LENGTH) {
+                erreur = erreur.substring(0, MAX_ERROR_LENGTH);
+            }
+            stmt.setString(5, erreur);
+            stmt.setLong(6, idEmail);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error recording outbox failure: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private EmailOutbox mapResultSetToEmailOutbox(ResultSet rs) throws SQLException {
+        EmailOutbox message = new EmailOutbox();
+        message.setIdEmail(rs.getLong("id_email"));
+        message.setCleIdempotence(rs.getString("cle_idempotence"));
+        message.setType(rs.getString("type"));
+        message.setIdReservation(rs.getString("id_reservation"));
+        message.setStatut(rs.getString("statut"));
+        message.setTentatives(rs.getInt("tentatives"));
+
+        Timestamp prochaine = rs.getTimestamp("prochaine_tentative");
+        if (prochaine != null) {
+            message.setProchaineTentative(prochaine.toLocalDateTime());
+        }
+        message.setDerniereErreur(rs.getString("derniere_erreur"));
+        return message;
+    }
+}
@@ -0,0 +1,62 @@
+package com.voyageaffaires.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Helpers for the FULLTEXT (ngram parser) search path used by the DAOs.
+ * Terms long enough to form an ngram token are matched with
+ * MATCH ... AGAINST on an ngram index; shorter terms fall back to LIKE.
+ */
+final class FullTextSearch {
+
+    /** Must match the server's ngram_token_size (MySQL default: 2). */
+    static final int MIN_TERM_LENGTH = 2;
+
+    /** MySQL error raised when no FULLTEXT index matches the MATCH columns. */
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+
+    private FullTextSearch() {
+    }
+
+    /**
+     * Checks whether a term can be served by the ngram index.
+     *
+     * @param term Search term
+     * @return true if the term is long enough for MATCH ... AGAINST
+     */
+    static boolean supports(String term) {
+        return term != null && term.trim().length() >= MIN_TERM_LENGTH;
+    }
+
+    /**
+     * Builds a boolean-mode phrase so the ngram tokens of the term must
+     * appear consecutively, which gives substring semantics like '%term%'.
+     *
+     * @param term Search term
+     * @return AGAINST argument
+     */
+    static String toPhrase(String term) {
+        return "\"" + term.trim().replace("\"", " ") + "\"";
+    }
+
+    /**
+     * Builds the legacy LIKE pattern.
+     *
+     * @param term Search term
+     * @return Pattern matching the term anywhere
+     */
+    static String toLikePattern(String term) {
+        return "%" + term + "%";
+    }
+
+    /**
+     * Checks whether a failure means the FULLTEXT indexes are missing
+     * (database created from an older schema).
+     *
+     * @param e Exception raised by the query
+     * @return true if the LIKE path should be used from now on
+     */
+    static boolean isMissingIndex(SQLException e) {
+        return e.getErrorCode() == ER_FT_MATCHING_KEY_NOT_FOUND;
+    }
+}
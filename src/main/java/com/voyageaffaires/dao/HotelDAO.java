@@ -1,36 +1,93 @@
 package com.voyageaffaires.dao;
 
 import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.utils.CatalogCache;
 import com.voyageaffaires.utils.DatabaseConnection;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Hotel entity.
  */
 public class HotelDAO {
     
-    private Connection connection;
+    /** Maximum number of IDs bound in one IN (...) clause. */
+    private static final int IN_CHUNK_SIZE = 500;
     
-    public HotelDAO() {
-        try {
-            this.connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            System.err.println("Error establishing database connection: " + e.getMessage());
+    /**
+     * How far before the given time findModifiedSince reads again.
+     * date_modification is set when a row is written, not when its
+     * transaction commits, so a change committed late can carry a time
+     * older than the caller's watermark.
+     */
+    private static final long MODIFIED_SINCE_OVERLAP_SECONDS = 120;
+    
+    /**
+     * Whether the ngram FULLTEXT indexes from database_schema.sql exist.
+     * Cleared on the first "no matching FULLTEXT index" error so older
+     * databases keep working with LIKE searches.
+     */
+    private static volatile boolean fullTextEnabled = true;
+    
+    /**
+     * Shared read-through cache for hotel lookups. Hotel rows are reference
+     * data that rarely change, and findById is called from table cells,
+     * exports and the email path.
+     */
+    private static final CatalogCache<String, Hotel> CACHE =
+            new CatalogCache<>("hotel", 2000, 10 * 60 * 1000L);
+    
+    /**
+     * Gets the shared hotel cache (for statistics).
+     * 
+     * @return Hotel cache
+     */
+    public static CatalogCache<String, Hotel> getCache() {
+        return CACHE;
+    }
+    
+    /**
+     * Evicts a hotel from the cache. Must be called after any write to
+     * the hotel table so stale data is not served.
+     * 
+     * @param idHotel Hotel ID, or null to clear the whole cache
+     */
+    public static void invalidate(String idHotel) {
+        if (idHotel == null) {
+            CACHE.invalidateAll();
+        } else {
+            CACHE.invalidate(idHotel);
         }
     }
     
     /**
-     * Finds a hotel by ID.
+     * Finds a hotel by ID, served from the cache when possible.
      * 
      * @param idHotel Hotel ID
      * @return Hotel object if found, null otherwise
      */
     public Hotel findById(String idHotel) {
+        return CACHE.get(idHotel, this::loadById);
+    }
+    
+    /**
+     * Loads a hotel by ID from the database.
+     * 
+     * @param idHotel Hotel ID
+     * @return Hotel object if found, null otherwise
+     */
+    private Hotel loadById(String idHotel) {
         String query = "SELECT * FROM hotel WHERE id_hotel = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, idHotel);
             ResultSet rs = stmt.executeQuery();
             
@@ -43,6 +100,50 @@ public class HotelDAO {
         return null;
     }
     
+    /**
+     * Finds several hotels at once, serving cached entries first.
+     * Missing IDs are fetched with chunked IN (...) queries, so resolving a
+     * page of reservations costs one or two round trips instead of one per row.
+     * 
+     * @param ids Hotel IDs (nulls and duplicates are ignored)
+     * @return Map of hotels keyed by ID; unknown IDs are absent
+     */
+    public Map<String, Hotel> findByIds(Collection<String> ids) {
+        Set<String> wanted = new LinkedHashSet<>(ids);
+        wanted.remove(null);
+        Map<String, Hotel> result = CACHE.getAllPresent(wanted);
+        List<String> missing = new ArrayList<>();
+        for (String id : wanted) {
+            if (!result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        long generation = CACHE.getGeneration();
+        
+        for (int from = 0; from < missing.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = missing.subList(from, Math.min(from + IN_CHUNK_SIZE, missing.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String query = "SELECT * FROM hotel WHERE id_hotel IN (" + placeholders + ")";
+            
+            try (Connection connection = DatabaseConnection.getInstance().getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    Hotel hotel = mapResultSetToHotel(rs);
+                    result.put(hotel.getIdHotel(), hotel);
+                    CACHE.put(hotel.getIdHotel(), hotel, generation);
+                }
+            } catch (SQLException e) {
+                System.err.println("Error finding hotels by IDs: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+    
     /**
      * Retrieves all available hotels.
      * 
@@ -52,7 +153,8 @@ public class HotelDAO {
         List<Hotel> hotels = new ArrayList<>();
         String query = "SELECT * FROM hotel WHERE disponible = TRUE ORDER BY ville, nom";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -65,23 +167,70 @@ public class HotelDAO {
     }
     
     /**
-     * Searches hotels by city.
+     * Retrieves the hotels changed since a given time (available or not),
+     * used to refresh the in-memory catalog incrementally.
+     * 
+     * Rows changed up to MODIFIED_SINCE_OVERLAP_SECONDS before that time are
+     * returned again, so callers must tolerate rows they already have.
+     * 
+     * @param since Change time to start from (inclusive), or null for all hotels
+     * @return Changed hotels with their change time, or null if the query failed
+     */
+    public List<Hotel> findModifiedSince(LocalDateTime since) {
+        List<Hotel> hotels = new ArrayList<>();
+        String query = since == null ? "SELECT * FROM hotel"
+                                     : "SELECT * FROM hotel WHERE date_modification >= ?";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            if (since != null) {
+                stmt.setTimestamp(1, Timestamp.valueOf(since.minusSeconds(MODIFIED_SINCE_OVERLAP_SECONDS)));
+            }
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Hotel hotel = mapResultSetToHotel(rs);
+                Timestamp modified = rs.getTimestamp("date_modification");
+                if (modified != null) {
+                    hotel.setDateModification(modified.toLocalDateTime());
+                }
+                hotels.add(hotel);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving modified hotels: " + e.getMessage());
+            return null;
+        }
+        return hotels;
+    }
+    
+    /**
+     * Searches hotels by city, using the ngram FULLTEXT index on ville when
+     * the term is long enough.
      * 
      * @param ville City name
      * @return List of hotels in the city
      */
     public List<Hotel> searchByCity(String ville) {
         List<Hotel> hotels = new ArrayList<>();
-        String query = "SELECT * FROM hotel WHERE disponible = TRUE AND ville LIKE ? ORDER BY prix_par_nuit";
+        boolean fullText = fullTextEnabled && FullTextSearch.supports(ville);
+        String query = "SELECT * FROM hotel WHERE disponible = TRUE AND " +
+                      (fullText ? "MATCH(ville) AGAINST(? IN BOOLEAN MODE)" : "ville LIKE ?") +
+                      " ORDER BY prix_par_nuit";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, "%" + ville + "%");
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, fullText ? FullTextSearch.toPhrase(ville) : FullTextSearch.toLikePattern(ville));
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 hotels.add(mapResultSetToHotel(rs));
             }
         } catch (SQLException e) {
+            if (fullTextEnabled && FullTextSearch.isMissingIndex(e)) {
+                System.err.println("FULLTEXT index missing on hotel, falling back to LIKE search");
+                fullTextEnabled = false;
+                return searchByCity(ville);
+            }
             System.err.println("Error searching hotels by city: " + e.getMessage());
         }
         return hotels;
@@ -89,6 +238,7 @@ public class HotelDAO {
     
     /**
      * Searches hotels with multiple criteria.
+     * The city uses the ngram FULLTEXT index when the term is long enough.
      * 
      * @param ville City name (optional)
      * @param minEtoiles Minimum star rating (optional)
@@ -98,9 +248,10 @@ public class HotelDAO {
     public List<Hotel> searchHotelsAdvanced(String ville, Integer minEtoiles, Double maxPrix) {
         List<Hotel> hotels = new ArrayList<>();
         StringBuilder query = new StringBuilder("SELECT * FROM hotel WHERE disponible = TRUE");
+        boolean villeFullText = fullTextEnabled && FullTextSearch.supports(ville);
         
         if (ville != null && !ville.isEmpty()) {
-            query.append(" AND ville LIKE ?");
+            query.append(villeFullText ? " AND MATCH(ville) AGAINST(? IN BOOLEAN MODE)" : " AND ville LIKE ?");
         }
         if (minEtoiles != null && minEtoiles > 0) {
             query.append(" AND etoiles >= ?");
@@ -110,11 +261,13 @@ public class HotelDAO {
         }
         query.append(" ORDER BY prix_par_nuit");
         
-        try (PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
             int paramIndex = 1;
             
             if (ville != null && !ville.isEmpty()) {
-                stmt.setString(paramIndex++, "%" + ville + "%");
+                stmt.setString(paramIndex++, villeFullText
+                        ? FullTextSearch.toPhrase(ville) : FullTextSearch.toLikePattern(ville));
             }
             if (minEtoiles != null && minEtoiles > 0) {
                 stmt.setInt(paramIndex++, minEtoiles);
@@ -128,6 +281,11 @@ public class HotelDAO {
                 hotels.add(mapResultSetToHotel(rs));
             }
         } catch (SQLException e) {
+            if (fullTextEnabled && FullTextSearch.isMissingIndex(e)) {
+                System.err.println("FULLTEXT index missing on hotel, falling back to LIKE search");
+                fullTextEnabled = false;
+                return searchHotelsAdvanced(ville, minEtoiles, maxPrix);
+            }
             System.err.println("Error searching hotels (advanced): " + e.getMessage());
         }
         return hotels;
@@ -141,15 +299,27 @@ public class HotelDAO {
      * @throws SQLException if error occurs
      */
     private Hotel mapResultSetToHotel(ResultSet rs) throws SQLException {
+        return mapResultSetToHotel(rs, "");
+    }
+    
+    /**
+     * Maps prefixed hotel columns of a joined ResultSet row to a Hotel object.
+     * 
+     * @param rs ResultSet
+     * @param prefix Column alias prefix (empty for plain hotel queries)
+     * @return Hotel object
+     * @throws SQLException if error occurs
+     */
+    static Hotel mapResultSetToHotel(ResultSet rs, String prefix) throws SQLException {
         Hotel hotel = new Hotel();
-        hotel.setIdHotel(rs.getString("id_hotel"));
-        hotel.setNom(rs.getString("nom"));
-        hotel.setAdresse(rs.getString("adresse"));
-        hotel.setVille(rs.getString("ville"));
-        hotel.setPays(rs.getString("pays"));
-        hotel.setEtoiles(rs.getInt("etoiles"));
-        hotel.setPrixParNuit(rs.getDouble("prix_par_nuit"));
-        hotel.setDisponible(rs.getBoolean("disponible"));
+        hotel.setIdHotel(rs.getString(prefix + "id_hotel"));
+        hotel.setNom(rs.getString(prefix + "nom"));
+        hotel.setAdresse(rs.getString(prefix + "adresse"));
+        hotel.setVille(rs.getString(prefix + "ville"));
+        hotel.setPays(rs.getString(prefix + "pays"));
+        hotel.setEtoiles(rs.getInt(prefix + "etoiles"));
+        hotel.setPrixParNuit(rs.getDouble(prefix + "prix_par_nuit"));
+        hotel.setDisponible(rs.getBoolean(prefix + "disponible"));
         
         return hotel;
     }
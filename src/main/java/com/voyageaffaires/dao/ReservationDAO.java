@@ -1,32 +1,52 @@
 package com.voyageaffaires.dao;
 
+import com.voyageaffaires.models.EmailOutbox;
 import com.voyageaffaires.models.Reservation;
-import com.voyageaffaires.models.Vol;
-import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.models.ReservationFilter;
+import com.voyageaffaires.models.ReservationPage;
+import com.voyageaffaires.models.ReservationTotaux;
 import com.voyageaffaires.utils.DatabaseConnection;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object for Reservation entity.
  */
 public class ReservationDAO {
     
-    private Connection connection;
-    private VolDAO volDAO;
-    private HotelDAO hotelDAO;
+    /**
+     * Loads a reservation together with its user, flight and hotel in a
+     * single round trip. Vol and hotel columns are aliased with "v_" and
+     * "h_" prefixes so they can be hydrated from the same row.
+     */
+    private static final String SELECT_WITH_DETAILS =
+            "SELECT r.*, u.nom AS user_nom, u.prenom AS user_prenom, " +
+            "v.id_vol AS v_id_vol, v.compagnie AS v_compagnie, v.origine AS v_origine, " +
+            "v.destination AS v_destination, v.date_depart AS v_date_depart, " +
+            "v.date_arrivee AS v_date_arrivee, v.prix AS v_prix, v.nombre_places AS v_nombre_places, " +
+            "v.classe AS v_classe, v.disponible AS v_disponible, " +
+            "h.id_hotel AS h_id_hotel, h.nom AS h_nom, h.adresse AS h_adresse, h.ville AS h_ville, " +
+            "h.pays AS h_pays, h.etoiles AS h_etoiles, h.prix_par_nuit AS h_prix_par_nuit, " +
+            "h.disponible AS h_disponible " +
+            "FROM reservation r " +
+            "INNER JOIN utilisateur u ON r.id_utilisateur = u.id_utilisateur " +
+            "LEFT JOIN vol v ON r.id_vol = v.id_vol " +
+            "LEFT JOIN hotel h ON r.id_hotel = h.id_hotel ";
     
-    public ReservationDAO() {
-        try {
-            this.connection = DatabaseConnection.getInstance().getConnection();
-            this.volDAO = new VolDAO();
-            this.hotelDAO = new HotelDAO();
-        } catch (SQLException e) {
-            System.err.println("Error establishing database connection: " + e.getMessage());
-        }
-    }
+    private static final String INSERT_QUERY =
+            "INSERT INTO reservation (id_reservation, date_creation, statut, montant_total, " +
+            "id_utilisateur, id_vol, id_hotel, date_checkin, date_checkout, nombre_chambres, " +
+            "motif_voyage, commentaire) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
     /**
      * Finds a reservation by ID.
@@ -35,12 +55,11 @@ public class ReservationDAO {
      * @return Reservation object if found, null otherwise
      */
     public Reservation findById(String idReservation) {
-        String query = "SELECT r.*, u.nom AS user_nom, u.prenom AS user_prenom " +
-                      "FROM reservation r " +
-                      "INNER JOIN utilisateur u ON r.id_utilisateur = u.id_utilisateur " +
+        String query = SELECT_WITH_DETAILS +
                       "WHERE r.id_reservation = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, idReservation);
             ResultSet rs = stmt.executeQuery();
             
@@ -60,12 +79,11 @@ public class ReservationDAO {
      */
     public List<Reservation> findAll() {
         List<Reservation> reservations = new ArrayList<>();
-        String query = "SELECT r.*, u.nom AS user_nom, u.prenom AS user_prenom " +
-                      "FROM reservation r " +
-                      "INNER JOIN utilisateur u ON r.id_utilisateur = u.id_utilisateur " +
+        String query = SELECT_WITH_DETAILS +
                       "ORDER BY r.date_creation DESC";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -85,12 +103,11 @@ public class ReservationDAO {
      */
     public List<Reservation> findByUserId(int userId) {
         List<Reservation> reservations = new ArrayList<>();
-        String query = "SELECT r.*, u.nom AS user_nom, u.prenom AS user_prenom " +
-                      "FROM reservation r " +
-                      "INNER JOIN utilisateur u ON r.id_utilisateur = u.id_utilisateur " +
+        String query = SELECT_WITH_DETAILS +
                       "WHERE r.id_utilisateur = ? ORDER BY r.date_creation DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
@@ -110,36 +127,38 @@ public class ReservationDAO {
      * @return true if successful, false otherwise
      */
     public boolean save(Reservation reservation) {
-        String query = "INSERT INTO reservation (id_reservation, date_creation, statut, montant_total, " +
-                      "id_utilisateur, id_vol, id_hotel, date_checkin, date_checkout, nombre_chambres, " +
-                      "motif_voyage, commentaire) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, reservation.getIdReservation());
-            stmt.setDate(2, Date.valueOf(reservation.getDateCreation()));
-            stmt.setString(3, reservation.getStatut());
-            stmt.setDouble(4, reservation.getMontantTotal());
-            stmt.setInt(5, reservation.getIdUtilisateur());
-            stmt.setString(6, reservation.getIdVol());
-            stmt.setString(7, reservation.getIdHotel());
-            
-            if (reservation.getDateCheckin() != null) {
-                stmt.setDate(8, Date.valueOf(reservation.getDateCheckin()));
-            } else {
-                stmt.setNull(8, Types.DATE);
-            }
-            
-            if (reservation.getDateCheckout() != null) {
-                stmt.setDate(9, Date.valueOf(reservation.getDateCheckout()));
-            } else {
-                stmt.setNull(9, Types.DATE);
+        return save(reservation, null);
+    }
+    
+    /**
+     * Saves a new reservation and queues its email notification in the
+     * same transaction: the notification and the dashboard counter change
+     * exist if and only if the reservation was committed.
+     * 
+     * @param reservation Reservation to save
+     * @param notification Notification to queue, or null for none
+     * @return true if successful, false otherwise
+     */
+    public boolean save(Reservation reservation, EmailOutbox notification) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY)) {
+                bindInsert(stmt, reservation);
+                boolean saved = stmt.executeUpdate() > 0;
+                if (saved) {
+                    StatistiqueDAO.apply(connection, List.of(reservation.getIdReservation()), 1);
+                }
+                if (saved && notification != null) {
+                    EmailOutboxDAO.enqueue(connection, notification);
+                }
+                connection.commit();
+                return saved;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-            
-            stmt.setInt(10, reservation.getNombreChambres());
-            stmt.setString(11, reservation.getMotifVoyage());
-            stmt.setString(12, reservation.getCommentaire());
-            
-            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error saving reservation: " + e.getMessage());
         }
@@ -147,7 +166,56 @@ public class ReservationDAO {
     }
     
     /**
-     * Updates an existing reservation.
+     * Saves many reservations in one transaction using JDBC batching.
+     * With rewriteBatchedStatements enabled on the URL, each chunk is sent
+     * as a single multi-row INSERT. If any chunk fails, the whole
+     * transaction is rolled back and every row is reported as failed.
+     * 
+     * @param reservations Reservations to save
+     * @return Per-reservation result keyed by reservation ID, in input order
+     */
+    public Map<String, Boolean> saveAll(List<Reservation> reservations) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (reservations.isEmpty()) {
+            return results;
+        }
+        int batchSize = DatabaseConnection.getInstance().getBatchSize();
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY)) {
+                for (int from = 0; from < reservations.size(); from += batchSize) {
+                    List<Reservation> chunk = reservations.subList(from,
+                            Math.min(from + batchSize, reservations.size()));
+                    for (Reservation reservation : chunk) {
+                        bindInsert(stmt, reservation);
+                        stmt.addBatch();
+                    }
+                    int[] counts = stmt.executeBatch();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        results.put(chunk.get(i).getIdReservation(), isSuccess(counts[i]));
+                    }
+                }
+                StatistiqueDAO.apply(connection, results.keySet(), 1);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving reservations (batch): " + e.getMessage());
+            for (Reservation reservation : reservations) {
+                results.put(reservation.getIdReservation(), false);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Updates an existing reservation and moves it between dashboard
+     * counters in the same transaction.
      * 
      * @param reservation Reservation to update
      * @return true if successful, false otherwise
@@ -157,30 +225,45 @@ public class ReservationDAO {
                       "date_checkin = ?, date_checkout = ?, nombre_chambres = ?, motif_voyage = ?, " +
                       "commentaire = ? WHERE id_reservation = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, reservation.getStatut());
-            stmt.setDouble(2, reservation.getMontantTotal());
-            stmt.setString(3, reservation.getIdVol());
-            stmt.setString(4, reservation.getIdHotel());
-            
-            if (reservation.getDateCheckin() != null) {
-                stmt.setDate(5, Date.valueOf(reservation.getDateCheckin()));
-            } else {
-                stmt.setNull(5, Types.DATE);
-            }
-            
-            if (reservation.getDateCheckout() != null) {
-                stmt.setDate(6, Date.valueOf(reservation.getDateCheckout()));
-            } else {
-                stmt.setNull(6, Types.DATE);
+        List<String> ids = List.of(reservation.getIdReservation());
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                StatistiqueDAO.apply(connection, ids, -1);
+                
+                stmt.setString(1, reservation.getStatut());
+                stmt.setDouble(2, reservation.getMontantTotal());
+                stmt.setString(3, reservation.getIdVol());
+                stmt.setString(4, reservation.getIdHotel());
+                
+                if (reservation.getDateCheckin() != null) {
+                    stmt.setDate(5, Date.valueOf(reservation.getDateCheckin()));
+                } else {
+                    stmt.setNull(5, Types.DATE);
+                }
+                
+                if (reservation.getDateCheckout() != null) {
+                    stmt.setDate(6, Date.valueOf(reservation.getDateCheckout()));
+                } else {
+                    stmt.setNull(6, Types.DATE);
+                }
+                
+                stmt.setInt(7, reservation.getNombreChambres());
+                stmt.setString(8, reservation.getMotifVoyage());
+                stmt.setString(9, reservation.getCommentaire());
+                stmt.setString(10, reservation.getIdReservation());
+                
+                boolean updated = stmt.executeUpdate() > 0;
+                StatistiqueDAO.apply(connection, ids, 1);
+                connection.commit();
+                return updated;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-            
-            stmt.setInt(7, reservation.getNombreChambres());
-            stmt.setString(8, reservation.getMotifVoyage());
-            stmt.setString(9, reservation.getCommentaire());
-            stmt.setString(10, reservation.getIdReservation());
-            
-            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Error updating reservation: " + e.getMessage());
         }
@@ -195,13 +278,43 @@ public class ReservationDAO {
      * @return true if successful, false otherwise
      */
     public boolean updateStatus(String idReservation, String statut) {
+        return updateStatus(idReservation, statut, null);
+    }
+    
+    /**
+     * Updates reservation status, moves it between dashboard counters and
+     * queues its email notification in the same transaction.
+     * 
+     * @param idReservation Reservation ID
+     * @param statut New status
+     * @param notification Notification to queue, or null for none
+     * @return true if successful, false otherwise
+     */
+    public boolean updateStatus(String idReservation, String statut, EmailOutbox notification) {
         String query = "UPDATE reservation SET statut = ? WHERE id_reservation = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, statut);
-            stmt.setString(2, idReservation);
-            
-            return stmt.executeUpdate() > 0;
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                List<String> ids = List.of(idReservation);
+                StatistiqueDAO.apply(connection, ids, -1);
+                
+                stmt.setString(1, statut);
+                stmt.setString(2, idReservation);
+                
+                boolean updated = stmt.executeUpdate() > 0;
+                StatistiqueDAO.apply(connection, ids, 1);
+                if (updated && notification != null) {
+                    EmailOutboxDAO.enqueue(connection, notification);
+                }
+                connection.commit();
+                return updated;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("Error updating reservation status: " + e.getMessage());
         }
@@ -209,7 +322,85 @@ public class ReservationDAO {
     }
     
     /**
-     * Deletes a reservation.
+     * Updates the status of many reservations in one transaction using JDBC
+     * batching (e.g. bulk approval by a manager). If any chunk fails, the
+     * whole transaction is rolled back and every row is reported as failed.
+     * 
+     * @param statuses New status keyed by reservation ID
+     * @return Per-reservation result keyed by reservation ID; false means the
+     *         reservation was not found or the batch failed
+     */
+    public Map<String, Boolean> updateStatuses(Map<String, String> statuses) {
+        return updateStatuses(statuses, Map.of());
+    }
+    
+    /**
+     * Updates the status of many reservations and queues their email
+     * notifications in the same transaction. A notification is queued only
+     * for a reservation that was actually updated.
+     * 
+     * @param statuses New status keyed by reservation ID
+     * @param notifications Notifications to queue keyed by reservation ID
+     *        (reservations without one get no email)
+     * @return Per-reservation result keyed by reservation ID; false means the
+     *         reservation was not found or the batch failed
+     */
+    public Map<String, Boolean> updateStatuses(Map<String, String> statuses,
+                                               Map<String, EmailOutbox> notifications) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (statuses.isEmpty()) {
+            return results;
+        }
+        String query = "UPDATE reservation SET statut = ? WHERE id_reservation = ?";
+        int batchSize = DatabaseConnection.getInstance().getBatchSize();
+        List<Map.Entry<String, String>> entries = new ArrayList<>(statuses.entrySet());
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                StatistiqueDAO.apply(connection, statuses.keySet(), -1);
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    List<Map.Entry<String, String>> chunk = entries.subList(from,
+                            Math.min(from + batchSize, entries.size()));
+                    for (Map.Entry<String, String> entry : chunk) {
+                        stmt.setString(1, entry.getValue());
+                        stmt.setString(2, entry.getKey());
+                        stmt.addBatch();
+                    }
+                    int[] counts = stmt.executeBatch();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        results.put(chunk.get(i).getKey(), isSuccess(counts[i]));
+                    }
+                }
+                StatistiqueDAO.apply(connection, statuses.keySet(), 1);
+                
+                List<EmailOutbox> queued = new ArrayList<>();
+                for (Map.Entry<String, Boolean> result : results.entrySet()) {
+                    EmailOutbox notification = notifications.get(result.getKey());
+                    if (result.getValue() && notification != null) {
+                        queued.add(notification);
+                    }
+                }
+                EmailOutboxDAO.enqueueAll(connection, queued);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating reservation statuses (batch): " + e.getMessage());
+            for (String idReservation : statuses.keySet()) {
+                results.put(idReservation, false);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Deletes a reservation and removes it from its dashboard counter in
+     * the same transaction.
      * 
      * @param idReservation Reservation ID to delete
      * @return true if successful, false otherwise
@@ -217,9 +408,20 @@ public class ReservationDAO {
     public boolean delete(String idReservation) {
         String query = "DELETE FROM reservation WHERE id_reservation = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, idReservation);
-            return stmt.executeUpdate() > 0;
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                StatistiqueDAO.apply(connection, List.of(idReservation), -1);
+                stmt.setString(1, idReservation);
+                boolean deleted = stmt.executeUpdate() > 0;
+                connection.commit();
+                return deleted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting reservation: " + e.getMessage());
         }
@@ -235,12 +437,11 @@ public class ReservationDAO {
      */
     public List<Reservation> getReservationsByDateRange(LocalDate startDate, LocalDate endDate) {
         List<Reservation> reservations = new ArrayList<>();
-        String query = "SELECT r.*, u.nom AS user_nom, u.prenom AS user_prenom " +
-                      "FROM reservation r " +
-                      "INNER JOIN utilisateur u ON r.id_utilisateur = u.id_utilisateur " +
+        String query = SELECT_WITH_DETAILS +
                       "WHERE r.date_creation BETWEEN ? AND ? ORDER BY r.date_creation DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setDate(1, Date.valueOf(startDate));
             stmt.setDate(2, Date.valueOf(endDate));
             ResultSet rs = stmt.executeQuery();
@@ -255,13 +456,278 @@ public class ReservationDAO {
     }
     
     /**
-     * Maps a ResultSet row to a Reservation object.
+     * Retrieves one page of reservations using keyset pagination on
+     * (date_creation, id_reservation), newest first. Unlike OFFSET paging,
+     * the cost of a page does not grow with its position in the history.
+     * 
+     * @param filter Optional filter criteria (may be null)
+     * @param after Cursor returned with the previous page, or null for the first page
+     * @param pageSize Maximum number of reservations in the page
+     * @return Page of reservations with the cursor of the next page, or null
+     *         on error (an empty page means there is nothing left to read)
+     * @throws IllegalArgumentException if pageSize is not positive
+     */
+    public ReservationPage findPage(ReservationFilter filter, ReservationPage.Cursor after, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        List<Reservation> reservations = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        StringBuilder query = new StringBuilder(SELECT_WITH_DETAILS).append("WHERE 1 = 1");
+        appendFilter(query, params, filter);
+        
+        if (after != null) {
+            query.append(" AND (r.date_creation < ? OR (r.date_creation = ? AND r.id_reservation < ?))");
+            params.add(Date.valueOf(after.getDateCreation()));
+            params.add(Date.valueOf(after.getDateCreation()));
+            params.add(after.getIdReservation());
+        }
+        // Fetch one extra row to know whether another page follows
+        query.append(" ORDER BY r.date_creation DESC, r.id_reservation DESC LIMIT ?");
+        params.add(pageSize + 1);
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            bindParameters(stmt, params);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                reservations.add(mapResultSetToReservation(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving reservation page: " + e.getMessage());
+            return null;
+        }
+        
+        ReservationPage.Cursor next = null;
+        if (reservations.size() > pageSize) {
+            reservations.remove(pageSize);
+            next = ReservationPage.Cursor.after(reservations.get(pageSize - 1));
+        }
+        return new ReservationPage(reservations, next);
+    }
+    
+    /**
+     * Streams reservations matching a filter, newest first, without
+     * materialising them. The result set is forward-only and read-only with
+     * MySQL streaming enabled, so rows are pulled from the server one at a
+     * time and memory use stays constant whatever the number of rows.
+     * <p>
+     * The stream holds a pooled connection until it is closed; callers must
+     * use try-with-resources. Closing it before the last row cancels the
+     * query on the server:
+     * <pre>
+     * try (Stream&lt;Reservation&gt; stream = dao.streamReservations(filter)) {
+     *     stream.forEach(writer::write);
+     * }
+     * </pre>
+     * 
+     * @param filter Optional filter criteria (may be null)
+     * @return Lazily populated stream of reservations
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Reservation> streamReservations(ReservationFilter filter) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder query = new StringBuilder(SELECT_WITH_DETAILS).append("WHERE 1 = 1");
+        appendFilter(query, params, filter);
+        query.append(" ORDER BY r.date_creation DESC, r.id_reservation DESC");
+        
+        Connection connection = DatabaseConnection.getInstance().getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs;
+        try {
+            stmt = connection.prepareStatement(query.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Integer.MIN_VALUE switches Connector/J to row-by-row streaming
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            bindParameters(stmt, params);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(stmt);
+            closeQuietly(connection);
+            throw e;
+        }
+        
+        final PreparedStatement statement = stmt;
+        final boolean[] exhausted = { false };
+        Spliterator<Reservation> spliterator = new Spliterators.AbstractSpliterator<Reservation>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Reservation> action) {
+                try {
+                    if (!rs.next()) {
+                        exhausted[0] = true;
+                        return false;
+                    }
+                    action.accept(mapResultSetToReservation(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error streaming reservations: " + e.getMessage(), e);
+                }
+            }
+        };
+        
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            // Closing a streaming result set reads and discards every remaining
+            // row; cancelling the query first stops the server from sending them
+            if (!exhausted[0]) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    System.err.println("Error cancelling reservation stream: " + e.getMessage());
+                }
+            }
+            closeQuietly(rs);
+            closeQuietly(statement);
+            closeQuietly(connection);
+        });
+    }
+    
+    /**
+     * Counts the reservations matching a filter and sums their amounts in
+     * one aggregate query, without reading the rows.
+     * 
+     * @param filter Optional filter criteria (may be null)
+     * @return Number and total amount of the reservations, or null on error
+     */
+    public ReservationTotaux summarize(ReservationFilter filter) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder query = new StringBuilder(
+                "SELECT COUNT(*), COALESCE(SUM(r.montant_total), 0) FROM reservation r WHERE 1 = 1");
+        appendFilter(query, params, filter);
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            bindParameters(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return new ReservationTotaux(rs.getLong(1), rs.getDouble(2));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error summarizing reservations: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Passes every reservation matching a filter to a callback, streaming
+     * rows from the database.
+     * 
+     * @param filter Optional filter criteria (may be null)
+     * @param consumer Callback invoked for each reservation
+     * @return Number of reservations processed, or -1 on error
+     */
+    public long forEachReservation(ReservationFilter filter, Consumer<Reservation> consumer) {
+        long count = 0;
+        try (Stream<Reservation> stream = streamReservations(filter)) {
+            Iterator<Reservation> it = stream.iterator();
+            while (it.hasNext()) {
+                consumer.accept(it.next());
+                count++;
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Error streaming reservations: " + e.getMessage());
+            return -1;
+        }
+        return count;
+    }
+    
+    /**
+     * Binds a reservation to the parameters of {@link #INSERT_QUERY}.
+     * 
+     * @param stmt Insert statement
+     * @param reservation Reservation to bind
+     * @throws SQLException if error occurs
+     */
+    private void bindInsert(PreparedStatement stmt, Reservation reservation) throws SQLException {
+        stmt.setString(1, reservation.getIdReservation());
+        stmt.setDate(2, Date.valueOf(reservation.getDateCreation()));
+        stmt.setString(3, reservation.getStatut());
+        stmt.setDouble(4, reservation.getMontantTotal());
+        stmt.setInt(5, reservation.getIdUtilisateur());
+        stmt.setString(6, reservation.getIdVol());
+        stmt.setString(7, reservation.getIdHotel());
+        
+        if (reservation.getDateCheckin() != null) {
+            stmt.setDate(8, Date.valueOf(reservation.getDateCheckin()));
+        } else {
+            stmt.setNull(8, Types.DATE);
+        }
+        
+        if (reservation.getDateCheckout() != null) {
+            stmt.setDate(9, Date.valueOf(reservation.getDateCheckout()));
+        } else {
+            stmt.setNull(9, Types.DATE);
+        }
+        
+        stmt.setInt(10, reservation.getNombreChambres());
+        stmt.setString(11, reservation.getMotifVoyage());
+        stmt.setString(12, reservation.getCommentaire());
+    }
+    
+    /**
+     * Interprets one entry of an executeBatch() result. Rewritten batches
+     * report SUCCESS_NO_INFO instead of a row count.
+     */
+    private static boolean isSuccess(int updateCount) {
+        return updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO;
+    }
+    
+    /**
+     * Appends the WHERE clauses of a filter to a query.
+     * 
+     * @param query Query being built (must already contain a WHERE clause)
+     * @param params Parameter list receiving the bound values
+     * @param filter Filter criteria (may be null)
+     */
+    private void appendFilter(StringBuilder query, List<Object> params, ReservationFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getStatut() != null && !filter.getStatut().isEmpty()) {
+            query.append(" AND r.statut = ?");
+            params.add(filter.getStatut());
+        }
+        if (filter.getDateDebut() != null) {
+            query.append(" AND r.date_creation >= ?");
+            params.add(Date.valueOf(filter.getDateDebut()));
+        }
+        if (filter.getDateFin() != null) {
+            query.append(" AND r.date_creation <= ?");
+            params.add(Date.valueOf(filter.getDateFin()));
+        }
+        if (filter.getIdUtilisateur() != null) {
+            query.append(" AND r.id_utilisateur = ?");
+            params.add(filter.getIdUtilisateur());
+        }
+    }
+    
+    private void bindParameters(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+    
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            System.err.println("Error closing resource: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Maps a ResultSet row of {@link #SELECT_WITH_DETAILS} to a Reservation
+     * object, with its flight and hotel when the joins matched.
      * 
      * @param rs ResultSet
      * @return Reservation object
      * @throws SQLException if error occurs
      */
-    private Reservation mapResultSetToReservation(ResultSet rs) throws SQLException {
+    static Reservation mapResultSetToReservation(ResultSet rs) throws SQLException {
         Reservation reservation = new Reservation();
         reservation.setIdReservation(rs.getString("id_reservation"));
         
@@ -297,12 +763,12 @@ public class ReservationDAO {
             reservation.setUtilisateurNom(userPrenom + " " + userNom);
         }
         
-        // Load related entities
-        if (reservation.getIdVol() != null) {
-            reservation.setVol(volDAO.findById(reservation.getIdVol()));
+        // Hydrate related entities from the joined columns
+        if (rs.getString("v_id_vol") != null) {
+            reservation.setVol(VolDAO.mapResultSetToVol(rs, "v_"));
         }
-        if (reservation.getIdHotel() != null) {
-            reservation.setHotel(hotelDAO.findById(reservation.getIdHotel()));
+        if (rs.getString("h_id_hotel") != null) {
+            reservation.setHotel(HotelDAO.mapResultSetToHotel(rs, "h_"));
         }
         
         return reservation;
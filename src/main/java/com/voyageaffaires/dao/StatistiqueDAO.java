@@ -0,0 +1,242 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.utils.DatabaseConnection;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data Access Object for the reservation_stats_jour summary table.
+ * The table holds one counter per (day, user, destination, status) and is
+ * maintained incrementally by ReservationDAO, in the same transaction as
+ * each reservation change, so dashboard queries aggregate a few hundred
+ * counters instead of the whole reservation table.
+ */
+public class StatistiqueDAO {
+
+    /** Maximum number of IDs bound in one IN (...) clause. */
+    private static final int IN_CHUNK_SIZE = 500;
+
+    /** MySQL error raised when a CHECK constraint (here nombre >= 0) is violated. */
+    private static final int ER_CHECK_CONSTRAINT_VIOLATED = 3819;
+
+    /**
+     * Records on each reservation the destination it is counted under, using
+     * the same rule as rebuild(). The counter of a reservation is found
+     * again from this column, so renaming or deleting its flight or hotel
+     * later does not lose track of it.
+     */
+    private static final String SNAPSHOT_QUERY_HEAD =
+            "UPDATE reservation r " +
+            "LEFT JOIN vol v ON r.id_vol = v.id_vol " +
+            "LEFT JOIN hotel h ON r.id_hotel = h.id_hotel " +
+            "SET r.destination_stats = COALESCE(v.destination, h.ville, '') " +
+            "WHERE r.id_reservation IN (";
+
+    /**
+     * Adds COUNT(*) * ? to the counters of the given reservations, under the
+     * destination recorded on each of them. Reservations without a recorded
+     * destination were never counted and are skipped.
+     */
+    private static final String APPLY_QUERY_HEAD =
+            "INSERT INTO reservation_stats_jour (jour, id_utilisateur, destination, statut, nombre) " +
+            "SELECT r.date_creation, r.id_utilisateur, r.destination_stats, r.statut, COUNT(*) * ? " +
+            "FROM reservation r " +
+            "WHERE r.destination_stats IS NOT NULL AND r.id_reservation IN (";
+
+    private static final String APPLY_QUERY_TAIL =
+            ") GROUP BY r.date_creation, r.id_utilisateur, r.destination_stats, r.statut " +
+            "ON DUPLICATE KEY UPDATE nombre = nombre + VALUES(nombre)";
+
+    /**
+     * Counts reservations in (sign = 1) or out of (sign = -1) their
+     * counters, using the caller's connection so the summary changes in the
+     * same transaction as the reservations. Call it with -1 before updating
+     * or deleting rows and with 1 after inserting or updating them.
+     * <p>
+     * Counting a reservation in first records its current destination on
+     * the row; uncounting it uses the recorded one, so it leaves exactly the
+     * counter it was added to. The counters are computed in SQL from the
+     * stored rows, so no reservation has to be loaded first.
+     * <p>
+     * A counter that would drop below zero violates the chk_stats_nombre
+     * constraint: the summary is out of sync with the reservation table (see
+     * rebuild()) and the caller's transaction fails instead of hiding the drift.
+     *
+     * @param connection Connection of the caller's transaction
+     * @param ids Reservation IDs
+     * @param sign 1 to count the reservations, -1 to uncount them
+     * @throws SQLException if the update fails or the summary is out of sync
+     */
+    static void apply(Connection connection, Collection<String> ids, int sign) throws SQLException {
+        List<String> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = list.subList(from, Math.min(from + IN_CHUNK_SIZE, list.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+
+            if (sign > 0) {
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        SNAPSHOT_QUERY_HEAD + placeholders + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setString(i + 1, chunk.get(i));
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    APPLY_QUERY_HEAD + placeholders + APPLY_QUERY_TAIL)) {
+                stmt.setInt(1, sign);
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 2, chunk.get(i));
+                }
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                if (e.getErrorCode() == ER_CHECK_CONSTRAINT_VIOLATED) {
+                    throw new SQLException("reservation_stats_jour is out of sync with reservation, "
+                            + "rebuild it with StatistiqueService.rebuild()", e.getSQLState(), e.getErrorCode(), e);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the summary table from the reservation table, recording the
+     * current destination of every reservation again.
+     * Only needed once for databases created before the summary table existed.
+     *
+     * @return true if successful, false otherwise
+     */
+    public boolean rebuild() {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            try {
+                stmt.executeUpdate("DELETE FROM reservation_stats_jour");
+                stmt.executeUpdate(
+                    "UPDATE reservation r " +
+                    "LEFT JOIN vol v ON r.id_vol = v.id_vol " +
+                    "LEFT JOIN hotel h ON r.id_hotel = h.id_hotel " +
+                    "SET r.destination_stats = COALESCE(v.destination, h.ville, '')");
+                stmt.executeUpdate(
+                    "INSERT INTO reservation_stats_jour (jour, id_utilisateur, destination, statut, nombre) " +
+                    "SELECT r.date_creation, r.id_utilisateur, r.destination_stats, r.statut, COUNT(*) " +
+                    "FROM reservation r " +
+                    "GROUP BY r.date_creation, r.id_utilisateur, r.destination_stats, r.statut");
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding reservation statistics: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Counts reservations, optionally restricted to a status and/or a user.
+     *
+     * @param statut Status to count, or null for all statuses
+     * @param idUtilisateur User to count for, or null for all users
+     * @return Number of reservations, or -1 on error
+     */
+    public long count(String statut, Integer idUtilisateur) {
+        StringBuilder query = new StringBuilder(
+                "SELECT COALESCE(SUM(nombre), 0) FROM reservation_stats_jour WHERE 1 = 1");
+        if (statut != null) {
+            query.append(" AND statut = ?");
+        }
+        if (idUtilisateur != null) {
+            query.append(" AND id_utilisateur = ?");
+        }
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+            int index = 1;
+            if (statut != null) {
+                stmt.setString(index++, statut);
+            }
+            if (idUtilisateur != null) {
+                stmt.setInt(index, idUtilisateur);
+            }
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting reservations: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Counts reservations created per day since a given day.
+     * Days without reservations are absent from the result.
+     *
+     * @param depuis First day (inclusive)
+     * @param idUtilisateur User to count for, or null for all users
+     * @return Number of reservations keyed by day, in ascending order
+     */
+    public Map<LocalDate, Long> countPerDay(LocalDate depuis, Integer idUtilisateur) {
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        String query = "SELECT jour, SUM(nombre) AS total FROM reservation_stats_jour " +
+                      "WHERE jour >= ?" + (idUtilisateur != null ? " AND id_utilisateur = ?" : "") +
+                      " GROUP BY jour";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setDate(1, Date.valueOf(depuis));
+            if (idUtilisateur != null) {
+                stmt.setInt(2, idUtilisateur);
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                counts.put(rs.getDate("jour").toLocalDate(), rs.getLong("total"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting reservations per day: " + e.getMessage());
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the most booked destinations.
+     *
+     * @param limit Maximum number of destinations
+     * @param idUtilisateur User to count for, or null for all users
+     * @return Number of reservations keyed by destination, most booked first
+     */
+    public Map<String, Long> topDestinations(int limit, Integer idUtilisateur) {
+        Map<String, Long> destinations = new LinkedHashMap<>();
+        String query = "SELECT destination, SUM(nombre) AS total FROM reservation_stats_jour " +
+                      "WHERE destination <> ''" + (idUtilisateur != null ? " AND id_utilisateur = ?" : "") +
+                      " GROUP BY destination HAVING total > 0 ORDER BY total DESC, destination LIMIT ?";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            if (idUtilisateur != null) {
+                stmt.setInt(index++, idUtilisateur);
+            }
+            stmt.setInt(index, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                destinations.put(rs.getString("destination"), rs.getLong("total"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving top destinations: " + e.getMessage());
+        }
+        return destinations;
+    }
+}
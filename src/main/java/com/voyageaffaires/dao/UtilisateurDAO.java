@@ -4,7 +4,12 @@ import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.utils.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Utilisateur entity.
@@ -12,15 +17,15 @@ import java.util.List;
  */
 public class UtilisateurDAO {
     
-    private Connection connection;
+    /** Maximum number of IDs bound in one IN (...) clause. */
+    private static final int IN_CHUNK_SIZE = 500;
     
-    public UtilisateurDAO() {
-        try {
-            this.connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            System.err.println("Error establishing database connection: " + e.getMessage());
-        }
-    }
+    /**
+     * Whether the ngram FULLTEXT indexes from database_schema.sql exist.
+     * Cleared on the first "no matching FULLTEXT index" error so older
+     * databases keep working with LIKE searches.
+     */
+    private static volatile boolean fullTextEnabled = true;
     
     /**
      * Finds a user by email.
@@ -31,7 +36,8 @@ public class UtilisateurDAO {
     public Utilisateur findByEmail(String email) {
         String query = "SELECT * FROM utilisateur WHERE email = ? AND actif = TRUE";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
             
@@ -53,7 +59,8 @@ public class UtilisateurDAO {
     public Utilisateur findById(int id) {
         String query = "SELECT * FROM utilisateur WHERE id_utilisateur = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             
@@ -66,6 +73,42 @@ public class UtilisateurDAO {
         return null;
     }
     
+    /**
+     * Finds several users at once.
+     * IDs are fetched with chunked IN (...) queries, so resolving a
+     * page of reservations costs one or two round trips instead of one per row.
+     * 
+     * @param ids User IDs (nulls and duplicates are ignored)
+     * @return Map of users keyed by ID; unknown IDs are absent
+     */
+    public Map<Integer, Utilisateur> findByIds(Collection<Integer> ids) {
+        Map<Integer, Utilisateur> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>(new LinkedHashSet<>(ids));
+        missing.remove(null);
+        
+        for (int from = 0; from < missing.size(); from += IN_CHUNK_SIZE) {
+            List<Integer> chunk = missing.subList(from, Math.min(from + IN_CHUNK_SIZE, missing.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String query = "SELECT * FROM utilisateur WHERE id_utilisateur IN (" + placeholders + ")";
+            
+            try (Connection connection = DatabaseConnection.getInstance().getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+                
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    Utilisateur user = mapResultSetToUtilisateur(rs);
+                    result.put(user.getIdUtilisateur(), user);
+                }
+            } catch (SQLException e) {
+                System.err.println("Error finding users by IDs: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+    
     /**
      * Retrieves all users from the database.
      * 
@@ -75,7 +118,8 @@ public class UtilisateurDAO {
         List<Utilisateur> users = new ArrayList<>();
         String query = "SELECT * FROM utilisateur WHERE actif = TRUE ORDER BY nom, prenom";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -87,6 +131,51 @@ public class UtilisateurDAO {
         return users;
     }
     
+    /**
+     * Counts active users.
+     * 
+     * @return Number of active users, or -1 on error
+     */
+    public long count() {
+        String query = "SELECT COUNT(*) FROM utilisateur WHERE actif = TRUE";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error counting users: " + e.getMessage());
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets the lowest BCrypt work factor among stored password hashes
+     * ("$2a$10$..."), i.e. the cost of the hashes not yet upgraded.
+     * 
+     * @return Lowest work factor, or -1 if there is none or on error
+     */
+    public int findLowestPasswordCost() {
+        String query = "SELECT MIN(CAST(SUBSTRING(mot_de_passe, 5, 2) AS UNSIGNED)) FROM utilisateur " +
+                      "WHERE mot_de_passe LIKE '$2_$__$%'";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            if (rs.next()) {
+                int cost = rs.getInt(1);
+                return rs.wasNull() ? -1 : cost;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading password hash costs: " + e.getMessage());
+        }
+        return -1;
+    }
+    
     /**
      * Saves a new user to the database.
      * 
@@ -97,7 +186,8 @@ public class UtilisateurDAO {
         String query = "INSERT INTO utilisateur (nom, prenom, email, telephone, departement, mot_de_passe, role) " +
                       "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getNom());
             stmt.setString(2, user.getPrenom());
             stmt.setString(3, user.getEmail());
@@ -131,7 +221,8 @@ public class UtilisateurDAO {
         String query = "UPDATE utilisateur SET nom = ?, prenom = ?, email = ?, telephone = ?, " +
                       "departement = ?, role = ? WHERE id_utilisateur = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, user.getNom());
             stmt.setString(2, user.getPrenom());
             stmt.setString(3, user.getEmail());
@@ -157,7 +248,8 @@ public class UtilisateurDAO {
     public boolean updatePassword(int userId, String newPassword) {
         String query = "UPDATE utilisateur SET mot_de_passe = ? WHERE id_utilisateur = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, newPassword);
             stmt.setInt(2, userId);
             
@@ -168,6 +260,31 @@ public class UtilisateurDAO {
         return false;
     }
     
+    /**
+     * Replaces a password hash only if it has not changed in the meantime,
+     * e.g. when upgrading a hash in the background after login.
+     * 
+     * @param userId User ID
+     * @param expectedPassword Hash currently expected in the database
+     * @param newPassword New hashed password
+     * @return true if the hash was replaced, false otherwise
+     */
+    public boolean updatePassword(int userId, String expectedPassword, String newPassword) {
+        String query = "UPDATE utilisateur SET mot_de_passe = ? WHERE id_utilisateur = ? AND mot_de_passe = ?";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, newPassword);
+            stmt.setInt(2, userId);
+            stmt.setString(3, expectedPassword);
+            
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating password: " + e.getMessage());
+        }
+        return false;
+    }
+    
     /**
      * Soft deletes a user (sets actif to false).
      * 
@@ -177,7 +294,8 @@ public class UtilisateurDAO {
     public boolean delete(int userId) {
         String query = "UPDATE utilisateur SET actif = FALSE WHERE id_utilisateur = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -188,26 +306,42 @@ public class UtilisateurDAO {
     
     /**
      * Searches users by name or email.
+     * Uses the ngram FULLTEXT index on (nom, prenom, email) when the term
+     * is long enough, and a LIKE scan otherwise.
      * 
      * @param searchTerm Search term
      * @return List of matching users
      */
     public List<Utilisateur> search(String searchTerm) {
         List<Utilisateur> users = new ArrayList<>();
-        String query = "SELECT * FROM utilisateur WHERE actif = TRUE AND " +
-                      "(nom LIKE ? OR prenom LIKE ? OR email LIKE ?) ORDER BY nom, prenom";
+        boolean fullText = fullTextEnabled && FullTextSearch.supports(searchTerm);
+        String query = fullText
+                ? "SELECT * FROM utilisateur WHERE actif = TRUE AND " +
+                  "MATCH(nom, prenom, email) AGAINST(? IN BOOLEAN MODE) ORDER BY nom, prenom"
+                : "SELECT * FROM utilisateur WHERE actif = TRUE AND " +
+                  "(nom LIKE ? OR prenom LIKE ? OR email LIKE ?) ORDER BY nom, prenom";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            String searchPattern = "%" + searchTerm + "%";
-            stmt.setString(1, searchPattern);
-            stmt.setString(2, searchPattern);
-            stmt.setString(3, searchPattern);
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            if (fullText) {
+                stmt.setString(1, FullTextSearch.toPhrase(searchTerm));
+            } else {
+                String searchPattern = FullTextSearch.toLikePattern(searchTerm);
+                stmt.setString(1, searchPattern);
+                stmt.setString(2, searchPattern);
+                stmt.setString(3, searchPattern);
+            }
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 users.add(mapResultSetToUtilisateur(rs));
             }
         } catch (SQLException e) {
+            if (fullTextEnabled && FullTextSearch.isMissingIndex(e)) {
+                System.err.println("FULLTEXT index missing on utilisateur, falling back to LIKE search");
+                fullTextEnabled = false;
+                return search(searchTerm);
+            }
             System.err.println("Error searching users: " + e.getMessage());
         }
         return users;
@@ -222,7 +356,8 @@ public class UtilisateurDAO {
     public boolean emailExists(String email) {
         String query = "SELECT COUNT(*) FROM utilisateur WHERE email = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
             
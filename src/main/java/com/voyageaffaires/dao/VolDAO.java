@@ -1,37 +1,93 @@
 package com.voyageaffaires.dao;
 
 import com.voyageaffaires.models.Vol;
+import com.voyageaffaires.utils.CatalogCache;
 import com.voyageaffaires.utils.DatabaseConnection;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for Vol (Flight) entity.
  */
 public class VolDAO {
     
-    private Connection connection;
+    /** Maximum number of IDs bound in one IN (...) clause. */
+    private static final int IN_CHUNK_SIZE = 500;
     
-    public VolDAO() {
-        try {
-            this.connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            System.err.println("Error establishing database connection: " + e.getMessage());
+    /**
+     * How far before the given time findModifiedSince reads again.
+     * date_modification is set when a row is written, not when its
+     * transaction commits, so a change committed late can carry a time
+     * older than the caller's watermark.
+     */
+    private static final long MODIFIED_SINCE_OVERLAP_SECONDS = 120;
+    
+    /**
+     * Whether the ngram FULLTEXT indexes from database_schema.sql exist.
+     * Cleared on the first "no matching FULLTEXT index" error so older
+     * databases keep working with LIKE searches.
+     */
+    private static volatile boolean fullTextEnabled = true;
+    
+    /**
+     * Shared read-through cache for flight lookups. Vol rows are reference
+     * data that rarely change, and findById is called from table cells,
+     * exports and the email path.
+     */
+    private static final CatalogCache<String, Vol> CACHE =
+            new CatalogCache<>("vol", 2000, 10 * 60 * 1000L);
+    
+    /**
+     * Gets the shared flight cache (for statistics).
+     * 
+     * @return Vol cache
+     */
+    public static CatalogCache<String, Vol> getCache() {
+        return CACHE;
+    }
+    
+    /**
+     * Evicts a flight from the cache. Must be called after any write to
+     * the vol table so stale data is not served.
+     * 
+     * @param idVol Flight ID, or null to clear the whole cache
+     */
+    public static void invalidate(String idVol) {
+        if (idVol == null) {
+            CACHE.invalidateAll();
+        } else {
+            CACHE.invalidate(idVol);
         }
     }
     
     /**
-     * Finds a flight by ID.
+     * Finds a flight by ID, served from the cache when possible.
      * 
      * @param idVol Flight ID
      * @return Vol object if found, null otherwise
      */
     public Vol findById(String idVol) {
+        return CACHE.get(idVol, this::loadById);
+    }
+    
+    /**
+     * Loads a flight by ID from the database.
+     * 
+     * @param idVol Flight ID
+     * @return Vol object if found, null otherwise
+     */
+    private Vol loadById(String idVol) {
         String query = "SELECT * FROM vol WHERE id_vol = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, idVol);
             ResultSet rs = stmt.executeQuery();
             
@@ -44,6 +100,50 @@ public class VolDAO {
         return null;
     }
     
+    /**
+     * Finds several flights at once, serving cached entries first.
+     * Missing IDs are fetched with chunked IN (...) queries, so resolving a
+     * page of reservations costs one or two round trips instead of one per row.
+     * 
+     * @param ids Flight IDs (nulls and duplicates are ignored)
+     * @return Map of flights keyed by ID; unknown IDs are absent
+     */
+    public Map<String, Vol> findByIds(Collection<String> ids) {
+        Set<String> wanted = new LinkedHashSet<>(ids);
+        wanted.remove(null);
+        Map<String, Vol> result = CACHE.getAllPresent(wanted);
+        List<String> missing = new ArrayList<>();
+        for (String id : wanted) {
+            if (!result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        long generation = CACHE.getGeneration();
+        
+        for (int from = 0; from < missing.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = missing.subList(from, Math.min(from + IN_CHUNK_SIZE, missing.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String query = "SELECT * FROM vol WHERE id_vol IN (" + placeholders + ")";
+            
+            try (Connection connection = DatabaseConnection.getInstance().getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    Vol vol = mapResultSetToVol(rs);
+                    result.put(vol.getIdVol(), vol);
+                    CACHE.put(vol.getIdVol(), vol, generation);
+                }
+            } catch (SQLException e) {
+                System.err.println("Error finding flights by IDs: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+    
     /**
      * Retrieves all available flights.
      * 
@@ -53,7 +153,8 @@ public class VolDAO {
         List<Vol> vols = new ArrayList<>();
         String query = "SELECT * FROM vol WHERE disponible = TRUE ORDER BY date_depart";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -65,8 +166,51 @@ public class VolDAO {
         return vols;
     }
     
+    /**
+     * Retrieves the flights changed since a given time (available or not),
+     * used to refresh the in-memory catalog incrementally.
+     * 
+     * Rows changed up to MODIFIED_SINCE_OVERLAP_SECONDS before that time are
+     * returned again, so callers must tolerate rows they already have.
+     * 
+     * @param since Change time to start from (inclusive), or null for all flights
+     * @return Changed flights with their change time, or null if the query failed
+     */
+    public List<Vol> findModifiedSince(LocalDateTime since) {
+        List<Vol> vols = new ArrayList<>();
+        String query = since == null ? "SELECT * FROM vol"
+                                     : "SELECT * FROM vol WHERE date_modification >= ?";
+        
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            if (since != null) {
+                stmt.setTimestamp(1, Timestamp.valueOf(since.minusSeconds(MODIFIED_SINCE_OVERLAP_SECONDS)));
+            }
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Vol vol = mapResultSetToVol(rs);
+                Timestamp modified = rs.getTimestamp("date_modification");
+                if (modified != null) {
+                    vol.setDateModification(modified.toLocalDateTime());
+                }
+                vols.add(vol);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving modified flights: " + e.getMessage());
+            return null;
+        }
+        return vols;
+    }
+    
+    /** Flights of one day to a destination: day start, next day start, LIKE pattern. */
+    static final String SEARCH_BY_DAY_QUERY = "SELECT * FROM vol WHERE disponible = TRUE " +
+            "AND date_depart >= ? AND date_depart < ? AND destination LIKE ? ORDER BY prix";
+    
     /**
      * Searches flights by destination and date.
+     * The day is matched as a half-open range on the raw date_depart column
+     * so the (disponible, date_depart) index can drive the scan.
      * 
      * @param destination Destination city
      * @param dateDepart Departure date
@@ -74,12 +218,13 @@ public class VolDAO {
      */
     public List<Vol> searchFlights(String destination, LocalDateTime dateDepart) {
         List<Vol> vols = new ArrayList<>();
-        String query = "SELECT * FROM vol WHERE disponible = TRUE AND destination LIKE ? " +
-                      "AND DATE(date_depart) = DATE(?) ORDER BY prix";
+        LocalDateTime dayStart = dateDepart.toLocalDate().atStartOfDay();
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, "%" + destination + "%");
-            stmt.setTimestamp(2, Timestamp.valueOf(dateDepart));
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SEARCH_BY_DAY_QUERY)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(dayStart));
+            stmt.setTimestamp(2, Timestamp.valueOf(dayStart.plusDays(1)));
+            stmt.setString(3, FullTextSearch.toLikePattern(destination));
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
@@ -91,8 +236,20 @@ public class VolDAO {
         return vols;
     }
     
+    /**
+     * Turns the FULLTEXT search path on or off, e.g. to compare it with the
+     * LIKE scan in a benchmark.
+     * 
+     * @param enabled true to use the ngram indexes when the term allows it
+     */
+    static void setFullTextEnabled(boolean enabled) {
+        fullTextEnabled = enabled;
+    }
+    
     /**
      * Searches flights with multiple criteria.
+     * Origin and destination use the ngram FULLTEXT indexes when the term is
+     * long enough, and a LIKE scan otherwise.
      * 
      * @param origine Origin city (optional)
      * @param destination Destination city (optional)
@@ -102,26 +259,32 @@ public class VolDAO {
     public List<Vol> searchFlightsAdvanced(String origine, String destination, Double maxPrix) {
         List<Vol> vols = new ArrayList<>();
         StringBuilder query = new StringBuilder("SELECT * FROM vol WHERE disponible = TRUE");
+        boolean origineFullText = fullTextEnabled && FullTextSearch.supports(origine);
+        boolean destinationFullText = fullTextEnabled && FullTextSearch.supports(destination);
         
         if (origine != null && !origine.isEmpty()) {
-            query.append(" AND origine LIKE ?");
+            query.append(origineFullText ? " AND MATCH(origine) AGAINST(? IN BOOLEAN MODE)" : " AND origine LIKE ?");
         }
         if (destination != null && !destination.isEmpty()) {
-            query.append(" AND destination LIKE ?");
+            query.append(destinationFullText
+                    ? " AND MATCH(destination) AGAINST(? IN BOOLEAN MODE)" : " AND destination LIKE ?");
         }
         if (maxPrix != null && maxPrix > 0) {
             query.append(" AND prix <= ?");
         }
         query.append(" ORDER BY prix");
         
-        try (PreparedStatement stmt = connection.prepareStatement(query.toString())) {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query.toString())) {
             int paramIndex = 1;
             
             if (origine != null && !origine.isEmpty()) {
-                stmt.setString(paramIndex++, "%" + origine + "%");
+                stmt.setString(paramIndex++, origineFullText
+                        ? FullTextSearch.toPhrase(origine) : FullTextSearch.toLikePattern(origine));
             }
             if (destination != null && !destination.isEmpty()) {
-                stmt.setString(paramIndex++, "%" + destination + "%");
+                stmt.setString(paramIndex++, destinationFullText
+                        ? FullTextSearch.toPhrase(destination) : FullTextSearch.toLikePattern(destination));
             }
             if (maxPrix != null && maxPrix > 0) {
                 stmt.setDouble(paramIndex++, maxPrix);
@@ -132,6 +295,11 @@ public class VolDAO {
                 vols.add(mapResultSetToVol(rs));
             }
         } catch (SQLException e) {
+            if (fullTextEnabled && FullTextSearch.isMissingIndex(e)) {
+                System.err.println("FULLTEXT indexes missing on vol, falling back to LIKE search");
+                fullTextEnabled = false;
+                return searchFlightsAdvanced(origine, destination, maxPrix);
+            }
             System.err.println("Error searching flights (advanced): " + e.getMessage());
         }
         return vols;
@@ -145,26 +313,38 @@ public class VolDAO {
      * @throws SQLException if error occurs
      */
     private Vol mapResultSetToVol(ResultSet rs) throws SQLException {
+        return mapResultSetToVol(rs, "");
+    }
+    
+    /**
+     * Maps prefixed vol columns of a joined ResultSet row to a Vol object.
+     * 
+     * @param rs ResultSet
+     * @param prefix Column alias prefix (empty for plain vol queries)
+     * @return Vol object
+     * @throws SQLException if error occurs
+     */
+    static Vol mapResultSetToVol(ResultSet rs, String prefix) throws SQLException {
         Vol vol = new Vol();
-        vol.setIdVol(rs.getString("id_vol"));
-        vol.setCompagnie(rs.getString("compagnie"));
-        vol.setOrigine(rs.getString("origine"));
-        vol.setDestination(rs.getString("destination"));
+        vol.setIdVol(rs.getString(prefix + "id_vol"));
+        vol.setCompagnie(rs.getString(prefix + "compagnie"));
+        vol.setOrigine(rs.getString(prefix + "origine"));
+        vol.setDestination(rs.getString(prefix + "destination"));
         
-        Timestamp dateDepart = rs.getTimestamp("date_depart");
+        Timestamp dateDepart = rs.getTimestamp(prefix + "date_depart");
         if (dateDepart != null) {
             vol.setDateDepart(dateDepart.toLocalDateTime());
         }
         
-        Timestamp dateArrivee = rs.getTimestamp("date_arrivee");
+        Timestamp dateArrivee = rs.getTimestamp(prefix + "date_arrivee");
         if (dateArrivee != null) {
             vol.setDateArrivee(dateArrivee.toLocalDateTime());
         }
         
-        vol.setPrix(rs.getDouble("prix"));
-        vol.setNombrePlaces(rs.getInt("nombre_places"));
-        vol.setClasse(rs.getString("classe"));
-        vol.setDisponible(rs.getBoolean("disponible"));
+        vol.setPrix(rs.getDouble(prefix + "prix"));
+        vol.setNombrePlaces(rs.getInt(prefix + "nombre_places"));
+        vol.setClasse(rs.getString(prefix + "classe"));
+        vol.setDisponible(rs.getBoolean(prefix + "disponible"));
         
         return vol;
     }
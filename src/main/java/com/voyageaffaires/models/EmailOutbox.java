@@ -0,0 +1,130 @@
+package com.voyageaffaires.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents a pending email notification in the outbox table.
+ * Messages are written in the same transaction as the reservation change
+ * and sent later by the email dispatcher.
+ */
+public class EmailOutbox {
+
+    // Notification types
+    public static final String TYPE_CONFIRMATION = "CONFIRMATION";
+    public static final String TYPE_ANNULATION = "ANNULATION";
+
+    // Statuses
+    public static final String STATUT_EN_ATTENTE = "EN_ATTENTE";
+    public static final String STATUT_EN_COURS = "EN_COURS";
+    public static final String STATUT_ENVOYE = "ENVOYE";
+    public static final String STATUT_ECHEC = "ECHEC";  // dead letter, no more retries
+
+    private long idEmail;
+    private String cleIdempotence;
+    private String type;
+    private String idReservation;
+    private String statut;
+    private int tentatives;
+    private LocalDateTime prochaineTentative;
+    private String derniereErreur;
+
+    // Constructors
+    public EmailOutbox() {
+        this.statut = STATUT_EN_ATTENTE;
+    }
+
+    public EmailOutbox(String type, String idReservation) {
+        this();
+        this.type = type;
+        this.idReservation = idReservation;
+        this.cleIdempotence = buildIdempotencyKey(type, idReservation);
+    }
+
+    /**
+     * Builds the idempotency key of a notification: the same event for the
+     * same reservation is queued (and therefore sent) at most once.
+     *
+     * @param type Notification type
+     * @param idReservation Reservation ID
+     * @return Idempotency key
+     */
+    public static String buildIdempotencyKey(String type, String idReservation) {
+        return type + ":" + idReservation;
+    }
+
+    // Getters and Setters
+    public long getIdEmail() {
+        return idEmail;
+    }
+
+    public void setIdEmail(long idEmail) {
+        this.idEmail = idEmail;
+    }
+
+    public String getCleIdempotence() {
+        return cleIdempotence;
+    }
+
+    public void setCleIdempotence(String cleIdempotence) {
+        this.cleIdempotence = cleIdempotence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getIdReservation() {
+        return idReservation;
+    }
+
+    public void setIdReservation(String idReservation) {
+        this.idReservation = idReservation;
+    }
+
+    public String getStatut() {
+        return statut;
+    }
+
+    public void setStatut(String statut) {
+        this.statut = statut;
+    }
+
+    public int getTentatives() {
+        return tentatives;
+    }
+
+    public void setTentatives(int tentatives) {
+        this.tentatives = tentatives;
+    }
+
+    public LocalDateTime getProchaineTentative() {
+        return prochaineTentative;
+    }
+
+    public void setProchaineTentative(LocalDateTime prochaineTentative) {
+        this.prochaineTentative = prochaineTentative;
+    }
+
+    public String getDerniereErreur() {
+        return derniereErreur;
+    }
+
+    public void setDerniereErreur(String derniereErreur) {
+        this.derniereErreur = derniereErreur;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailOutbox{" +
+                "id=" + idEmail +
+                ", type='" + type + '\'' +
+                ", idReservation='" + idReservation + '\'' +
+                ", statut='" + statut + '\'' +
+                ", tentatives=" + tentatives +
+                '}';
+    }
+}
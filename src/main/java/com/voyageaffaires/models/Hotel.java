@@ -1,5 +1,7 @@
 package com.voyageaffaires.models;
 
+import java.time.LocalDateTime;
+
 /**
  * Represents a hotel in the system.
  */
@@ -13,6 +15,7 @@ public class Hotel {
     private int etoiles;  // 1-5 stars
     private double prixParNuit;
     private boolean disponible;
+    private LocalDateTime dateModification;  // last change, used to refresh the in-memory catalog
     
     // Constructors
     public Hotel() {
@@ -96,6 +99,14 @@ public class Hotel {
         this.disponible = disponible;
     }
     
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+    
+    public void setDateModification(LocalDateTime dateModification) {
+        this.dateModification = dateModification;
+    }
+    
     /**
      * Returns a star rating string (e.g., "⭐⭐⭐⭐⭐").
      * 
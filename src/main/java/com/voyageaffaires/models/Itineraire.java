@@ -0,0 +1,78 @@
+package com.voyageaffaires.models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a trip made of one or more flights, with connections between
+ * them (e.g. Monastir → Tunis → Paris).
+ */
+public class Itineraire {
+
+    private final List<Vol> vols;
+    private final double prixTotal;
+
+    public Itineraire(List<Vol> vols) {
+        this.vols = Collections.unmodifiableList(vols);
+        double total = 0.0;
+        for (Vol vol : vols) {
+            total += vol.getPrix();
+        }
+        this.prixTotal = total;
+    }
+
+    // Getters
+    public List<Vol> getVols() {
+        return vols;
+    }
+
+    public double getPrixTotal() {
+        return prixTotal;
+    }
+
+    public LocalDateTime getDateDepart() {
+        return vols.get(0).getDateDepart();
+    }
+
+    public LocalDateTime getDateArrivee() {
+        return vols.get(vols.size() - 1).getDateArrivee();
+    }
+
+    public int getNombreEscales() {
+        return vols.size() - 1;
+    }
+
+    /**
+     * Gets the total travel time, connections included.
+     *
+     * @return Time from the first departure to the last arrival
+     */
+    public Duration getDureeTotale() {
+        return Duration.between(getDateDepart(), getDateArrivee());
+    }
+
+    /**
+     * Gets the cities of the trip, e.g. "Monastir → Tunis → Paris".
+     *
+     * @return Route description
+     */
+    public String getEtapes() {
+        StringBuilder etapes = new StringBuilder(vols.get(0).getOrigine());
+        for (Vol vol : vols) {
+            etapes.append(" → ").append(vol.getDestination());
+        }
+        return etapes.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "Itineraire{" +
+                "etapes='" + getEtapes() + '\'' +
+                ", depart=" + getDateDepart() +
+                ", arrivee=" + getDateArrivee() +
+                ", prixTotal=" + prixTotal +
+                '}';
+    }
+}
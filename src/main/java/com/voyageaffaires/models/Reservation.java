@@ -160,6 +160,35 @@ public class Reservation {
         this.hotel = hotel;
     }
     
+    /**
+     * Gets the flight route for display, resolved from the flight loaded
+     * with the reservation (no database access).
+     * 
+     * @return "Origine → Destination", or null if no flight is loaded
+     */
+    public String getVolLibelle() {
+        return vol != null ? vol.getOrigine() + " → " + vol.getDestination() : null;
+    }
+    
+    /**
+     * Gets the hotel name for display, resolved from the hotel loaded
+     * with the reservation (no database access).
+     * 
+     * @return Hotel name, or null if no hotel is loaded
+     */
+    public String getHotelNom() {
+        return hotel != null ? hotel.getNom() : null;
+    }
+    
+    /**
+     * Gets the hotel name and city for display.
+     * 
+     * @return "Nom (Ville)", or null if no hotel is loaded
+     */
+    public String getHotelLibelle() {
+        return hotel != null ? hotel.getNom() + " (" + hotel.getVille() + ")" : null;
+    }
+    
     /**
      * Generates a unique reservation ID.
      * 
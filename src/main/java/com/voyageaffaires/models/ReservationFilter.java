@@ -0,0 +1,81 @@
+package com.voyageaffaires.models;
+
+import java.time.LocalDate;
+
+/**
+ * Filter criteria for paginated reservation queries.
+ * All criteria are optional; null means "no restriction".
+ */
+public class ReservationFilter {
+    
+    private String statut;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private Integer idUtilisateur;
+    
+    // Constructors
+    public ReservationFilter() {
+    }
+    
+    public ReservationFilter(String statut, LocalDate dateDebut, LocalDate dateFin, Integer idUtilisateur) {
+        this.statut = statut;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.idUtilisateur = idUtilisateur;
+    }
+    
+    /**
+     * Creates a filter restricted to one user's reservations.
+     * 
+     * @param idUtilisateur User ID
+     * @return Filter on that user
+     */
+    public static ReservationFilter forUser(int idUtilisateur) {
+        ReservationFilter filter = new ReservationFilter();
+        filter.setIdUtilisateur(idUtilisateur);
+        return filter;
+    }
+    
+    // Getters and Setters
+    public String getStatut() {
+        return statut;
+    }
+    
+    public void setStatut(String statut) {
+        this.statut = statut;
+    }
+    
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+    
+    public void setDateDebut(LocalDate dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+    
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+    
+    public void setDateFin(LocalDate dateFin) {
+        this.dateFin = dateFin;
+    }
+    
+    public Integer getIdUtilisateur() {
+        return idUtilisateur;
+    }
+    
+    public void setIdUtilisateur(Integer idUtilisateur) {
+        this.idUtilisateur = idUtilisateur;
+    }
+    
+    @Override
+    public String toString() {
+        return "ReservationFilter{" +
+                "statut='" + statut + '\'' +
+                ", dateDebut=" + dateDebut +
+                ", dateFin=" + dateFin +
+                ", idUtilisateur=" + idUtilisateur +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.voyageaffaires.models;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of reservations returned by a keyset-paginated query,
+ * ordered by (date_creation, id_reservation) descending.
+ */
+public class ReservationPage {
+    
+    private final List<Reservation> reservations;
+    private final Cursor nextCursor;
+    
+    public ReservationPage(List<Reservation> reservations, Cursor nextCursor) {
+        this.reservations = Collections.unmodifiableList(reservations);
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Reservation> getReservations() {
+        return reservations;
+    }
+    
+    /**
+     * Gets the cursor to pass to fetch the following page.
+     * 
+     * @return Next cursor, or null if this is the last page
+     */
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+    
+    /**
+     * Position in the (date_creation, id_reservation) ordering.
+     * The next page starts strictly after this position.
+     */
+    public static final class Cursor {
+        
+        private final LocalDate dateCreation;
+        private final String idReservation;
+        
+        public Cursor(LocalDate dateCreation, String idReservation) {
+            this.dateCreation = dateCreation;
+            this.idReservation = idReservation;
+        }
+        
+        /**
+         * Builds the cursor positioned on a given reservation.
+         * 
+         * @param reservation Last reservation of a page
+         * @return Cursor after that reservation
+         */
+        public static Cursor after(Reservation reservation) {
+            return new Cursor(reservation.getDateCreation(), reservation.getIdReservation());
+        }
+        
+        public LocalDate getDateCreation() {
+            return dateCreation;
+        }
+        
+        public String getIdReservation() {
+            return idReservation;
+        }
+        
+        @Override
+        public String toString() {
+            return dateCreation + "/" + idReservation;
+        }
+    }
+}
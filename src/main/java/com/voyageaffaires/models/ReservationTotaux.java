@@ -0,0 +1,24 @@
+package com.voyageaffaires.models;
+
+/**
+ * Number and total amount of the reservations matching a filter,
+ * computed by the database in one aggregate query.
+ */
+public class ReservationTotaux {
+
+    private final long nombre;
+    private final double montantTotal;
+
+    public ReservationTotaux(long nombre, double montantTotal) {
+        this.nombre = nombre;
+        this.montantTotal = montantTotal;
+    }
+
+    public long getNombre() {
+        return nombre;
+    }
+
+    public double getMontantTotal() {
+        return montantTotal;
+    }
+}
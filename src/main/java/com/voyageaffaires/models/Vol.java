@@ -17,6 +17,7 @@ public class Vol {
     private int nombrePlaces;
     private String classe;  // ECONOMIE, BUSINESS, PREMIERE
     private boolean disponible;
+    private LocalDateTime dateModification;  // last change, used to refresh the in-memory catalog
     
     // Constructors
     public Vol() {
@@ -118,6 +119,14 @@ public class Vol {
         this.disponible = disponible;
     }
     
+    public LocalDateTime getDateModification() {
+        return dateModification;
+    }
+    
+    public void setDateModification(LocalDateTime dateModification) {
+        this.dateModification = dateModification;
+    }
+    
     /**
      * Returns a formatted string of the flight route.
      * 
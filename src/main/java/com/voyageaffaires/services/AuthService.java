@@ -2,55 +2,167 @@ package com.voyageaffaires.services;
 
 import com.voyageaffaires.dao.UtilisateurDAO;
 import com.voyageaffaires.models.Utilisateur;
+import com.voyageaffaires.utils.LoginThrottle;
 import com.voyageaffaires.utils.PasswordUtil;
+import com.voyageaffaires.utils.PasswordVerifier;
 import com.voyageaffaires.utils.SessionManager;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Service class for authentication operations.
  */
 public class AuthService {
     
+    /**
+     * Outcome of a login attempt.
+     */
+    public enum LoginResult {
+        SUCCESS,
+        INVALID_CREDENTIALS,
+        LOCKED,     // too many failed attempts, rejected without checking
+        BUSY        // password checks saturated, try again shortly
+    }
+    
+    // Failed logins: 5 per email or 20 per workstation within 15 minutes lock
+    // the key for 30 s, doubled by each further failure up to 15 minutes
+    private static final long THROTTLE_WINDOW_MS = 15 * 60 * 1000;
+    private static final long THROTTLE_BASE_LOCK_MS = 30 * 1000;
+    private static final long THROTTLE_MAX_LOCK_MS = 15 * 60 * 1000;
+    private static final int THROTTLE_MAX_EMAILS = 10000;
+    
+    private static final LoginThrottle EMAIL_THROTTLE = new LoginThrottle("email",
+            THROTTLE_MAX_EMAILS, THROTTLE_WINDOW_MS, 5, THROTTLE_BASE_LOCK_MS, THROTTLE_MAX_LOCK_MS);
+    
+    // This is a desktop client: every login in this process comes from the
+    // same workstation, so the source throttle holds a single key and locks
+    // the login screen after 20 failures across any emails (password
+    // spraying from an unattended workstation). A successful login resets it.
+    private static final LoginThrottle SOURCE_THROTTLE = new LoginThrottle("source",
+            1, THROTTLE_WINDOW_MS, 20, THROTTLE_BASE_LOCK_MS, THROTTLE_MAX_LOCK_MS);
+    
+    private static volatile String sourceKey;
+    
     private UtilisateurDAO utilisateurDAO;
     private SessionManager sessionManager;
+    private PasswordVerifier passwordVerifier;
     
     public AuthService() {
         this.utilisateurDAO = new UtilisateurDAO();
         this.sessionManager = SessionManager.getInstance();
+        this.passwordVerifier = PasswordVerifier.getInstance();
     }
     
     /**
      * Authenticates a user with email and password.
+     * Blocks while the password is checked: call it off the FX thread.
      * 
      * @param email User email
      * @param password Plain text password
-     * @return true if authentication successful, false otherwise
+     * @return Login outcome
      */
-    public boolean login(String email, String password) {
+    public LoginResult login(String email, String password) {
         // Validate inputs
         if (email == null || email.trim().isEmpty() || 
             password == null || password.trim().isEmpty()) {
-            return false;
+            return LoginResult.INVALID_CREDENTIALS;
+        }
+        
+        // Reject locked emails and workstations before any database or password work
+        String emailKey = email.trim().toLowerCase(Locale.ROOT);
+        String source = getSourceKey();
+        if (EMAIL_THROTTLE.getRemainingLockMillis(emailKey) > 0
+                || SOURCE_THROTTLE.getRemainingLockMillis(source) > 0) {
+            System.out.println("Login rejected, too many failed attempts: " + email
+                               + " (" + getThrottleStatistics() + ")");
+            return LoginResult.LOCKED;
         }
         
         // Find user by email
         Utilisateur user = utilisateurDAO.findByEmail(email.trim());
         
-        if (user == null) {
-            System.out.println("User not found: " + email);
-            return false;
+        // Verify password; unknown users are checked against a dummy hash
+        // so both cases take the same time
+        boolean valid;
+        try {
+            valid = passwordVerifier.verify(password, user != null ? user.getMotDePasse() : null);
+        } catch (RejectedExecutionException e) {
+            System.err.println("Login refused, password verification saturated: " + e.getMessage());
+            return LoginResult.BUSY;
         }
         
-        // Verify password
-        if (!PasswordUtil.verifyPassword(password, user.getMotDePasse())) {
-            System.out.println("Invalid password for user: " + email);
-            return false;
+        if (user == null || !valid) {
+            System.out.println(user == null ? "User not found: " + email : "Invalid password for user: " + email);
+            EMAIL_THROTTLE.recordFailure(emailKey);
+            SOURCE_THROTTLE.recordFailure(source);
+            return LoginResult.INVALID_CREDENTIALS;
+        }
+        EMAIL_THROTTLE.reset(emailKey);
+        SOURCE_THROTTLE.reset(source);
+        
+        // Upgrade hashes created with an older, lower work factor
+        if (PasswordUtil.needsRehash(user.getMotDePasse())) {
+            rehashInBackground(user.getIdUtilisateur(), user.getMotDePasse(), password);
         }
         
         // Set current user in session
         sessionManager.setCurrentUser(user);
         System.out.println("Login successful for: " + user.getFullName());
         
-        return true;
+        return LoginResult.SUCCESS;
+    }
+    
+    /**
+     * Replaces a password hash with one using the current work factor, off
+     * the login path. The hash is only replaced if the password did not
+     * change in the meantime.
+     * 
+     * @param userId User ID
+     * @param oldHash Hash the password was verified against
+     * @param password Verified plain text password
+     */
+    private void rehashInBackground(int userId, String oldHash, String password) {
+        passwordVerifier.runAsync(() -> {
+            String newHash = PasswordUtil.hashPassword(password);
+            if (utilisateurDAO.updatePassword(userId, oldHash, newHash)) {
+                System.out.println("Password hash upgraded to work factor " + PasswordUtil.getWorkFactor()
+                                   + " for user " + userId);
+                // The dummy hash follows once no stored hash uses the old cost
+                passwordVerifier.refreshDummyCost();
+            }
+        });
+    }
+    
+    /**
+     * Gets the key identifying this workstation for login throttling.
+     * It is the same for every login made by this process.
+     * 
+     * @return Local user and host name
+     */
+    private static String getSourceKey() {
+        String key = sourceKey;
+        if (key == null) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "localhost";
+            }
+            key = System.getProperty("user.name") + "@" + host;
+            sourceKey = key;
+        }
+        return key;
+    }
+    
+    /**
+     * Gets the login throttling statistics (failures, lockouts, rejected attempts).
+     * 
+     * @return Statistics of the email and workstation throttles
+     */
+    public static String getThrottleStatistics() {
+        return EMAIL_THROTTLE + ", " + SOURCE_THROTTLE;
     }
     
     /**
@@ -0,0 +1,483 @@
+package com.voyageaffaires.services;
+
+import com.voyageaffaires.dao.HotelDAO;
+import com.voyageaffaires.dao.VolDAO;
+import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.models.Itineraire;
+import com.voyageaffaires.models.Vol;
+import com.voyageaffaires.utils.FlightRouter;
+import com.voyageaffaires.utils.PrefixSuggester;
+import com.voyageaffaires.utils.SubstringIndex;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory catalog of flights and hotels answering the search screens
+ * without querying the database.
+ * The catalog is loaded once at startup, then refreshed every minute with
+ * only the rows whose date_modification changed; a full reload every half
+ * hour picks up deleted rows. Each refresh publishes new immutable indexes:
+ * <ul>
+ *   <li>rows sorted by price with a parallel price array (price bound by binary search);</li>
+ *   <li>substring tries on origin, destination and city;</li>
+ *   <li>flights bucketed by departure day;</li>
+ *   <li>type-ahead suggesters on the distinct city names.</li>
+ * </ul>
+ * Until the first load completes (or if it fails), searches fall back to the DAOs.
+ */
+public class CatalogService {
+
+    private static final long REFRESH_INTERVAL_SECONDS = 60;
+
+    /** Every n-th refresh reloads everything, to drop deleted rows. */
+    private static final int FULL_RELOAD_EVERY = 30;
+
+    private static CatalogService instance;
+
+    private final VolDAO volDAO;
+    private final HotelDAO hotelDAO;
+    private final ScheduledExecutorService scheduler;
+    private boolean started;
+
+    // Refresh state, only used by the refresh thread
+    private final Map<String, Vol> vols = new HashMap<>();
+    private final Map<String, Hotel> hotels = new HashMap<>();
+    private LocalDateTime volWatermark;
+    private LocalDateTime hotelWatermark;
+    private int refreshCount;
+
+    // Published indexes, replaced as a whole after each refresh
+    private volatile FlightIndex flightIndex;
+    private volatile HotelIndex hotelIndex;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CatalogService() {
+        this.volDAO = new VolDAO();
+        this.hotelDAO = new HotelDAO();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the singleton instance of CatalogService.
+     *
+     * @return CatalogService instance
+     */
+    public static synchronized CatalogService getInstance() {
+        if (instance == null) {
+            instance = new CatalogService();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the catalog in the background and schedules its refreshes.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        started = true;
+    }
+
+    /**
+     * Stops the refreshes.
+     */
+    public synchronized void shutdown() {
+        scheduler.shutdownNow();
+        started = false;
+    }
+
+    /**
+     * Checks whether searches are served from memory.
+     *
+     * @return true once the catalog has been loaded
+     */
+    public boolean isReady() {
+        return flightIndex != null && hotelIndex != null;
+    }
+
+    // ----- Flights -----
+
+    /**
+     * Retrieves all available flights, by departure date.
+     *
+     * @return List of available flights
+     */
+    public List<Vol> getAvailableFlights() {
+        FlightIndex index = flightIndex;
+        if (index == null) {
+            return volDAO.findAllAvailable();
+        }
+        return new ArrayList<>(index.byDeparture);
+    }
+
+    /**
+     * Searches available flights, cheapest first.
+     *
+     * @param origine Origin city, matched anywhere in the name (optional)
+     * @param destination Destination city, matched anywhere in the name (optional)
+     * @param maxPrix Maximum price (optional)
+     * @return List of matching flights
+     */
+    public List<Vol> searchFlights(String origine, String destination, Double maxPrix) {
+        FlightIndex index = flightIndex;
+        if (index == null) {
+            return volDAO.searchFlightsAdvanced(origine, destination, maxPrix);
+        }
+
+        BitSet rows = new BitSet();
+        rows.set(0, upperBound(index.prices, maxPrix));
+        and(rows, index.origines.find(origine));
+        and(rows, index.destinations.find(destination));
+        return collect(rows, index.byPrice);
+    }
+
+    /**
+     * Searches available flights to a destination departing on a given day,
+     * cheapest first.
+     *
+     * @param destination Destination city, matched anywhere in the name
+     * @param jour Departure day
+     * @return List of matching flights
+     */
+    public List<Vol> searchFlights(String destination, LocalDate jour) {
+        FlightIndex index = flightIndex;
+        if (index == null) {
+            return volDAO.searchFlights(destination, jour.atStartOfDay());
+        }
+
+        BitSet day = index.byDay.get(jour);
+        if (day == null) {
+            return new ArrayList<>();
+        }
+        BitSet rows = (BitSet) day.clone();
+        and(rows, index.destinations.find(destination));
+        return collect(rows, index.byPrice);
+    }
+
+    /**
+     * Finds the best itineraries between two cities, with connections when
+     * no direct flight fits. See FlightRouter for the connection rules.
+     *
+     * @param origine Departure city
+     * @param destination Arrival city
+     * @param jour Day of the first departure, or null for any future departure
+     * @param critere Cheapest or fastest first
+     * @param k Maximum number of itineraries
+     * @return Itineraires, best first
+     */
+    public List<Itineraire> findItineraries(String origine, String destination, LocalDate jour,
+                                            FlightRouter.Critere critere, int k) {
+        FlightIndex index = flightIndex;
+        FlightRouter router = index != null ? index.router : new FlightRouter(volDAO.findAllAvailable());
+        return router.findItineraries(origine, destination, jour, critere, k);
+    }
+
+    /**
+     * Suggests flight origins starting with the typed text.
+     *
+     * @param prefix Typed text
+     * @param limit Maximum number of suggestions
+     * @return Origins, most served first (empty until the catalog is loaded)
+     */
+    public List<String> suggestOrigines(String prefix, int limit) {
+        FlightIndex index = flightIndex;
+        return index == null ? Collections.emptyList() : index.origineSuggestions.suggest(prefix, limit);
+    }
+
+    /**
+     * Suggests flight destinations starting with the typed text.
+     *
+     * @param prefix Typed text
+     * @param limit Maximum number of suggestions
+     * @return Destinations, most served first (empty until the catalog is loaded)
+     */
+    public List<String> suggestDestinations(String prefix, int limit) {
+        FlightIndex index = flightIndex;
+        return index == null ? Collections.emptyList() : index.destinationSuggestions.suggest(prefix, limit);
+    }
+
+    /**
+     * Suggests cities served by flights (as origin or destination).
+     *
+     * @param prefix Typed text
+     * @param limit Maximum number of suggestions
+     * @return Cities, most served first (empty until the catalog is loaded)
+     */
+    public List<String> suggestFlightCities(String prefix, int limit) {
+        FlightIndex index = flightIndex;
+        return index == null ? Collections.emptyList() : index.citySuggestions.suggest(prefix, limit);
+    }
+
+    // ----- Hotels -----
+
+    /**
+     * Retrieves all available hotels, by city and name.
+     *
+     * @return List of available hotels
+     */
+    public List<Hotel> getAvailableHotels() {
+        HotelIndex index = hotelIndex;
+        if (index == null) {
+            return hotelDAO.findAllAvailable();
+        }
+        return new ArrayList<>(index.byCity);
+    }
+
+    /**
+     * Searches available hotels, cheapest first.
+     *
+     * @param ville City, matched anywhere in the name (optional)
+     * @param minEtoiles Minimum star rating (optional)
+     * @param maxPrix Maximum price per night (optional)
+     * @return List of matching hotels
+     */
+    public List<Hotel> searchHotels(String ville, Integer minEtoiles, Double maxPrix) {
+        HotelIndex index = hotelIndex;
+        if (index == null) {
+            return hotelDAO.searchHotelsAdvanced(ville, minEtoiles, maxPrix);
+        }
+
+        BitSet rows = new BitSet();
+        rows.set(0, upperBound(index.prices, maxPrix));
+        and(rows, index.villes.find(ville));
+        if (minEtoiles != null && minEtoiles > 0) {
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                if (index.etoiles[row] < minEtoiles) {
+                    rows.clear(row);
+                }
+            }
+        }
+        return collect(rows, index.byPrice);
+    }
+
+    /**
+     * Suggests hotel cities starting with the typed text.
+     *
+     * @param prefix Typed text
+     * @param limit Maximum number of suggestions
+     * @return Cities, most hotels first (empty until the catalog is loaded)
+     */
+    public List<String> suggestVilles(String prefix, int limit) {
+        HotelIndex index = hotelIndex;
+        return index == null ? Collections.emptyList() : index.villeSuggestions.suggest(prefix, limit);
+    }
+
+    // ----- Refresh -----
+
+    private void refresh() {
+        try {
+            boolean full = refreshCount++ % FULL_RELOAD_EVERY == 0;
+            refreshFlights(full);
+            refreshHotels(full);
+        } catch (RuntimeException e) {
+            // Never let an error cancel the periodic task
+            System.err.println("Error refreshing catalog: " + e.getMessage());
+        }
+    }
+
+    private void refreshFlights(boolean full) {
+        List<Vol> changed = volDAO.findModifiedSince(full ? null : volWatermark);
+        if (changed == null) {
+            return;
+        }
+        if (full) {
+            vols.clear();
+            VolDAO.invalidate(null);
+        }
+
+        int updates = 0;
+        for (Vol vol : changed) {
+            Vol previous = vols.put(vol.getIdVol(), vol);
+            // Recent rows are read again on the next refresh (see findModifiedSince)
+            if (previous == null || !Objects.equals(previous.getDateModification(), vol.getDateModification())) {
+                updates++;
+                if (!full) {
+                    VolDAO.invalidate(vol.getIdVol());
+                }
+            }
+            volWatermark = max(volWatermark, vol.getDateModification());
+        }
+
+        if (full || updates > 0 || flightIndex == null) {
+            flightIndex = new FlightIndex(vols.values());
+            System.out.println("Flight catalog " + (full ? "loaded" : "updated") + ": "
+                               + (full ? vols.size() : updates) + " flight(s)");
+        }
+    }
+
+    private void refreshHotels(boolean full) {
+        List<Hotel> changed = hotelDAO.findModifiedSince(full ? null : hotelWatermark);
+        if (changed == null) {
+            return;
+        }
+        if (full) {
+            hotels.clear();
+            HotelDAO.invalidate(null);
+        }
+
+        int updates = 0;
+        for (Hotel hotel : changed) {
+            Hotel previous = hotels.put(hotel.getIdHotel(), hotel);
+            if (previous == null || !Objects.equals(previous.getDateModification(), hotel.getDateModification())) {
+                updates++;
+                if (!full) {
+                    HotelDAO.invalidate(hotel.getIdHotel());
+                }
+            }
+            hotelWatermark = max(hotelWatermark, hotel.getDateModification());
+        }
+
+        if (full || updates > 0 || hotelIndex == null) {
+            hotelIndex = new HotelIndex(hotels.values());
+            System.out.println("Hotel catalog " + (full ? "loaded" : "updated") + ": "
+                               + (full ? hotels.size() : updates) + " hotel(s)");
+        }
+    }
+
+    // ----- Helpers -----
+
+    private static LocalDateTime max(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    /**
+     * Counts the rows whose price is within the bound (prices are sorted).
+     */
+    private static int upperBound(double[] prices, Double maxPrix) {
+        if (maxPrix == null || maxPrix <= 0) {
+            return prices.length;
+        }
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= maxPrix) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void and(BitSet rows, BitSet filter) {
+        if (filter != null) {
+            rows.and(filter);
+        }
+    }
+
+    private static <T> List<T> collect(BitSet rows, T[] byPrice) {
+        List<T> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(byPrice[row]);
+        }
+        return result;
+    }
+
+    /**
+     * Indexes over the available flights. Row positions refer to byPrice.
+     */
+    private static final class FlightIndex {
+        final Vol[] byPrice;
+        final double[] prices;
+        final SubstringIndex origines;
+        final SubstringIndex destinations;
+        final Map<LocalDate, BitSet> byDay = new HashMap<>();
+        final List<Vol> byDeparture;
+        final PrefixSuggester origineSuggestions;
+        final PrefixSuggester destinationSuggestions;
+        final PrefixSuggester citySuggestions;
+        final FlightRouter router;
+
+        FlightIndex(Collection<Vol> all) {
+            byPrice = all.stream()
+                    .filter(Vol::isDisponible)
+                    .sorted(Comparator.comparingDouble(Vol::getPrix).thenComparing(Vol::getIdVol))
+                    .toArray(Vol[]::new);
+
+            prices = new double[byPrice.length];
+            List<String> origineValues = new ArrayList<>(byPrice.length);
+            List<String> destinationValues = new ArrayList<>(byPrice.length);
+            for (int row = 0; row < byPrice.length; row++) {
+                Vol vol = byPrice[row];
+                prices[row] = vol.getPrix();
+                origineValues.add(vol.getOrigine());
+                destinationValues.add(vol.getDestination());
+                if (vol.getDateDepart() != null) {
+                    byDay.computeIfAbsent(vol.getDateDepart().toLocalDate(), d -> new BitSet()).set(row);
+                }
+            }
+            origines = new SubstringIndex(origineValues);
+            destinations = new SubstringIndex(destinationValues);
+            origineSuggestions = new PrefixSuggester(origineValues);
+            destinationSuggestions = new PrefixSuggester(destinationValues);
+            List<String> cityValues = new ArrayList<>(origineValues);
+            cityValues.addAll(destinationValues);
+            citySuggestions = new PrefixSuggester(cityValues);
+
+            List<Vol> departures = new ArrayList<>(Arrays.asList(byPrice));
+            departures.sort(Comparator.comparing(Vol::getDateDepart, Comparator.nullsLast(Comparator.naturalOrder())));
+            byDeparture = Collections.unmodifiableList(departures);
+            router = new FlightRouter(byDeparture);
+        }
+    }
+
+    /**
+     * Indexes over the available hotels. Row positions refer to byPrice.
+     */
+    private static final class HotelIndex {
+        final Hotel[] byPrice;
+        final double[] prices;
+        final int[] etoiles;
+        final SubstringIndex villes;
+        final PrefixSuggester villeSuggestions;
+        final List<Hotel> byCity;
+
+        HotelIndex(Collection<Hotel> all) {
+            byPrice = all.stream()
+                    .filter(Hotel::isDisponible)
+                    .sorted(Comparator.comparingDouble(Hotel::getPrixParNuit).thenComparing(Hotel::getIdHotel))
+                    .toArray(Hotel[]::new);
+
+            prices = new double[byPrice.length];
+            etoiles = new int[byPrice.length];
+            List<String> villeValues = new ArrayList<>(byPrice.length);
+            for (int row = 0; row < byPrice.length; row++) {
+                prices[row] = byPrice[row].getPrixParNuit();
+                etoiles[row] = byPrice[row].getEtoiles();
+                villeValues.add(byPrice[row].getVille());
+            }
+            villes = new SubstringIndex(villeValues);
+            villeSuggestions = new PrefixSuggester(villeValues);
+
+            List<Hotel> cities = new ArrayList<>(Arrays.asList(byPrice));
+            cities.sort(Comparator.comparing(Hotel::getVille, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Hotel::getNom, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+            byCity = Collections.unmodifiableList(cities);
+        }
+    }
+}
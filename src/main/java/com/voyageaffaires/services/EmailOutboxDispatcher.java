@@ -0,0 +1,223 @@
+package com.voyageaffaires.services;
+
+import com.voyageaffaires.dao.EmailOutboxDAO;
+import com.voyageaffaires.dao.ReservationDAO;
+import com.voyageaffaires.dao.UtilisateurDAO;
+import com.voyageaffaires.models.EmailOutbox;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.Utilisateur;
+import com.voyageaffaires.utils.EmailService;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends the notifications queued in the email outbox.
+ * Runs on a background thread, polling the outbox and woken up right after
+ * a reservation queues a message. Failed deliveries are retried with
+ * exponential backoff; after MAX_ATTEMPTS the message is dead-lettered
+ * (status ECHEC) and kept for inspection. Delivery is at-least-once: a
+ * message is resent only if the dispatcher dies between sending it and
+ * recording it as sent.
+ */
+public class EmailOutboxDispatcher {
+
+    /** Messages claimed per round trip. */
+    private static final int BATCH_SIZE = 20;
+
+    /** How long a claimed message is reserved for this dispatcher. */
+    private static final int LEASE_SECONDS = 300;
+
+    private static final long POLL_INTERVAL_SECONDS = 30;
+    static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private static EmailOutboxDispatcher instance;
+
+    private final EmailOutboxDAO outboxDAO;
+    private final ReservationDAO reservationDAO;
+    private final UtilisateurDAO utilisateurDAO;
+    private final EmailService emailService;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private volatile boolean started;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private EmailOutboxDispatcher() {
+        this(new EmailOutboxDAO(), new ReservationDAO(), new UtilisateurDAO(), new EmailService());
+    }
+
+    /**
+     * Creates a dispatcher over the given collaborators (used by tests).
+     */
+    EmailOutboxDispatcher(EmailOutboxDAO outboxDAO, ReservationDAO reservationDAO,
+                          UtilisateurDAO utilisateurDAO, EmailService emailService) {
+        this.outboxDAO = outboxDAO;
+        this.reservationDAO = reservationDAO;
+        this.utilisateurDAO = utilisateurDAO;
+        this.emailService = emailService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "email-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the singleton instance of EmailOutboxDispatcher.
+     *
+     * @return EmailOutboxDispatcher instance
+     */
+    public static synchronized EmailOutboxDispatcher getInstance() {
+        if (instance == null) {
+            instance = new EmailOutboxDispatcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether notifications should be queued at all.
+     *
+     * @return true if email notifications are enabled
+     */
+    public boolean isEnabled() {
+        return emailService.isEmailEnabled();
+    }
+
+    /**
+     * Starts polling the outbox. Does nothing if notifications are disabled.
+     */
+    public synchronized void start() {
+        if (started || !isEnabled()) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::drain, 0, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        started = true;
+        System.out.println("Email outbox dispatcher started");
+    }
+
+    /**
+     * Requests an immediate drain, e.g. right after a message was queued.
+     */
+    public void wakeUp() {
+        if (!started) {
+            return;
+        }
+        try {
+            scheduler.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the message stays in the outbox for the next start
+        }
+    }
+
+    /**
+     * Stops the dispatcher and closes its SMTP connections. Unsent messages
+     * stay in the outbox.
+     */
+    public synchronized void shutdown() {
+        scheduler.shutdownNow();
+        started = false;
+        emailService.close();
+    }
+
+    /**
+     * Sends every due message, batch by batch. Messages go through the
+     * EmailService connection pool, so a whole batch is normally sent over
+     * a single SMTP connection.
+     */
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        int processed = 0;
+        try {
+            List<EmailOutbox> batch;
+            do {
+                batch = outboxDAO.claimDue(BATCH_SIZE, LEASE_SECONDS);
+                for (EmailOutbox message : batch) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    deliver(message);
+                    processed++;
+                }
+            } while (batch.size() == BATCH_SIZE);
+
+            if (processed > 0) {
+                System.out.println("Email outbox: " + processed + " message(s) processed, "
+                                   + emailService.getTransportPool());
+            }
+        } catch (RuntimeException e) {
+            // Never let an error cancel the periodic task
+            System.err.println("Error draining email outbox: " + e.getMessage());
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Sends one message and records the outcome.
+     *
+     * @param message Claimed message
+     */
+    private void deliver(EmailOutbox message) {
+        int tentatives = message.getTentatives() + 1;
+
+        Reservation reservation = reservationDAO.findById(message.getIdReservation());
+        if (reservation == null) {
+            outboxDAO.markDead(message.getIdEmail(), tentatives, "Réservation introuvable");
+            return;
+        }
+        Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
+        if (user == null || user.getEmail() == null || user.getEmail().isEmpty()) {
+            outboxDAO.markDead(message.getIdEmail(), tentatives, "Destinataire introuvable");
+            return;
+        }
+
+        try {
+            switch (message.getType()) {
+                case EmailOutbox.TYPE_CONFIRMATION:
+                    emailService.deliverReservationConfirmation(user, reservation,
+                                                                reservation.getVol(), reservation.getHotel());
+                    break;
+                case EmailOutbox.TYPE_ANNULATION:
+                    emailService.deliverCancellationNotification(user, reservation);
+                    break;
+                default:
+                    outboxDAO.markDead(message.getIdEmail(), tentatives, "Type inconnu: " + message.getType());
+                    return;
+            }
+            outboxDAO.markSent(message.getIdEmail());
+            System.out.println(message.getType() + " email sent successfully to: " + user.getEmail());
+        } catch (Exception e) {
+            String erreur = e.getClass().getSimpleName() + ": " + e.getMessage();
+            if (tentatives >= MAX_ATTEMPTS) {
+                System.err.println("Giving up on email " + message.getCleIdempotence() + ": " + erreur);
+                outboxDAO.markDead(message.getIdEmail(), tentatives, erreur);
+            } else {
+                System.err.println("Email " + message.getCleIdempotence() + " failed (attempt "
+                                   + tentatives + "), will retry: " + erreur);
+                outboxDAO.markRetry(message.getIdEmail(), tentatives, backoffSeconds(tentatives), erreur);
+            }
+        }
+    }
+
+    /**
+     * Computes the delay before the next attempt: exponential with jitter,
+     * so many failed messages do not all retry at the same instant.
+     *
+     * @param tentatives Number of attempts made so far
+     * @return Delay in seconds
+     */
+    private long backoffSeconds(int tentatives) {
+        long delay = Math.min(MAX_BACKOFF_SECONDS, BASE_BACKOFF_SECONDS << Math.min(tentatives - 1, 16));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
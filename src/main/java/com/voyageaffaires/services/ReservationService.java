@@ -3,16 +3,26 @@ package com.voyageaffaires.services;
 import com.voyageaffaires.dao.ReservationDAO;
 import com.voyageaffaires.dao.VolDAO;
 import com.voyageaffaires.dao.HotelDAO;
-import com.voyageaffaires.dao.UtilisateurDAO;
+import com.voyageaffaires.models.EmailOutbox;
+import com.voyageaffaires.models.Itineraire;
 import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.ReservationFilter;
+import com.voyageaffaires.models.ReservationPage;
+import com.voyageaffaires.models.ReservationTotaux;
 import com.voyageaffaires.models.Vol;
 import com.voyageaffaires.models.Hotel;
-import com.voyageaffaires.models.Utilisateur;
-import com.voyageaffaires.utils.EmailService;
+import com.voyageaffaires.utils.FlightRouter;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for reservation management operations.
@@ -22,15 +32,13 @@ public class ReservationService {
     private ReservationDAO reservationDAO;
     private VolDAO volDAO;
     private HotelDAO hotelDAO;
-    private UtilisateurDAO utilisateurDAO;
-    private EmailService emailService;
+    private EmailOutboxDispatcher emailDispatcher;
     
     public ReservationService() {
         this.reservationDAO = new ReservationDAO();
         this.volDAO = new VolDAO();
         this.hotelDAO = new HotelDAO();
-        this.utilisateurDAO = new UtilisateurDAO();
-        this.emailService = new EmailService();
+        this.emailDispatcher = EmailOutboxDispatcher.getInstance();
     }
     
     /**
@@ -52,6 +60,20 @@ public class ReservationService {
         return reservationDAO.findByUserId(userId);
     }
     
+    /**
+     * Retrieves one page of reservations, newest first.
+     * Screens should use this instead of loading the full history.
+     * 
+     * @param filter Optional filter (status, date range, user)
+     * @param after Cursor of the previous page, or null for the first page
+     * @param pageSize Number of reservations per page
+     * @return Page of reservations, or null on error
+     * @throws IllegalArgumentException if pageSize is not positive
+     */
+    public ReservationPage getReservationsPage(ReservationFilter filter, ReservationPage.Cursor after, int pageSize) {
+        return reservationDAO.findPage(filter, after, pageSize);
+    }
+    
     /**
      * Finds a reservation by ID.
      * 
@@ -78,12 +100,14 @@ public class ReservationService {
         double totalAmount = calculateTotalAmount(reservation);
         reservation.setMontantTotal(totalAmount);
         
-        // Save reservation
-        boolean saved = reservationDAO.save(reservation);
+        // Save reservation, queueing the confirmation email in the same transaction
+        EmailOutbox confirmation = emailDispatcher.isEnabled()
+                ? new EmailOutbox(EmailOutbox.TYPE_CONFIRMATION, reservation.getIdReservation())
+                : null;
+        boolean saved = reservationDAO.save(reservation, confirmation);
         
-        if (saved) {
-            // Send confirmation email
-            sendReservationConfirmationEmail(reservation);
+        if (saved && confirmation != null) {
+            emailDispatcher.wakeUp();
         }
         
         return saved;
@@ -114,17 +138,69 @@ public class ReservationService {
      * @return true if successful, false otherwise
      */
     public boolean cancelReservation(String idReservation) {
-        Reservation reservation = reservationDAO.findById(idReservation);
-        boolean cancelled = reservationDAO.updateStatus(idReservation, "ANNULEE");
+        EmailOutbox notification = emailDispatcher.isEnabled()
+                ? new EmailOutbox(EmailOutbox.TYPE_ANNULATION, idReservation)
+                : null;
+        boolean cancelled = reservationDAO.updateStatus(idReservation, "ANNULEE", notification);
         
-        if (cancelled && reservation != null) {
-            // Send cancellation notification email
-            sendCancellationNotificationEmail(reservation);
+        if (cancelled && notification != null) {
+            emailDispatcher.wakeUp();
         }
         
         return cancelled;
     }
     
+    /**
+     * Imports many reservations at once (e.g. from the travel agency).
+     * Invalid reservations are reported as failed; valid ones are priced
+     * and saved in a single batched transaction.
+     * 
+     * @param reservations Reservations to import
+     * @return Per-reservation result keyed by reservation ID
+     */
+    public Map<String, Boolean> importReservations(List<Reservation> reservations) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        List<Reservation> valid = new ArrayList<>();
+        
+        for (Reservation reservation : reservations) {
+            if (validateReservation(reservation)) {
+                reservation.setMontantTotal(calculateTotalAmount(reservation));
+                valid.add(reservation);
+            } else {
+                results.put(reservation.getIdReservation(), false);
+            }
+        }
+        
+        results.putAll(reservationDAO.saveAll(valid));
+        return results;
+    }
+    
+    /**
+     * Changes the status of many reservations at once (e.g. bulk approval).
+     * Cancelled reservations get the same notification as a single
+     * cancellation, queued in the same transaction.
+     * 
+     * @param statuses New status keyed by reservation ID
+     * @return Per-reservation result keyed by reservation ID
+     */
+    public Map<String, Boolean> updateReservationStatuses(Map<String, String> statuses) {
+        Map<String, EmailOutbox> notifications = new HashMap<>();
+        if (emailDispatcher.isEnabled()) {
+            for (Map.Entry<String, String> entry : statuses.entrySet()) {
+                if ("ANNULEE".equals(entry.getValue())) {
+                    notifications.put(entry.getKey(),
+                            new EmailOutbox(EmailOutbox.TYPE_ANNULATION, entry.getKey()));
+                }
+            }
+        }
+        Map<String, Boolean> results = reservationDAO.updateStatuses(statuses, notifications);
+        
+        if (notifications.keySet().stream().anyMatch(id -> results.getOrDefault(id, false))) {
+            emailDispatcher.wakeUp();
+        }
+        return results;
+    }
+    
     /**
      * Deletes a reservation.
      * 
@@ -144,7 +220,25 @@ public class ReservationService {
      * @return List of matching flights
      */
     public List<Vol> searchFlights(String origine, String destination, Double maxPrix) {
-        return volDAO.searchFlightsAdvanced(origine, destination, maxPrix);
+        return CatalogService.getInstance().searchFlights(origine, destination, maxPrix);
+    }
+    
+    /**
+     * Searches itineraries with connections, cheapest first.
+     * 
+     * @param origine Origin
+     * @param destination Destination
+     * @param maxPrix Maximum total price (optional)
+     * @param limit Maximum number of itineraries
+     * @return List of matching itineraries
+     */
+    public List<Itineraire> searchItineraries(String origine, String destination, Double maxPrix, int limit) {
+        List<Itineraire> itineraires = CatalogService.getInstance()
+                .findItineraries(origine, destination, null, FlightRouter.Critere.MOINS_CHER, limit);
+        if (maxPrix != null) {
+            itineraires.removeIf(itineraire -> itineraire.getPrixTotal() > maxPrix);
+        }
+        return itineraires;
     }
     
     /**
@@ -156,7 +250,7 @@ public class ReservationService {
      * @return List of matching hotels
      */
     public List<Hotel> searchHotels(String ville, Integer minEtoiles, Double maxPrix) {
-        return hotelDAO.searchHotelsAdvanced(ville, minEtoiles, maxPrix);
+        return CatalogService.getInstance().searchHotels(ville, minEtoiles, maxPrix);
     }
     
     /**
@@ -170,6 +264,52 @@ public class ReservationService {
         return reservationDAO.getReservationsByDateRange(startDate, endDate);
     }
     
+    /**
+     * Counts the reservations matching a filter and sums their amounts.
+     * 
+     * @param filter Optional filter (status, date range, user)
+     * @return Number and total amount of the reservations, or null on error
+     */
+    public ReservationTotaux getReservationTotals(ReservationFilter filter) {
+        return reservationDAO.summarize(filter);
+    }
+    
+    /**
+     * Counts the reservations matching a filter.
+     * 
+     * @param filter Optional filter (status, date range, user)
+     * @return Number of reservations, or -1 on error
+     */
+    public long countReservations(ReservationFilter filter) {
+        ReservationTotaux totals = reservationDAO.summarize(filter);
+        return totals != null ? totals.getNombre() : -1;
+    }
+    
+    /**
+     * Visits every reservation matching a filter in constant memory,
+     * for exports and reports over the full history.
+     * 
+     * @param filter Optional filter (status, date range, user)
+     * @param consumer Callback invoked for each reservation
+     * @return Number of reservations visited, or -1 on error
+     */
+    public long forEachReservation(ReservationFilter filter, Consumer<Reservation> consumer) {
+        return reservationDAO.forEachReservation(filter, consumer);
+    }
+    
+    /**
+     * Opens a stream over every reservation matching a filter, read row by
+     * row from the database; used to export the full history in bounded memory.
+     * The stream holds a database connection and must be closed.
+     * 
+     * @param filter Optional filter (status, date range, user)
+     * @return Stream of reservations
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Reservation> streamReservations(ReservationFilter filter) throws SQLException {
+        return reservationDAO.streamReservations(filter);
+    }
+    
     /**
      * Calculates the total amount for a reservation.
      * 
@@ -232,72 +372,4 @@ public class ReservationService {
         
         return true;
     }
-    
-    /**
-     * Sends a reservation confirmation email to the user.
-     * 
-     * @param reservation Reservation details
-     */
-    private void sendReservationConfirmationEmail(Reservation reservation) {
-        try {
-            // Get user details
-            Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-            if (user == null) {
-                System.err.println("Cannot send email: User not found");
-                return;
-            }
-            
-            // Get flight details if present
-            Vol vol = null;
-            if (reservation.getIdVol() != null) {
-                vol = volDAO.findById(reservation.getIdVol());
-            }
-            
-            // Get hotel details if present
-            Hotel hotel = null;
-            if (reservation.getIdHotel() != null) {
-                hotel = hotelDAO.findById(reservation.getIdHotel());
-            }
-            
-            // Send email
-            boolean emailSent = emailService.sendReservationConfirmation(user, reservation, vol, hotel);
-            
-            if (emailSent) {
-                System.out.println("Reservation confirmation email sent successfully to: " + user.getEmail());
-            } else {
-                System.out.println("Failed to send reservation confirmation email");
-            }
-        } catch (Exception e) {
-            System.err.println("Error sending reservation confirmation email: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
-    /**
-     * Sends a cancellation notification email to the user.
-     * 
-     * @param reservation Cancelled reservation details
-     */
-    private void sendCancellationNotificationEmail(Reservation reservation) {
-        try {
-            // Get user details
-            Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-            if (user == null) {
-                System.err.println("Cannot send email: User not found");
-                return;
-            }
-            
-            // Send email
-            boolean emailSent = emailService.sendCancellationNotification(user, reservation);
-            
-            if (emailSent) {
-                System.out.println("Cancellation notification email sent successfully to: " + user.getEmail());
-            } else {
-                System.out.println("Failed to send cancellation notification email");
-            }
-        } catch (Exception e) {
-            System.err.println("Error sending cancellation notification email: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
 }
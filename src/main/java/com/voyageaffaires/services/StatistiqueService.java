@@ -0,0 +1,78 @@
+package com.voyageaffaires.services;
+
+import com.voyageaffaires.dao.StatistiqueDAO;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service class for dashboard statistics.
+ * Answers from the reservation_stats_jour summary table, which
+ * ReservationDAO keeps up to date in each reservation transaction.
+ */
+public class StatistiqueService {
+
+    private StatistiqueDAO statistiqueDAO;
+
+    public StatistiqueService() {
+        this.statistiqueDAO = new StatistiqueDAO();
+    }
+
+    /**
+     * Counts reservations.
+     *
+     * @param userId User to count for, or null for all users
+     * @return Number of reservations, or -1 on error
+     */
+    public long countReservations(Integer userId) {
+        return statistiqueDAO.count(null, userId);
+    }
+
+    /**
+     * Counts reservations awaiting approval.
+     *
+     * @param userId User to count for, or null for all users
+     * @return Number of pending reservations, or -1 on error
+     */
+    public long countPendingReservations(Integer userId) {
+        return statistiqueDAO.count("EN_ATTENTE", userId);
+    }
+
+    /**
+     * Counts reservations created on each of the last days, today included.
+     *
+     * @param days Number of days
+     * @param userId User to count for, or null for all users
+     * @return Number of reservations keyed by day, oldest first, 0 for days without reservations
+     */
+    public Map<LocalDate, Long> getReservationsPerDay(int days, Integer userId) {
+        LocalDate first = LocalDate.now().minusDays(days - 1L);
+        Map<LocalDate, Long> counts = statistiqueDAO.countPerDay(first, userId);
+
+        Map<LocalDate, Long> perDay = new LinkedHashMap<>();
+        for (LocalDate day = first; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+            perDay.put(day, counts.getOrDefault(day, 0L));
+        }
+        return perDay;
+    }
+
+    /**
+     * Gets the most booked destinations.
+     *
+     * @param limit Maximum number of destinations
+     * @param userId User to count for, or null for all users
+     * @return Number of reservations keyed by destination, most booked first
+     */
+    public Map<String, Long> getTopDestinations(int limit, Integer userId) {
+        return statistiqueDAO.topDestinations(limit, userId);
+    }
+
+    /**
+     * Rebuilds the summary table from the reservation table.
+     *
+     * @return true if successful, false otherwise
+     */
+    public boolean rebuild() {
+        return statistiqueDAO.rebuild();
+    }
+}
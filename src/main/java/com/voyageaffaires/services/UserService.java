@@ -26,6 +26,15 @@ public class UserService {
         return utilisateurDAO.findAll();
     }
     
+    /**
+     * Counts active users.
+     * 
+     * @return Number of active users, or -1 on error
+     */
+    public long countUsers() {
+        return utilisateurDAO.count();
+    }
+    
     /**
      * Finds a user by ID.
      * 
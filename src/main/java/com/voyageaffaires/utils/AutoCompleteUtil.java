@@ -0,0 +1,112 @@
+package com.voyageaffaires.utils;
+
+import javafx.animation.PauseTransition;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class adding type-ahead suggestions to text fields.
+ * Suggestions are looked up once the user pauses typing, and shown in a
+ * popup under the field.
+ */
+public class AutoCompleteUtil {
+
+    /** Pause in typing before suggestions are looked up. */
+    private static final Duration DEBOUNCE = Duration.millis(150);
+
+    /** Suggestions shown at once. */
+    public static final int MAX_ITEMS = 8;
+
+    /**
+     * Adds suggestions to a text field. The source must be fast (in-memory):
+     * it runs on the FX thread.
+     *
+     * @param field Text field
+     * @param source Returns the suggestions for the typed text
+     * @param onSelect Called after a suggestion is picked (may be null)
+     */
+    public static void attach(TextField field, Function<String, List<String>> source, Runnable onSelect) {
+        new Binding(field, source, onSelect);
+    }
+
+    /**
+     * Popup and debounce state of one field.
+     */
+    private static final class Binding {
+        private final TextField field;
+        private final Function<String, List<String>> source;
+        private final Runnable onSelect;
+        private final ContextMenu popup = new ContextMenu();
+        private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+        private boolean selecting;
+
+        Binding(TextField field, Function<String, List<String>> source, Runnable onSelect) {
+            this.field = field;
+            this.source = source;
+            this.onSelect = onSelect;
+
+            debounce.setOnFinished(event -> showSuggestions());
+            field.textProperty().addListener((obs, oldVal, newVal) -> {
+                if (selecting) {
+                    return;
+                }
+                if (newVal == null || newVal.trim().isEmpty()) {
+                    debounce.stop();
+                    popup.hide();
+                } else {
+                    debounce.playFromStart();
+                }
+            });
+            field.focusedProperty().addListener((obs, wasFocused, focused) -> {
+                if (!focused) {
+                    debounce.stop();
+                    popup.hide();
+                }
+            });
+        }
+
+        private void showSuggestions() {
+            String text = field.getText();
+            List<String> suggestions = field.isFocused() ? source.apply(text) : List.of();
+
+            // Nothing to suggest, or the field already holds the only match
+            if (suggestions.isEmpty()
+                    || (suggestions.size() == 1 && suggestions.get(0).equalsIgnoreCase(text.trim()))) {
+                popup.hide();
+                return;
+            }
+
+            List<MenuItem> items = new ArrayList<>();
+            for (String suggestion : suggestions.subList(0, Math.min(MAX_ITEMS, suggestions.size()))) {
+                MenuItem item = new MenuItem(suggestion);
+                item.setOnAction(event -> select(suggestion));
+                items.add(item);
+            }
+            popup.getItems().setAll(items);
+            if (!popup.isShowing()) {
+                popup.show(field, Side.BOTTOM, 0, 0);
+            }
+        }
+
+        private void select(String suggestion) {
+            selecting = true;
+            try {
+                field.setText(suggestion);
+                field.positionCaret(suggestion.length());
+            } finally {
+                selecting = false;
+            }
+            popup.hide();
+            if (onSelect != null) {
+                onSelect.run();
+            }
+        }
+    }
+}
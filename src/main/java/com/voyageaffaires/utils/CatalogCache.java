@@ -0,0 +1,258 @@
+package com.voyageaffaires.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Thread-safe, size-bounded LRU cache with time-to-live, used as a
+ * read-through cache in front of reference data lookups (flights, hotels).
+ * Loaders run outside the lock so a slow query never blocks other readers.
+ * An invalidation that happens while a value is being loaded wins: the
+ * loaded value is returned to its caller but not cached, since it may
+ * predate the change.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class CatalogCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long generation;    // bumped by every invalidation, guarded by entries
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Creates a cache.
+     *
+     * @param name Name used in statistics output
+     * @param maxSize Maximum number of entries kept (least recently used are evicted)
+     * @param ttlMillis Time after which an entry is reloaded
+     */
+    public CatalogCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > CatalogCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for a key, loading it on a miss.
+     * Null results are not cached.
+     *
+     * @param key Key to look up
+     * @param loader Function loading the value from the source of truth
+     * @return Cached or freshly loaded value, or null if the loader found nothing
+     */
+    public V get(K key, Function<K, V> loader) {
+        if (key == null) {
+            return null;
+        }
+
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.currentTimeMillis() - entry.loadedAt <= ttlMillis) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        V value = loader.apply(key);
+        put(key, value, loadGeneration);
+        return value;
+    }
+
+    /**
+     * Returns the cached value for a key without loading it.
+     *
+     * @param key Key to look up
+     * @return Cached value, or null if absent or expired
+     */
+    public V getIfPresent(K key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.loadedAt <= ttlMillis) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Returns the cached values of several keys without loading them, for
+     * callers that fetch the missing keys in one batch query. Each key found
+     * counts as a hit; the missing keys together count as a single miss.
+     *
+     * @param keys Keys to look up (nulls are ignored)
+     * @return Cached values keyed by key; absent or expired keys are missing
+     */
+    public Map<K, V> getAllPresent(Collection<K> keys) {
+        Map<K, V> found = new HashMap<>();
+        boolean missing = false;
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            for (K key : keys) {
+                if (key == null) {
+                    continue;
+                }
+                Entry<V> entry = entries.get(key);
+                if (entry != null && now - entry.loadedAt <= ttlMillis) {
+                    found.put(key, entry.value);
+                } else {
+                    missing = true;
+                }
+            }
+        }
+        hits.addAndGet(found.size());
+        if (missing) {
+            misses.incrementAndGet();
+        }
+        return found;
+    }
+
+    /**
+     * Stores a value, e.g. after a write.
+     *
+     * @param key Key
+     * @param value Value (ignored if null)
+     */
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Stores a value loaded from the database, unless an invalidation
+     * happened since the load started (the value may then be stale).
+     *
+     * @param key Key
+     * @param value Value (ignored if null)
+     * @param loadGeneration Result of {@link #getGeneration()} read before loading
+     */
+    public void put(K key, V value, long loadGeneration) {
+        if (key == null || value == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation == loadGeneration) {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    /**
+     * Gets the invalidation generation, to read before loading values that
+     * are then stored with {@link #put(Object, Object, long)}.
+     *
+     * @return Current generation
+     */
+    public long getGeneration() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Removes one entry so the next read goes to the database.
+     *
+     * @param key Key to invalidate
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            generation++;
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * Gets the ratio of lookups served from the cache.
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogCache[%s: size=%d/%d, hits=%d, misses=%d, evictions=%d, expirations=%d]",
+                name, size(), maxSize, getHitCount(), getMissCount(), getEvictionCount(), getExpirationCount());
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
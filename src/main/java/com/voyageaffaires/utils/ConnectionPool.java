@@ -0,0 +1,427 @@
+package com.voyageaffaires.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections are borrowed with {@link #borrow()} and handed back by calling
+ * {@link Connection#close()} on the returned proxy, so DAOs can simply use
+ * try-with-resources.
+ */
+public class ConnectionPool {
+
+    private static final long HOUSEKEEPING_PERIOD_MS = 30000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long timeoutMs;
+    private final long idleTimeoutMs;
+    private final long leakThresholdMs;
+    private final boolean leakStackTraces;
+    private final long validationIdleMs;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledEntry, Borrow> borrowed = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong acquireNanosTotal = new AtomicLong();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * Creates a new pool. Physical connections are opened lazily, the
+     * minimum size is reached in the background.
+     *
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     * @param minSize Number of idle connections kept open
+     * @param maxSize Maximum number of open connections
+     * @param timeoutMs Maximum time to wait for a connection
+     * @param idleTimeoutMs Idle time after which surplus connections are closed
+     * @param leakThresholdMs Borrow duration after which a leak is reported (0 disables)
+     * @param leakStackTraces Whether to record where each connection is borrowed,
+     *                        so leak reports include a stack trace (costly, for debugging)
+     * @param validationIdleMs Idle time after which a connection is pinged before reuse
+     */
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long timeoutMs,
+                          long idleTimeoutMs, long leakThresholdMs,
+                          boolean leakStackTraces, long validationIdleMs) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.minSize = Math.max(0, Math.min(minSize, this.maxSize));
+        this.timeoutMs = timeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.leakStackTraces = leakStackTraces;
+        this.validationIdleMs = Math.max(0, validationIdleMs);
+        this.validationTimeoutSeconds = 2;
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, HOUSEKEEPING_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the configured timeout.
+     *
+     * @return Connection proxy; closing it returns the connection to the pool
+     * @throws SQLException if no connection could be obtained in time
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool is shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + timeoutMs + " ms waiting for a database connection " +
+                        "(active=" + borrowed.size() + ", max=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = createEntry();
+            }
+            borrowed.put(entry, new Borrow(System.currentTimeMillis(), Thread.currentThread().getName(),
+                    leakThresholdMs > 0 && leakStackTraces ? new Exception("Connection borrowed here") : null));
+            recordAcquire(System.nanoTime() - start);
+            return entry.newProxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all idle connections and refuses further borrows.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    // ----- Metrics -----
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount.get();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount.get();
+    }
+
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    /**
+     * Gets the average time spent acquiring a connection.
+     *
+     * @return Average acquire time in milliseconds
+     */
+    public double getAverageAcquireMillis() {
+        long count = borrowCount.get();
+        return count == 0 ? 0.0 : acquireNanosTotal.get() / (count * 1_000_000.0);
+    }
+
+    /**
+     * Gets the longest time spent acquiring a connection.
+     *
+     * @return Maximum acquire time in milliseconds
+     */
+    public double getMaxAcquireMillis() {
+        return acquireNanosMax.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[total=%d, active=%d, idle=%d, max=%d, borrows=%d, " +
+                        "avgAcquire=%.3fms, maxAcquire=%.3fms, timeouts=%d, leaks=%d]",
+                getTotalConnections(), getActiveConnections(), getIdleConnections(), maxSize,
+                getBorrowCount(), getAverageAcquireMillis(), getMaxAcquireMillis(),
+                getTimeoutCount(), getLeakCount());
+    }
+
+    // ----- Internals -----
+
+    private void recordAcquire(long nanos) {
+        borrowCount.incrementAndGet();
+        acquireNanosTotal.addAndGet(nanos);
+        acquireNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Takes the most recently used idle connection that passes validation.
+     * Broken connections are discarded on the way.
+     */
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        long now = System.currentTimeMillis();
+        while ((entry = idle.pollFirst()) != null) {
+            if (isValid(entry, now)) {
+                return entry;
+            }
+            validationFailureCount.incrementAndGet();
+            destroy(entry);
+        }
+        return null;
+    }
+
+    /**
+     * Checks a connection before reuse. Only connections idle for longer than
+     * the validation threshold are pinged; recently used ones are trusted, so
+     * most borrows cost no round trip.
+     */
+    private boolean isValid(PooledEntry entry, long now) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            return now - entry.lastUsed <= validationIdleMs || entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledEntry createEntry() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledEntry(physical);
+    }
+
+    private void destroy(PooledEntry entry) {
+        totalConnections.decrementAndGet();
+        destroyedCount.incrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Called when a proxy is closed. Resets the connection state and puts it
+     * back at the head of the idle queue.
+     */
+    private void release(PooledEntry entry) {
+        borrowed.remove(entry);
+        try {
+            boolean reusable = !shutdown && !entry.physical.isClosed();
+            if (reusable && !entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                entry.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            } else {
+                destroy(entry);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection: " + e.getMessage());
+            destroy(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Periodic task: evicts surplus idle connections, tops the pool up to its
+     * minimum size and reports connections held longer than the leak threshold.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections.get() > minSize) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastUsed > idleTimeoutMs && idle.remove(entry)) {
+                    destroy(entry);
+                }
+            }
+
+            while (!shutdown && totalConnections.get() < minSize && permits.tryAcquire()) {
+                try {
+                    idle.offerLast(createEntry());
+                } finally {
+                    permits.release();
+                }
+            }
+
+            if (leakThresholdMs > 0) {
+                for (Borrow borrow : borrowed.values()) {
+                    if (!borrow.reported && now - borrow.borrowedAt > leakThresholdMs) {
+                        borrow.reported = true;
+                        leakCount.incrementAndGet();
+                        System.err.println("Possible connection leak: connection held for "
+                                + (now - borrow.borrowedAt) + " ms by thread " + borrow.threadName);
+                        if (borrow.origin != null) {
+                            borrow.origin.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bookkeeping for a borrowed connection.
+     */
+    private static final class Borrow {
+        final long borrowedAt;
+        final String threadName;
+        final Exception origin;     // null unless leak stack traces are enabled
+        volatile boolean reported;
+
+        Borrow(long borrowedAt, String threadName, Exception origin) {
+            this.borrowedAt = borrowedAt;
+            this.threadName = threadName;
+            this.origin = origin;
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledEntry {
+        final Connection physical;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ProxyHandler(this));
+        }
+    }
+
+    /**
+     * Delegates to the physical connection until the proxy is closed.
+     */
+    private final class ProxyHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed;
+
+        ProxyHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(entry.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
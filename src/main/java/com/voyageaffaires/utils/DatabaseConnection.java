@@ -3,21 +3,36 @@ package com.voyageaffaires.utils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 /**
  * Manages database connections for the application.
- * Implements singleton pattern to ensure single connection instance.
+ * Implements singleton pattern around a shared {@link ConnectionPool};
+ * callers borrow a connection per operation and close it to return it.
  */
 public class DatabaseConnection {
     
-    private static DatabaseConnection instance;
-    private Connection connection;
+    /**
+     * Connector/J options enabling server-side prepared statements and the
+     * per-connection LRU statement cache keyed by SQL text.
+     */
+    private static final String STATEMENT_CACHE_OPTIONS =
+            "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048";
+    
+    private static volatile DatabaseConnection instance;
+    private ConnectionPool pool;
     private String url;
     private String username;
     private String password;
+    private int poolMinSize = 5;
+    private int poolMaxSize = 20;
+    private long poolTimeout = 30000;
+    private long poolIdleTimeout = 600000;
+    private long poolLeakDetectionThreshold = 60000;
+    private boolean poolLeakDetectionStackTraces = false;
+    private long poolValidationIdleThreshold = 30000;
+    private int batchSize = 500;
     
     /**
      * Private constructor to prevent instantiation.
@@ -25,6 +40,9 @@ public class DatabaseConnection {
      */
     private DatabaseConnection() {
         loadDatabaseConfig();
+        this.pool = new ConnectionPool(url, username, password, poolMinSize, poolMaxSize,
+                poolTimeout, poolIdleTimeout, poolLeakDetectionThreshold,
+                poolLeakDetectionStackTraces, poolValidationIdleThreshold);
     }
     
     /**
@@ -54,44 +72,86 @@ public class DatabaseConnection {
             if (input == null) {
                 System.err.println("Unable to find database.properties");
                 // Default values for local development
-                this.url = "jdbc:mysql://localhost:3306/voyage_affaires?useSSL=false&serverTimezone=UTC";
+                this.url = "jdbc:mysql://localhost:3306/voyage_affaires?useSSL=false&serverTimezone=UTC" +
+                        "&rewriteBatchedStatements=true" + STATEMENT_CACHE_OPTIONS;
                 this.username = "root";
                 this.password = "";
                 return;
             }
             
             props.load(input);
-            this.url = props.getProperty("db.url");
+            this.url = withStatementCache(props.getProperty("db.url"));
             this.username = props.getProperty("db.username");
             this.password = props.getProperty("db.password");
+            this.poolMinSize = Integer.parseInt(props.getProperty("db.pool.minSize", String.valueOf(poolMinSize)));
+            this.poolMaxSize = Integer.parseInt(props.getProperty("db.pool.maxSize", String.valueOf(poolMaxSize)));
+            this.poolTimeout = Long.parseLong(props.getProperty("db.pool.timeout", String.valueOf(poolTimeout)));
+            this.poolIdleTimeout = Long.parseLong(props.getProperty("db.pool.idleTimeout",
+                    String.valueOf(poolIdleTimeout)));
+            this.poolLeakDetectionThreshold = Long.parseLong(props.getProperty("db.pool.leakDetectionThreshold",
+                    String.valueOf(poolLeakDetectionThreshold)));
+            this.poolLeakDetectionStackTraces = Boolean.parseBoolean(props.getProperty(
+                    "db.pool.leakDetectionStackTraces", String.valueOf(poolLeakDetectionStackTraces)));
+            this.poolValidationIdleThreshold = Long.parseLong(props.getProperty("db.pool.validationIdleThreshold",
+                    String.valueOf(poolValidationIdleThreshold)));
+            this.batchSize = Integer.parseInt(props.getProperty("db.batch.size", String.valueOf(batchSize)));
             
             // Load MySQL driver
             Class.forName(props.getProperty("db.driver"));
             
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException | ClassNotFoundException | NumberFormatException e) {
             System.err.println("Error loading database configuration: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
     /**
-     * Gets an active database connection.
-     * Creates a new connection if one doesn't exist or is closed.
+     * Adds the statement cache options to a JDBC URL that does not
+     * configure them already.
      * 
-     * @return Active database connection
-     * @throws SQLException if connection cannot be established
+     * @param url Configured JDBC URL
+     * @return URL with statement caching enabled
+     */
+    static String withStatementCache(String url) {
+        if (url == null || url.contains("cachePrepStmts")) {
+            return url;
+        }
+        return url + (url.contains("?") ? STATEMENT_CACHE_OPTIONS : "?" + STATEMENT_CACHE_OPTIONS.substring(1));
+    }
+    
+    /**
+     * Borrows a connection from the pool.
+     * The caller must close it (preferably with try-with-resources),
+     * which returns it to the pool.
+     * 
+     * @return Pooled database connection
+     * @throws SQLException if no connection is available within the pool timeout
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                connection = DriverManager.getConnection(url, username, password);
-                System.out.println("Database connection established successfully.");
-            } catch (SQLException e) {
-                System.err.println("Failed to create database connection: " + e.getMessage());
-                throw e;
-            }
+        try {
+            return pool.borrow();
+        } catch (SQLException e) {
+            System.err.println("Failed to obtain database connection: " + e.getMessage());
+            throw e;
         }
-        return connection;
+    }
+    
+    /**
+     * Gets the underlying connection pool (for metrics).
+     * 
+     * @return Connection pool
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+    
+    /**
+     * Gets the number of rows sent per JDBC batch by bulk DAO operations.
+     * 
+     * @return Batch chunk size
+     */
+    public int getBatchSize() {
+        return Math.max(1, batchSize);
     }
     
     /**
@@ -100,8 +160,7 @@ public class DatabaseConnection {
      * @return true if connection is successful, false otherwise
      */
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
@@ -110,16 +169,10 @@ public class DatabaseConnection {
     }
     
     /**
-     * Closes the database connection.
+     * Shuts down the connection pool.
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                System.out.println("Database connection closed.");
-            } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
-            }
-        }
+        pool.shutdown();
+        System.out.println("Database connection pool closed: " + pool);
     }
 }
@@ -10,9 +10,12 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -21,12 +24,26 @@ import java.util.Properties;
  */
 public class EmailService {
     
+    // SMTP connection pool defaults, overridable in email.properties
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final long DEFAULT_POOL_TIMEOUT_MS = 30000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 60000;
+    private static final int DEFAULT_MAX_MESSAGES_PER_CONNECTION = 100;
+    
     private Properties emailProperties;
     private boolean emailEnabled;
+    private Session session;
+    private SmtpTransportPool transportPool;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm");
-    private static final NumberFormat CURRENCY_FORMATTER = NumberFormat.getCurrencyInstance(Locale.FRANCE);
+    // NumberFormat is not thread-safe: one instance per sending thread
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMATTER =
+        ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.FRANCE));
+    
+    // Templates are compiled once and shared by all senders
+    private static final EmailTemplate CONFIRMATION_TEMPLATE = EmailTemplate.fromResource("email/confirmation.html");
+    private static final EmailTemplate CANCELLATION_TEMPLATE = EmailTemplate.fromResource("email/annulation.html");
     
     /**
      * Constructor that loads email configuration.
@@ -35,6 +52,20 @@ public class EmailService {
         loadEmailConfiguration();
     }
     
+    /**
+     * Constructor using a given configuration and mail session instead of
+     * email.properties, e.g. to deliver through another transport.
+     * 
+     * @param emailProperties Email configuration (same keys as email.properties)
+     * @param session Mail session used to send messages
+     */
+    public EmailService(Properties emailProperties, Session session) {
+        this.emailProperties = emailProperties;
+        this.emailEnabled = Boolean.parseBoolean(
+            emailProperties.getProperty("email.notifications.enabled", "false"));
+        this.session = session;
+    }
+    
     /**
      * Loads email configuration from email.properties file.
      */
@@ -79,27 +110,7 @@ public class EmailService {
         }
         
         try {
-            // Create email session
-            Session session = createEmailSession();
-            
-            // Create email message
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(
-                emailProperties.getProperty("email.sender.address"),
-                emailProperties.getProperty("email.sender.name")
-            ));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(user.getEmail()));
-            
-            String subject = emailProperties.getProperty("email.subject.prefix", "[Voyage & Affaires]") 
-                           + " Confirmation de Réservation - " + reservation.getIdReservation();
-            message.setSubject(subject);
-            
-            // Build email content
-            String emailContent = buildReservationEmailContent(user, reservation, vol, hotel);
-            message.setContent(emailContent, "text/html; charset=utf-8");
-            
-            // Send email
-            Transport.send(message);
+            deliverReservationConfirmation(user, reservation, vol, hotel);
             System.out.println("Reservation confirmation email sent successfully to: " + user.getEmail());
             return true;
             
@@ -110,6 +121,107 @@ public class EmailService {
         }
     }
     
+    /**
+     * Sends a reservation confirmation email, reporting failures to the
+     * caller (used by the email dispatcher to decide on retries).
+     * 
+     * @param user User who made the reservation
+     * @param reservation Reservation details
+     * @param vol Flight details (optional)
+     * @param hotel Hotel details (optional)
+     * @throws MessagingException if the message cannot be built or delivered
+     * @throws UnsupportedEncodingException if the sender name cannot be encoded
+     */
+    public void deliverReservationConfirmation(Utilisateur user, Reservation reservation, Vol vol, Hotel hotel)
+            throws MessagingException, UnsupportedEncodingException {
+        String subject = emailProperties.getProperty("email.subject.prefix", "[Voyage & Affaires]") 
+                       + " Confirmation de Réservation - " + reservation.getIdReservation();
+        String emailContent = buildReservationEmailContent(user, reservation, vol, hotel);
+        getTransportPool().send(createMessage(user.getEmail(), subject, emailContent));
+    }
+    
+    /**
+     * Creates an HTML email message from the configured sender.
+     * 
+     * @param recipient Recipient address
+     * @param subject Message subject
+     * @param htmlContent HTML body
+     * @return Message ready to send
+     * @throws MessagingException if the message cannot be built
+     * @throws UnsupportedEncodingException if the sender name cannot be encoded
+     */
+    private Message createMessage(String recipient, String subject, String htmlContent)
+            throws MessagingException, UnsupportedEncodingException {
+        Message message = new MimeMessage(getSession());
+        message.setFrom(new InternetAddress(
+            emailProperties.getProperty("email.sender.address"),
+            emailProperties.getProperty("email.sender.name")
+        ));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipient));
+        message.setSubject(subject);
+        message.setContent(htmlContent, "text/html; charset=utf-8");
+        return message;
+    }
+    
+    /**
+     * Gets the email session, created once and shared by all messages.
+     * 
+     * @return Email session
+     */
+    private synchronized Session getSession() {
+        if (session == null) {
+            session = createEmailSession();
+        }
+        return session;
+    }
+    
+    /**
+     * Gets the pool of SMTP connections used to deliver messages, creating it
+     * on first use. Connections stay open between messages so batches of
+     * notifications are sent without a new handshake per message.
+     * 
+     * @return SMTP transport pool
+     */
+    public synchronized SmtpTransportPool getTransportPool() {
+        if (transportPool == null) {
+            transportPool = new SmtpTransportPool(getSession(),
+                getIntProperty("email.smtp.pool.maxSize", DEFAULT_POOL_SIZE),
+                getLongProperty("email.smtp.pool.timeout", DEFAULT_POOL_TIMEOUT_MS),
+                getLongProperty("email.smtp.pool.idleTimeout", DEFAULT_IDLE_TIMEOUT_MS),
+                getIntProperty("email.smtp.pool.maxMessagesPerConnection", DEFAULT_MAX_MESSAGES_PER_CONNECTION));
+        }
+        return transportPool;
+    }
+    
+    /**
+     * Closes the pooled SMTP connections.
+     */
+    public synchronized void close() {
+        if (transportPool != null) {
+            System.out.println("Closing SMTP connections: " + transportPool);
+            transportPool.shutdown();
+            transportPool = null;
+        }
+    }
+    
+    private int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(emailProperties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    private long getLongProperty(String key, long defaultValue) {
+        try {
+            return Long.parseLong(emailProperties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
     /**
      * Creates an email session with authentication.
      * 
@@ -144,123 +256,50 @@ public class EmailService {
      * @return HTML email content
      */
     private String buildReservationEmailContent(Utilisateur user, Reservation reservation, Vol vol, Hotel hotel) {
-        StringBuilder content = new StringBuilder();
-        
-        content.append("<!DOCTYPE html>");
-        content.append("<html>");
-        content.append("<head>");
-        content.append("<style>");
-        content.append("body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }");
-        content.append(".container { max-width: 600px; margin: 0 auto; padding: 20px; }");
-        content.append(".header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }");
-        content.append(".content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }");
-        content.append(".section { background: white; padding: 20px; margin: 20px 0; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); }");
-        content.append(".label { font-weight: bold; color: #667eea; }");
-        content.append(".total { font-size: 24px; font-weight: bold; color: #667eea; text-align: center; padding: 20px; background: #e8eaf6; border-radius: 8px; margin-top: 20px; }");
-        content.append(".footer { text-align: center; color: #999; padding: 20px; font-size: 12px; }");
-        content.append("table { width: 100%; border-collapse: collapse; }");
-        content.append("td { padding: 8px 0; }");
-        content.append("</style>");
-        content.append("</head>");
-        content.append("<body>");
-        content.append("<div class='container'>");
-        
-        // Header
-        content.append("<div class='header'>");
-        content.append("<h1>✈️ Confirmation de Réservation</h1>");
-        content.append("<p>Votre voyage est confirmé !</p>");
-        content.append("</div>");
+        NumberFormat currency = CURRENCY_FORMATTER.get();
+        Map<String, String> values = new HashMap<>();
         
-        content.append("<div class='content'>");
-        
-        // Greeting
-        content.append("<p>Bonjour ").append(user.getPrenom()).append(" ").append(user.getNom()).append(",</p>");
-        content.append("<p>Merci pour votre réservation. Voici le récapitulatif de votre voyage d'affaires :</p>");
-        
-        // Reservation Details
-        content.append("<div class='section'>");
-        content.append("<h2>📋 Détails de la Réservation</h2>");
-        content.append("<table>");
-        content.append("<tr><td class='label'>Numéro de réservation :</td><td>").append(reservation.getIdReservation()).append("</td></tr>");
-        content.append("<tr><td class='label'>Date de création :</td><td>").append(reservation.getDateCreation().format(DATE_FORMATTER)).append("</td></tr>");
-        content.append("<tr><td class='label'>Statut :</td><td>").append(formatStatus(reservation.getStatut())).append("</td></tr>");
-        
-        if (reservation.getMotifVoyage() != null && !reservation.getMotifVoyage().isEmpty()) {
-            content.append("<tr><td class='label'>Motif du voyage :</td><td>").append(reservation.getMotifVoyage()).append("</td></tr>");
-        }
-        content.append("</table>");
-        content.append("</div>");
+        values.put("prenom", user.getPrenom());
+        values.put("nom", user.getNom());
+        values.put("idReservation", reservation.getIdReservation());
+        values.put("dateCreation", reservation.getDateCreation().format(DATE_FORMATTER));
+        values.put("statut", formatStatus(reservation.getStatut()));
+        values.put("motif", reservation.getMotifVoyage());
+        values.put("montantTotal", currency.format(reservation.getMontantTotal()));
+        values.put("commentaire", reservation.getCommentaire());
         
         // Flight Details
         if (vol != null) {
-            content.append("<div class='section'>");
-            content.append("<h2>✈️ Détails du Vol</h2>");
-            content.append("<table>");
-            content.append("<tr><td class='label'>Compagnie :</td><td>").append(vol.getCompagnie()).append("</td></tr>");
-            content.append("<tr><td class='label'>Numéro de vol :</td><td>").append(vol.getIdVol()).append("</td></tr>");
-            content.append("<tr><td class='label'>Origine :</td><td>").append(vol.getOrigine()).append("</td></tr>");
-            content.append("<tr><td class='label'>Destination :</td><td>").append(vol.getDestination()).append("</td></tr>");
-            content.append("<tr><td class='label'>Date de départ :</td><td>").append(vol.getDateDepart().format(DATETIME_FORMATTER)).append("</td></tr>");
-            content.append("<tr><td class='label'>Date d'arrivée :</td><td>").append(vol.getDateArrivee().format(DATETIME_FORMATTER)).append("</td></tr>");
-            content.append("<tr><td class='label'>Classe :</td><td>").append(vol.getClasse()).append("</td></tr>");
-            content.append("<tr><td class='label'>Prix :</td><td>").append(CURRENCY_FORMATTER.format(vol.getPrix())).append("</td></tr>");
-            content.append("</table>");
-            content.append("</div>");
+            values.put("vol", "true");
+            values.put("compagnie", vol.getCompagnie());
+            values.put("idVol", vol.getIdVol());
+            values.put("origine", vol.getOrigine());
+            values.put("destination", vol.getDestination());
+            values.put("dateDepart", vol.getDateDepart().format(DATETIME_FORMATTER));
+            values.put("dateArrivee", vol.getDateArrivee().format(DATETIME_FORMATTER));
+            values.put("classe", vol.getClasse());
+            values.put("prixVol", currency.format(vol.getPrix()));
         }
         
         // Hotel Details
         if (hotel != null) {
-            content.append("<div class='section'>");
-            content.append("<h2>🏨 Détails de l'Hôtel</h2>");
-            content.append("<table>");
-            content.append("<tr><td class='label'>Nom :</td><td>").append(hotel.getNom()).append("</td></tr>");
-            content.append("<tr><td class='label'>Ville :</td><td>").append(hotel.getVille()).append("</td></tr>");
-            content.append("<tr><td class='label'>Adresse :</td><td>").append(hotel.getAdresse()).append("</td></tr>");
-            content.append("<tr><td class='label'>Étoiles :</td><td>").append("⭐".repeat(hotel.getEtoiles())).append(" (").append(hotel.getEtoiles()).append(" étoiles)</td></tr>");
-            
+            values.put("hotel", "true");
+            values.put("hotelNom", hotel.getNom());
+            values.put("ville", hotel.getVille());
+            values.put("adresse", hotel.getAdresse());
+            values.put("etoilesIcones", "⭐".repeat(hotel.getEtoiles()));
+            values.put("etoiles", String.valueOf(hotel.getEtoiles()));
             if (reservation.getDateCheckin() != null) {
-                content.append("<tr><td class='label'>Check-in :</td><td>").append(reservation.getDateCheckin().format(DATE_FORMATTER)).append("</td></tr>");
+                values.put("dateCheckin", reservation.getDateCheckin().format(DATE_FORMATTER));
             }
             if (reservation.getDateCheckout() != null) {
-                content.append("<tr><td class='label'>Check-out :</td><td>").append(reservation.getDateCheckout().format(DATE_FORMATTER)).append("</td></tr>");
+                values.put("dateCheckout", reservation.getDateCheckout().format(DATE_FORMATTER));
             }
-            content.append("<tr><td class='label'>Nombre de chambres :</td><td>").append(reservation.getNombreChambres()).append("</td></tr>");
-            content.append("<tr><td class='label'>Prix par nuit :</td><td>").append(CURRENCY_FORMATTER.format(hotel.getPrixParNuit())).append("</td></tr>");
-            content.append("</table>");
-            content.append("</div>");
+            values.put("nombreChambres", String.valueOf(reservation.getNombreChambres()));
+            values.put("prixParNuit", currency.format(hotel.getPrixParNuit()));
         }
         
-        // Total Amount
-        content.append("<div class='total'>");
-        content.append("💰 Montant Total : ").append(CURRENCY_FORMATTER.format(reservation.getMontantTotal()));
-        content.append("</div>");
-        
-        // Additional Information
-        if (reservation.getCommentaire() != null && !reservation.getCommentaire().isEmpty()) {
-            content.append("<div class='section'>");
-            content.append("<h2>📝 Commentaire</h2>");
-            content.append("<p>").append(reservation.getCommentaire()).append("</p>");
-            content.append("</div>");
-        }
-        
-        // Closing
-        content.append("<p style='margin-top: 30px;'>Nous vous souhaitons un excellent voyage !</p>");
-        content.append("<p>Pour toute question, n'hésitez pas à nous contacter.</p>");
-        content.append("<p>Cordialement,<br><strong>L'équipe Voyage & Affaires</strong></p>");
-        
-        content.append("</div>");
-        
-        // Footer
-        content.append("<div class='footer'>");
-        content.append("<p>Cet email a été envoyé automatiquement. Merci de ne pas y répondre.</p>");
-        content.append("<p>&copy; 2026 Voyage & Affaires - Tous droits réservés</p>");
-        content.append("</div>");
-        
-        content.append("</div>");
-        content.append("</body>");
-        content.append("</html>");
-        
-        return content.toString();
+        return CONFIRMATION_TEMPLATE.render(values);
     }
     
     /**
@@ -314,22 +353,7 @@ public class EmailService {
         }
         
         try {
-            Session session = createEmailSession();
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(
-                emailProperties.getProperty("email.sender.address"),
-                emailProperties.getProperty("email.sender.name")
-            ));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(user.getEmail()));
-            
-            String subject = emailProperties.getProperty("email.subject.prefix", "[Voyage & Affaires]") 
-                           + " Annulation de Réservation - " + reservation.getIdReservation();
-            message.setSubject(subject);
-            
-            String content = buildCancellationEmailContent(user, reservation);
-            message.setContent(content, "text/html; charset=utf-8");
-            
-            Transport.send(message);
+            deliverCancellationNotification(user, reservation);
             System.out.println("Cancellation notification email sent successfully to: " + user.getEmail());
             return true;
             
@@ -340,6 +364,23 @@ public class EmailService {
         }
     }
     
+    /**
+     * Sends a cancellation notification email, reporting failures to the
+     * caller (used by the email dispatcher to decide on retries).
+     * 
+     * @param user User who cancelled the reservation
+     * @param reservation Cancelled reservation details
+     * @throws MessagingException if the message cannot be built or delivered
+     * @throws UnsupportedEncodingException if the sender name cannot be encoded
+     */
+    public void deliverCancellationNotification(Utilisateur user, Reservation reservation)
+            throws MessagingException, UnsupportedEncodingException {
+        String subject = emailProperties.getProperty("email.subject.prefix", "[Voyage & Affaires]") 
+                       + " Annulation de Réservation - " + reservation.getIdReservation();
+        String content = buildCancellationEmailContent(user, reservation);
+        getTransportPool().send(createMessage(user.getEmail(), subject, content));
+    }
+    
     /**
      * Builds the HTML email content for cancellation notification.
      * 
@@ -348,24 +389,11 @@ public class EmailService {
      * @return HTML email content
      */
     private String buildCancellationEmailContent(Utilisateur user, Reservation reservation) {
-        StringBuilder content = new StringBuilder();
-        
-        content.append("<!DOCTYPE html>");
-        content.append("<html><head><style>");
-        content.append("body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }");
-        content.append(".container { max-width: 600px; margin: 0 auto; padding: 20px; }");
-        content.append(".header { background: #f44336; color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }");
-        content.append(".content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }");
-        content.append("</style></head><body>");
-        content.append("<div class='container'>");
-        content.append("<div class='header'><h1>❌ Annulation de Réservation</h1></div>");
-        content.append("<div class='content'>");
-        content.append("<p>Bonjour ").append(user.getPrenom()).append(" ").append(user.getNom()).append(",</p>");
-        content.append("<p>Votre réservation <strong>").append(reservation.getIdReservation()).append("</strong> a été annulée avec succès.</p>");
-        content.append("<p>Si vous avez des questions, n'hésitez pas à nous contacter.</p>");
-        content.append("<p>Cordialement,<br><strong>L'équipe Voyage & Affaires</strong></p>");
-        content.append("</div></div></body></html>");
+        Map<String, String> values = new HashMap<>();
+        values.put("prenom", user.getPrenom());
+        values.put("nom", user.getNom());
+        values.put("idReservation", reservation.getIdReservation());
         
-        return content.toString();
+        return CANCELLATION_TEMPLATE.render(values);
     }
 }
@@ -0,0 +1,216 @@
+package com.voyageaffaires.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled HTML email template.
+ * The template text is parsed once into literal chunks and named slots:
+ * <ul>
+ *   <li>{@code {{name}}} is replaced by the HTML-escaped value of {@code name};</li>
+ *   <li>{@code {{#name}} ... {{/name}}} is rendered only when {@code name} has a non-empty value.</li>
+ * </ul>
+ * A compiled template is immutable and can be rendered by several threads at
+ * once; each thread renders into its own reused buffer.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    /** Buffers larger than this are not kept between renders. */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+    private final Node[] nodes;
+
+    private EmailTemplate(Node[] nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Compiles a template.
+     *
+     * @param source Template text
+     * @return Compiled template
+     * @throws IllegalArgumentException if a tag or section is not closed properly
+     */
+    public static EmailTemplate compile(String source) {
+        Deque<Section> sections = new ArrayDeque<>();
+        List<Node> root = new ArrayList<>();
+        List<Node> current = root;
+
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                current.add(new Literal(source.substring(position)));
+                break;
+            }
+            if (open > position) {
+                current.add(new Literal(source.substring(position, open)));
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at offset " + open);
+            }
+            String tag = source.substring(open + OPEN.length(), close).trim();
+
+            if (tag.startsWith("#")) {
+                Section section = new Section(tag.substring(1).trim());
+                current.add(section);
+                sections.push(section);
+                current = section.children;
+            } else if (tag.startsWith("/")) {
+                String name = tag.substring(1).trim();
+                if (sections.isEmpty() || !sections.peek().name.equals(name)) {
+                    throw new IllegalArgumentException("Unexpected end of section '" + name + "' at offset " + open);
+                }
+                sections.pop().seal();
+                current = sections.isEmpty() ? root : sections.peek().children;
+            } else {
+                current.add(new Slot(tag));
+            }
+            position = close + CLOSE.length();
+        }
+
+        if (!sections.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed section '" + sections.peek().name + "'");
+        }
+        return new EmailTemplate(root.toArray(new Node[0]));
+    }
+
+    /**
+     * Loads and compiles a template bundled with the application.
+     *
+     * @param resource Resource path, e.g. "email/confirmation.html"
+     * @return Compiled template
+     * @throws IllegalStateException if the resource is missing or unreadable
+     */
+    public static EmailTemplate fromResource(String resource) {
+        try (InputStream input = EmailTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Email template not found: " + resource);
+            }
+            return compile(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read email template " + resource, e);
+        }
+    }
+
+    /**
+     * Renders the template. Missing values render as empty text.
+     *
+     * @param values Slot values (plain text, escaped when inserted)
+     * @return Rendered HTML
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            renderNodes(nodes, values, out);
+            return out.toString();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static void renderNodes(Node[] nodes, Map<String, String> values, StringBuilder out) {
+        for (Node node : nodes) {
+            node.render(values, out);
+        }
+    }
+
+    /**
+     * Appends text with the HTML special characters escaped.
+     */
+    private static void appendEscaped(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&#39;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    private interface Node {
+        void render(Map<String, String> values, StringBuilder out);
+    }
+
+    private static final class Literal implements Node {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(Map<String, String> values, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private static final class Slot implements Node {
+        private final String name;
+
+        Slot(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(Map<String, String> values, StringBuilder out) {
+            String value = values.get(name);
+            if (value != null) {
+                appendEscaped(value, out);
+            }
+        }
+    }
+
+    private static final class Section implements Node {
+        private final String name;
+        private List<Node> children = new ArrayList<>();
+        private Node[] compiled;
+
+        Section(String name) {
+            this.name = name;
+        }
+
+        void seal() {
+            compiled = children.toArray(new Node[0]);
+            children = null;
+        }
+
+        @Override
+        public void render(Map<String, String> values, StringBuilder out) {
+            String value = values.get(name);
+            if (value != null && !value.isEmpty()) {
+                renderNodes(compiled, values, out);
+            }
+        }
+    }
+}
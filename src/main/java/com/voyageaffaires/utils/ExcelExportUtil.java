@@ -1,28 +1,33 @@
 package com.voyageaffaires.utils;
 
-import com.voyageaffaires.dao.HotelDAO;
-import com.voyageaffaires.dao.UtilisateurDAO;
-import com.voyageaffaires.dao.VolDAO;
 import com.voyageaffaires.models.Hotel;
 import com.voyageaffaires.models.Reservation;
-import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.models.Vol;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Utility class for exporting reservations to Excel format.
+ * Workbooks are written with SXSSF: only a sliding window of rows is kept
+ * in memory, older rows are flushed to a compressed temporary file, so the
+ * heap used does not grow with the number of exported reservations.
  */
 public class ExcelExportUtil {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     
+    /** Default number of rows kept in memory before flushing to disk. */
+    public static final int DEFAULT_ROW_ACCESS_WINDOW = 100;
+    
+    /** Column widths in characters (autosizing needs every row in memory). */
+    private static final int[] COLUMN_WIDTHS = {24, 12, 24, 14, 16, 16, 20, 28, 16, 12, 12, 10, 14, 30, 40};
+    
     /**
      * Exports reservations to Excel file.
      * 
@@ -32,24 +37,36 @@ public class ExcelExportUtil {
      * @return true if export successful, false otherwise
      */
     public static boolean exportToExcel(List<Reservation> reservations, String filePath, boolean includeUserColumn) {
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Historique des Voyages");
+        return exportToExcel(reservations.iterator(), filePath, includeUserColumn, DEFAULT_ROW_ACCESS_WINDOW);
+    }
+    
+    /**
+     * Exports reservations to Excel file, reading them one at a time.
+     * Use with ReservationService.forEachReservation / a streamed result set
+     * to export the full history in bounded memory.
+     * 
+     * @param reservations Reservations to export
+     * @param filePath Path where to save the Excel file
+     * @param includeUserColumn Whether to include user column (for admin)
+     * @param rowAccessWindow Number of rows kept in memory before flushing to disk
+     * @return true if export successful, false otherwise
+     */
+    public static boolean exportToExcel(Iterator<Reservation> reservations, String filePath,
+                                        boolean includeUserColumn, int rowAccessWindow) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow);
+        workbook.setCompressTempFiles(true);
         
         try {
-            // Create DAOs
-            VolDAO volDAO = new VolDAO();
-            HotelDAO hotelDAO = new HotelDAO();
-            UtilisateurDAO utilisateurDAO = new UtilisateurDAO();
+            Sheet sheet = workbook.createSheet("Historique des Voyages");
             
-            // Create header style
+            // Styles are created once and shared by every row
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dateStyle = createDateStyle(workbook);
             CellStyle currencyStyle = createCurrencyStyle(workbook);
             CellStyle statusStyle = createStatusStyle(workbook);
             
             // Create header row
-            int rowNum = 0;
-            Row headerRow = sheet.createRow(rowNum++);
+            Row headerRow = sheet.createRow(0);
             int colNum = 0;
             
             createCell(headerRow, colNum++, "Numéro Réservation", headerStyle);
@@ -72,122 +89,114 @@ public class ExcelExportUtil {
             createCell(headerRow, colNum++, "Motif", headerStyle);
             createCell(headerRow, colNum++, "Commentaire", headerStyle);
             
-            // Add data rows
-            for (Reservation reservation : reservations) {
-                Row row = sheet.createRow(rowNum++);
-                colNum = 0;
-                
-                // Reservation ID
-                createCell(row, colNum++, reservation.getIdReservation(), null);
-                
-                // Date
-                Cell dateCell = row.createCell(colNum++);
-                dateCell.setCellValue(reservation.getDateCreation().format(DATE_FORMATTER));
-                dateCell.setCellStyle(dateStyle);
-                
-                // User (if admin)
-                if (includeUserColumn) {
-                    String userName = reservation.getUtilisateurNom();
-                    if (userName == null || userName.isEmpty()) {
-                        Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-                        if (user != null) {
-                            userName = user.getPrenom() + " " + user.getNom();
-                        } else {
-                            userName = "Utilisateur #" + reservation.getIdUtilisateur();
-                        }
-                    }
-                    createCell(row, colNum++, userName, null);
-                }
-                
-                // Status
-                Cell statusCell = row.createCell(colNum++);
-                statusCell.setCellValue(reservation.getStatut());
-                statusCell.setCellStyle(statusStyle);
-                
-                // Flight information
-                if (reservation.getIdVol() != null) {
-                    Vol vol = volDAO.findById(reservation.getIdVol());
-                    if (vol != null) {
-                        createCell(row, colNum++, vol.getOrigine(), null);
-                        createCell(row, colNum++, vol.getDestination(), null);
-                        createCell(row, colNum++, vol.getCompagnie(), null);
-                    } else {
-                        createCell(row, colNum++, "-", null);
-                        createCell(row, colNum++, "-", null);
-                        createCell(row, colNum++, "-", null);
-                    }
-                } else {
-                    createCell(row, colNum++, "-", null);
-                    createCell(row, colNum++, "-", null);
-                    createCell(row, colNum++, "-", null);
+            // Set column widths
+            for (int i = 0, width = 0; i < COLUMN_WIDTHS.length; i++) {
+                if (i == 2 && !includeUserColumn) {
+                    continue;
                 }
-                
-                // Hotel information
-                if (reservation.getIdHotel() != null) {
-                    Hotel hotel = hotelDAO.findById(reservation.getIdHotel());
-                    if (hotel != null) {
-                        createCell(row, colNum++, hotel.getNom(), null);
-                        createCell(row, colNum++, hotel.getVille(), null);
-                    } else {
-                        createCell(row, colNum++, "-", null);
-                        createCell(row, colNum++, "-", null);
-                    }
-                    
-                    if (reservation.getDateCheckin() != null) {
-                        Cell checkinCell = row.createCell(colNum++);
-                        checkinCell.setCellValue(reservation.getDateCheckin().format(DATE_FORMATTER));
-                        checkinCell.setCellStyle(dateStyle);
-                    } else {
-                        createCell(row, colNum++, "-", null);
-                    }
-                    
-                    if (reservation.getDateCheckout() != null) {
-                        Cell checkoutCell = row.createCell(colNum++);
-                        checkoutCell.setCellValue(reservation.getDateCheckout().format(DATE_FORMATTER));
-                        checkoutCell.setCellStyle(dateStyle);
-                    } else {
-                        createCell(row, colNum++, "-", null);
-                    }
-                    
-                    createCell(row, colNum++, String.valueOf(reservation.getNombreChambres()), null);
-                } else {
-                    createCell(row, colNum++, "-", null);
-                    createCell(row, colNum++, "-", null);
-                    createCell(row, colNum++, "-", null);
-                    createCell(row, colNum++, "-", null);
-                    createCell(row, colNum++, "-", null);
-                }
-                
-                // Amount
-                Cell amountCell = row.createCell(colNum++);
-                amountCell.setCellValue(reservation.getMontantTotal());
-                amountCell.setCellStyle(currencyStyle);
-                
-                // Motif
-                createCell(row, colNum++, reservation.getMotifVoyage() != null ? reservation.getMotifVoyage() : "-", null);
-                
-                // Commentaire
-                createCell(row, colNum++, reservation.getCommentaire() != null ? reservation.getCommentaire() : "-", null);
+                sheet.setColumnWidth(width++, COLUMN_WIDTHS[i] * 256);
             }
             
-            // Auto-size columns
-            for (int i = 0; i < (includeUserColumn ? 15 : 14); i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Add data rows, resolving users/flights/hotels per batch
+            int[] rowNum = {1};
+            new ReservationBatchResolver().forEachResolved(reservations, ReservationBatchResolver.DEFAULT_BATCH_SIZE,
+                reservation -> writeRow(sheet.createRow(rowNum[0]++), reservation, includeUserColumn,
+                                        dateStyle, currencyStyle, statusStyle));
             
             // Write to file
             try (FileOutputStream outputStream = new FileOutputStream(filePath)) {
                 workbook.write(outputStream);
             }
             
-            workbook.close();
             return true;
             
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             System.err.println("Error exporting to Excel: " + e.getMessage());
             e.printStackTrace();
             return false;
+        } finally {
+            // Delete the temporary files backing the flushed rows
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                System.err.println("Error closing workbook: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static void writeRow(Row row, Reservation reservation, boolean includeUserColumn,
+                                 CellStyle dateStyle, CellStyle currencyStyle, CellStyle statusStyle) {
+        int colNum = 0;
+        
+        // Reservation ID
+        createCell(row, colNum++, reservation.getIdReservation(), null);
+        
+        // Date
+        createCell(row, colNum++, reservation.getDateCreation().format(DATE_FORMATTER), dateStyle);
+        
+        // User (if admin)
+        if (includeUserColumn) {
+            createCell(row, colNum++, ReservationBatchResolver.getUtilisateurNom(reservation), null);
         }
+        
+        // Status
+        createCell(row, colNum++, reservation.getStatut(), statusStyle);
+        
+        // Flight information
+        Vol vol = reservation.getVol();
+        if (vol != null) {
+            createCell(row, colNum++, vol.getOrigine(), null);
+            createCell(row, colNum++, vol.getDestination(), null);
+            createCell(row, colNum++, vol.getCompagnie(), null);
+        } else {
+            createCell(row, colNum++, "-", null);
+            createCell(row, colNum++, "-", null);
+            createCell(row, colNum++, "-", null);
+        }
+        
+        // Hotel information
+        if (reservation.getIdHotel() != null) {
+            Hotel hotel = reservation.getHotel();
+            if (hotel != null) {
+                createCell(row, colNum++, hotel.getNom(), null);
+                createCell(row, colNum++, hotel.getVille(), null);
+            } else {
+                createCell(row, colNum++, "-", null);
+                createCell(row, colNum++, "-", null);
+            }
+            
+            if (reservation.getDateCheckin() != null) {
+                createCell(row, colNum++, reservation.getDateCheckin().format(DATE_FORMATTER), dateStyle);
+            } else {
+                createCell(row, colNum++, "-", null);
+            }
+            
+            if (reservation.getDateCheckout() != null) {
+                createCell(row, colNum++, reservation.getDateCheckout().format(DATE_FORMATTER), dateStyle);
+            } else {
+                createCell(row, colNum++, "-", null);
+            }
+            
+            createCell(row, colNum++, String.valueOf(reservation.getNombreChambres()), null);
+        } else {
+            createCell(row, colNum++, "-", null);
+            createCell(row, colNum++, "-", null);
+            createCell(row, colNum++, "-", null);
+            createCell(row, colNum++, "-", null);
+            createCell(row, colNum++, "-", null);
+        }
+        
+        // Amount
+        Cell amountCell = row.createCell(colNum++);
+        amountCell.setCellValue(reservation.getMontantTotal());
+        amountCell.setCellStyle(currencyStyle);
+        
+        // Motif
+        createCell(row, colNum++, reservation.getMotifVoyage() != null ? reservation.getMotifVoyage() : "-", null);
+        
+        // Commentaire
+        createCell(row, colNum, reservation.getCommentaire() != null ? reservation.getCommentaire() : "-", null);
     }
     
     private static void createCell(Row row, int column, String value, CellStyle style) {
@@ -0,0 +1,331 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.models.Reservation;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs reservation exports (Excel, PDF) in the background.
+ * Each export is an {@link ExportJob} executed on a small dedicated pool, so
+ * long exports never hold up screen loading. Jobs report the number of rows
+ * written, can be cancelled, and delete their partial file when they do not
+ * complete.
+ */
+public class ExportJobManager {
+
+    private static final int POOL_SIZE = 2;
+
+    /** Rows written between two progress updates. */
+    private static final int PROGRESS_STEP = 100;
+
+    private static ExportJobManager instance;
+    private final ExecutorService executor;
+
+    /**
+     * Export file formats.
+     */
+    public enum Format {
+        EXCEL("Excel"),
+        PDF("PDF");
+
+        private final String label;
+
+        Format(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Determines the format from a file name.
+         *
+         * @param file Target file
+         * @return Format, or null if the extension is not supported
+         */
+        public static Format fromFile(File file) {
+            String name = file.getName().toLowerCase();
+            if (name.endsWith(".xlsx")) {
+                return EXCEL;
+            }
+            if (name.endsWith(".pdf")) {
+                return PDF;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Opens the reservations to export. The stream is closed when the export
+     * ends, which releases a streamed database result set.
+     */
+    @FunctionalInterface
+    public interface Source {
+        Stream<Reservation> open() throws Exception;
+    }
+
+    /**
+     * Counts the reservations an export will write, for the progress bar.
+     * Called on the export thread right before the source is opened.
+     */
+    @FunctionalInterface
+    public interface Counter {
+        long count() throws Exception;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ExportJobManager() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(POOL_SIZE, r -> {
+            Thread thread = new Thread(r, "export-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the singleton instance of ExportJobManager.
+     *
+     * @return ExportJobManager instance
+     */
+    public static synchronized ExportJobManager getInstance() {
+        if (instance == null) {
+            instance = new ExportJobManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts an export and shows its progress in a small non-modal window
+     * with a cancel button. The outcome is reported with an alert; a
+     * cancellation is only reported once the export thread has stopped
+     * writing and deleted the partial file.
+     *
+     * @param owner Window the progress window belongs to
+     * @param job Export to run
+     * @return The running job
+     */
+    public ExportJob start(Window owner, ExportJob job) {
+        Stage stage = createProgressStage(owner, job);
+
+        job.setOnSucceeded(event -> {
+            stage.close();
+            AlertUtil.showSuccess("Export réussi",
+                                "L'export " + job.getFormat().getLabel() + " est terminé.\n\n" +
+                                job.getValue() + " réservation(s) exportée(s).\n" +
+                                "Fichier: " + job.getFile().getName());
+        });
+        job.setOnFailed(event -> {
+            stage.close();
+            Throwable error = job.getException();
+            System.err.println("Export failed: " + (error != null ? error.getMessage() : "unknown error"));
+            AlertUtil.showError("Erreur d'export", "L'export a échoué",
+                              "Une erreur s'est produite lors de l'export. Veuillez réessayer.");
+        });
+        job.setOnCancelled(event -> stage.setTitle("Annulation..."));
+
+        stage.show();
+        try {
+            executor.execute(() -> {
+                job.run();
+                // run() returns once call() has finished its cleanup
+                if (job.isCancelled()) {
+                    Platform.runLater(() -> reportCancelled(stage));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("Export rejected: " + e.getMessage());
+            job.cancel();
+            reportCancelled(stage);
+        }
+        return job;
+    }
+
+    private void reportCancelled(Stage stage) {
+        stage.close();
+        AlertUtil.showInfo("Export annulé", "L'export a été annulé",
+                         "Aucun fichier n'a été créé.");
+    }
+
+    /**
+     * Shuts down the export pool, cancelling running exports.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Stage createProgressStage(Window owner, ExportJob job) {
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(320);
+        progressBar.progressProperty().bind(job.progressProperty());
+
+        Label messageLabel = new Label();
+        messageLabel.textProperty().bind(job.messageProperty());
+
+        Button cancelButton = new Button("Annuler");
+        cancelButton.getStyleClass().add("secondary-button");
+        cancelButton.setOnAction(event -> job.cancel(true));
+
+        VBox root = new VBox(12, new Label("Export " + job.getFormat().getLabel() + " en cours..."),
+                             progressBar, messageLabel, cancelButton);
+        root.setAlignment(Pos.CENTER);
+        root.setPadding(new Insets(20));
+
+        Stage stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Export");
+        stage.setResizable(false);
+        stage.setScene(new Scene(root));
+        // Closing the window cancels the export
+        stage.setOnCloseRequest(event -> job.cancel(true));
+        return stage;
+    }
+
+    /**
+     * One export of reservations to a file. The task value is the number of
+     * reservations written.
+     */
+    public static class ExportJob extends Task<Long> {
+
+        private final Format format;
+        private final File file;
+        private final boolean includeUserColumn;
+        private final Counter counter;
+        private final Source source;
+        private long expectedRows = -1;
+
+        /**
+         * Creates an export job.
+         *
+         * @param format Export format
+         * @param file Target file
+         * @param includeUserColumn Whether to include user column (for admin)
+         * @param expectedRows Number of rows expected, or -1 if unknown (indeterminate progress)
+         * @param source Reservations to export
+         */
+        public ExportJob(Format format, File file, boolean includeUserColumn, long expectedRows, Source source) {
+            this(format, file, includeUserColumn, () -> expectedRows, source);
+        }
+
+        /**
+         * Creates an export job that counts its rows when it starts, so the
+         * progress bar matches the data actually exported.
+         *
+         * @param format Export format
+         * @param file Target file
+         * @param includeUserColumn Whether to include user column (for admin)
+         * @param counter Counts the rows to export; a negative count means unknown
+         * @param source Reservations to export
+         */
+        public ExportJob(Format format, File file, boolean includeUserColumn, Counter counter, Source source) {
+            this.format = format;
+            this.file = file;
+            this.includeUserColumn = includeUserColumn;
+            this.counter = counter;
+            this.source = source;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        protected Long call() throws Exception {
+            updateMessage("Préparation...");
+            expectedRows = counter.count();
+            try (Stream<Reservation> stream = source.open()) {
+                ProgressIterator rows = new ProgressIterator(stream.iterator());
+                boolean success = export(rows);
+
+                if (isCancelled()) {
+                    deletePartialFile();
+                    return rows.count;
+                }
+                if (!success) {
+                    throw new IOException("Export " + format.getLabel() + " failed for " + file.getName());
+                }
+                updateProgress(rows.count, rows.count);
+                return rows.count;
+            } catch (Exception e) {
+                deletePartialFile();
+                throw e;
+            }
+        }
+
+        private boolean export(Iterator<Reservation> rows) {
+            String filePath = file.getAbsolutePath();
+            if (format == Format.EXCEL) {
+                return ExcelExportUtil.exportToExcel(rows, filePath, includeUserColumn,
+                                                     ExcelExportUtil.DEFAULT_ROW_ACCESS_WINDOW);
+            }
+            return PdfExportUtil.exportToPdf(rows, filePath, includeUserColumn, PdfExportUtil.DEFAULT_FLUSH_ROWS);
+        }
+
+        private void deletePartialFile() {
+            if (file.exists() && !file.delete()) {
+                System.err.println("Could not delete partial export: " + file.getAbsolutePath());
+            }
+        }
+
+        /**
+         * Counts rows as the exporter reads them, publishes progress and
+         * stops the exporter once the job is cancelled.
+         */
+        private class ProgressIterator implements Iterator<Reservation> {
+
+            private final Iterator<Reservation> delegate;
+            private long count;
+
+            ProgressIterator(Iterator<Reservation> delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (isCancelled()) {
+                    throw new CancellationException("Export cancelled");
+                }
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Reservation next() {
+                Reservation reservation = delegate.next();
+                count++;
+                if (count % PROGRESS_STEP == 0) {
+                    if (expectedRows > 0) {
+                        updateProgress(Math.min(count, expectedRows), expectedRows);
+                    }
+                    updateMessage(count + " ligne(s) écrite(s)");
+                }
+                return reservation;
+            }
+        }
+    }
+}
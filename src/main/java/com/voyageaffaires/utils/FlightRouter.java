@@ -0,0 +1,395 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.models.Itineraire;
+import com.voyageaffaires.models.Vol;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable routing engine finding connecting itineraries between two cities.
+ * Flights are stored as a time-expanded graph in primitive arrays: each
+ * flight is a node, and a flight can be followed by any flight leaving its
+ * arrival city between the minimum and maximum connection times. Since time
+ * only moves forward, the graph has no cycles. Queries run a Dijkstra search
+ * (cheapest or fastest) that expands each flight at most k times per number
+ * of flights already taken, which yields the k best itineraries.
+ */
+public final class FlightRouter {
+
+    /**
+     * What the best itineraries minimize.
+     */
+    public enum Critere {
+        MOINS_CHER,     // total price
+        PLUS_RAPIDE     // time from first departure to last arrival
+    }
+
+    public static final int DEFAULT_MIN_CONNECTION_MINUTES = 60;
+    public static final int DEFAULT_MAX_CONNECTION_MINUTES = 24 * 60;
+    public static final int DEFAULT_MAX_VOLS = 3;
+
+    // Flights (connections), sorted by departure time
+    private final Vol[] vols;
+    private final int[] depStation;
+    private final int[] arrStation;
+    private final long[] depTime;     // epoch minutes
+    private final long[] arrTime;
+    private final double[] prix;
+
+    // Cities, by normalized name
+    private final String[] stationNames;
+    private final Map<String, Integer> stationIds = new HashMap<>();
+
+    // Departures of each city, by time: byStation[stationStart[s] .. stationStart[s + 1])
+    private final int[] stationStart;
+    private final int[] byStation;
+
+    /**
+     * Builds the graph. Flights without dates, or arriving before they
+     * leave, are ignored.
+     *
+     * @param flights Available flights
+     */
+    public FlightRouter(Collection<Vol> flights) {
+        Vol[] valid = flights.stream()
+                .filter(v -> v.getDateDepart() != null && v.getDateArrivee() != null
+                        && v.getOrigine() != null && v.getDestination() != null
+                        && v.getDateArrivee().isAfter(v.getDateDepart()))
+                .sorted(Comparator.comparing(Vol::getDateDepart))
+                .toArray(Vol[]::new);
+
+        int n = valid.length;
+        vols = valid;
+        depStation = new int[n];
+        arrStation = new int[n];
+        depTime = new long[n];
+        arrTime = new long[n];
+        prix = new double[n];
+
+        List<String> names = new ArrayList<>();
+        for (int c = 0; c < n; c++) {
+            depStation[c] = stationId(valid[c].getOrigine(), names);
+            arrStation[c] = stationId(valid[c].getDestination(), names);
+            depTime[c] = toMinutes(valid[c].getDateDepart());
+            arrTime[c] = toMinutes(valid[c].getDateArrivee());
+            prix[c] = valid[c].getPrix();
+        }
+        stationNames = names.toArray(new String[0]);
+
+        // Counting sort by departure city keeps each city's departures in time order
+        stationStart = new int[stationNames.length + 1];
+        for (int c = 0; c < n; c++) {
+            stationStart[depStation[c] + 1]++;
+        }
+        for (int s = 0; s < stationNames.length; s++) {
+            stationStart[s + 1] += stationStart[s];
+        }
+        byStation = new int[n];
+        int[] next = Arrays.copyOf(stationStart, stationNames.length);
+        for (int c = 0; c < n; c++) {
+            byStation[next[depStation[c]]++] = c;
+        }
+    }
+
+    /**
+     * Finds the k best itineraries leaving on a given day, with the default
+     * connection times and at most DEFAULT_MAX_VOLS flights.
+     *
+     * @param origine Departure city
+     * @param destination Arrival city
+     * @param jour Day of the first departure, or null for any future departure
+     * @param critere What to minimize
+     * @param k Maximum number of itineraries
+     * @return Itineraries, best first
+     */
+    public List<Itineraire> findItineraries(String origine, String destination, LocalDate jour,
+                                            Critere critere, int k) {
+        LocalDateTime from = jour != null ? jour.atStartOfDay() : LocalDateTime.now();
+        LocalDateTime to = jour != null ? jour.plusDays(1).atStartOfDay() : null;
+        return findItineraries(origine, destination, from, to, critere, k,
+                               DEFAULT_MIN_CONNECTION_MINUTES, DEFAULT_MAX_CONNECTION_MINUTES, DEFAULT_MAX_VOLS);
+    }
+
+    /**
+     * Finds the k best itineraries between two cities. A city name matches
+     * exactly (case and accents ignored) or, failing that, as a substring.
+     * An itinerary never passes through the same city twice. The result is
+     * exact for up to four flights; with more, a city visited early can block
+     * a later connection and some itineraries may be missed.
+     *
+     * @param origine Departure city
+     * @param destination Arrival city
+     * @param from Earliest first departure
+     * @param to First departure strictly before this time (null for no limit)
+     * @param critere What to minimize
+     * @param k Maximum number of itineraries
+     * @param minConnectionMinutes Minimum time between two flights
+     * @param maxConnectionMinutes Maximum time between two flights
+     * @param maxVols Maximum number of flights per itinerary
+     * @return Itineraries, best first
+     */
+    public List<Itineraire> findItineraries(String origine, String destination,
+                                            LocalDateTime from, LocalDateTime to,
+                                            Critere critere, int k,
+                                            int minConnectionMinutes, int maxConnectionMinutes, int maxVols) {
+        List<Itineraire> results = new ArrayList<>();
+        boolean[] isOrigin = resolveStations(origine);
+        boolean[] isDestination = resolveStations(destination);
+        if (isOrigin == null || isDestination == null || k <= 0 || maxVols <= 0) {
+            return results;
+        }
+
+        long fromMinutes = toMinutes(from);
+        long toMinutes = to != null ? toMinutes(to) : Long.MAX_VALUE;
+        boolean cheapest = critere == Critere.MOINS_CHER;
+        Labels labels = new Labels();
+        // Expansions by (flight, flights taken): partial itineraries reaching
+        // a flight with the same number of legs have the same continuations,
+        // apart from the cities they already went through (see below)
+        int[] expanded = new int[vols.length * maxVols];
+
+        // First flights: departures from the origin within the window
+        for (int s = 0; s < stationNames.length; s++) {
+            if (!isOrigin[s] || isDestination[s]) {
+                continue;
+            }
+            for (int i = lowerBound(s, fromMinutes); i < stationStart[s + 1]; i++) {
+                int c = byStation[i];
+                if (depTime[c] >= toMinutes) {
+                    break;
+                }
+                if (maxVols > 1 || isDestination[arrStation[c]]) {
+                    labels.push(c, -1, cheapest ? prix[c] : arrTime[c] - depTime[c], 1);
+                }
+            }
+        }
+
+        while (!labels.isEmpty() && results.size() < k) {
+            int label = labels.pop();
+            int c = labels.conn[label];
+            int taken = labels.vols[label];
+            int slot = c * maxVols + taken - 1;
+            if (expanded[slot] >= k) {
+                continue;
+            }
+
+            if (isDestination[arrStation[c]]) {
+                expanded[slot]++;
+                results.add(toItineraire(labels, label));
+                continue;
+            }
+
+            // Connections: departures from the arrival city within the allowed layover.
+            // The last leg is only kept if it reaches the destination.
+            int s = arrStation[c];
+            long earliest = arrTime[c] + minConnectionMinutes;
+            long latest = arrTime[c] + maxConnectionMinutes;
+            boolean lastLeg = taken + 1 == maxVols;
+            boolean blocked = false;
+            for (int i = lowerBound(s, earliest); i < stationStart[s + 1]; i++) {
+                int next = byStation[i];
+                if (depTime[next] > latest) {
+                    break;
+                }
+                if (lastLeg && !isDestination[arrStation[next]]) {
+                    continue;
+                }
+                if (visits(labels, label, arrStation[next])) {
+                    blocked = true;
+                    continue;
+                }
+                double key = labels.key[label] + (cheapest ? prix[next] : arrTime[next] - arrTime[c]);
+                labels.push(next, label, key, taken + 1);
+            }
+            // A label missing some connections because of the cities it went
+            // through does not use up the flight: a worse label may still need them
+            if (!blocked) {
+                expanded[slot]++;
+            }
+        }
+        return results;
+    }
+
+    public int getFlightCount() {
+        return vols.length;
+    }
+
+    public int getCityCount() {
+        return stationNames.length;
+    }
+
+    // ----- Internals -----
+
+    private int stationId(String name, List<String> names) {
+        String key = SubstringIndex.normalize(name);
+        Integer id = stationIds.get(key);
+        if (id == null) {
+            id = names.size();
+            names.add(key);
+            stationIds.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Marks the cities matching a name: the exact city if it exists,
+     * otherwise every city containing the name.
+     *
+     * @return Marks by city ID, or null if nothing matches
+     */
+    private boolean[] resolveStations(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+        String key = SubstringIndex.normalize(name);
+        boolean[] marks = new boolean[stationNames.length];
+        Integer exact = stationIds.get(key);
+        if (exact != null) {
+            marks[exact] = true;
+            return marks;
+        }
+
+        boolean found = false;
+        for (int s = 0; s < stationNames.length; s++) {
+            if (stationNames[s].contains(key)) {
+                marks[s] = true;
+                found = true;
+            }
+        }
+        return found ? marks : null;
+    }
+
+    /**
+     * Finds the first departure of a city at or after a time.
+     *
+     * @return Position in byStation
+     */
+    private int lowerBound(int station, long minutes) {
+        int low = stationStart[station];
+        int high = stationStart[station + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (depTime[byStation[mid]] < minutes) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks whether the itinerary ending with a label already went through a city.
+     */
+    private boolean visits(Labels labels, int label, int station) {
+        for (int l = label; l >= 0; l = labels.parent[l]) {
+            int c = labels.conn[l];
+            if (arrStation[c] == station || depStation[c] == station) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Itineraire toItineraire(Labels labels, int label) {
+        List<Vol> legs = new ArrayList<>(labels.vols[label]);
+        for (int l = label; l >= 0; l = labels.parent[l]) {
+            legs.add(vols[labels.conn[l]]);
+        }
+        Collections.reverse(legs);
+        return new Itineraire(legs);
+    }
+
+    private static long toMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    /**
+     * Search labels (partial itineraries) in parallel arrays, with a binary
+     * heap of label IDs ordered by key, then by arrival time.
+     */
+    private final class Labels {
+        int[] conn = new int[256];
+        int[] parent = new int[256];
+        double[] key = new double[256];
+        int[] vols = new int[256];
+        int size;
+
+        private int[] heap = new int[256];
+        private int heapSize;
+
+        void push(int c, int parentLabel, double labelKey, int count) {
+            if (size == conn.length) {
+                int capacity = size * 2;
+                conn = Arrays.copyOf(conn, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                key = Arrays.copyOf(key, capacity);
+                vols = Arrays.copyOf(vols, capacity);
+            }
+            int label = size++;
+            conn[label] = c;
+            parent[label] = parentLabel;
+            key[label] = labelKey;
+            vols[label] = count;
+
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (!less(label, heap[up])) {
+                    break;
+                }
+                heap[i] = heap[up];
+                i = up;
+            }
+            heap[i] = label;
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!less(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            if (heapSize > 0) {
+                heap[i] = last;
+            }
+            return top;
+        }
+
+        boolean isEmpty() {
+            return heapSize == 0;
+        }
+
+        private boolean less(int a, int b) {
+            if (key[a] != key[b]) {
+                return key[a] < key[b];
+            }
+            return arrTime[conn[a]] < arrTime[conn[b]];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.voyageaffaires.utils;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe, size-bounded store of failed login attempts.
+ * Failures are counted per key (an email, a workstation) over a sliding
+ * window. Once a key reaches the failure threshold it is locked, and every
+ * further failure doubles the lock duration up to a maximum. Locked keys are
+ * rejected before any database or password work is done. The least recently
+ * used keys are evicted when the store is full.
+ */
+public class LoginThrottle {
+
+    private final String name;
+    private final int maxSize;
+    private final long windowMillis;
+    private final int maxFailures;
+    private final long baseLockMillis;
+    private final long maxLockMillis;
+    private final LinkedHashMap<String, Attempts> entries;
+
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lockouts = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a throttle.
+     *
+     * @param name Name used in statistics output
+     * @param maxSize Maximum number of keys tracked (least recently used are evicted)
+     * @param windowMillis Sliding window over which failures are counted
+     * @param maxFailures Failures within the window that lock the key
+     * @param baseLockMillis Lock duration at the threshold, doubled by each further failure
+     * @param maxLockMillis Maximum lock duration
+     */
+    public LoginThrottle(String name, int maxSize, long windowMillis, int maxFailures,
+                         long baseLockMillis, long maxLockMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.windowMillis = windowMillis;
+        this.maxFailures = Math.max(1, maxFailures);
+        this.baseLockMillis = baseLockMillis;
+        this.maxLockMillis = maxLockMillis;
+        this.entries = new LinkedHashMap<String, Attempts>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+                if (size() > LoginThrottle.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Checks whether a key is locked. A locked check counts as a rejection.
+     *
+     * @param key Throttled key
+     * @return Remaining lock time in milliseconds, or 0 if attempts are allowed
+     */
+    public long getRemainingLockMillis(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Attempts attempts = entries.get(key);
+            if (attempts == null) {
+                return 0;
+            }
+            if (attempts.lockedUntil > now) {
+                rejections.incrementAndGet();
+                return attempts.lockedUntil - now;
+            }
+            attempts.prune(now - windowMillis);
+            if (attempts.timestamps.isEmpty()) {
+                entries.remove(key);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Records a failed attempt, locking the key once the threshold is reached.
+     *
+     * @param key Throttled key
+     */
+    public void recordFailure(String key) {
+        long now = System.currentTimeMillis();
+        failures.incrementAndGet();
+        synchronized (entries) {
+            Attempts attempts = entries.computeIfAbsent(key, k -> new Attempts());
+            attempts.prune(now - windowMillis);
+            attempts.timestamps.addLast(now);
+
+            int excess = attempts.timestamps.size() - maxFailures;
+            if (excess >= 0) {
+                long lock = Math.min(maxLockMillis, baseLockMillis << Math.min(excess, 20));
+                attempts.lockedUntil = now + lock;
+                lockouts.incrementAndGet();
+                // Older failures no longer change the lock duration
+                while (attempts.timestamps.size() > maxFailures + 20) {
+                    attempts.timestamps.pollFirst();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the failures of a key (e.g. after a successful login).
+     *
+     * @param key Throttled key
+     */
+    public void reset(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    // ----- Metrics -----
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public long getLockoutCount() {
+        return lockouts.get();
+    }
+
+    /**
+     * Gets the number of attempts rejected because their key was locked.
+     *
+     * @return Rejected attempt count
+     */
+    public long getRejectionCount() {
+        return rejections.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LoginThrottle[%s, keys=%d, failures=%d, lockouts=%d, rejected=%d, evictions=%d]",
+                name, size(), getFailureCount(), getLockoutCount(), getRejectionCount(), getEvictionCount());
+    }
+
+    /**
+     * Recent failures of one key.
+     */
+    private static final class Attempts {
+        final ArrayDeque<Long> timestamps = new ArrayDeque<>();
+        long lockedUntil;
+
+        void prune(long windowStart) {
+            while (!timestamps.isEmpty() && timestamps.peekFirst() < windowStart) {
+                timestamps.pollFirst();
+            }
+        }
+    }
+}
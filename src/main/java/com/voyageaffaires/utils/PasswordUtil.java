@@ -4,11 +4,21 @@ import org.mindrot.jbcrypt.BCrypt;
 
 /**
  * Utility class for password hashing and verification using BCrypt.
+ * The work factor starts at MIN_WORK_FACTOR and can be raised at startup by
+ * {@link #calibrate(long)} to match the speed of the current machine.
  */
 public class PasswordUtil {
     
-    // BCrypt work factor (log rounds)
-    private static final int WORK_FACTOR = 10;
+    // BCrypt work factor bounds (log rounds)
+    public static final int MIN_WORK_FACTOR = 10;
+    public static final int MAX_WORK_FACTOR = 14;
+    
+    // Target time for one password check
+    public static final long DEFAULT_TARGET_MILLIS = 250;
+    
+    private static final int CALIBRATION_RUNS = 3;
+    
+    private static volatile int workFactor = MIN_WORK_FACTOR;
     
     /**
      * Hashes a plain text password using BCrypt.
@@ -17,10 +27,21 @@ public class PasswordUtil {
      * @return Hashed password
      */
     public static String hashPassword(String plainPassword) {
+        return hashPassword(plainPassword, workFactor);
+    }
+    
+    /**
+     * Hashes a plain text password using BCrypt with a given work factor.
+     * 
+     * @param plainPassword The plain text password
+     * @param cost BCrypt log rounds
+     * @return Hashed password
+     */
+    public static String hashPassword(String plainPassword, int cost) {
         if (plainPassword == null || plainPassword.isEmpty()) {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(WORK_FACTOR));
+        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(cost));
     }
     
     /**
@@ -42,6 +63,93 @@ public class PasswordUtil {
         }
     }
     
+    /**
+     * Gets the work factor used for new hashes.
+     * 
+     * @return BCrypt log rounds
+     */
+    public static int getWorkFactor() {
+        return workFactor;
+    }
+    
+    /**
+     * Checks whether a hash was created with a lower work factor than the
+     * current one and should be replaced on the next successful login.
+     * 
+     * @param hashedPassword Stored hash
+     * @return true if the hash should be upgraded
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        int cost = getCost(hashedPassword);
+        return cost > 0 && cost < workFactor;
+    }
+    
+    /**
+     * Picks the highest work factor whose check time stays within the target
+     * on this machine. Each cost is measured, from MIN_WORK_FACTOR upwards,
+     * until one exceeds the target. The work factor never goes below
+     * MIN_WORK_FACTOR.
+     * 
+     * @param targetMillis Target time for one password check
+     * @return Work factor in use after calibration
+     */
+    public static int calibrate(long targetMillis) {
+        BCrypt.checkpw("calibration", BCrypt.hashpw("calibration", BCrypt.gensalt(MIN_WORK_FACTOR)));   // warm-up
+        
+        int cost = MIN_WORK_FACTOR;
+        StringBuilder report = new StringBuilder();
+        for (int level = MIN_WORK_FACTOR; level <= MAX_WORK_FACTOR; level++) {
+            double measured = measureCheckMillis(level);
+            report.append(String.format(" %d=%.0fms", level, measured));
+            if (measured > targetMillis) {
+                break;
+            }
+            cost = level;
+        }
+        workFactor = cost;
+        System.out.println("BCrypt work factor calibrated to " + cost + " (target " + targetMillis
+                           + " ms, measured check time per cost:" + report + ")");
+        return cost;
+    }
+    
+    /**
+     * Measures one password check at a given work factor (best of a few runs).
+     * 
+     * @param cost BCrypt log rounds
+     * @return Check time in milliseconds
+     */
+    private static double measureCheckMillis(int cost) {
+        String hash = BCrypt.hashpw("calibration", BCrypt.gensalt(cost));
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw("calibration", hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000.0;
+    }
+    
+    /**
+     * Reads the work factor of a BCrypt hash ("$2a$10$...").
+     * 
+     * @param hashedPassword Stored hash
+     * @return Work factor, or -1 if the hash is not a BCrypt hash
+     */
+    public static int getCost(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int end = hashedPassword.indexOf('$', 1);
+        if (end < 0 || hashedPassword.length() < end + 3) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(end + 1, end + 3));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
     /**
      * Validates password strength.
      * Password must be at least 6 characters long.
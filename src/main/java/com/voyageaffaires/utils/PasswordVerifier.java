@@ -0,0 +1,178 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.dao.UtilisateurDAO;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt password checks on a small dedicated pool.
+ * A check costs about 100 ms of CPU; bounding the pool (half the cores) and
+ * its queue keeps CPU use predictable when many logins arrive at once. When
+ * the pool is saturated, checks are refused instead of piling up.
+ * Unknown accounts are checked against a dummy hash at the lowest cost still
+ * used by stored hashes (the legacy cost until they are upgraded), so a
+ * login takes the same time whether the email exists or not.
+ */
+public class PasswordVerifier {
+
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long TIMEOUT_MS = 10000;
+    private static final String DUMMY_PASSWORD = "voyage-affaires-dummy-password";
+
+    private static PasswordVerifier instance;
+    private final ThreadPoolExecutor executor;
+    private volatile String dummyHash;
+    private volatile int dummyCost = PasswordUtil.MIN_WORK_FACTOR;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private PasswordVerifier() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "password-verifier-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the singleton instance of PasswordVerifier.
+     *
+     * @return PasswordVerifier instance
+     */
+    public static synchronized PasswordVerifier getInstance() {
+        if (instance == null) {
+            instance = new PasswordVerifier();
+        }
+        return instance;
+    }
+
+    /**
+     * Verifies a password on the verification pool and waits for the result.
+     * Must not be called from the FX thread.
+     *
+     * @param plainPassword The plain text password to verify
+     * @param hashedPassword The stored hash, or null for an unknown account
+     * @return true if the password matches; always false for an unknown account
+     * @throws RejectedExecutionException if the pool is saturated or the check timed out
+     */
+    public boolean verify(String plainPassword, String hashedPassword) {
+        Future<Boolean> result = executor.submit(() -> {
+            if (hashedPassword == null) {
+                // Same work as a real check, result ignored
+                PasswordUtil.verifyPassword(plainPassword, getDummyHash());
+                return false;
+            }
+            return PasswordUtil.verifyPassword(plainPassword, hashedPassword);
+        });
+
+        try {
+            return result.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new RejectedExecutionException("Password check timed out after " + TIMEOUT_MS + " ms");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            System.err.println("Error verifying password: " + e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Calibrates the BCrypt work factor on the verification pool, so the
+     * measurement runs on the threads that will do the checks, then aligns
+     * the dummy hash with the stored hashes.
+     *
+     * @param targetMillis Target time for one password check
+     */
+    public void calibrateAsync(long targetMillis) {
+        runAsync(() -> {
+            PasswordUtil.calibrate(targetMillis);
+            refreshDummyCost();
+        });
+    }
+
+    /**
+     * Sets the dummy hash cost to the lowest cost among stored hashes.
+     * Raising the work factor only affects new and upgraded hashes, so until
+     * every account has logged in again most stored hashes keep the old cost.
+     * Call it after hashes are upgraded. Keeps the current cost on error.
+     */
+    public void refreshDummyCost() {
+        int cost = new UtilisateurDAO().findLowestPasswordCost();
+        if (cost > 0) {
+            setDummyCost(cost);
+        }
+    }
+
+    /**
+     * Sets the work factor of the hash used for unknown accounts.
+     *
+     * @param cost BCrypt log rounds, clamped to the supported range
+     */
+    void setDummyCost(int cost) {
+        dummyCost = Math.max(PasswordUtil.MIN_WORK_FACTOR, Math.min(PasswordUtil.MAX_WORK_FACTOR, cost));
+    }
+
+    /**
+     * Runs other BCrypt work (e.g. rehashing a password) on the verification
+     * pool. The work is dropped if the pool is saturated.
+     *
+     * @param work Work to run
+     * @return true if the work was accepted
+     */
+    public boolean runAsync(Runnable work) {
+        try {
+            executor.execute(() -> {
+                try {
+                    work.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error in password task: " + e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            System.err.println("Password task rejected, verification pool saturated");
+            return false;
+        }
+    }
+
+    /**
+     * Shuts down the verification pool.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gets the hash used for unknown accounts, recreated when the dummy
+     * cost changes.
+     */
+    String getDummyHash() {
+        int cost = dummyCost;
+        String hash = dummyHash;
+        if (hash == null || PasswordUtil.getCost(hash) != cost) {
+            synchronized (this) {
+                if (dummyHash == null || PasswordUtil.getCost(dummyHash) != cost) {
+                    dummyHash = PasswordUtil.hashPassword(DUMMY_PASSWORD, cost);
+                }
+                hash = dummyHash;
+            }
+        }
+        return hash;
+    }
+}
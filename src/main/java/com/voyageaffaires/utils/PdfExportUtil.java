@@ -4,21 +4,21 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
-import com.voyageaffaires.dao.HotelDAO;
-import com.voyageaffaires.dao.UtilisateurDAO;
-import com.voyageaffaires.dao.VolDAO;
 import com.voyageaffaires.models.Hotel;
 import com.voyageaffaires.models.Reservation;
-import com.voyageaffaires.models.Utilisateur;
 import com.voyageaffaires.models.Vol;
 
 import java.io.FileOutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Utility class for exporting reservations to PDF format.
+ * The reservation table is written in chunks: it is marked incomplete and
+ * added to the document every few hundred rows, so iText flushes finished
+ * pages instead of keeping the whole table in memory.
  */
 public class PdfExportUtil {
     
@@ -28,6 +28,9 @@ public class PdfExportUtil {
     private static final Font NORMAL_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.BLACK);
     private static final Font SMALL_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL, BaseColor.DARK_GRAY);
     
+    /** Number of rows added to the table between two flushes to the document. */
+    public static final int DEFAULT_FLUSH_ROWS = 200;
+    
     /**
      * Exports reservations to PDF file.
      * 
@@ -37,17 +40,34 @@ public class PdfExportUtil {
      * @return true if export successful, false otherwise
      */
     public static boolean exportToPdf(List<Reservation> reservations, String filePath, boolean includeUserColumn) {
+        // The list is known up front, so the statistics stay above the table
+        return export(reservations.iterator(), filePath, includeUserColumn, DEFAULT_FLUSH_ROWS,
+                      ReportTotals.of(reservations));
+    }
+    
+    /**
+     * Exports reservations to PDF file, reading them one at a time.
+     * Statistics are accumulated while writing and added after the table.
+     * 
+     * @param reservations Reservations to export
+     * @param filePath Path where to save the PDF file
+     * @param includeUserColumn Whether to include user column (for admin)
+     * @param flushRows Number of rows between two flushes to the document
+     * @return true if export successful, false otherwise
+     */
+    public static boolean exportToPdf(Iterator<Reservation> reservations, String filePath,
+                                      boolean includeUserColumn, int flushRows) {
+        return export(reservations, filePath, includeUserColumn, flushRows, null);
+    }
+    
+    private static boolean export(Iterator<Reservation> reservations, String filePath, boolean includeUserColumn,
+                                  int flushRows, ReportTotals knownTotals) {
         Document document = new Document(PageSize.A4.rotate()); // Landscape for more columns
         
         try {
             PdfWriter.getInstance(document, new FileOutputStream(filePath));
             document.open();
             
-            // Create DAOs
-            VolDAO volDAO = new VolDAO();
-            HotelDAO hotelDAO = new HotelDAO();
-            UtilisateurDAO utilisateurDAO = new UtilisateurDAO();
-            
             // Add title
             Paragraph title = new Paragraph("Historique des Voyages d'Affaires", TITLE_FONT);
             title.setAlignment(Element.ALIGN_CENTER);
@@ -61,102 +81,41 @@ public class PdfExportUtil {
             document.add(date);
             
             // Add statistics
-            addStatistics(document, reservations);
-            
-            // Create table
-            int numColumns = includeUserColumn ? 9 : 8;
-            PdfPTable table = new PdfPTable(numColumns);
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(15);
-            table.setSpacingAfter(15);
-            
-            // Set column widths
-            if (includeUserColumn) {
-                table.setWidths(new float[]{2f, 1.5f, 2f, 1.5f, 3f, 2.5f, 1.5f, 2f, 1.5f});
-            } else {
-                table.setWidths(new float[]{2f, 1.5f, 1.5f, 3f, 2.5f, 1.5f, 2f, 1.5f});
+            if (knownTotals != null) {
+                addStatistics(document, knownTotals);
             }
             
-            // Add headers
-            addTableHeader(table, includeUserColumn);
+            // Create table; it is completed chunk by chunk
+            PdfPTable table = createTable(includeUserColumn);
+            table.setComplete(false);
             
-            // Add data rows
-            for (Reservation reservation : reservations) {
-                // Reservation ID (shortened)
-                String shortId = reservation.getIdReservation();
-                if (shortId.length() > 16) {
-                    shortId = shortId.substring(0, 16) + "...";
-                }
-                addCell(table, shortId, NORMAL_FONT, Element.ALIGN_LEFT);
-                
-                // Date
-                addCell(table, reservation.getDateCreation().format(DATE_FORMATTER), NORMAL_FONT, Element.ALIGN_CENTER);
-                
-                // User (if admin)
-                if (includeUserColumn) {
-                    String userName = reservation.getUtilisateurNom();
-                    if (userName == null || userName.isEmpty()) {
-                        Utilisateur user = utilisateurDAO.findById(reservation.getIdUtilisateur());
-                        if (user != null) {
-                            userName = user.getPrenom() + " " + user.getNom();
-                        } else {
-                            userName = "User #" + reservation.getIdUtilisateur();
+            // Add data rows, resolving users/flights/hotels per batch
+            ReportTotals totals = new ReportTotals();
+            new ReservationBatchResolver().forEachResolved(reservations, ReservationBatchResolver.DEFAULT_BATCH_SIZE,
+                reservation -> {
+                    addRow(table, reservation, includeUserColumn);
+                    totals.add(reservation);
+                    
+                    // Flush finished rows; the header row is repeated on each page
+                    if (totals.total % flushRows == 0) {
+                        try {
+                            document.add(table);
+                        } catch (DocumentException e) {
+                            // Stops reading the source at the first failure
+                            throw new ExceptionConverter(e);
                         }
                     }
-                    addCell(table, userName, NORMAL_FONT, Element.ALIGN_LEFT);
-                }
-                
-                // Status
-                BaseColor statusColor = getStatusColor(reservation.getStatut());
-                Font statusFont = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, statusColor);
-                addCell(table, reservation.getStatut(), statusFont, Element.ALIGN_CENTER);
-                
-                // Destination (from flight)
-                if (reservation.getIdVol() != null) {
-                    Vol vol = volDAO.findById(reservation.getIdVol());
-                    if (vol != null) {
-                        addCell(table, vol.getOrigine() + " → " + vol.getDestination(), NORMAL_FONT, Element.ALIGN_LEFT);
-                    } else {
-                        addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
-                    }
-                } else {
-                    addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
-                }
-                
-                // Hotel
-                if (reservation.getIdHotel() != null) {
-                    Hotel hotel = hotelDAO.findById(reservation.getIdHotel());
-                    if (hotel != null) {
-                        addCell(table, hotel.getNom() + " (" + hotel.getVille() + ")", NORMAL_FONT, Element.ALIGN_LEFT);
-                    } else {
-                        addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
-                    }
-                } else {
-                    addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
-                }
-                
-                // Check-in
-                if (reservation.getDateCheckin() != null) {
-                    addCell(table, reservation.getDateCheckin().format(DATE_FORMATTER), NORMAL_FONT, Element.ALIGN_CENTER);
-                } else {
-                    addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
-                }
-                
-                // Motif (truncated)
-                String motif = reservation.getMotifVoyage() != null ? reservation.getMotifVoyage() : "-";
-                if (motif.length() > 25) {
-                    motif = motif.substring(0, 25) + "...";
-                }
-                addCell(table, motif, SMALL_FONT, Element.ALIGN_LEFT);
-                
-                // Amount
-                addCell(table, String.format("%.0f €", reservation.getMontantTotal()), NORMAL_FONT, Element.ALIGN_RIGHT);
-            }
+                });
             
+            table.setComplete(true);
             document.add(table);
             
+            if (knownTotals == null) {
+                addStatistics(document, totals);
+            }
+            
             // Add footer
-            Paragraph footer = new Paragraph("Total: " + reservations.size() + " réservation(s)", SMALL_FONT);
+            Paragraph footer = new Paragraph("Total: " + totals.total + " réservation(s)", SMALL_FONT);
             footer.setAlignment(Element.ALIGN_RIGHT);
             document.add(footer);
             
@@ -166,28 +125,97 @@ public class PdfExportUtil {
         } catch (Exception e) {
             System.err.println("Error exporting to PDF: " + e.getMessage());
             e.printStackTrace();
+            if (document.isOpen()) {
+                document.close();
+            }
             return false;
         }
     }
     
-    private static void addStatistics(Document document, List<Reservation> reservations) throws DocumentException {
+    private static PdfPTable createTable(boolean includeUserColumn) throws DocumentException {
+        int numColumns = includeUserColumn ? 9 : 8;
+        PdfPTable table = new PdfPTable(numColumns);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(15);
+        table.setSpacingAfter(15);
+        
+        // Set column widths
+        if (includeUserColumn) {
+            table.setWidths(new float[]{2f, 1.5f, 2f, 1.5f, 3f, 2.5f, 1.5f, 2f, 1.5f});
+        } else {
+            table.setWidths(new float[]{2f, 1.5f, 1.5f, 3f, 2.5f, 1.5f, 2f, 1.5f});
+        }
+        
+        // Add headers, repeated at the top of every page
+        addTableHeader(table, includeUserColumn);
+        table.setHeaderRows(1);
+        return table;
+    }
+    
+    private static void addRow(PdfPTable table, Reservation reservation, boolean includeUserColumn) {
+        // Reservation ID (shortened)
+        String shortId = reservation.getIdReservation();
+        if (shortId.length() > 16) {
+            shortId = shortId.substring(0, 16) + "...";
+        }
+        addCell(table, shortId, NORMAL_FONT, Element.ALIGN_LEFT);
+        
+        // Date
+        addCell(table, reservation.getDateCreation().format(DATE_FORMATTER), NORMAL_FONT, Element.ALIGN_CENTER);
+        
+        // User (if admin)
+        if (includeUserColumn) {
+            addCell(table, ReservationBatchResolver.getUtilisateurNom(reservation), NORMAL_FONT, Element.ALIGN_LEFT);
+        }
+        
+        // Status
+        addCell(table, reservation.getStatut() != null ? reservation.getStatut() : "-",
+                getStatusFont(reservation.getStatut()), Element.ALIGN_CENTER);
+        
+        // Destination (from flight)
+        Vol vol = reservation.getVol();
+        if (vol != null) {
+            addCell(table, vol.getOrigine() + " → " + vol.getDestination(), NORMAL_FONT, Element.ALIGN_LEFT);
+        } else {
+            addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
+        }
+        
+        // Hotel
+        Hotel hotel = reservation.getHotel();
+        if (hotel != null) {
+            addCell(table, hotel.getNom() + " (" + hotel.getVille() + ")", NORMAL_FONT, Element.ALIGN_LEFT);
+        } else {
+            addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
+        }
+        
+        // Check-in
+        if (reservation.getDateCheckin() != null) {
+            addCell(table, reservation.getDateCheckin().format(DATE_FORMATTER), NORMAL_FONT, Element.ALIGN_CENTER);
+        } else {
+            addCell(table, "-", NORMAL_FONT, Element.ALIGN_CENTER);
+        }
+        
+        // Motif (truncated)
+        String motif = reservation.getMotifVoyage() != null ? reservation.getMotifVoyage() : "-";
+        if (motif.length() > 25) {
+            motif = motif.substring(0, 25) + "...";
+        }
+        addCell(table, motif, SMALL_FONT, Element.ALIGN_LEFT);
+        
+        // Amount
+        addCell(table, String.format("%.0f €", reservation.getMontantTotal()), NORMAL_FONT, Element.ALIGN_RIGHT);
+    }
+    
+    private static void addStatistics(Document document, ReportTotals totals) throws DocumentException {
         PdfPTable statsTable = new PdfPTable(4);
         statsTable.setWidthPercentage(80);
         statsTable.setHorizontalAlignment(Element.ALIGN_CENTER);
         statsTable.setSpacingAfter(15);
         
-        long total = reservations.size();
-        long confirmees = reservations.stream().filter(r -> "CONFIRMEE".equals(r.getStatut())).count();
-        long annulees = reservations.stream().filter(r -> "ANNULEE".equals(r.getStatut())).count();
-        double montantTotal = reservations.stream()
-            .filter(r -> !"ANNULEE".equals(r.getStatut()))
-            .mapToDouble(Reservation::getMontantTotal)
-            .sum();
-        
-        addStatCell(statsTable, "Total Voyages", String.valueOf(total), new BaseColor(79, 143, 240));
-        addStatCell(statsTable, "Confirmés", String.valueOf(confirmees), new BaseColor(16, 185, 129));
-        addStatCell(statsTable, "Annulés", String.valueOf(annulees), new BaseColor(239, 68, 68));
-        addStatCell(statsTable, "Montant Total", String.format("%.0f €", montantTotal), new BaseColor(79, 143, 240));
+        addStatCell(statsTable, "Total Voyages", String.valueOf(totals.total), new BaseColor(79, 143, 240));
+        addStatCell(statsTable, "Confirmés", String.valueOf(totals.confirmees), new BaseColor(16, 185, 129));
+        addStatCell(statsTable, "Annulés", String.valueOf(totals.annulees), new BaseColor(239, 68, 68));
+        addStatCell(statsTable, "Montant Total", String.format("%.0f €", totals.montantTotal), new BaseColor(79, 143, 240));
         
         document.add(statsTable);
     }
@@ -244,6 +272,27 @@ public class PdfExportUtil {
         table.addCell(cell);
     }
     
+    private static final Font CONFIRMEE_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, getStatusColor("CONFIRMEE"));
+    private static final Font ANNULEE_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, getStatusColor("ANNULEE"));
+    private static final Font EN_ATTENTE_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, getStatusColor("EN_ATTENTE"));
+    private static final Font OTHER_STATUS_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, BaseColor.DARK_GRAY);
+    
+    private static Font getStatusFont(String statut) {
+        if (statut == null) {
+            return NORMAL_FONT;
+        }
+        switch (statut) {
+            case "CONFIRMEE":
+                return CONFIRMEE_FONT;
+            case "ANNULEE":
+                return ANNULEE_FONT;
+            case "EN_ATTENTE":
+                return EN_ATTENTE_FONT;
+            default:
+                return OTHER_STATUS_FONT;
+        }
+    }
+    
     private static BaseColor getStatusColor(String statut) {
         switch (statut) {
             case "CONFIRMEE":
@@ -256,4 +305,32 @@ public class PdfExportUtil {
                 return BaseColor.DARK_GRAY;
         }
     }
+    
+    /**
+     * Figures shown in the statistics block, accumulated row by row.
+     */
+    private static class ReportTotals {
+        long total;
+        long confirmees;
+        long annulees;
+        double montantTotal;
+        
+        void add(Reservation reservation) {
+            total++;
+            if ("CONFIRMEE".equals(reservation.getStatut())) {
+                confirmees++;
+            } else if ("ANNULEE".equals(reservation.getStatut())) {
+                annulees++;
+            }
+            if (!"ANNULEE".equals(reservation.getStatut())) {
+                montantTotal += reservation.getMontantTotal();
+            }
+        }
+        
+        static ReportTotals of(List<Reservation> reservations) {
+            ReportTotals totals = new ReportTotals();
+            reservations.forEach(totals::add);
+            return totals;
+        }
+    }
 }
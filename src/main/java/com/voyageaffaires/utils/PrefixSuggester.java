@@ -0,0 +1,143 @@
+package com.voyageaffaires.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable type-ahead index over a set of names (e.g. the cities of the
+ * catalog).
+ * Each name is stored in a prefix trie from the start of every word, so
+ * "york" suggests "New York". Every trie node keeps its best suggestions
+ * precomputed (most frequent names first), which makes a lookup a walk of
+ * the typed prefix, independent of the number of names. Matching is case and
+ * accent insensitive.
+ */
+public final class PrefixSuggester {
+
+    /** Suggestions kept per node. */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final Node root = new Node();
+
+    /**
+     * Builds the index from the names of all rows. A name's rank is the
+     * number of rows using it; spellings differing only by case or accents
+     * are merged under the most frequent one.
+     *
+     * @param values Name of each row (nulls and blanks are ignored)
+     */
+    public PrefixSuggester(Iterable<String> values) {
+        Map<String, Candidate> candidates = new HashMap<>();
+        for (String value : values) {
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+            String display = value.trim();
+            candidates.computeIfAbsent(SubstringIndex.normalize(display), k -> new Candidate()).add(display);
+        }
+
+        List<Candidate> ranked = new ArrayList<>(candidates.values());
+        for (Candidate candidate : ranked) {
+            candidate.resolve();
+        }
+        ranked.sort((a, b) -> a.weight != b.weight
+                ? Integer.compare(b.weight, a.weight)
+                : a.display.compareToIgnoreCase(b.display));
+
+        // Inserted best first, so each node keeps its top suggestions
+        for (Candidate candidate : ranked) {
+            String key = SubstringIndex.normalize(candidate.display);
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || isWordSeparator(key.charAt(start - 1))) {
+                    insert(key.substring(start), candidate.display);
+                }
+            }
+        }
+    }
+
+    /**
+     * Suggests names starting with a prefix (or containing a word starting
+     * with it), most frequent first.
+     *
+     * @param prefix Typed text
+     * @param limit Maximum number of suggestions (at most MAX_SUGGESTIONS)
+     * @return Suggestions, empty if the prefix is blank or nothing matches
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        String key = SubstringIndex.normalize(prefix);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children != null ? node.children.get(key.charAt(i)) : null;
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(node.suggestions).subList(0, Math.min(limit, node.count)));
+    }
+
+    private void insert(String key, String display) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            node.add(display);
+        }
+    }
+
+    private static boolean isWordSeparator(char c) {
+        return c == ' ' || c == '-' || c == '\'' || c == '/' || c == '(';
+    }
+
+    /**
+     * A distinct name and the number of rows using it.
+     */
+    private static final class Candidate {
+        final Map<String, Integer> spellings = new HashMap<>(2);
+        String display;
+        int weight;
+
+        void add(String spelling) {
+            spellings.merge(spelling, 1, Integer::sum);
+            weight++;
+        }
+
+        void resolve() {
+            display = Collections.max(spellings.entrySet(), Map.Entry.comparingByValue()).getKey();
+        }
+    }
+
+    /**
+     * Trie node with the best suggestions of its subtree.
+     */
+    private static final class Node {
+        Map<Character, Node> children;
+        final String[] suggestions = new String[MAX_SUGGESTIONS];
+        int count;
+
+        Node child(char c) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+        void add(String display) {
+            if (count == MAX_SUGGESTIONS) {
+                return;
+            }
+            // A name can reach the same node from two of its words
+            for (int i = 0; i < count; i++) {
+                if (suggestions[i].equals(display)) {
+                    return;
+                }
+            }
+            suggestions[count++] = display;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.dao.HotelDAO;
+import com.voyageaffaires.dao.UtilisateurDAO;
+import com.voyageaffaires.dao.VolDAO;
+import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.Utilisateur;
+import com.voyageaffaires.models.Vol;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Resolves the user, flight and hotel of reservations in batches for exports.
+ * Reservations loaded by ReservationDAO already carry them; only the missing
+ * ones are fetched, with one findByIds query per entity type and batch
+ * instead of one lookup per row.
+ */
+public class ReservationBatchResolver {
+
+    /** Default number of reservations resolved per batch. */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final VolDAO volDAO = new VolDAO();
+    private final HotelDAO hotelDAO = new HotelDAO();
+    private final UtilisateurDAO utilisateurDAO = new UtilisateurDAO();
+
+    /**
+     * Reads reservations in batches, resolves each batch and hands the
+     * reservations to the consumer in their original order. Only one batch
+     * is held in memory at a time.
+     *
+     * @param reservations Reservations to resolve
+     * @param batchSize Number of reservations per batch
+     * @param consumer Callback invoked for each resolved reservation
+     */
+    public void forEachResolved(Iterator<Reservation> reservations, int batchSize, Consumer<Reservation> consumer) {
+        List<Reservation> batch = new ArrayList<>(batchSize);
+        while (reservations.hasNext()) {
+            batch.add(reservations.next());
+            if (batch.size() >= batchSize) {
+                resolve(batch);
+                batch.forEach(consumer);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            resolve(batch);
+            batch.forEach(consumer);
+        }
+    }
+
+    /**
+     * Fills in the user name, flight and hotel of reservations that do not
+     * carry them yet.
+     *
+     * @param batch Reservations to resolve
+     */
+    public void resolve(List<Reservation> batch) {
+        Set<Integer> userIds = new HashSet<>();
+        Set<String> volIds = new HashSet<>();
+        Set<String> hotelIds = new HashSet<>();
+
+        for (Reservation reservation : batch) {
+            if (reservation.getUtilisateurNom() == null || reservation.getUtilisateurNom().isEmpty()) {
+                userIds.add(reservation.getIdUtilisateur());
+            }
+            if (reservation.getIdVol() != null && reservation.getVol() == null) {
+                volIds.add(reservation.getIdVol());
+            }
+            if (reservation.getIdHotel() != null && reservation.getHotel() == null) {
+                hotelIds.add(reservation.getIdHotel());
+            }
+        }
+
+        Map<Integer, Utilisateur> users = utilisateurDAO.findByIds(userIds);
+        Map<String, Vol> vols = volDAO.findByIds(volIds);
+        Map<String, Hotel> hotels = hotelDAO.findByIds(hotelIds);
+
+        for (Reservation reservation : batch) {
+            if (reservation.getUtilisateurNom() == null || reservation.getUtilisateurNom().isEmpty()) {
+                Utilisateur user = users.get(reservation.getIdUtilisateur());
+                if (user != null) {
+                    reservation.setUtilisateurNom(user.getPrenom() + " " + user.getNom());
+                }
+            }
+            if (reservation.getIdVol() != null && reservation.getVol() == null) {
+                reservation.setVol(vols.get(reservation.getIdVol()));
+            }
+            if (reservation.getIdHotel() != null && reservation.getHotel() == null) {
+                reservation.setHotel(hotels.get(reservation.getIdHotel()));
+            }
+        }
+    }
+
+    /**
+     * Gets the user name to display for a resolved reservation.
+     *
+     * @param reservation Resolved reservation
+     * @return User name, or "Utilisateur #id" if the user no longer exists
+     */
+    public static String getUtilisateurNom(Reservation reservation) {
+        String userName = reservation.getUtilisateurNom();
+        if (userName == null || userName.isEmpty()) {
+            return "Utilisateur #" + reservation.getIdUtilisateur();
+        }
+        return userName;
+    }
+}
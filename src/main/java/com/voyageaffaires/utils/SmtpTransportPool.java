@@ -0,0 +1,234 @@
+package com.voyageaffaires.utils;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of connected SMTP transports.
+ * Opening an SMTP connection costs a TCP, TLS and AUTH handshake; the pool
+ * keeps transports connected between messages so consecutive sends (e.g. a
+ * batch drained from the email outbox) reuse the same connection. Idle
+ * connections are reused most-recently-used first, checked before reuse when
+ * they have been idle for a while and reopened when the server dropped them.
+ */
+public class SmtpTransportPool {
+
+    /** Idle time after which a transport is checked (NOOP) before reuse. */
+    private static final long VALIDATION_IDLE_MS = 10000;
+
+    private final Session session;
+    private final int maxSize;
+    private final long timeoutMs;
+    private final long idleTimeoutMs;
+    private final int maxMessagesPerConnection;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong handshakeCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private final AtomicLong sendNanosTotal = new AtomicLong();
+
+    /**
+     * Creates a new pool. Connections are opened lazily.
+     *
+     * @param session Mail session holding the SMTP configuration
+     * @param maxSize Maximum number of open connections
+     * @param timeoutMs Maximum time to wait for a free connection
+     * @param idleTimeoutMs Idle time after which a connection is closed instead of reused
+     * @param maxMessagesPerConnection Messages sent before a connection is recycled (0 for no limit)
+     */
+    public SmtpTransportPool(Session session, int maxSize, long timeoutMs,
+                             long idleTimeoutMs, int maxMessagesPerConnection) {
+        this.session = session;
+        this.maxSize = Math.max(1, maxSize);
+        this.timeoutMs = timeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxMessagesPerConnection = Math.max(0, maxMessagesPerConnection);
+        this.permits = new Semaphore(this.maxSize, true);
+    }
+
+    /**
+     * Sends a message over a pooled connection. If the connection turns out
+     * to be broken, the message is retried once over a fresh connection;
+     * rejected recipients are not retried.
+     *
+     * @param message Message to send
+     * @throws MessagingException if the message could not be delivered
+     */
+    public void send(Message message) throws MessagingException {
+        if (shutdown) {
+            throw new MessagingException("SMTP transport pool is shut down");
+        }
+        acquirePermit();
+
+        long start = System.nanoTime();
+        PooledTransport pooled = null;
+        try {
+            message.saveChanges();
+            Address[] recipients = message.getAllRecipients();
+
+            pooled = takeIdle();
+            if (pooled == null) {
+                pooled = connect();
+            }
+            try {
+                pooled.transport.sendMessage(message, recipients);
+            } catch (SendFailedException e) {
+                throw e;
+            } catch (MessagingException e) {
+                // Connection dropped by the server: reconnect and try once more
+                close(pooled);
+                reconnectCount.incrementAndGet();
+                pooled = connect();
+                pooled.transport.sendMessage(message, recipients);
+            }
+            pooled.messagesSent++;
+            sentCount.incrementAndGet();
+            sendNanosTotal.addAndGet(System.nanoTime() - start);
+        } catch (MessagingException | RuntimeException e) {
+            failureCount.incrementAndGet();
+            if (pooled != null && !(e instanceof SendFailedException)) {
+                close(pooled);
+                pooled = null;
+            }
+            throw e;
+        } finally {
+            if (pooled != null) {
+                release(pooled);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes all idle connections and refuses further sends.
+     */
+    public void shutdown() {
+        shutdown = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    // ----- Metrics -----
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * Gets the number of SMTP connections opened (TCP + TLS + AUTH).
+     *
+     * @return Handshake count
+     */
+    public long getHandshakeCount() {
+        return handshakeCount.get();
+    }
+
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    /**
+     * Gets the delivery throughput, measured on the time spent sending.
+     *
+     * @return Messages per second
+     */
+    public double getMessagesPerSecond() {
+        long nanos = sendNanosTotal.get();
+        return nanos == 0 ? 0.0 : sentCount.get() * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SmtpTransportPool[idle=%d, max=%d, sent=%d, failures=%d, " +
+                        "handshakes=%d, reconnects=%d, rate=%.2f msg/s]",
+                idle.size(), maxSize, getSentCount(), getFailureCount(),
+                getHandshakeCount(), getReconnectCount(), getMessagesPerSecond());
+    }
+
+    // ----- Internals -----
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out after " + timeoutMs + " ms waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still usable.
+     * Connections idle for too long or closed by the server are discarded.
+     */
+    private PooledTransport takeIdle() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long idleMs = System.currentTimeMillis() - pooled.lastUsed;
+            if (idleMs <= idleTimeoutMs && (idleMs < VALIDATION_IDLE_MS || pooled.transport.isConnected())) {
+                return pooled;
+            }
+            close(pooled);
+        }
+        return null;
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect();
+        handshakeCount.incrementAndGet();
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled) {
+        boolean recycle = maxMessagesPerConnection > 0 && pooled.messagesSent >= maxMessagesPerConnection;
+        if (shutdown || recycle) {
+            close(pooled);
+        } else {
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        }
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            System.err.println("Error closing SMTP connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A connected transport owned by the pool.
+     */
+    private static final class PooledTransport {
+        final Transport transport;
+        volatile long lastUsed = System.currentTimeMillis();
+        int messagesSent;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.voyageaffaires.utils;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory index answering "contains" searches on a text column
+ * (e.g. the destination of every flight of the catalog).
+ * Every suffix of each distinct value is stored in a prefix trie, so finding
+ * the values containing a term is a walk down the trie. Matching is case and
+ * accent insensitive, like the database collation. Results are returned as a
+ * set of row positions, ready to be combined with other indexes.
+ */
+public final class SubstringIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Node root = new Node();
+    private final BitSet[] postings;
+
+    /**
+     * Builds the index.
+     *
+     * @param values Indexed text of each row, by row position (nulls are not indexed)
+     */
+    public SubstringIndex(List<String> values) {
+        Map<String, BitSet> rowsByValue = new LinkedHashMap<>();
+        for (int row = 0; row < values.size(); row++) {
+            String value = values.get(row);
+            if (value != null) {
+                rowsByValue.computeIfAbsent(normalize(value), v -> new BitSet()).set(row);
+            }
+        }
+
+        postings = new BitSet[rowsByValue.size()];
+        int valueId = 0;
+        for (Map.Entry<String, BitSet> entry : rowsByValue.entrySet()) {
+            postings[valueId] = entry.getValue();
+            String text = entry.getKey();
+            for (int start = 0; start < text.length(); start++) {
+                Node node = root;
+                for (int i = start; i < text.length(); i++) {
+                    node = node.child(text.charAt(i));
+                    node.add(valueId);
+                }
+            }
+            valueId++;
+        }
+    }
+
+    /**
+     * Finds the rows whose value contains a term.
+     *
+     * @param term Search term
+     * @return Matching row positions (a new set), or null if the term is empty
+     */
+    public BitSet find(String term) {
+        if (term == null || term.trim().isEmpty()) {
+            return null;
+        }
+        String text = normalize(term);
+        Node node = root;
+        for (int i = 0; i < text.length() && node != null; i++) {
+            node = node.children != null ? node.children.get(text.charAt(i)) : null;
+        }
+
+        BitSet rows = new BitSet();
+        if (node != null) {
+            for (int i = 0; i < node.count; i++) {
+                rows.or(postings[node.valueIds[i]]);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Normalizes text for matching: trimmed, lower case, without accents.
+     *
+     * @param text Text to normalize
+     * @return Normalized text
+     */
+    public static String normalize(String text) {
+        String lower = text.trim().toLowerCase(Locale.ROOT);
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Trie node: the distinct values having a suffix that starts with the
+     * path to this node.
+     */
+    private static final class Node {
+        Map<Character, Node> children;
+        int[] valueIds = new int[2];
+        int count;
+
+        Node child(char c) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            return children.computeIfAbsent(c, k -> new Node());
+        }
+
+        void add(int valueId) {
+            // Values are inserted one after the other: only the last one can repeat
+            if (count > 0 && valueIds[count - 1] == valueId) {
+                return;
+            }
+            if (count == valueIds.length) {
+                valueIds = Arrays.copyOf(valueIds, count * 2);
+            }
+            valueIds[count++] = valueId;
+        }
+    }
+}
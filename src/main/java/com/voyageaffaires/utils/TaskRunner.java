@@ -0,0 +1,251 @@
+package com.voyageaffaires.utils;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.VBox;
+import javafx.geometry.Pos;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the JavaFX Application Thread.
+ * Work is executed as a {@link Task} on a small bounded pool; success and
+ * failure callbacks are delivered back on the FX thread, so controllers can
+ * update their controls directly from them. Long work can report progress
+ * through {@link #runWithProgress}, which the returned task exposes as its
+ * progress and message properties.
+ */
+public class TaskRunner {
+
+    private static final int POOL_SIZE = 4;
+    private static final int QUEUE_CAPACITY = 100;
+    private static final String PLACEHOLDER_KEY = "taskrunner.placeholder";
+
+    private static TaskRunner instance;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Work that reports its progress while it runs.
+     *
+     * @param <T> Result type
+     */
+    @FunctionalInterface
+    public interface ProgressWork<T> {
+        T call(Progress progress) throws Exception;
+    }
+
+    /**
+     * Progress reporting handle given to {@link ProgressWork}. Calls may be
+     * made from the worker thread; updates are coalesced onto the FX thread.
+     */
+    public interface Progress {
+        void update(long done, long total);
+
+        void message(String message);
+
+        boolean isCancelled();
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TaskRunner() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "ui-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the singleton instance of TaskRunner.
+     *
+     * @return TaskRunner instance
+     */
+    public static synchronized TaskRunner getInstance() {
+        if (instance == null) {
+            instance = new TaskRunner();
+        }
+        return instance;
+    }
+
+    /**
+     * Submits a task to the worker pool. If the pool is saturated the task
+     * is cancelled, which fires its onCancelled handler if it has one.
+     *
+     * @param task Task to run
+     * @return The submitted task
+     */
+    public <T> Task<T> submit(Task<T> task) {
+        if (!execute(task)) {
+            task.cancel();
+        }
+        return task;
+    }
+
+    /**
+     * Runs work in the background and delivers its result on the FX thread.
+     *
+     * @param work Work to run off the FX thread
+     * @param onSuccess Called on the FX thread with the result
+     * @param onFailure Called on the FX thread with the error (may be null)
+     * @return The running task, which can be cancelled
+     */
+    public <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return runWithProgress(progress -> work.call(), onSuccess, onFailure);
+    }
+
+    /**
+     * Runs work in the background that reports its progress. Bind controls
+     * to the returned task's progressProperty() and messageProperty().
+     * If the pool is saturated, onFailure receives a RejectedExecutionException.
+     *
+     * @param work Work to run off the FX thread
+     * @param onSuccess Called on the FX thread with the result
+     * @param onFailure Called on the FX thread with the error (may be null)
+     * @return The running task, which can be cancelled
+     */
+    public <T> Task<T> runWithProgress(ProgressWork<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                Task<T> self = this;
+                return work.call(new Progress() {
+                    @Override
+                    public void update(long done, long total) {
+                        updateProgress(done, total);
+                    }
+
+                    @Override
+                    public void message(String message) {
+                        updateMessage(message);
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return self.isCancelled();
+                    }
+                });
+            }
+        };
+        task.setOnSucceeded(event -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(event -> {
+            Throwable error = task.getException();
+            System.err.println("Background task failed: " + (error != null ? error.getMessage() : "unknown error"));
+            if (onFailure != null) {
+                onFailure.accept(error);
+            }
+        });
+
+        if (!execute(task)) {
+            // Never ran: report the rejection like a failure so callers can
+            // hide their loading state
+            task.cancel();
+            RejectedExecutionException error = new RejectedExecutionException("Worker pool saturated");
+            if (onFailure != null) {
+                Platform.runLater(() -> onFailure.accept(error));
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Hands a task to the pool.
+     *
+     * @return false if the pool is saturated or shut down
+     */
+    private boolean execute(Task<?> task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            System.err.println("Background task rejected, worker pool saturated");
+            return false;
+        }
+    }
+
+    /**
+     * Shuts down the worker pool.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Shows or hides a loading indicator in place of a table's placeholder.
+     * The table's own placeholder is restored when loading ends.
+     *
+     * @param table Table being loaded
+     * @param loading true while data is being fetched
+     */
+    public static void setLoading(TableView<?> table, boolean loading) {
+        if (table == null) {
+            return;
+        }
+        if (loading) {
+            if (!table.getProperties().containsKey(PLACEHOLDER_KEY)) {
+                table.getProperties().put(PLACEHOLDER_KEY, table.getPlaceholder());
+            }
+            ProgressIndicator indicator = new ProgressIndicator();
+            indicator.setMaxSize(40, 40);
+            VBox box = new VBox(10, indicator, new Label("Chargement..."));
+            box.setAlignment(Pos.CENTER);
+            table.setPlaceholder(box);
+            table.getItems().clear();
+        } else if (table.getProperties().containsKey(PLACEHOLDER_KEY)) {
+            table.setPlaceholder((Node) table.getProperties().remove(PLACEHOLDER_KEY));
+        }
+    }
+
+    /**
+     * Holds the latest task of one screen action (e.g. a search) and cancels
+     * the previous one when a new one starts, so a slow, superseded request
+     * can never overwrite newer results. Must be used from the FX thread.
+     */
+    public static class Slot {
+
+        private Task<?> current;
+
+        /**
+         * Cancels the running task of this slot, if any, and starts a new one.
+         *
+         * @param work Work to run off the FX thread
+         * @param onSuccess Called on the FX thread with the result
+         * @param onFailure Called on the FX thread with the error (may be null)
+         * @return The running task
+         */
+        public <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            cancel();
+            Task<T> task = TaskRunner.getInstance().run(work, onSuccess, onFailure);
+            current = task;
+            return task;
+        }
+
+        /**
+         * Cancels the running task of this slot, if any.
+         */
+        public void cancel() {
+            if (current != null && !current.isDone()) {
+                current.cancel(true);
+            }
+            current = null;
+        }
+
+        public boolean isRunning() {
+            return current != null && !current.isDone();
+        }
+    }
+}
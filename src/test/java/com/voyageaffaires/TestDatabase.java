@@ -0,0 +1,148 @@
+package com.voyageaffaires;
+
+import com.voyageaffaires.utils.DatabaseConnection;
+import org.junit.jupiter.api.Assumptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gate for tests that need the MySQL database configured in
+ * database.properties, with database_schema.sql applied. They are skipped
+ * unless enabled with {@code mvn test -Ddb.tests=true}.
+ */
+public final class TestDatabase {
+
+    /** System property enabling the database tests. */
+    public static final String PROPERTY = "db.tests";
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Skips the calling test unless database tests are enabled and the
+     * database is reachable.
+     */
+    public static void assumeAvailable() {
+        Assumptions.assumeTrue(Boolean.getBoolean(PROPERTY),
+                "Database tests disabled (run with -D" + PROPERTY + "=true)");
+        Assumptions.assumeTrue(DatabaseConnection.getInstance().testConnection(),
+                "Database not reachable");
+    }
+
+    /**
+     * Runs an INSERT, UPDATE or DELETE, e.g. to set up or remove test rows.
+     *
+     * @param sql Statement to run
+     * @param params Bound parameters
+     * @return Number of rows changed
+     * @throws SQLException if the statement fails
+     */
+    public static int update(String sql, Object... params) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            bind(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Runs a query returning a single number (0 if it returns no row).
+     *
+     * @param sql Query to run
+     * @param params Bound parameters
+     * @return First column of the first row
+     * @throws SQLException if the query fails
+     */
+    public static long queryLong(String sql, Object... params) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Runs a query returning a single text value (null if it returns no row).
+     *
+     * @param sql Query to run
+     * @param params Bound parameters
+     * @return First column of the first row
+     * @throws SQLException if the query fails
+     */
+    public static String queryString(String sql, Object... params) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Creates a user for a test. Deleting it removes its reservations and
+     * dashboard counters too (ON DELETE CASCADE).
+     *
+     * @param email Unique email of the user
+     * @return ID of the new user
+     * @throws SQLException if the insert fails
+     */
+    public static int createUser(String email) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "INSERT INTO utilisateur (nom, prenom, email, mot_de_passe, role) " +
+                     "VALUES ('Test', 'Test', ?, 'x', 'EMPLOYE')", Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, email);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    /**
+     * Runs EXPLAIN on a query and returns its plan, one map per table
+     * access with the column names of the EXPLAIN output (table, type,
+     * key, rows, Extra...).
+     *
+     * @param sql Query to explain
+     * @param params Bound parameters
+     * @return Query plan
+     * @throws SQLException if the query is invalid
+     */
+    public static List<Map<String, Object>> explain(String sql, Object... params) throws SQLException {
+        List<Map<String, Object>> plan = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + sql)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int c = 1; c <= columns; c++) {
+                        row.put(rs.getMetaData().getColumnLabel(c), rs.getObject(c));
+                    }
+                    plan.add(row);
+                }
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,127 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import com.voyageaffaires.models.EmailOutbox;
+import com.voyageaffaires.utils.DatabaseConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that notifications are queued with the caller's transaction, at
+ * most once per idempotency key, and claimed by one dispatcher at a time.
+ */
+class EmailOutboxDAOTest {
+
+    private final EmailOutboxDAO outboxDAO = new EmailOutboxDAO();
+    private final String idReservation = "TST-R-" + Long.toString(System.nanoTime(), 36);
+    private boolean available;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.assumeAvailable();
+        available = true;
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (available) {
+            TestDatabase.update("DELETE FROM email_outbox WHERE id_reservation = ?", idReservation);
+        }
+    }
+
+    private long rows() throws SQLException {
+        return TestDatabase.queryLong("SELECT COUNT(*) FROM email_outbox WHERE id_reservation = ?",
+                                      idReservation);
+    }
+
+    private long enqueue(String type) throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            EmailOutboxDAO.enqueue(connection, new EmailOutbox(type, idReservation));
+        }
+        return TestDatabase.queryLong("SELECT id_email FROM email_outbox WHERE cle_idempotence = ?",
+                                      EmailOutbox.buildIdempotencyKey(type, idReservation));
+    }
+
+    private static boolean contains(List<EmailOutbox> messages, long idEmail) {
+        return messages.stream().anyMatch(m -> m.getIdEmail() == idEmail);
+    }
+
+    @Test
+    void enqueueRollsBackWithCallerTransaction() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                EmailOutboxDAO.enqueue(connection, new EmailOutbox(EmailOutbox.TYPE_CONFIRMATION, idReservation));
+                connection.rollback();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+
+        assertEquals(0, rows());
+    }
+
+    @Test
+    void enqueuesSameNotificationOnce() throws SQLException {
+        long idEmail = enqueue(EmailOutbox.TYPE_CONFIRMATION);
+        assertEquals(idEmail, enqueue(EmailOutbox.TYPE_CONFIRMATION));
+        assertEquals(1, rows());
+
+        // Another event for the same reservation is a different message
+        enqueue(EmailOutbox.TYPE_ANNULATION);
+        assertEquals(2, rows());
+    }
+
+    @Test
+    void claimHoldsLeaseUntilItExpires() throws SQLException {
+        long idEmail = enqueue(EmailOutbox.TYPE_CONFIRMATION);
+
+        List<EmailOutbox> claimed = outboxDAO.claimDue(1000, 300);
+        assertTrue(contains(claimed, idEmail));
+        assertEquals(1, TestDatabase.queryLong(
+                "SELECT COUNT(*) FROM email_outbox WHERE id_email = ? AND statut = ? " +
+                "AND prochaine_tentative > NOW()", idEmail, EmailOutbox.STATUT_EN_COURS));
+
+        // Leased: not handed to another dispatcher
+        assertFalse(contains(outboxDAO.claimDue(1000, 300), idEmail));
+
+        // Lease expired (the sender died): due again
+        TestDatabase.update("UPDATE email_outbox SET prochaine_tentative = NOW() WHERE id_email = ?", idEmail);
+        assertTrue(contains(outboxDAO.claimDue(1000, 300), idEmail));
+    }
+
+    @Test
+    void claimSkipsMessagesLockedByAnotherDispatcher() throws SQLException {
+        long idEmail = enqueue(EmailOutbox.TYPE_CONFIRMATION);
+
+        try (Connection other = DatabaseConnection.getInstance().getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement lock = other.prepareStatement(
+                    "SELECT id_email FROM email_outbox WHERE id_email = ? FOR UPDATE")) {
+                lock.setLong(1, idEmail);
+                try (ResultSet rs = lock.executeQuery()) {
+                    assertTrue(rs.next());
+                }
+
+                // Returns at once without the locked row instead of waiting for it
+                long start = System.nanoTime();
+                assertFalse(contains(outboxDAO.claimDue(1000, 300), idEmail));
+                assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            } finally {
+                other.rollback();
+                other.setAutoCommit(true);
+            }
+        }
+
+        assertTrue(contains(outboxDAO.claimDue(1000, 300), idEmail));
+    }
+}
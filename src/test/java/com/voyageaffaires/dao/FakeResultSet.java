@@ -0,0 +1,75 @@
+package com.voyageaffaires.dao;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory ResultSet over rows given as column maps, for testing the
+ * row mappers without a database. Unknown columns fail like a real driver.
+ */
+final class FakeResultSet {
+
+    private FakeResultSet() {
+    }
+
+    @SafeVarargs
+    static ResultSet of(Map<String, Object>... rows) {
+        List<Map<String, Object>> data = Arrays.asList(rows);
+        int[] cursor = { -1 };
+        boolean[] wasNull = { false };
+
+        return (ResultSet) Proxy.newProxyInstance(
+                FakeResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < data.size();
+                        case "close":
+                            return null;
+                        case "wasNull":
+                            return wasNull[0];
+                        default:
+                            break;
+                    }
+                    if (args == null || args.length != 1 || !(args[0] instanceof String)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+
+                    Map<String, Object> row = data.get(cursor[0]);
+                    String column = (String) args[0];
+                    if (!row.containsKey(column)) {
+                        throw new SQLException("Column '" + column + "' not found.");
+                    }
+                    Object value = row.get(column);
+                    wasNull[0] = value == null;
+
+                    switch (method.getName()) {
+                        case "getString":
+                            return value == null ? null : value.toString();
+                        case "getInt":
+                            return value == null ? 0 : ((Number) value).intValue();
+                        case "getLong":
+                            return value == null ? 0L : ((Number) value).longValue();
+                        case "getDouble":
+                            return value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getBoolean":
+                            return value != null && (Boolean) value;
+                        case "getDate":
+                            return (Date) value;
+                        case "getTimestamp":
+                            return (Timestamp) value;
+                        case "getObject":
+                            return value;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullTextSearchTest {
+
+    @Test
+    void supportsTermsOfAtLeastOneNgramToken() {
+        assertFalse(FullTextSearch.supports(null));
+        assertFalse(FullTextSearch.supports(""));
+        assertFalse(FullTextSearch.supports("a"));
+        assertFalse(FullTextSearch.supports(" a "));
+        assertTrue(FullTextSearch.supports("ab"));
+        assertTrue(FullTextSearch.supports("Paris"));
+    }
+
+    @Test
+    void buildsQuotedPhrase() {
+        assertEquals("\"new york\"", FullTextSearch.toPhrase("  new york "));
+        // Embedded quotes would end the phrase early
+        assertEquals("\"say  hi \"", FullTextSearch.toPhrase("say \"hi\""));
+    }
+
+    @Test
+    void buildsLikePattern() {
+        assertEquals("%Tunis%", FullTextSearch.toLikePattern("Tunis"));
+    }
+
+    @Test
+    void detectsMissingFullTextIndex() {
+        assertTrue(FullTextSearch.isMissingIndex(
+                new SQLException("Can't find FULLTEXT index matching the column list", "HY000", 1191)));
+        assertFalse(FullTextSearch.isMissingIndex(new SQLException("Table doesn't exist", "42S02", 1146)));
+    }
+
+    @Test
+    void flightSearchUsesNgramIndex() throws SQLException {
+        TestDatabase.assumeAvailable();
+
+        List<Map<String, Object>> plan = TestDatabase.explain(
+                "SELECT * FROM vol WHERE disponible = TRUE AND MATCH(destination) AGAINST(? IN BOOLEAN MODE)",
+                FullTextSearch.toPhrase("Paris"));
+
+        assertEquals("fulltext", plan.get(0).get("type"), "Plan: " + plan);
+        assertEquals("ft_destination", plan.get(0).get("key"), "Plan: " + plan);
+    }
+}
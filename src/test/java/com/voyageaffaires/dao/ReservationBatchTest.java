@@ -0,0 +1,135 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import com.voyageaffaires.models.EmailOutbox;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.utils.DatabaseConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the batched saveAll and updateStatuses: one result per row, and
+ * nothing committed when a later chunk fails.
+ */
+class ReservationBatchTest {
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private final String suffix = Long.toString(System.nanoTime(), 36);
+    private int batchSize;
+    private int idUtilisateur;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.assumeAvailable();
+        batchSize = DatabaseConnection.getInstance().getBatchSize();
+        idUtilisateur = TestDatabase.createUser("batch-" + suffix + "@example.com");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (idUtilisateur != 0) {
+            TestDatabase.update("DELETE FROM email_outbox WHERE id_reservation LIKE ?", "TST-" + suffix + "-%");
+            TestDatabase.update("DELETE FROM utilisateur WHERE id_utilisateur = ?", idUtilisateur);
+        }
+    }
+
+    private String id(int n) {
+        return "TST-" + suffix + "-" + n;
+    }
+
+    private List<Reservation> reservations(int count) {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            reservations.add(new Reservation(id(n), idUtilisateur, 100));
+        }
+        return reservations;
+    }
+
+    private long count(String statut) throws SQLException {
+        return TestDatabase.queryLong("SELECT COUNT(*) FROM reservation WHERE id_utilisateur = ? AND statut = ?",
+                                      idUtilisateur, statut);
+    }
+
+    private long queued() throws SQLException {
+        return TestDatabase.queryLong("SELECT COUNT(*) FROM email_outbox WHERE id_reservation LIKE ?",
+                                      "TST-" + suffix + "-%");
+    }
+
+    @Test
+    void saveAllRollsBackEveryChunkWhenOneFails() throws SQLException {
+        List<Reservation> reservations = reservations(batchSize + 10);
+        // Duplicate key in the second chunk, after the first one was sent
+        reservations.get(batchSize + 5).setIdReservation(id(0));
+
+        Map<String, Boolean> results = reservationDAO.saveAll(reservations);
+
+        assertFalse(results.containsValue(true));
+        assertEquals(0, TestDatabase.queryLong("SELECT COUNT(*) FROM reservation WHERE id_utilisateur = ?",
+                                               idUtilisateur));
+        assertEquals(0, TestDatabase.queryLong(
+                "SELECT COALESCE(SUM(nombre), 0) FROM reservation_stats_jour WHERE id_utilisateur = ?",
+                idUtilisateur));
+    }
+
+    @Test
+    void updateStatusesReportsUnknownReservations() throws SQLException {
+        assertFalse(reservationDAO.saveAll(reservations(2)).containsValue(false));
+        Map<String, String> statuses = new LinkedHashMap<>();
+        statuses.put(id(0), "CONFIRMEE");
+        statuses.put(id(99), "CONFIRMEE");
+        statuses.put(id(1), "ANNULEE");
+
+        Map<String, Boolean> results = reservationDAO.updateStatuses(statuses);
+
+        assertEquals(List.of(id(0), id(99), id(1)), new ArrayList<>(results.keySet()));
+        assertEquals(List.of(true, false, true), new ArrayList<>(results.values()));
+        assertEquals(1, count("CONFIRMEE"));
+        assertEquals(1, count("ANNULEE"));
+    }
+
+    @Test
+    void updateStatusesQueuesNotificationsForUpdatedRowsOnly() throws SQLException {
+        assertFalse(reservationDAO.saveAll(reservations(2)).containsValue(false));
+        Map<String, String> statuses = new LinkedHashMap<>();
+        Map<String, EmailOutbox> notifications = new LinkedHashMap<>();
+        for (String id : List.of(id(0), id(99))) {
+            statuses.put(id, "ANNULEE");
+            notifications.put(id, new EmailOutbox(EmailOutbox.TYPE_ANNULATION, id));
+        }
+        statuses.put(id(1), "CONFIRMEE");
+
+        reservationDAO.updateStatuses(statuses, notifications);
+
+        assertEquals(1, queued());
+        assertEquals(1, TestDatabase.queryLong("SELECT COUNT(*) FROM email_outbox WHERE cle_idempotence = ?",
+                EmailOutbox.buildIdempotencyKey(EmailOutbox.TYPE_ANNULATION, id(0))));
+    }
+
+    @Test
+    void updateStatusesRollsBackEveryChunkWhenOneFails() throws SQLException {
+        assertFalse(reservationDAO.saveAll(reservations(batchSize + 1)).containsValue(false));
+        Map<String, String> statuses = new LinkedHashMap<>();
+        Map<String, EmailOutbox> notifications = new LinkedHashMap<>();
+        for (int n = 0; n < batchSize; n++) {
+            statuses.put(id(n), "ANNULEE");
+            notifications.put(id(n), new EmailOutbox(EmailOutbox.TYPE_ANNULATION, id(n)));
+        }
+        // Longer than the statut column: rejected in strict SQL mode
+        statuses.put(id(batchSize), "X".repeat(60));
+
+        Map<String, Boolean> results = reservationDAO.updateStatuses(statuses, notifications);
+
+        assertFalse(results.containsValue(true));
+        assertEquals(batchSize + 1, count("EN_ATTENTE"));
+        assertEquals(0, queued());
+    }
+}
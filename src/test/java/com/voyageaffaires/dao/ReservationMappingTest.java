@@ -0,0 +1,237 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.Vol;
+import com.voyageaffaires.utils.DatabaseConnection;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the hydration of reservations, flights and hotels from the joined
+ * rows of ReservationDAO's SELECT_WITH_DETAILS query, and that the finders
+ * load them in a single query.
+ */
+class ReservationMappingTest {
+
+    private static Map<String, Object> reservationRow() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id_reservation", "RES-1");
+        row.put("date_creation", Date.valueOf(LocalDate.of(2026, 3, 2)));
+        row.put("statut", "APPROUVEE");
+        row.put("montant_total", 830.5);
+        row.put("id_utilisateur", 7);
+        row.put("id_vol", null);
+        row.put("id_hotel", null);
+        row.put("date_checkin", null);
+        row.put("date_checkout", null);
+        row.put("nombre_chambres", 1);
+        row.put("motif_voyage", "Salon");
+        row.put("commentaire", null);
+        row.put("user_nom", "Ben Ali");
+        row.put("user_prenom", "Sami");
+        for (String column : new String[] { "id_vol", "compagnie", "origine", "destination", "date_depart",
+                "date_arrivee", "prix", "nombre_places", "classe", "disponible" }) {
+            row.put("v_" + column, null);
+        }
+        for (String column : new String[] { "id_hotel", "nom", "adresse", "ville", "pays", "etoiles",
+                "prix_par_nuit", "disponible" }) {
+            row.put("h_" + column, null);
+        }
+        return row;
+    }
+
+    private static void addVol(Map<String, Object> row) {
+        row.put("id_vol", "VOL-9");
+        row.put("v_id_vol", "VOL-9");
+        row.put("v_compagnie", "Tunisair");
+        row.put("v_origine", "Monastir");
+        row.put("v_destination", "Paris");
+        row.put("v_date_depart", Timestamp.valueOf(LocalDateTime.of(2026, 4, 1, 8, 30)));
+        row.put("v_date_arrivee", Timestamp.valueOf(LocalDateTime.of(2026, 4, 1, 11, 0)));
+        row.put("v_prix", 420.0);
+        row.put("v_nombre_places", 180);
+        row.put("v_classe", "Economique");
+        row.put("v_disponible", true);
+    }
+
+    private static void addHotel(Map<String, Object> row) {
+        row.put("id_hotel", "HOT-3");
+        row.put("date_checkin", Date.valueOf(LocalDate.of(2026, 4, 1)));
+        row.put("date_checkout", Date.valueOf(LocalDate.of(2026, 4, 4)));
+        row.put("h_id_hotel", "HOT-3");
+        row.put("h_nom", "Hôtel du Louvre");
+        row.put("h_adresse", "Place André Malraux");
+        row.put("h_ville", "Paris");
+        row.put("h_pays", "France");
+        row.put("h_etoiles", 5);
+        row.put("h_prix_par_nuit", 136.83);
+        row.put("h_disponible", true);
+    }
+
+    @Test
+    void mapsReservationWithoutFlightOrHotel() throws Exception {
+        ResultSet rs = FakeResultSet.of(reservationRow());
+        assertTrue(rs.next());
+
+        Reservation reservation = ReservationDAO.mapResultSetToReservation(rs);
+
+        assertEquals("RES-1", reservation.getIdReservation());
+        assertEquals(LocalDate.of(2026, 3, 2), reservation.getDateCreation());
+        assertEquals("APPROUVEE", reservation.getStatut());
+        assertEquals(830.5, reservation.getMontantTotal());
+        assertEquals(7, reservation.getIdUtilisateur());
+        assertEquals("Sami Ben Ali", reservation.getUtilisateurNom());
+        assertNull(reservation.getVol());
+        assertNull(reservation.getHotel());
+        assertNull(reservation.getDateCheckin());
+    }
+
+    @Test
+    void hydratesFlightAndHotelFromPrefixedColumns() throws Exception {
+        Map<String, Object> row = reservationRow();
+        addVol(row);
+        addHotel(row);
+        ResultSet rs = FakeResultSet.of(row);
+        assertTrue(rs.next());
+
+        Reservation reservation = ReservationDAO.mapResultSetToReservation(rs);
+
+        Vol vol = reservation.getVol();
+        assertNotNull(vol);
+        assertEquals("VOL-9", vol.getIdVol());
+        assertEquals("Tunisair", vol.getCompagnie());
+        assertEquals("Monastir", vol.getOrigine());
+        assertEquals("Paris", vol.getDestination());
+        assertEquals(LocalDateTime.of(2026, 4, 1, 8, 30), vol.getDateDepart());
+        assertEquals(420.0, vol.getPrix());
+        assertEquals(180, vol.getNombrePlaces());
+        assertTrue(vol.isDisponible());
+
+        Hotel hotel = reservation.getHotel();
+        assertNotNull(hotel);
+        assertEquals("HOT-3", hotel.getIdHotel());
+        assertEquals("Hôtel du Louvre", hotel.getNom());
+        assertEquals("Paris", hotel.getVille());
+        assertEquals(5, hotel.getEtoiles());
+        assertEquals(136.83, hotel.getPrixParNuit());
+
+        assertEquals(LocalDate.of(2026, 4, 1), reservation.getDateCheckin());
+        assertEquals(LocalDate.of(2026, 4, 4), reservation.getDateCheckout());
+    }
+
+    @Test
+    void prefixedMappersIgnoreUnprefixedColumns() throws Exception {
+        Map<String, Object> row = reservationRow();
+        addVol(row);
+        // Same column names without prefix must not leak into the flight
+        row.put("prix", 1.0);
+        row.put("destination", "Ailleurs");
+        ResultSet rs = FakeResultSet.of(row);
+        assertTrue(rs.next());
+
+        Vol vol = VolDAO.mapResultSetToVol(rs, "v_");
+
+        assertEquals(420.0, vol.getPrix());
+        assertEquals("Paris", vol.getDestination());
+    }
+
+    @Test
+    void flightWithoutDatesKeepsThemNull() throws Exception {
+        Map<String, Object> row = reservationRow();
+        addVol(row);
+        row.put("v_date_depart", null);
+        row.put("v_date_arrivee", null);
+        ResultSet rs = FakeResultSet.of(row);
+        assertTrue(rs.next());
+
+        Vol vol = VolDAO.mapResultSetToVol(rs, "v_");
+
+        assertNull(vol.getDateDepart());
+        assertNull(vol.getDateArrivee());
+    }
+
+    /**
+     * Each finder must load reservations with their flight, hotel and user
+     * in one SELECT, not one query per reservation. The counter is global
+     * because the DAO borrows its own pooled connection; run without other
+     * clients on the test database.
+     */
+    @Test
+    void findersLoadDetailsInOneQuery() throws SQLException {
+        TestDatabase.assumeAvailable();
+        String suffix = Long.toString(System.nanoTime(), 36);
+        String idVol = "TST-V-" + suffix;
+        String idHotel = "TST-H-" + suffix;
+        LocalDate jour = LocalDate.of(2026, 2, 3);
+        int idUtilisateur = TestDatabase.createUser("mapping-" + suffix + "@example.com");
+        ReservationDAO reservationDAO = new ReservationDAO();
+        try {
+            TestDatabase.update("INSERT INTO vol (id_vol, compagnie, origine, destination, date_depart, " +
+                                "date_arrivee, prix, nombre_places) VALUES (?, 'Test', 'Tunis', 'Paris', " +
+                                "'2026-06-01 08:00:00', '2026-06-01 10:00:00', 100, 10)", idVol);
+            TestDatabase.update("INSERT INTO hotel (id_hotel, nom, ville, etoiles, prix_par_nuit) " +
+                                "VALUES (?, 'Test', 'Paris', 3, 90)", idHotel);
+            for (int n = 0; n < 3; n++) {
+                Reservation reservation = new Reservation("TST-" + suffix + "-" + n, idUtilisateur, 100);
+                reservation.setDateCreation(jour);
+                reservation.setIdVol(idVol);
+                reservation.setIdHotel(idHotel);
+                assertTrue(reservationDAO.save(reservation));
+            }
+
+            List<Reservation> byUser = assertOneSelect(() -> reservationDAO.findByUserId(idUtilisateur));
+            assertEquals(3, byUser.size());
+            assertTrue(byUser.stream().allMatch(r -> r.getVol() != null && r.getHotel() != null));
+
+            Reservation byId = assertOneSelect(() -> reservationDAO.findById("TST-" + suffix + "-1"));
+            assertEquals("Paris", byId.getVol().getDestination());
+            assertEquals("Paris", byId.getHotel().getVille());
+
+            List<Reservation> byDate = assertOneSelect(() -> reservationDAO.getReservationsByDateRange(jour, jour));
+            assertEquals(3, byDate.stream().filter(r -> r.getIdUtilisateur() == idUtilisateur).count());
+
+            List<Reservation> all = assertOneSelect(reservationDAO::findAll);
+            assertTrue(all.size() >= 3);
+        } finally {
+            TestDatabase.update("DELETE FROM utilisateur WHERE id_utilisateur = ?", idUtilisateur);
+            TestDatabase.update("DELETE FROM vol WHERE id_vol = ?", idVol);
+            TestDatabase.update("DELETE FROM hotel WHERE id_hotel = ?", idHotel);
+        }
+    }
+
+    private static <T> T assertOneSelect(Supplier<T> finder) throws SQLException {
+        long before = selectCount();
+        T result = finder.get();
+        long selects = selectCount() - before;
+
+        assertNotNull(result);
+        assertEquals(1, selects, "SELECT statements run by the finder");
+        return result;
+    }
+
+    private static long selectCount() throws SQLException {
+        // SHOW STATUS is not counted as a SELECT itself
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SHOW GLOBAL STATUS LIKE 'Com_select'");
+             ResultSet rs = stmt.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getLong(2);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.ReservationFilter;
+import com.voyageaffaires.models.ReservationPage;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationPageTest {
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+
+    @Test
+    void rejectsNonPositivePageSize() {
+        assertThrows(IllegalArgumentException.class, () -> reservationDAO.findPage(null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> reservationDAO.findPage(null, null, -1));
+    }
+
+    @Test
+    void walksEveryReservationOnceNewestFirst() throws SQLException {
+        TestDatabase.assumeAvailable();
+        String suffix = Long.toString(System.nanoTime(), 36);
+        int idUtilisateur = TestDatabase.createUser("page-" + suffix + "@example.com");
+        try {
+            List<Reservation> reservations = new ArrayList<>();
+            for (int n = 0; n < 5; n++) {
+                Reservation reservation = new Reservation("TST-" + suffix + "-" + n, idUtilisateur, 100);
+                // Two reservations per day, so the cursor has to break ties on the ID
+                reservation.setDateCreation(LocalDate.of(2026, 1, 1).plusDays(n / 2));
+                reservations.add(reservation);
+            }
+            assertFalse(reservationDAO.saveAll(reservations).containsValue(false));
+
+            List<String> seen = new ArrayList<>();
+            ReservationPage.Cursor cursor = null;
+            int pages = 0;
+            do {
+                ReservationPage page = reservationDAO.findPage(ReservationFilter.forUser(idUtilisateur), cursor, 2);
+                assertNotNull(page);
+                page.getReservations().forEach(r -> seen.add(r.getIdReservation()));
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(3, pages);
+            assertEquals(List.of("TST-" + suffix + "-4", "TST-" + suffix + "-3", "TST-" + suffix + "-2",
+                                 "TST-" + suffix + "-1", "TST-" + suffix + "-0"), seen);
+        } finally {
+            TestDatabase.update("DELETE FROM utilisateur WHERE id_utilisateur = ?", idUtilisateur);
+        }
+    }
+}
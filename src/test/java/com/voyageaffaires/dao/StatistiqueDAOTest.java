@@ -0,0 +1,117 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import com.voyageaffaires.models.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that ReservationDAO keeps reservation_stats_jour in step with the
+ * reservations, including when the booked flight changes afterwards.
+ */
+class StatistiqueDAOTest {
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private final String suffix = Long.toString(System.nanoTime(), 36);
+    private final String idVol = "TST-V-" + suffix;
+    private final String idReservation = "TST-R-" + suffix;
+    private int idUtilisateur;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        TestDatabase.assumeAvailable();
+        idUtilisateur = TestDatabase.createUser("stats-" + suffix + "@example.com");
+        TestDatabase.update("INSERT INTO vol (id_vol, compagnie, origine, destination, date_depart, date_arrivee, " +
+                            "prix, nombre_places) VALUES (?, 'Test', 'Tunis', 'Testville', " +
+                            "'2026-06-01 08:00:00', '2026-06-01 10:00:00', 100, 10)", idVol);
+
+        Reservation reservation = new Reservation(idReservation, idUtilisateur, 100);
+        reservation.setIdVol(idVol);
+        assertTrue(reservationDAO.save(reservation));
+        assertEquals(1, counter("Testville", "EN_ATTENTE"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (idUtilisateur != 0) {
+            TestDatabase.update("DELETE FROM utilisateur WHERE id_utilisateur = ?", idUtilisateur);
+            TestDatabase.update("DELETE FROM vol WHERE id_vol = ?", idVol);
+        }
+    }
+
+    private long counter(String destination, String statut) throws SQLException {
+        return TestDatabase.queryLong("SELECT COALESCE(SUM(nombre), 0) FROM reservation_stats_jour " +
+                                      "WHERE id_utilisateur = ? AND destination = ? AND statut = ?",
+                                      idUtilisateur, destination, statut);
+    }
+
+    private long negativeCounters() throws SQLException {
+        return TestDatabase.queryLong("SELECT COUNT(*) FROM reservation_stats_jour " +
+                                      "WHERE id_utilisateur = ? AND nombre < 0", idUtilisateur);
+    }
+
+    @Test
+    void cancelsAfterFlightIsRenamed() throws SQLException {
+        TestDatabase.update("UPDATE vol SET destination = 'Renamed' WHERE id_vol = ?", idVol);
+
+        assertTrue(reservationDAO.updateStatus(idReservation, "ANNULEE"));
+
+        assertEquals(0, counter("Testville", "EN_ATTENTE"));
+        // The status change counts the reservation under the current destination
+        assertEquals(1, counter("Renamed", "ANNULEE"));
+        assertEquals(0, negativeCounters());
+    }
+
+    @Test
+    void cancelsAfterFlightIsDeleted() throws SQLException {
+        TestDatabase.update("DELETE FROM vol WHERE id_vol = ?", idVol);
+
+        assertTrue(reservationDAO.updateStatus(idReservation, "ANNULEE"));
+
+        assertEquals(0, counter("Testville", "EN_ATTENTE"));
+        assertEquals(1, counter("", "ANNULEE"));
+        assertEquals(0, negativeCounters());
+    }
+
+    @Test
+    void updatesAndDeletesAfterFlightIsRenamed() throws SQLException {
+        TestDatabase.update("UPDATE vol SET destination = 'Renamed' WHERE id_vol = ?", idVol);
+        Reservation reservation = reservationDAO.findById(idReservation);
+        reservation.setCommentaire("Fenêtre");
+
+        assertTrue(reservationDAO.update(reservation));
+        assertEquals(0, counter("Testville", "EN_ATTENTE"));
+        assertEquals(1, counter("Renamed", "EN_ATTENTE"));
+
+        TestDatabase.update("UPDATE vol SET destination = 'Renamed again' WHERE id_vol = ?", idVol);
+        assertTrue(reservationDAO.delete(idReservation));
+        assertEquals(0, counter("Renamed", "EN_ATTENTE"));
+        assertEquals(0, negativeCounters());
+    }
+
+    @Test
+    void bulkStatusChangeMovesCounters() throws SQLException {
+        TestDatabase.update("UPDATE vol SET destination = 'Renamed' WHERE id_vol = ?", idVol);
+
+        assertTrue(reservationDAO.updateStatuses(Map.of(idReservation, "CONFIRMEE")).get(idReservation));
+
+        assertEquals(0, counter("Testville", "EN_ATTENTE"));
+        assertEquals(1, counter("Renamed", "CONFIRMEE"));
+    }
+
+    @Test
+    void rebuildMatchesIncrementalCounters() throws SQLException {
+        assertTrue(new StatistiqueDAO().rebuild());
+
+        assertEquals(1, counter("Testville", "EN_ATTENTE"));
+        assertEquals(1, TestDatabase.queryLong(
+                "SELECT COUNT(*) FROM reservation WHERE id_reservation = ? AND destination_stats = 'Testville'",
+                idReservation));
+    }
+}
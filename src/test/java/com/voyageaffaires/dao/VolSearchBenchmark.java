@@ -0,0 +1,165 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the two paths of VolDAO.searchFlightsAdvanced on a large vol
+ * table: MATCH ... AGAINST on the ngram FULLTEXT indexes, and the LIKE
+ * '%term%' scan used when the indexes are missing. Loads synthetic flights
+ * (IDs starting with BENCH-) into the database of database.properties,
+ * and removes them at the end unless "keep" is given, so later runs can
+ * skip the load.
+ * <p>
+ * Not a unit test; run it by hand against a test database after compiling
+ * the tests:
+ * {@code java -cp target/classes:target/test-classes:<dependencies> com.voyageaffaires.dao.VolSearchBenchmark [rows] [keep]}
+ */
+public class VolSearchBenchmark {
+
+    private static final String PREFIX = "BENCH-";
+    private static final int QUERIES_PER_TERM = 20;
+    private static final int LOAD_BATCH = 5_000;
+
+    private static final String[] CITIES = {
+        "Paris", "Lyon", "Marseille", "Tunis", "Sfax", "Djerba", "Londres", "Madrid", "Barcelone",
+        "Rome", "Milan", "Berlin", "Munich", "Bruxelles", "Genève", "Zurich", "Lisbonne", "Dubaï",
+        "Istanbul", "Le Caire", "Casablanca", "Alger", "Montréal", "New York", "Tokyo"
+    };
+    /** Extra cities used by few flights, for selective searches. */
+    private static final int RARE_CITIES = 1_000;
+
+    /** Prevents the JIT from discarding the results. */
+    private static long sink;
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean keep = args.length > 1 && "keep".equals(args[1]);
+
+        try {
+            load(rows);
+            VolDAO volDAO = new VolDAO();
+            String[][] searches = {
+                {"Paris", null},          // frequent origin
+                {null, "Genève"},         // frequent destination
+                {null, "Ville rare 427"}, // selective destination
+                {"Tunis", "Ville rare 9"},
+                {null, "rare 42"},        // middle of the name
+            };
+            System.out.printf("%-28s %12s %12s %12s %12s%n", "Search", "FULLTEXT ms", "LIKE ms", "rows FT", "rows LIKE");
+            for (String[] search : searches) {
+                double[] fullText = measure(volDAO, search, true);
+                double[] like = measure(volDAO, search, false);
+                System.out.printf("%-28s %12.1f %12.1f %12.0f %12.0f%n", label(search),
+                                  fullText[0], like[0], fullText[1], like[1]);
+            }
+            System.out.println("(median of " + QUERIES_PER_TERM + " queries; sink=" + sink + ")");
+        } finally {
+            VolDAO.setFullTextEnabled(true);
+            if (!keep) {
+                clean();
+            }
+        }
+    }
+
+    private static String label(String[] search) {
+        return (search[0] != null ? search[0] : "*") + " -> " + (search[1] != null ? search[1] : "*");
+    }
+
+    /** Returns the median time in ms and the number of flights found. */
+    private static double[] measure(VolDAO volDAO, String[] search, boolean fullText) {
+        VolDAO.setFullTextEnabled(fullText);
+        // Warm-up: buffer pool and statement cache
+        int found = volDAO.searchFlightsAdvanced(search[0], search[1], null).size();
+
+        long[] nanos = new long[QUERIES_PER_TERM];
+        for (int q = 0; q < QUERIES_PER_TERM; q++) {
+            long start = System.nanoTime();
+            sink += volDAO.searchFlightsAdvanced(search[0], search[1], null).size();
+            nanos[q] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new double[] {nanos[nanos.length / 2] / 1e6, found};
+    }
+
+    /** Inserts the missing synthetic flights with batched multi-row INSERTs. */
+    private static void load(int rows) throws SQLException {
+        long existing = count();
+        if (existing >= rows) {
+            System.out.printf("Using %,d synthetic flights already loaded%n", existing);
+            return;
+        }
+        String insert = "INSERT INTO vol (id_vol, compagnie, origine, destination, date_depart, date_arrivee, " +
+                        "prix, nombre_places) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Random random = new Random(42);
+        LocalDateTime firstDay = LocalDateTime.of(2026, 1, 1, 6, 0);
+        long start = System.nanoTime();
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(insert)) {
+            connection.setAutoCommit(false);
+            try {
+                for (long n = existing; n < rows; n++) {
+                    LocalDateTime depart = firstDay.plusMinutes(5L * random.nextInt(365 * 24 * 12));
+                    stmt.setString(1, String.format("%s%07d", PREFIX, n));
+                    stmt.setString(2, "Compagnie " + random.nextInt(40));
+                    stmt.setString(3, city(random));
+                    stmt.setString(4, city(random));
+                    stmt.setTimestamp(5, Timestamp.valueOf(depart));
+                    stmt.setTimestamp(6, Timestamp.valueOf(depart.plusMinutes(60 + random.nextInt(600))));
+                    stmt.setDouble(7, 50 + random.nextInt(1500));
+                    stmt.setInt(8, 180);
+                    stmt.addBatch();
+                    if ((n + 1) % LOAD_BATCH == 0) {
+                        stmt.executeBatch();
+                        connection.commit();
+                    }
+                }
+                stmt.executeBatch();
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        System.out.printf("Loaded %,d synthetic flights in %.0f s%n", rows - existing,
+                          (System.nanoTime() - start) / 1e9);
+    }
+
+    /** Nine flights in ten use a frequent city, the rest one of many rare ones. */
+    private static String city(Random random) {
+        return random.nextInt(10) > 0
+                ? CITIES[random.nextInt(CITIES.length)]
+                : "Ville rare " + random.nextInt(RARE_CITIES);
+    }
+
+    private static long count() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM vol WHERE id_vol LIKE ?")) {
+            stmt.setString(1, PREFIX + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /** Deletes the synthetic flights in chunks to keep transactions short. */
+    private static void clean() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                     "DELETE FROM vol WHERE id_vol LIKE ? LIMIT " + LOAD_BATCH)) {
+            stmt.setString(1, PREFIX + "%");
+            while (stmt.executeUpdate() > 0) {
+                // Next chunk
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.voyageaffaires.dao;
+
+import com.voyageaffaires.TestDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with EXPLAIN that the flight date search stays sargable and is
+ * served by the (disponible, date_depart) or (destination, date_depart, prix)
+ * indexes instead of a full scan. Run against a database holding the sample
+ * data, as the optimizer may prefer a scan on near-empty tables.
+ */
+class VolSearchPlanTest {
+
+    private static final Set<String> DATE_INDEXES = Set.of("idx_disponible_date", "idx_destination_date_prix");
+
+    @Test
+    void daySearchUsesDateIndex() throws SQLException {
+        TestDatabase.assumeAvailable();
+        LocalDateTime dayStart = LocalDateTime.of(2026, 5, 12, 0, 0);
+
+        List<Map<String, Object>> plan = TestDatabase.explain(VolDAO.SEARCH_BY_DAY_QUERY,
+                Timestamp.valueOf(dayStart), Timestamp.valueOf(dayStart.plusDays(1)),
+                FullTextSearch.toLikePattern("Paris"));
+
+        Map<String, Object> vol = plan.get(0);
+        assertNotEquals("ALL", vol.get("type"), "Full scan: " + plan);
+        assertTrue(DATE_INDEXES.contains(String.valueOf(vol.get("key"))), "Plan: " + plan);
+    }
+
+    @Test
+    void exactDestinationUsesCompositeIndex() throws SQLException {
+        TestDatabase.assumeAvailable();
+        LocalDateTime dayStart = LocalDateTime.of(2026, 5, 12, 0, 0);
+
+        List<Map<String, Object>> plan = TestDatabase.explain(VolDAO.SEARCH_BY_DAY_QUERY,
+                Timestamp.valueOf(dayStart), Timestamp.valueOf(dayStart.plusDays(1)), "Paris");
+
+        Map<String, Object> vol = plan.get(0);
+        assertEquals("range", vol.get("type"), "Plan: " + plan);
+        assertTrue(DATE_INDEXES.contains(String.valueOf(vol.get("key"))), "Plan: " + plan);
+    }
+}
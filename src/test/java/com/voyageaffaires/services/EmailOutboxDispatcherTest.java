@@ -0,0 +1,132 @@
+package com.voyageaffaires.services;
+
+import com.voyageaffaires.TestDatabase;
+import com.voyageaffaires.dao.EmailOutboxDAO;
+import com.voyageaffaires.dao.ReservationDAO;
+import com.voyageaffaires.dao.UtilisateurDAO;
+import com.voyageaffaires.models.EmailOutbox;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.utils.EmailService;
+import com.voyageaffaires.utils.FakeTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.Session;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the dispatcher against the outbox table, delivering through the
+ * in-memory FakeTransport instead of an SMTP server.
+ */
+class EmailOutboxDispatcherTest {
+
+    private final String suffix = Long.toString(System.nanoTime(), 36);
+    private final String idReservation = "TST-R-" + suffix;
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private int idUtilisateur;
+    private EmailService emailService;
+    private EmailOutboxDispatcher dispatcher;
+    private long idEmail;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestDatabase.assumeAvailable();
+        FakeTransport.reset();
+
+        Properties properties = new Properties();
+        properties.setProperty("email.notifications.enabled", "true");
+        properties.setProperty("email.sender.address", "noreply@voyage-affaires.tn");
+        properties.setProperty("email.sender.name", "Voyage & Affaires");
+        Session session = Session.getInstance(new Properties());
+        FakeTransport.install(session);
+        emailService = new EmailService(properties, session);
+        dispatcher = new EmailOutboxDispatcher(new EmailOutboxDAO(), reservationDAO,
+                                               new UtilisateurDAO(), emailService);
+
+        idUtilisateur = TestDatabase.createUser("outbox-" + suffix + "@example.com");
+        Reservation reservation = new Reservation(idReservation, idUtilisateur, 100);
+        assertTrue(reservationDAO.save(reservation,
+                new EmailOutbox(EmailOutbox.TYPE_CONFIRMATION, idReservation)));
+        idEmail = TestDatabase.queryLong("SELECT id_email FROM email_outbox WHERE id_reservation = ?",
+                                         idReservation);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (emailService != null) {
+            emailService.close();
+        }
+        if (idUtilisateur != 0) {
+            TestDatabase.update("DELETE FROM utilisateur WHERE id_utilisateur = ?", idUtilisateur);
+            TestDatabase.update("DELETE FROM email_outbox WHERE id_reservation = ?", idReservation);
+        }
+    }
+
+    private String statut() throws SQLException {
+        return TestDatabase.queryString("SELECT statut FROM email_outbox WHERE id_email = ?", idEmail);
+    }
+
+    private long tentatives() throws SQLException {
+        return TestDatabase.queryLong("SELECT tentatives FROM email_outbox WHERE id_email = ?", idEmail);
+    }
+
+    @Test
+    void sendsQueuedMessage() throws SQLException {
+        dispatcher.drain();
+
+        assertEquals(EmailOutbox.STATUT_ENVOYE, statut());
+        assertEquals(1, FakeTransport.sent.get());
+
+        // Sent messages are not sent again
+        dispatcher.drain();
+        assertEquals(1, FakeTransport.sent.get());
+    }
+
+    @Test
+    void retriesThenDeadLettersAfterMaxAttempts() throws SQLException {
+        FakeTransport.rejectRecipients = true;
+
+        dispatcher.drain();
+        assertEquals(EmailOutbox.STATUT_EN_ATTENTE, statut());
+        assertEquals(1, tentatives());
+        assertEquals(1, TestDatabase.queryLong(
+                "SELECT COUNT(*) FROM email_outbox WHERE id_email = ? AND prochaine_tentative > NOW() " +
+                "AND derniere_erreur LIKE '%550%'", idEmail));
+
+        // Backing off: not retried before its time
+        dispatcher.drain();
+        assertEquals(1, tentatives());
+
+        for (int attempt = 2; attempt <= EmailOutboxDispatcher.MAX_ATTEMPTS; attempt++) {
+            TestDatabase.update("UPDATE email_outbox SET prochaine_tentative = NOW() WHERE id_email = ?", idEmail);
+            dispatcher.drain();
+            assertEquals(attempt, tentatives());
+        }
+        assertEquals(EmailOutbox.STATUT_ECHEC, statut());
+
+        // Dead letters are never claimed again
+        FakeTransport.rejectRecipients = false;
+        TestDatabase.update("UPDATE email_outbox SET prochaine_tentative = NOW() WHERE id_email = ?", idEmail);
+        dispatcher.drain();
+        assertEquals(EmailOutbox.STATUT_ECHEC, statut());
+        assertEquals(0, FakeTransport.sent.get());
+    }
+
+    @Test
+    void recoversAfterTransientFailure() throws SQLException {
+        FakeTransport.rejectRecipients = true;
+        dispatcher.drain();
+        assertEquals(1, tentatives());
+
+        FakeTransport.rejectRecipients = false;
+        TestDatabase.update("UPDATE email_outbox SET prochaine_tentative = NOW() WHERE id_email = ?", idEmail);
+        dispatcher.drain();
+
+        assertEquals(EmailOutbox.STATUT_ENVOYE, statut());
+        assertEquals(1, FakeTransport.sent.get());
+    }
+}
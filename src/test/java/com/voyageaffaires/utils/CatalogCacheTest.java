@@ -0,0 +1,105 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    @Test
+    void loadsOnMissThenServesFromCache() {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("A", cache.get("a", k -> { loads.incrementAndGet(); return "A"; }));
+        assertEquals("A", cache.get("a", k -> { loads.incrementAndGet(); return "other"; }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio());
+    }
+
+    @Test
+    void doesNotCacheNullResults() {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 10, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("a", k -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get("a", k -> { loads.incrementAndGet(); return null; }));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 2, 60000);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a");        // b is now the eldest
+        cache.put("c", "C");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals("A", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("C", cache.getIfPresent("c"));
+    }
+
+    @Test
+    void reloadsExpiredEntries() throws InterruptedException {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 10, 20);
+        cache.put("a", "old");
+        Thread.sleep(50);
+
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("new", cache.get("a", k -> "new"));
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotOverwritten() {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 10, 60000);
+
+        // The row changes while it is being loaded: the loaded value is stale
+        String loaded = cache.get("a", k -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("fresh", cache.get("a", k -> "fresh"));
+    }
+
+    @Test
+    void batchPutIsSkippedAfterInvalidation() {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 10, 60000);
+        long generation = cache.getGeneration();
+        cache.invalidateAll();
+
+        cache.put("a", "stale", generation);
+        assertEquals(0, cache.size());
+
+        cache.put("a", "fresh", cache.getGeneration());
+        assertEquals("fresh", cache.getIfPresent("a"));
+    }
+
+    @Test
+    void batchLookupCountsMissingKeysAsOneMiss() {
+        CatalogCache<String, String> cache = new CatalogCache<>("test", 10, 60000);
+        cache.put("a", "A");
+        cache.put("b", "B");
+
+        Map<String, String> found = cache.getAllPresent(Arrays.asList("a", "b", "c", "d", null));
+
+        assertEquals(Map.of("a", "A", "b", "B"), found);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+}
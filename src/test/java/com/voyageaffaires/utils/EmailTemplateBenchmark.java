@@ -0,0 +1,236 @@
+package com.voyageaffaires.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the precompiled confirmation template with the StringBuilder
+ * append chain EmailService used before templates. Both variants get the
+ * same preformatted values, so only the HTML assembly is measured. Reports
+ * the time and the bytes allocated per render; allocation is read from the
+ * HotSpot per-thread counter (com.sun.management.ThreadMXBean).
+ * <p>
+ * Not a unit test; run it by hand after compiling the tests:
+ * {@code java -cp target/classes:target/test-classes com.voyageaffaires.utils.EmailTemplateBenchmark}
+ */
+public class EmailTemplateBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int RENDERS_PER_ROUND = 50_000;
+
+    /** Prevents the JIT from discarding the rendered strings. */
+    private static long sink;
+
+    public static void main(String[] args) {
+        EmailTemplate template = EmailTemplate.fromResource("email/confirmation.html");
+        Map<String, String> values = sampleValues();
+
+        System.out.printf("Rendered sizes: template=%d chars, StringBuilder=%d chars%n",
+                          template.render(values).length(), renderWithStringBuilder(values).length());
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            measure(() -> template.render(values));
+            measure(() -> renderWithStringBuilder(values));
+        }
+
+        double templateNanos = 0;
+        double builderNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            templateNanos += measure(() -> template.render(values));
+            builderNanos += measure(() -> renderWithStringBuilder(values));
+        }
+        templateNanos /= MEASURED_ROUNDS;
+        builderNanos /= MEASURED_ROUNDS;
+
+        double templateBytes = allocated(() -> template.render(values));
+        double builderBytes = allocated(() -> renderWithStringBuilder(values));
+
+        System.out.printf("EmailTemplate.render : %8.0f ns/op %8.0f B/op%n", templateNanos, templateBytes);
+        System.out.printf("StringBuilder chain  : %8.0f ns/op %8.0f B/op%n", builderNanos, builderBytes);
+        System.out.printf("Ratio                : %8.2f       %8.2f (sink=%d)%n",
+                          builderNanos / templateNanos, builderBytes / templateBytes, sink);
+    }
+
+    private interface Renderer {
+        String render();
+    }
+
+    /**
+     * Returns the mean number of bytes allocated by one render on this
+     * thread, or NaN if the JVM does not count allocations per thread.
+     */
+    private static double allocated(Renderer renderer) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return Double.NaN;
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return Double.NaN;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < RENDERS_PER_ROUND; i++) {
+            sink += renderer.render().length();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / (double) RENDERS_PER_ROUND;
+    }
+
+    /** Returns the mean time of one render in nanoseconds. */
+    private static double measure(Renderer renderer) {
+        long start = System.nanoTime();
+        for (int i = 0; i < RENDERS_PER_ROUND; i++) {
+            sink += renderer.render().length();
+        }
+        return (System.nanoTime() - start) / (double) RENDERS_PER_ROUND;
+    }
+
+    private static Map<String, String> sampleValues() {
+        Map<String, String> values = new HashMap<>();
+        values.put("prenom", "Sami");
+        values.put("nom", "Ben Ali");
+        values.put("idReservation", "RES-20260302-0042");
+        values.put("dateCreation", "02/03/2026");
+        values.put("statut", "Confirmée");
+        values.put("motif", "Salon professionnel");
+        values.put("vol", "true");
+        values.put("compagnie", "Tunisair");
+        values.put("idVol", "TU001");
+        values.put("origine", "Tunis-Carthage");
+        values.put("destination", "Paris CDG");
+        values.put("dateDepart", "15/03/2026 à 08:00");
+        values.put("dateArrivee", "15/03/2026 à 10:30");
+        values.put("classe", "ECONOMIE");
+        values.put("prixVol", "450,00 €");
+        values.put("hotel", "true");
+        values.put("hotelNom", "Hilton Paris Opera");
+        values.put("ville", "Paris");
+        values.put("adresse", "108 Rue Saint-Lazare");
+        values.put("etoilesIcones", "⭐⭐⭐⭐⭐");
+        values.put("etoiles", "5");
+        values.put("dateCheckin", "15/03/2026");
+        values.put("dateCheckout", "18/03/2026");
+        values.put("nombreChambres", "1");
+        values.put("prixParNuit", "250,00 €");
+        values.put("montantTotal", "1 200,00 €");
+        values.put("commentaire", "Chambre calme si possible");
+        return values;
+    }
+
+    /**
+     * The confirmation body as EmailService built it before templates
+     * (values were appended without escaping).
+     */
+    private static String renderWithStringBuilder(Map<String, String> v) {
+        StringBuilder content = new StringBuilder();
+
+        content.append("<!DOCTYPE html>");
+        content.append("<html>");
+        content.append("<head>");
+        content.append("<style>");
+        content.append("body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }");
+        content.append(".container { max-width: 600px; margin: 0 auto; padding: 20px; }");
+        content.append(".header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }");
+        content.append(".content { background: #f9f9f9; padding: 30px; border-radius: 0 0 10px 10px; }");
+        content.append(".section { background: white; padding: 20px; margin: 20px 0; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); }");
+        content.append(".label { font-weight: bold; color: #667eea; }");
+        content.append(".total { font-size: 24px; font-weight: bold; color: #667eea; text-align: center; padding: 20px; background: #e8eaf6; border-radius: 8px; margin-top: 20px; }");
+        content.append(".footer { text-align: center; color: #999; padding: 20px; font-size: 12px; }");
+        content.append("table { width: 100%; border-collapse: collapse; }");
+        content.append("td { padding: 8px 0; }");
+        content.append("</style>");
+        content.append("</head>");
+        content.append("<body>");
+        content.append("<div class='container'>");
+
+        content.append("<div class='header'>");
+        content.append("<h1>✈️ Confirmation de Réservation</h1>");
+        content.append("<p>Votre voyage est confirmé !</p>");
+        content.append("</div>");
+
+        content.append("<div class='content'>");
+
+        content.append("<p>Bonjour ").append(v.get("prenom")).append(" ").append(v.get("nom")).append(",</p>");
+        content.append("<p>Merci pour votre réservation. Voici le récapitulatif de votre voyage d'affaires :</p>");
+
+        content.append("<div class='section'>");
+        content.append("<h2>📋 Détails de la Réservation</h2>");
+        content.append("<table>");
+        content.append("<tr><td class='label'>Numéro de réservation :</td><td>").append(v.get("idReservation")).append("</td></tr>");
+        content.append("<tr><td class='label'>Date de création :</td><td>").append(v.get("dateCreation")).append("</td></tr>");
+        content.append("<tr><td class='label'>Statut :</td><td>").append(v.get("statut")).append("</td></tr>");
+        if (v.get("motif") != null && !v.get("motif").isEmpty()) {
+            content.append("<tr><td class='label'>Motif du voyage :</td><td>").append(v.get("motif")).append("</td></tr>");
+        }
+        content.append("</table>");
+        content.append("</div>");
+
+        if (v.get("vol") != null) {
+            content.append("<div class='section'>");
+            content.append("<h2>✈️ Détails du Vol</h2>");
+            content.append("<table>");
+            content.append("<tr><td class='label'>Compagnie :</td><td>").append(v.get("compagnie")).append("</td></tr>");
+            content.append("<tr><td class='label'>Numéro de vol :</td><td>").append(v.get("idVol")).append("</td></tr>");
+            content.append("<tr><td class='label'>Origine :</td><td>").append(v.get("origine")).append("</td></tr>");
+            content.append("<tr><td class='label'>Destination :</td><td>").append(v.get("destination")).append("</td></tr>");
+            content.append("<tr><td class='label'>Date de départ :</td><td>").append(v.get("dateDepart")).append("</td></tr>");
+            content.append("<tr><td class='label'>Date d'arrivée :</td><td>").append(v.get("dateArrivee")).append("</td></tr>");
+            content.append("<tr><td class='label'>Classe :</td><td>").append(v.get("classe")).append("</td></tr>");
+            content.append("<tr><td class='label'>Prix :</td><td>").append(v.get("prixVol")).append("</td></tr>");
+            content.append("</table>");
+            content.append("</div>");
+        }
+
+        if (v.get("hotel") != null) {
+            content.append("<div class='section'>");
+            content.append("<h2>🏨 Détails de l'Hôtel</h2>");
+            content.append("<table>");
+            content.append("<tr><td class='label'>Nom :</td><td>").append(v.get("hotelNom")).append("</td></tr>");
+            content.append("<tr><td class='label'>Ville :</td><td>").append(v.get("ville")).append("</td></tr>");
+            content.append("<tr><td class='label'>Adresse :</td><td>").append(v.get("adresse")).append("</td></tr>");
+            content.append("<tr><td class='label'>Étoiles :</td><td>").append(v.get("etoilesIcones")).append(" (").append(v.get("etoiles")).append(" étoiles)</td></tr>");
+            if (v.get("dateCheckin") != null) {
+                content.append("<tr><td class='label'>Check-in :</td><td>").append(v.get("dateCheckin")).append("</td></tr>");
+            }
+            if (v.get("dateCheckout") != null) {
+                content.append("<tr><td class='label'>Check-out :</td><td>").append(v.get("dateCheckout")).append("</td></tr>");
+            }
+            content.append("<tr><td class='label'>Nombre de chambres :</td><td>").append(v.get("nombreChambres")).append("</td></tr>");
+            content.append("<tr><td class='label'>Prix par nuit :</td><td>").append(v.get("prixParNuit")).append("</td></tr>");
+            content.append("</table>");
+            content.append("</div>");
+        }
+
+        content.append("<div class='total'>");
+        content.append("💰 Montant Total : ").append(v.get("montantTotal"));
+        content.append("</div>");
+
+        if (v.get("commentaire") != null && !v.get("commentaire").isEmpty()) {
+            content.append("<div class='section'>");
+            content.append("<h2>📝 Commentaire</h2>");
+            content.append("<p>").append(v.get("commentaire")).append("</p>");
+            content.append("</div>");
+        }
+
+        content.append("<p style='margin-top: 30px;'>Nous vous souhaitons un excellent voyage !</p>");
+        content.append("<p>Pour toute question, n'hésitez pas à nous contacter.</p>");
+        content.append("<p>Cordialement,<br><strong>L'équipe Voyage & Affaires</strong></p>");
+
+        content.append("</div>");
+
+        content.append("<div class='footer'>");
+        content.append("<p>Cet email a été envoyé automatiquement. Merci de ne pas y répondre.</p>");
+        content.append("<p>&copy; 2026 Voyage & Affaires - Tous droits réservés</p>");
+        content.append("</div>");
+
+        content.append("</div>");
+        content.append("</body>");
+        content.append("</html>");
+
+        return content.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTest {
+
+    @Test
+    void replacesSlotsAndKeepsLiterals() {
+        EmailTemplate template = EmailTemplate.compile("<p>Bonjour {{prenom}} {{ nom }},</p>");
+
+        assertEquals("<p>Bonjour Sami Ben Ali,</p>", template.render(Map.of("prenom", "Sami", "nom", "Ben Ali")));
+    }
+
+    @Test
+    void rendersMissingValuesAsEmptyText() {
+        EmailTemplate template = EmailTemplate.compile("[{{absent}}]");
+
+        assertEquals("[]", template.render(Map.of()));
+    }
+
+    @Test
+    void escapesHtmlInValues() {
+        EmailTemplate template = EmailTemplate.compile("<p>{{commentaire}}</p>");
+
+        assertEquals("<p>&lt;script&gt;alert(&quot;x&quot;)&lt;/script&gt; &amp; l&#39;hôtel</p>",
+                     template.render(Map.of("commentaire", "<script>alert(\"x\")</script> & l'hôtel")));
+    }
+
+    @Test
+    void doesNotReinterpretTagsInValues() {
+        EmailTemplate template = EmailTemplate.compile("{{a}}");
+
+        assertEquals("{{b}}", template.render(Map.of("a", "{{b}}", "b", "injected")));
+    }
+
+    @Test
+    void rendersSectionOnlyForNonEmptyValue() {
+        EmailTemplate template = EmailTemplate.compile("A{{#motif}}<b>{{motif}}</b>{{/motif}}B");
+
+        assertEquals("A<b>Salon</b>B", template.render(Map.of("motif", "Salon")));
+        assertEquals("AB", template.render(Map.of("motif", "")));
+        assertEquals("AB", template.render(Map.of()));
+    }
+
+    @Test
+    void rendersNestedSections() {
+        EmailTemplate template = EmailTemplate.compile(
+                "{{#hotel}}H:{{nom}}{{#checkin}}, in {{checkin}}{{/checkin}};{{/hotel}}end");
+
+        Map<String, String> values = new HashMap<>();
+        values.put("hotel", "true");
+        values.put("nom", "Hilton");
+        assertEquals("H:Hilton;end", template.render(values));
+
+        values.put("checkin", "15/03/2026");
+        assertEquals("H:Hilton, in 15/03/2026;end", template.render(values));
+
+        values.remove("hotel");
+        assertEquals("end", template.render(values));
+    }
+
+    @Test
+    void rejectsUnclosedTag() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("Bonjour {{prenom"));
+        assertTrue(e.getMessage().contains("offset 8"), e.getMessage());
+    }
+
+    @Test
+    void rejectsUnclosedSection() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.compile("{{#vol}}{{#hotel}}x{{/hotel}}"));
+        assertTrue(e.getMessage().contains("'vol'"), e.getMessage());
+    }
+
+    @Test
+    void rejectsMismatchedSectionEnd() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{#vol}}x{{/hotel}}"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("x{{/vol}}"));
+    }
+
+    @Test
+    void loadsBundledTemplates() {
+        Map<String, String> values = new HashMap<>();
+        values.put("prenom", "Sami");
+        values.put("commentaire", "<b>urgent</b>");
+
+        String html = EmailTemplate.fromResource("email/confirmation.html").render(values);
+
+        assertTrue(html.contains("Sami"));
+        assertTrue(html.contains("&lt;b&gt;urgent&lt;/b&gt;"));
+        assertThrows(IllegalStateException.class, () -> EmailTemplate.fromResource("email/absent.html"));
+    }
+
+    @Test
+    void rendersConcurrently() throws Exception {
+        EmailTemplate template = EmailTemplate.compile("<p>{{id}}</p>");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String id = Thread.currentThread().getName() + "-" + i;
+                        if (!template.render(Map.of("id", id)).equals("<p>" + id + "</p>")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.voyageaffaires.utils;
+
+import java.io.File;
+
+/**
+ * Streams synthetic reservations through ExcelExportUtil.exportToExcel(Iterator, ...)
+ * and reports the throughput and the peak heap used during the export.
+ * The target is 1,000,000 rows under 100 MB of heap, so run it with
+ * -Xmx100m: the export must complete and the peak stay below the limit.
+ * The sampled peak includes garbage not yet collected, so it is an upper
+ * bound of the live data.
+ * <p>
+ * Not a unit test; run it by hand after compiling the tests:
+ * {@code java -Xmx100m -cp target/classes:target/test-classes:<dependencies> com.voyageaffaires.utils.ExcelExportUtilBenchmark [rows] [rowAccessWindow]}
+ */
+public class ExcelExportUtilBenchmark {
+
+    private static final int WARMUP_ROWS = 10_000;
+    private static final long TARGET_BYTES = 100L * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int window = args.length > 1 ? Integer.parseInt(args[1]) : ExcelExportUtil.DEFAULT_ROW_ACCESS_WINDOW;
+        File file = File.createTempFile("excel-benchmark", ".xlsx");
+        file.deleteOnExit();
+
+        try {
+            export(file, WARMUP_ROWS, window);
+
+            long nanos;
+            HeapSampler heap = new HeapSampler();
+            try {
+                long start = System.nanoTime();
+                export(file, rows, window);
+                nanos = System.nanoTime() - start;
+            } finally {
+                heap.close();
+            }
+
+            double seconds = nanos / 1e9;
+            System.out.printf("Exported %d rows (window %d) in %.2f s: %.1f MB file, %,.0f rows/s%n",
+                              rows, window, seconds, HeapSampler.megabytes(file.length()), rows / seconds);
+            System.out.printf("Heap: peak %.1f MB (baseline %.1f MB, max %.1f MB) -> %s%n",
+                              HeapSampler.megabytes(heap.getPeakBytes()),
+                              HeapSampler.megabytes(heap.getBaselineBytes()),
+                              HeapSampler.megabytes(Runtime.getRuntime().maxMemory()),
+                              heap.getPeakBytes() < TARGET_BYTES ? "under 100 MB" : "OVER 100 MB");
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void export(File file, int rows, int window) {
+        if (!ExcelExportUtil.exportToExcel(new SyntheticReservations(rows), file.getPath(), true, window)) {
+            throw new IllegalStateException("Excel export failed");
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.Vol;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the streamed (SXSSF) Excel export. Reservations carry their user,
+ * flight and hotel, so the batch resolver never needs the database.
+ */
+class ExcelExportUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Reservation reservation(int n) {
+        Reservation reservation = new Reservation("RES-" + n, 7, 100 + n);
+        reservation.setDateCreation(LocalDate.of(2026, 3, 2));
+        reservation.setStatut("APPROUVEE");
+        reservation.setUtilisateurNom("Sami Ben Ali");
+        reservation.setMotifVoyage("Salon");
+
+        Vol vol = new Vol();
+        vol.setIdVol("TU00" + (n % 8));
+        vol.setOrigine("Tunis-Carthage");
+        vol.setDestination("Paris CDG");
+        vol.setCompagnie("Tunisair");
+        reservation.setIdVol(vol.getIdVol());
+        reservation.setVol(vol);
+
+        if (n % 2 == 0) {
+            Hotel hotel = new Hotel();
+            hotel.setIdHotel("H001");
+            hotel.setNom("Hilton Paris Opera");
+            hotel.setVille("Paris");
+            reservation.setIdHotel(hotel.getIdHotel());
+            reservation.setHotel(hotel);
+            reservation.setDateCheckin(LocalDate.of(2026, 3, 15));
+            reservation.setDateCheckout(LocalDate.of(2026, 3, 18));
+            reservation.setNombreChambres(1);
+        }
+        return reservation;
+    }
+
+    /** Generates reservations lazily, as a streamed result set would. */
+    private static Iterator<Reservation> generate(int count) {
+        return new Iterator<Reservation>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Reservation next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return reservation(next++);
+            }
+        };
+    }
+
+    private static Workbook read(Path file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file.toFile())) {
+            return new XSSFWorkbook(in);
+        }
+    }
+
+    @Test
+    void writesHeaderAndRows() throws IOException {
+        Path file = tempDir.resolve("export.xlsx");
+
+        assertTrue(ExcelExportUtil.exportToExcel(List.of(reservation(1), reservation(2)), file.toString(), true));
+
+        try (Workbook workbook = read(file)) {
+            Sheet sheet = workbook.getSheet("Historique des Voyages");
+            assertEquals(2, sheet.getLastRowNum());
+
+            Row header = sheet.getRow(0);
+            assertEquals("Numéro Réservation", header.getCell(0).getStringCellValue());
+            assertEquals("Utilisateur", header.getCell(2).getStringCellValue());
+            assertEquals("Commentaire", header.getCell(14).getStringCellValue());
+
+            Row flightOnly = sheet.getRow(1);
+            assertEquals("RES-1", flightOnly.getCell(0).getStringCellValue());
+            assertEquals("02/03/2026", flightOnly.getCell(1).getStringCellValue());
+            assertEquals("Sami Ben Ali", flightOnly.getCell(2).getStringCellValue());
+            assertEquals("Paris CDG", flightOnly.getCell(5).getStringCellValue());
+            assertEquals("-", flightOnly.getCell(7).getStringCellValue());
+            assertEquals(101.0, flightOnly.getCell(12).getNumericCellValue());
+            assertEquals("-", flightOnly.getCell(14).getStringCellValue());
+
+            Row withHotel = sheet.getRow(2);
+            assertEquals("Hilton Paris Opera", withHotel.getCell(7).getStringCellValue());
+            assertEquals("15/03/2026", withHotel.getCell(9).getStringCellValue());
+            assertEquals("1", withHotel.getCell(11).getStringCellValue());
+        }
+    }
+
+    @Test
+    void omitsUserColumnForTravellers() throws IOException {
+        Path file = tempDir.resolve("export.xlsx");
+
+        assertTrue(ExcelExportUtil.exportToExcel(List.of(reservation(1)), file.toString(), false));
+
+        try (Workbook workbook = read(file)) {
+            Row header = workbook.getSheetAt(0).getRow(0);
+            assertEquals("Statut", header.getCell(2).getStringCellValue());
+            assertEquals(14, header.getLastCellNum());
+            assertEquals("APPROUVEE", workbook.getSheetAt(0).getRow(1).getCell(2).getStringCellValue());
+        }
+    }
+
+    @Test
+    void streamsMoreRowsThanTheAccessWindow() throws IOException {
+        Path file = tempDir.resolve("large.xlsx");
+        int count = 5_000;
+
+        assertTrue(ExcelExportUtil.exportToExcel(generate(count), file.toString(), true, 10));
+
+        try (Workbook workbook = read(file)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(count, sheet.getLastRowNum());
+            assertEquals("RES-0", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("RES-" + (count - 1), sheet.getRow(count).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    void reportsFailureWhenTheSourceFails() {
+        Path file = tempDir.resolve("failed.xlsx");
+        Iterator<Reservation> failing = new Iterator<Reservation>() {
+            private final Iterator<Reservation> rows = generate(3);
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Reservation next() {
+                if (rows.hasNext()) {
+                    return rows.next();
+                }
+                throw new IllegalStateException("Connection lost");
+            }
+        };
+
+        assertFalse(ExcelExportUtil.exportToExcel(failing, file.toString(), true, 10));
+        assertFalse(Files.exists(file));
+    }
+}
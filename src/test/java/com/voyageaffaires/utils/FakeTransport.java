@@ -0,0 +1,85 @@
+package com.voyageaffaires.utils;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.NoSuchProviderException;
+import javax.mail.Provider;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory SMTP transport, so tests need no mail server. The state is
+ * static because JavaMail creates transports by reflection.
+ */
+public class FakeTransport extends Transport {
+
+    public static final AtomicInteger sent = new AtomicInteger();
+    public static final AtomicInteger closed = new AtomicInteger();
+    /** Number of upcoming sends that fail as if the server dropped the connection. */
+    public static final AtomicInteger failures = new AtomicInteger();
+    public static volatile boolean rejectRecipients;
+    public static volatile CountDownLatch sending;
+    public static volatile CountDownLatch block;
+
+    public FakeTransport(Session session, URLName urlName) {
+        super(session, urlName);
+    }
+
+    /**
+     * Registers this transport as the "smtp" provider of a session.
+     *
+     * @param session Session used by the code under test
+     * @throws NoSuchProviderException if the provider cannot be set
+     */
+    public static void install(Session session) throws NoSuchProviderException {
+        session.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp",
+                                         FakeTransport.class.getName(), "test", "1"));
+    }
+
+    public static void reset() {
+        sent.set(0);
+        closed.set(0);
+        failures.set(0);
+        rejectRecipients = false;
+        sending = null;
+        block = null;
+    }
+
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password) {
+        return true;
+    }
+
+    @Override
+    public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+        if (rejectRecipients) {
+            throw new SendFailedException("550 Mailbox unavailable");
+        }
+        if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new MessagingException("421 Connection closed by server");
+        }
+        if (sending != null) {
+            sending.countDown();
+        }
+        if (block != null) {
+            try {
+                block.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sent.incrementAndGet();
+    }
+
+    @Override
+    public synchronized void close() throws MessagingException {
+        closed.incrementAndGet();
+        super.close();
+    }
+}
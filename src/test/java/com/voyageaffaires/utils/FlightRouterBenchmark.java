@@ -0,0 +1,112 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.models.Itineraire;
+import com.voyageaffaires.models.Vol;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures FlightRouter on a synthetic timetable: graph build time, then the
+ * latency of k-best queries between random cities on random days.
+ * A few hub cities get most of the traffic, like a real network, so most
+ * trips need a connection through a hub.
+ * <p>
+ * Not a unit test; run it by hand after compiling the tests:
+ * {@code java -cp target/classes:target/test-classes com.voyageaffaires.utils.FlightRouterBenchmark [flights] [cities] [queries]}
+ */
+public class FlightRouterBenchmark {
+
+    private static final int DAYS = 30;
+    private static final int HUBS = 10;
+    private static final int K = 5;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 3, 1);
+
+    /** Prevents the JIT from discarding the results. */
+    private static long sink;
+
+    public static void main(String[] args) {
+        int flightCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cityCount = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int queryCount = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        Random random = new Random(42);
+        List<Vol> flights = timetable(random, flightCount, cityCount);
+
+        long start = System.nanoTime();
+        FlightRouter router = new FlightRouter(flights);
+        System.out.printf("Built graph: %d flights, %d cities in %.0f ms%n", router.getFlightCount(),
+                          router.getCityCount(), (System.nanoTime() - start) / 1_000_000.0);
+
+        // Warm-up
+        query(router, random, queryCount, cityCount, FlightRouter.Critere.MOINS_CHER);
+        query(router, random, queryCount, cityCount, FlightRouter.Critere.PLUS_RAPIDE);
+
+        for (FlightRouter.Critere critere : FlightRouter.Critere.values()) {
+            long[] nanos = query(router, random, queryCount, cityCount, critere);
+            Arrays.sort(nanos);
+            double mean = Arrays.stream(nanos).average().orElse(0);
+            System.out.printf("%-11s k=%d: mean %7.1f us, p50 %7.1f us, p99 %8.1f us, max %8.1f us%n",
+                              critere, K, mean / 1000, nanos[nanos.length / 2] / 1000.0,
+                              nanos[(int) (nanos.length * 0.99)] / 1000.0, nanos[nanos.length - 1] / 1000.0);
+        }
+        System.out.println("(sink=" + sink + ")");
+    }
+
+    /** Runs random queries and returns the time of each one in nanoseconds. */
+    private static long[] query(FlightRouter router, Random random, int queryCount, int cityCount,
+                                FlightRouter.Critere critere) {
+        long[] nanos = new long[queryCount];
+        int found = 0;
+        for (int q = 0; q < queryCount; q++) {
+            String origine = city(random.nextInt(cityCount));
+            String destination = city(random.nextInt(cityCount));
+            LocalDate jour = FIRST_DAY.plusDays(random.nextInt(DAYS - 1));
+
+            long start = System.nanoTime();
+            List<Itineraire> result = router.findItineraries(origine, destination, jour, critere, K);
+            nanos[q] = System.nanoTime() - start;
+
+            sink += result.size();
+            if (!result.isEmpty()) {
+                found++;
+            }
+        }
+        sink += found;
+        return nanos;
+    }
+
+    /**
+     * Generates flights over DAYS days. Half of them leave or reach a hub,
+     * the rest link two regional cities.
+     */
+    private static List<Vol> timetable(Random random, int flightCount, int cityCount) {
+        List<Vol> flights = new ArrayList<>(flightCount);
+        for (int i = 0; i < flightCount; i++) {
+            int from = random.nextInt(cityCount);
+            int to = random.nextBoolean() ? random.nextInt(Math.min(HUBS, cityCount)) : random.nextInt(cityCount);
+            if (to == from) {
+                to = (to + 1) % cityCount;
+            }
+            if (random.nextBoolean()) {
+                int swap = from;
+                from = to;
+                to = swap;
+            }
+            LocalDateTime depart = FIRST_DAY.atStartOfDay()
+                    .plusMinutes(5L * random.nextInt(DAYS * 24 * 12));
+            int minutes = 45 + 5 * random.nextInt(100);
+            flights.add(new Vol("V" + i, "Compagnie " + (i % 20), city(from), city(to),
+                                depart, depart.plusMinutes(minutes), 50 + random.nextInt(950), 180));
+        }
+        return flights;
+    }
+
+    private static String city(int id) {
+        return "Ville " + id;
+    }
+}
@@ -0,0 +1,243 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.models.Itineraire;
+import com.voyageaffaires.models.Vol;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRouterTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2026, 3, 15);
+
+    private static Vol vol(String id, String origine, String destination, String depart, String arrivee, double prix) {
+        return new Vol(id, "Tunisair", origine, destination,
+                       JOUR.atTime(LocalTime.parse(depart)),
+                       JOUR.atTime(LocalTime.parse(arrivee)), prix, 100);
+    }
+
+    private static List<String> ids(Itineraire itineraire) {
+        List<String> ids = new ArrayList<>();
+        for (Vol vol : itineraire.getVols()) {
+            ids.add(vol.getIdVol());
+        }
+        return ids;
+    }
+
+    private static List<Itineraire> find(FlightRouter router, String origine, String destination,
+                                         FlightRouter.Critere critere, int k, int maxVols) {
+        return router.findItineraries(origine, destination, JOUR.atStartOfDay(), JOUR.plusDays(1).atStartOfDay(),
+                                      critere, k, 60, 24 * 60, maxVols);
+    }
+
+    @Test
+    void findsDirectAndConnectingFlightsCheapestFirst() {
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("D", "Monastir", "Paris", "08:00", "10:30", 400),
+                vol("A", "Monastir", "Tunis", "07:00", "07:45", 60),
+                vol("B", "Tunis", "Paris", "09:00", "11:30", 250),
+                vol("C", "Tunis", "Paris", "08:15", "10:45", 200)));   // connection too short
+
+        List<Itineraire> result = find(router, "Monastir", "Paris", FlightRouter.Critere.MOINS_CHER, 5, 3);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of("A", "B"), ids(result.get(0)));
+        assertEquals(310.0, result.get(0).getPrixTotal(), 1e-9);
+        assertEquals(List.of("D"), ids(result.get(1)));
+    }
+
+    @Test
+    void ordersByTotalTravelTimeWhenFastest() {
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("D", "Monastir", "Paris", "08:00", "10:30", 400),
+                vol("A", "Monastir", "Tunis", "07:00", "07:45", 60),
+                vol("B", "Tunis", "Paris", "09:00", "11:30", 250)));
+
+        List<Itineraire> result = find(router, "Monastir", "Paris", FlightRouter.Critere.PLUS_RAPIDE, 5, 3);
+
+        assertEquals(List.of("D"), ids(result.get(0)));
+        assertEquals(Duration.ofMinutes(270), result.get(1).getDureeTotale());
+    }
+
+    @Test
+    void matchesCitiesIgnoringCaseAccentsOrBySubstring() {
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("A", "Tunis-Carthage", "Genève", "08:00", "10:00", 300),
+                vol("B", "Monastir", "Genève", "08:00", "10:00", 250)));
+
+        assertEquals(1, find(router, "tunis-carthage", "GENEVE", FlightRouter.Critere.MOINS_CHER, 5, 3).size());
+        assertEquals(List.of("A"), ids(find(router, "tunis", "gen", FlightRouter.Critere.MOINS_CHER, 5, 3).get(0)));
+        assertTrue(find(router, "Lyon", "Genève", FlightRouter.Critere.MOINS_CHER, 5, 3).isEmpty());
+        assertTrue(find(router, "", "Genève", FlightRouter.Critere.MOINS_CHER, 5, 3).isEmpty());
+    }
+
+    @Test
+    void respectsDepartureWindowConnectionTimesAndMaximumFlights() {
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("A", "Tunis", "Rome", "06:00", "07:00", 50),
+                vol("B", "Rome", "Milan", "08:00", "09:00", 50),
+                vol("C", "Milan", "Paris", "10:00", "11:00", 50),
+                vol("Z", "Tunis", "Paris", "23:30", "23:59", 500)));
+
+        assertEquals(List.of("A", "B", "C"),
+                     ids(find(router, "Tunis", "Paris", FlightRouter.Critere.MOINS_CHER, 1, 3).get(0)));
+        // Three flights are not allowed: only the direct one remains
+        assertEquals(List.of("Z"),
+                     ids(find(router, "Tunis", "Paris", FlightRouter.Critere.MOINS_CHER, 1, 2).get(0)));
+        // First departure must be in the window
+        assertTrue(router.findItineraries("Tunis", "Paris", JOUR.atTime(6, 30), JOUR.atTime(23, 0),
+                                          FlightRouter.Critere.MOINS_CHER, 5, 60, 24 * 60, 3).isEmpty());
+        // Layovers longer than 30 minutes are not allowed
+        assertEquals(List.of("Z"), ids(router.findItineraries("Tunis", "Paris", JOUR.atStartOfDay(), null,
+                                       FlightRouter.Critere.MOINS_CHER, 5, 0, 30, 3).get(0)));
+    }
+
+    @Test
+    void neverPassesThroughTheSameCityTwice() {
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("A", "Tunis", "Rome", "06:00", "07:00", 10),
+                vol("B", "Rome", "Tunis", "08:00", "09:00", 10),
+                vol("C", "Tunis", "Paris", "10:00", "12:00", 10),
+                vol("D", "Rome", "Paris", "15:00", "17:00", 100)));
+
+        List<Itineraire> result = find(router, "Tunis", "Paris", FlightRouter.Critere.MOINS_CHER, 5, 3);
+
+        assertEquals(List.of(List.of("C"), List.of("A", "D")), Arrays.asList(ids(result.get(0)), ids(result.get(1))));
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void labelsThatCannotBeExtendedDoNotUseUpAFlight() {
+        // Cheapest way to F takes three flights, so it cannot continue to Dubai
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("OZ", "Tunis", "Rome", "08:00", "09:00", 1),
+                vol("ZX", "Rome", "Milan", "10:00", "11:00", 1),
+                vol("OX", "Tunis", "Milan", "08:00", "10:00", 50),
+                vol("F", "Milan", "Paris", "12:00", "13:00", 10),
+                vol("G", "Paris", "Dubai", "14:00", "15:00", 10)));
+
+        List<Itineraire> result = find(router, "Tunis", "Dubai", FlightRouter.Critere.MOINS_CHER, 1, 3);
+
+        assertEquals(1, result.size());
+        assertEquals(List.of("OX", "F", "G"), ids(result.get(0)));
+    }
+
+    @Test
+    void labelsBlockedByVisitedCitiesDoNotUseUpAFlight() {
+        // Both Paris airports match the origin. The cheapest way to F went
+        // through Nice, so it cannot go on through Nice to Dubai.
+        FlightRouter router = new FlightRouter(Arrays.asList(
+                vol("ON", "Paris Orly", "Nice", "06:00", "07:00", 1),
+                vol("NM", "Nice", "Milan", "08:00", "09:00", 1),
+                vol("CL", "Paris CDG", "Lyon", "06:00", "07:00", 50),
+                vol("LM", "Lyon", "Milan", "08:00", "09:00", 50),
+                vol("F", "Milan", "Rome", "10:00", "11:00", 10),
+                vol("R", "Rome", "Nice", "12:00", "13:00", 10),
+                vol("G", "Nice", "Dubai", "14:00", "18:00", 10)));
+
+        List<Itineraire> result = router.findItineraries("Paris", "Dubai", JOUR.atStartOfDay(), null,
+                                                         FlightRouter.Critere.MOINS_CHER, 1, 60, 120, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(List.of("CL", "LM", "F", "R", "G"), ids(result.get(0)));
+    }
+
+    @Test
+    void ignoresInvalidFlightsAndLimits() {
+        Vol backwards = vol("X", "Tunis", "Paris", "10:00", "08:00", 1);
+        Vol noDate = new Vol("Y", "Tunisair", "Tunis", "Paris", null, null, 1, 100);
+        FlightRouter router = new FlightRouter(Arrays.asList(backwards, noDate,
+                vol("A", "Tunis", "Paris", "08:00", "10:00", 300)));
+
+        assertEquals(1, router.getFlightCount());
+        assertEquals(2, router.getCityCount());
+        assertTrue(find(router, "Tunis", "Paris", FlightRouter.Critere.MOINS_CHER, 0, 3).isEmpty());
+        assertTrue(find(router, "Tunis", "Paris", FlightRouter.Critere.MOINS_CHER, 5, 0).isEmpty());
+        assertTrue(find(router, "Paris", "Paris", FlightRouter.Critere.MOINS_CHER, 5, 3).isEmpty());
+    }
+
+    @Test
+    void matchesExhaustiveSearch() {
+        String[] cities = {"Tunis", "Monastir", "Paris", "Rome", "Milan", "Nice", "Lyon"};
+        Random random = new Random(7);
+        for (int round = 0; round < 40; round++) {
+            List<Vol> flights = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                int from = random.nextInt(cities.length);
+                int to = (from + 1 + random.nextInt(cities.length - 1)) % cities.length;
+                LocalDateTime depart = JOUR.atStartOfDay().plusMinutes(15 * random.nextInt(4 * 36));
+                flights.add(new Vol("V" + i, "Tunisair", cities[from], cities[to], depart,
+                                    depart.plusMinutes(30 + 15 * random.nextInt(12)), 20 + random.nextInt(300), 100));
+            }
+            FlightRouter router = new FlightRouter(flights);
+
+            for (FlightRouter.Critere critere : FlightRouter.Critere.values()) {
+                for (int maxVols = 1; maxVols <= 4; maxVols++) {
+                    List<Double> expected = exhaustive(flights, "Tunis", "Paris", critere, maxVols);
+                    List<Itineraire> result = find(router, "Tunis", "Paris", critere, 5, maxVols);
+
+                    List<Double> costs = new ArrayList<>();
+                    for (Itineraire itineraire : result) {
+                        costs.add(cost(itineraire.getVols(), critere));
+                    }
+                    assertEquals(expected.subList(0, Math.min(5, expected.size())), costs,
+                                 "round " + round + ", " + critere + ", maxVols " + maxVols);
+                }
+            }
+        }
+    }
+
+    /** Costs of every valid itinerary, sorted. */
+    private static List<Double> exhaustive(List<Vol> flights, String origine, String destination,
+                                           FlightRouter.Critere critere, int maxVols) {
+        List<Double> costs = new ArrayList<>();
+        for (Vol first : flights) {
+            if (first.getOrigine().equals(origine) && first.getDateDepart().toLocalDate().equals(JOUR)) {
+                Set<String> visited = new HashSet<>();
+                visited.add(origine);
+                extend(flights, new ArrayList<>(List.of(first)), visited, destination, critere, maxVols, costs);
+            }
+        }
+        costs.sort(null);
+        return costs;
+    }
+
+    private static void extend(List<Vol> flights, List<Vol> legs, Set<String> visited, String destination,
+                               FlightRouter.Critere critere, int maxVols, List<Double> costs) {
+        Vol last = legs.get(legs.size() - 1);
+        if (!visited.add(last.getDestination())) {
+            return;
+        }
+        if (last.getDestination().equals(destination)) {
+            costs.add(cost(legs, critere));
+        } else if (legs.size() < maxVols) {
+            for (Vol next : flights) {
+                long layover = Duration.between(last.getDateArrivee(), next.getDateDepart()).toMinutes();
+                if (next.getOrigine().equals(last.getDestination()) && layover >= 60 && layover <= 24 * 60) {
+                    legs.add(next);
+                    extend(flights, legs, visited, destination, critere, maxVols, costs);
+                    legs.remove(legs.size() - 1);
+                }
+            }
+        }
+        visited.remove(last.getDestination());
+    }
+
+    private static double cost(List<Vol> legs, FlightRouter.Critere critere) {
+        if (critere == FlightRouter.Critere.MOINS_CHER) {
+            return legs.stream().mapToDouble(Vol::getPrix).sum();
+        }
+        return Duration.between(legs.get(0).getDateDepart(), legs.get(legs.size() - 1).getDateArrivee()).toMinutes();
+    }
+}
@@ -0,0 +1,64 @@
+package com.voyageaffaires.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Samples the used heap from MemoryMXBean on a background thread, to find
+ * the peak reached while a benchmark runs. Start it right after a GC so the
+ * baseline only holds what was live before the run.
+ */
+class HeapSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MS = 5;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final long baselineBytes;
+    private final Thread thread;
+    private volatile long peakBytes;
+    private volatile boolean running = true;
+
+    HeapSampler() {
+        memory.gc();
+        baselineBytes = memory.getHeapMemoryUsage().getUsed();
+        peakBytes = baselineBytes;
+        thread = new Thread(() -> {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void sample() {
+        long used = memory.getHeapMemoryUsage().getUsed();
+        if (used > peakBytes) {
+            peakBytes = used;
+        }
+    }
+
+    long getBaselineBytes() {
+        return baselineBytes;
+    }
+
+    long getPeakBytes() {
+        return peakBytes;
+    }
+
+    static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join();
+        sample();
+    }
+}
@@ -0,0 +1,99 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private static LoginThrottle throttle(int maxSize, long windowMillis, int maxFailures) {
+        return new LoginThrottle("test", maxSize, windowMillis, maxFailures, 60000, 600000);
+    }
+
+    @Test
+    void locksKeyAtThreshold() {
+        LoginThrottle throttle = throttle(10, 60000, 3);
+
+        throttle.recordFailure("sami@example.com");
+        throttle.recordFailure("sami@example.com");
+        assertEquals(0, throttle.getRemainingLockMillis("sami@example.com"));
+
+        throttle.recordFailure("sami@example.com");
+        long remaining = throttle.getRemainingLockMillis("sami@example.com");
+        assertTrue(remaining > 59000 && remaining <= 60000, "Remaining: " + remaining);
+        assertEquals(1, throttle.getLockoutCount());
+        assertEquals(1, throttle.getRejectionCount());
+
+        // Other keys are not affected
+        assertEquals(0, throttle.getRemainingLockMillis("other@example.com"));
+    }
+
+    @Test
+    void doublesLockForEachFurtherFailureUpToMaximum() {
+        LoginThrottle throttle = new LoginThrottle("test", 10, 60000, 1, 1000, 5000);
+
+        throttle.recordFailure("k");
+        assertTrue(throttle.getRemainingLockMillis("k") <= 1000);
+        throttle.recordFailure("k");
+        assertTrue(throttle.getRemainingLockMillis("k") > 1000);
+        throttle.recordFailure("k");
+        assertTrue(throttle.getRemainingLockMillis("k") > 2000);
+        for (int i = 0; i < 30; i++) {
+            throttle.recordFailure("k");
+        }
+        assertTrue(throttle.getRemainingLockMillis("k") <= 5000);
+    }
+
+    @Test
+    void resetForgetsFailures() {
+        LoginThrottle throttle = throttle(10, 60000, 2);
+        throttle.recordFailure("k");
+        throttle.recordFailure("k");
+        assertTrue(throttle.getRemainingLockMillis("k") > 0);
+
+        throttle.reset("k");
+
+        assertEquals(0, throttle.getRemainingLockMillis("k"));
+        throttle.recordFailure("k");
+        assertEquals(0, throttle.getRemainingLockMillis("k"));
+    }
+
+    @Test
+    void failuresOutsideWindowAreForgotten() throws InterruptedException {
+        LoginThrottle throttle = throttle(10, 30, 2);
+        throttle.recordFailure("k");
+        Thread.sleep(60);
+
+        throttle.recordFailure("k");
+
+        assertEquals(0, throttle.getRemainingLockMillis("k"));
+        Thread.sleep(60);
+        assertEquals(0, throttle.getRemainingLockMillis("k"));
+        assertEquals(0, throttle.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedKeys() {
+        LoginThrottle throttle = throttle(2, 60000, 5);
+        throttle.recordFailure("a");
+        throttle.recordFailure("b");
+        throttle.getRemainingLockMillis("a");   // b is now the eldest
+        throttle.recordFailure("c");
+
+        assertEquals(2, throttle.size());
+        assertEquals(1, throttle.getEvictionCount());
+    }
+
+    @Test
+    void singleKeyThrottleLocksAndResets() {
+        LoginThrottle throttle = throttle(1, 60000, 2);
+        throttle.recordFailure("user@host");
+        throttle.recordFailure("user@host");
+        assertTrue(throttle.getRemainingLockMillis("user@host") > 0);
+
+        throttle.reset("user@host");
+
+        assertEquals(0, throttle.getRemainingLockMillis("user@host"));
+        assertEquals(0, throttle.getEvictionCount());
+    }
+}
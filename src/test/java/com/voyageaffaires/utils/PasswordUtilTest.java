@@ -0,0 +1,38 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordUtilTest {
+
+    @Test
+    void hashesAndVerifies() {
+        String hash = PasswordUtil.hashPassword("motdepasse", PasswordUtil.MIN_WORK_FACTOR);
+
+        assertTrue(PasswordUtil.verifyPassword("motdepasse", hash));
+        assertFalse(PasswordUtil.verifyPassword("autre", hash));
+        assertFalse(PasswordUtil.verifyPassword("motdepasse", null));
+        assertFalse(PasswordUtil.verifyPassword("motdepasse", "not-a-hash"));
+    }
+
+    @Test
+    void readsCostOfHash() {
+        assertEquals(11, PasswordUtil.getCost(PasswordUtil.hashPassword("motdepasse", 11)));
+        assertEquals(10, PasswordUtil.getCost("$2a$10$abcdefghijklmnopqrstuu"));
+        assertEquals(-1, PasswordUtil.getCost("plain"));
+        assertEquals(-1, PasswordUtil.getCost(null));
+    }
+
+    @Test
+    void flagsHashesBelowCurrentWorkFactor() {
+        assertFalse(PasswordUtil.needsRehash("$2a$" + PasswordUtil.getWorkFactor() + "$abcdefghijklmnopqrstuu"));
+        assertFalse(PasswordUtil.needsRehash("plain"));
+    }
+
+    @Test
+    void calibrationNeverGoesBelowMinimum() {
+        assertEquals(PasswordUtil.MIN_WORK_FACTOR, PasswordUtil.calibrate(0));
+        assertEquals(PasswordUtil.MIN_WORK_FACTOR, PasswordUtil.getWorkFactor());
+    }
+}
@@ -0,0 +1,94 @@
+package com.voyageaffaires.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures login throughput (password checks per second) through
+ * PasswordVerifier while many clients log in at once, and compares it with
+ * checking passwords directly on the calling threads.
+ * <p>
+ * Not a unit test; run it by hand after compiling the tests, with jBCrypt on
+ * the class path (see {@code mvn dependency:build-classpath}):
+ * {@code java -cp target/classes:target/test-classes:<deps> com.voyageaffaires.utils.PasswordVerifierBenchmark [clients] [seconds]}
+ */
+public class PasswordVerifierBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 4 * Runtime.getRuntime().availableProcessors();
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+
+        String hash = PasswordUtil.hashPassword("motdepasse");
+        System.out.println("Cores: " + Runtime.getRuntime().availableProcessors()
+                           + ", clients: " + clients + ", BCrypt cost: " + PasswordUtil.getWorkFactor());
+
+        // Warm-up
+        for (int i = 0; i < 3; i++) {
+            PasswordUtil.verifyPassword("motdepasse", hash);
+        }
+
+        run("Direct (caller threads)", clients, seconds, () -> {
+            PasswordUtil.verifyPassword("motdepasse", hash);
+            return true;
+        });
+
+        PasswordVerifier verifier = PasswordVerifier.getInstance();
+        run("PasswordVerifier pool", clients, seconds, () -> {
+            try {
+                verifier.verify("motdepasse", hash);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        });
+        run("PasswordVerifier, unknown emails", clients, seconds, () -> {
+            try {
+                verifier.verify("motdepasse", null);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        });
+        verifier.shutdown();
+    }
+
+    private interface Login {
+        /** @return true if the check ran, false if it was refused */
+        boolean attempt();
+    }
+
+    private static void run(String label, int clients, long seconds, Login login) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong refused = new AtomicLong();
+        AtomicLong latencyNanos = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    if (login.attempt()) {
+                        completed.incrementAndGet();
+                        latencyNanos.addAndGet(System.nanoTime() - start);
+                    } else {
+                        refused.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long done = completed.get();
+        System.out.printf("%-34s %7.1f logins/s, mean latency %6.0f ms, refused %d%n", label,
+                          done / (double) seconds,
+                          done == 0 ? 0.0 : latencyNanos.get() / 1_000_000.0 / done,
+                          refused.get());
+    }
+}
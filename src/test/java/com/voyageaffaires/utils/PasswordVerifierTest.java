@@ -0,0 +1,47 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerifierTest {
+
+    private final PasswordVerifier verifier = PasswordVerifier.getInstance();
+
+    @AfterEach
+    void restoreDummyCost() {
+        verifier.setDummyCost(PasswordUtil.MIN_WORK_FACTOR);
+    }
+
+    @Test
+    void verifiesOnThePool() {
+        String hash = PasswordUtil.hashPassword("motdepasse", PasswordUtil.MIN_WORK_FACTOR);
+
+        assertTrue(verifier.verify("motdepasse", hash));
+        assertFalse(verifier.verify("autre", hash));
+    }
+
+    @Test
+    void unknownAccountsNeverMatch() {
+        assertFalse(verifier.verify("voyage-affaires-dummy-password", null));
+    }
+
+    @Test
+    void dummyHashUsesLegacyCostByDefault() {
+        assertEquals(PasswordUtil.MIN_WORK_FACTOR, PasswordUtil.getCost(verifier.getDummyHash()));
+    }
+
+    /**
+     * A raised work factor must not change the dummy hash while stored
+     * hashes still use the old cost, or unknown emails would take longer.
+     */
+    @Test
+    void dummyHashFollowsStoredHashCostNotWorkFactor() {
+        verifier.setDummyCost(11);
+        assertEquals(11, PasswordUtil.getCost(verifier.getDummyHash()));
+
+        verifier.setDummyCost(4);
+        assertEquals(PasswordUtil.MIN_WORK_FACTOR, PasswordUtil.getCost(verifier.getDummyHash()));
+    }
+}
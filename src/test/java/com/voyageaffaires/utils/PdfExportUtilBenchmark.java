@@ -0,0 +1,69 @@
+package com.voyageaffaires.utils;
+
+import com.itextpdf.text.pdf.PdfReader;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Streams synthetic reservations through PdfExportUtil.exportToPdf(Iterator, ...)
+ * and reports the throughput in rows and pages per second, with the peak
+ * heap used during the export. The sampled peak includes garbage not yet
+ * collected, so it grows with -Xmx; run it with a small heap (e.g. -Xmx48m)
+ * to check that the export stays bounded whatever the number of rows.
+ * <p>
+ * Not a unit test; run it by hand after compiling the tests:
+ * {@code java -cp target/classes:target/test-classes:<dependencies> com.voyageaffaires.utils.PdfExportUtilBenchmark [rows] [flushRows]}
+ */
+public class PdfExportUtilBenchmark {
+
+    private static final int WARMUP_ROWS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int flushRows = args.length > 1 ? Integer.parseInt(args[1]) : PdfExportUtil.DEFAULT_FLUSH_ROWS;
+        File file = File.createTempFile("pdf-benchmark", ".pdf");
+        file.deleteOnExit();
+
+        try {
+            export(file, WARMUP_ROWS, flushRows);
+
+            long nanos;
+            HeapSampler heap = new HeapSampler();
+            try {
+                long start = System.nanoTime();
+                export(file, rows, flushRows);
+                nanos = System.nanoTime() - start;
+            } finally {
+                heap.close();
+            }
+
+            int pages = pageCount(file);
+            double seconds = nanos / 1e9;
+            System.out.printf("Exported %d rows (flush every %d) in %.2f s: %d pages, %.1f MB%n",
+                              rows, flushRows, seconds, pages, HeapSampler.megabytes(file.length()));
+            System.out.printf("Throughput : %,.0f rows/s, %,.1f pages/s%n", rows / seconds, pages / seconds);
+            System.out.printf("Heap       : peak %.1f MB (baseline %.1f MB, max %.1f MB)%n",
+                              HeapSampler.megabytes(heap.getPeakBytes()),
+                              HeapSampler.megabytes(heap.getBaselineBytes()),
+                              HeapSampler.megabytes(Runtime.getRuntime().maxMemory()));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void export(File file, int rows, int flushRows) {
+        if (!PdfExportUtil.exportToPdf(new SyntheticReservations(rows), file.getPath(), true, flushRows)) {
+            throw new IllegalStateException("PDF export failed");
+        }
+    }
+
+    private static int pageCount(File file) throws IOException {
+        PdfReader reader = new PdfReader(file.getPath());
+        try {
+            return reader.getNumberOfPages();
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.voyageaffaires.utils;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import com.voyageaffaires.models.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the streamed PDF export. Reservations carry their user name and have
+ * no flight or hotel, so the batch resolver never needs the database.
+ */
+class PdfExportUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Reservation reservation(int n, String statut) {
+        Reservation reservation = new Reservation("RES-" + n, 7, 100);
+        reservation.setDateCreation(LocalDate.of(2026, 3, 2));
+        reservation.setStatut(statut);
+        reservation.setUtilisateurNom("Sami Ben Ali");
+        return reservation;
+    }
+
+    private static String text(Path file) throws IOException {
+        PdfReader reader = new PdfReader(file.toString());
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                text.append(PdfTextExtractor.getTextFromPage(reader, page)).append('\n');
+            }
+            return text.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void exportsReservationWithoutStatus() throws IOException {
+        Path file = tempDir.resolve("export.pdf");
+
+        assertTrue(PdfExportUtil.exportToPdf(List.of(reservation(1, "CONFIRMEE"), reservation(2, null)),
+                                             file.toString(), true));
+
+        String text = text(file);
+        assertTrue(text.contains("RES-1"), text);
+        assertTrue(text.contains("RES-2"), text);
+        assertTrue(text.contains("Total: 2 réservation(s)"), text);
+    }
+
+    @Test
+    void streamsRowsInChunks() throws IOException {
+        Path file = tempDir.resolve("large.pdf");
+        Iterator<Reservation> rows = new Iterator<Reservation>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 250;
+            }
+
+            @Override
+            public Reservation next() {
+                return reservation(next++, "EN_ATTENTE");
+            }
+        };
+
+        assertTrue(PdfExportUtil.exportToPdf(rows, file.toString(), false, 20));
+
+        assertTrue(text(file).contains("Total: 250 réservation(s)"));
+    }
+
+    @Test
+    void reportsFailureWhenTheSourceFails() {
+        Path file = tempDir.resolve("failed.pdf");
+        Iterator<Reservation> failing = new Iterator<Reservation>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Reservation next() {
+                if (next == 3) {
+                    throw new IllegalStateException("Connection lost");
+                }
+                return reservation(next++, "CONFIRMEE");
+            }
+        };
+
+        assertFalse(PdfExportUtil.exportToPdf(failing, file.toString(), true, 2));
+    }
+}
@@ -0,0 +1,92 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixSuggesterTest {
+
+    @Test
+    void suggestsNamesStartingWithPrefix() {
+        PrefixSuggester suggester = new PrefixSuggester(Arrays.asList("Paris", "Pau", "Rome", "Palerme"));
+
+        assertEquals(List.of("Palerme", "Paris", "Pau"), suggester.suggest("Pa", 10));
+        assertEquals(List.of("Paris"), suggester.suggest("par", 10));
+        assertEquals(List.of(), suggester.suggest("Lyon", 10));
+    }
+
+    @Test
+    void matchesStartOfEveryWord() {
+        PrefixSuggester suggester = new PrefixSuggester(
+                Arrays.asList("New York", "Saint-Denis", "L'Aquila", "Paris (Orly)", "Dubai"));
+
+        assertEquals(List.of("New York"), suggester.suggest("york", 10));
+        assertEquals(List.of("Saint-Denis"), suggester.suggest("den", 10));
+        assertEquals(List.of("L'Aquila"), suggester.suggest("aqu", 10));
+        assertEquals(List.of("Paris (Orly)"), suggester.suggest("orly", 10));
+        // Only word starts, not any substring
+        assertEquals(List.of(), suggester.suggest("bai", 10));
+    }
+
+    @Test
+    void ranksMostFrequentFirstThenAlphabetically() {
+        PrefixSuggester suggester = new PrefixSuggester(
+                Arrays.asList("Barcelona", "Berlin", "Berlin", "Bruxelles", "Berlin", "Barcelona", "Bari"));
+
+        assertEquals(List.of("Berlin", "Barcelona", "Bari", "Bruxelles"), suggester.suggest("b", 10));
+    }
+
+    @Test
+    void mergesSpellingsUnderMostFrequent() {
+        PrefixSuggester suggester = new PrefixSuggester(Arrays.asList("Genève", "geneve", "Genève", " GENEVE "));
+
+        assertEquals(List.of("Genève"), suggester.suggest("GEN", 10));
+        assertEquals(List.of("Genève"), suggester.suggest("genè", 10));
+    }
+
+    @Test
+    void listsNameOnceWhenTwoWordsMatch() {
+        PrefixSuggester suggester = new PrefixSuggester(Arrays.asList("Saint-Sauveur", "Salvador"));
+
+        assertEquals(List.of("Saint-Sauveur", "Salvador"), suggester.suggest("sa", 10));
+    }
+
+    @Test
+    void appliesLimitAndKeepsBestSuggestions() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            // Ville00 is used 15 times, Ville14 once
+            for (int n = i; n < 15; n++) {
+                values.add(String.format("Ville%02d", i));
+            }
+        }
+        PrefixSuggester suggester = new PrefixSuggester(values);
+
+        assertEquals(List.of("Ville00", "Ville01", "Ville02"), suggester.suggest("vil", 3));
+
+        List<String> all = suggester.suggest("vil", 100);
+        assertEquals(PrefixSuggester.MAX_SUGGESTIONS, all.size());
+        assertEquals("Ville09", all.get(all.size() - 1));
+        assertEquals(List.of("Ville14"), suggester.suggest("ville14", 10));
+    }
+
+    @Test
+    void ignoresNullAndBlankValuesAndPrefixes() {
+        PrefixSuggester suggester = new PrefixSuggester(Arrays.asList(null, " ", "Tunis"));
+
+        assertEquals(List.of("Tunis"), suggester.suggest("t", 10));
+        assertEquals(List.of(), suggester.suggest(null, 10));
+        assertEquals(List.of(), suggester.suggest("  ", 10));
+    }
+
+    @Test
+    void returnsUnmodifiableSuggestions() {
+        PrefixSuggester suggester = new PrefixSuggester(Arrays.asList("Tunis"));
+
+        assertThrows(UnsupportedOperationException.class, () -> suggester.suggest("t", 10).clear());
+    }
+}
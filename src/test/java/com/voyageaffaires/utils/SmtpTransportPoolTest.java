@@ -0,0 +1,131 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.NoSuchProviderException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests SmtpTransportPool against an in-memory transport registered as the
+ * session's "smtp" provider, so no mail server is needed.
+ */
+class SmtpTransportPoolTest {
+
+    private Session session;
+
+    @BeforeEach
+    void setUp() throws NoSuchProviderException {
+        FakeTransport.reset();
+        session = Session.getInstance(new Properties());
+        FakeTransport.install(session);
+    }
+
+    private Message message() throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@voyage-affaires.tn"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("sami@example.com"));
+        message.setSubject("Confirmation");
+        message.setText("Bonjour");
+        return message;
+    }
+
+    @Test
+    void reusesConnectionBetweenMessages() throws MessagingException {
+        SmtpTransportPool pool = new SmtpTransportPool(session, 2, 1000, 60000, 0);
+
+        for (int i = 0; i < 3; i++) {
+            pool.send(message());
+        }
+
+        assertEquals(3, pool.getSentCount());
+        assertEquals(1, pool.getHandshakeCount());
+        assertEquals(3, FakeTransport.sent.get());
+    }
+
+    @Test
+    void recyclesConnectionAfterMaxMessages() throws MessagingException {
+        SmtpTransportPool pool = new SmtpTransportPool(session, 2, 1000, 60000, 2);
+
+        for (int i = 0; i < 5; i++) {
+            pool.send(message());
+        }
+
+        assertEquals(3, pool.getHandshakeCount());
+        assertEquals(2, FakeTransport.closed.get());
+    }
+
+    @Test
+    void reconnectsOnceWhenConnectionWasDropped() throws MessagingException {
+        SmtpTransportPool pool = new SmtpTransportPool(session, 2, 1000, 60000, 0);
+        pool.send(message());
+
+        FakeTransport.failures.set(1);
+        pool.send(message());
+
+        assertEquals(2, pool.getSentCount());
+        assertEquals(1, pool.getReconnectCount());
+        assertEquals(2, pool.getHandshakeCount());
+        assertEquals(0, pool.getFailureCount());
+    }
+
+    @Test
+    void doesNotRetryRejectedRecipients() throws MessagingException {
+        SmtpTransportPool pool = new SmtpTransportPool(session, 2, 1000, 60000, 0);
+        FakeTransport.rejectRecipients = true;
+
+        assertThrows(SendFailedException.class, () -> pool.send(message()));
+        assertEquals(1, pool.getFailureCount());
+        assertEquals(0, pool.getReconnectCount());
+
+        // The connection itself is fine and stays in the pool
+        FakeTransport.rejectRecipients = false;
+        pool.send(message());
+        assertEquals(1, pool.getHandshakeCount());
+    }
+
+    @Test
+    void timesOutWhenAllConnectionsAreBusy() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(session, 1, 50, 60000, 0);
+        FakeTransport.block = new CountDownLatch(1);
+        FakeTransport.sending = new CountDownLatch(1);
+
+        Thread sender = new Thread(() -> {
+            try {
+                pool.send(message());
+            } catch (MessagingException e) {
+                fail(e);
+            }
+        });
+        sender.start();
+        assertTrue(FakeTransport.sending.await(5, TimeUnit.SECONDS));
+
+        MessagingException e = assertThrows(MessagingException.class, () -> pool.send(message()));
+        assertTrue(e.getMessage().startsWith("Timed out"), e.getMessage());
+
+        FakeTransport.block.countDown();
+        sender.join(5000);
+        assertEquals(1, pool.getSentCount());
+    }
+
+    @Test
+    void shutdownClosesIdleConnectionsAndRefusesSends() throws MessagingException {
+        SmtpTransportPool pool = new SmtpTransportPool(session, 2, 1000, 60000, 0);
+        pool.send(message());
+
+        pool.shutdown();
+
+        assertEquals(1, FakeTransport.closed.get());
+        assertThrows(MessagingException.class, () -> pool.send(message()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.TestDatabase;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Connector/J prepared statement cache enabled by DatabaseConnection.
+ */
+class StatementCacheTest {
+
+    @Test
+    void addsCacheOptionsToPlainUrl() {
+        String url = DatabaseConnection.withStatementCache("jdbc:mysql://localhost:3306/voyage_affaires");
+
+        assertTrue(url.startsWith("jdbc:mysql://localhost:3306/voyage_affaires?useServerPrepStmts=true&"));
+        assertTrue(url.contains("cachePrepStmts=true"));
+        assertTrue(url.contains("prepStmtCacheSize=250"));
+    }
+
+    @Test
+    void appendsCacheOptionsToExistingParameters() {
+        String url = DatabaseConnection.withStatementCache("jdbc:mysql://db/app?useSSL=false");
+
+        assertTrue(url.startsWith("jdbc:mysql://db/app?useSSL=false&useServerPrepStmts=true&"));
+    }
+
+    @Test
+    void keepsExplicitCacheConfiguration() {
+        String url = "jdbc:mysql://db/app?cachePrepStmts=false";
+
+        assertEquals(url, DatabaseConnection.withStatementCache(url));
+        assertNull(DatabaseConnection.withStatementCache(null));
+    }
+
+    /**
+     * Preparing the same SQL repeatedly on a pooled connection must hit the
+     * driver cache instead of preparing it on the server each time.
+     */
+    @Test
+    void repeatedStatementsArePreparedOnce() throws SQLException {
+        TestDatabase.assumeAvailable();
+        String sql = "SELECT * FROM vol WHERE id_vol = ?";
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            long before = preparedCount(connection);
+            for (int i = 0; i < 20; i++) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setString(1, "VOL-" + i);
+                    stmt.executeQuery().close();
+                }
+            }
+            long prepared = preparedCount(connection) - before;
+
+            assertTrue(prepared <= 1, "Statement prepared " + prepared + " times");
+        }
+    }
+
+    private static long preparedCount(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SHOW SESSION STATUS LIKE 'Com_stmt_prepare'");
+             ResultSet rs = stmt.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getLong(2);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.voyageaffaires.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubstringIndexTest {
+
+    private static BitSet rows(int... positions) {
+        BitSet rows = new BitSet();
+        for (int position : positions) {
+            rows.set(position);
+        }
+        return rows;
+    }
+
+    @Test
+    void findsValuesContainingTerm() {
+        SubstringIndex index = new SubstringIndex(Arrays.asList("Paris CDG", "London Heathrow", "Paris Orly", "Dubai"));
+
+        assertEquals(rows(0, 2), index.find("Paris"));
+        assertEquals(rows(0, 2), index.find("ari"));
+        assertEquals(rows(1), index.find("row"));
+        assertEquals(rows(3), index.find("Dubai"));
+        assertEquals(rows(), index.find("Rome"));
+        assertEquals(rows(), index.find("Dubai Mall"));
+    }
+
+    @Test
+    void ignoresCaseAccentsAndSurroundingSpaces() {
+        SubstringIndex index = new SubstringIndex(Arrays.asList("Montréal", "Genève", "ZÜRICH"));
+
+        assertEquals(rows(0), index.find("montreal"));
+        assertEquals(rows(0), index.find("  RÉAL "));
+        assertEquals(rows(1), index.find("geneve"));
+        assertEquals(rows(2), index.find("zur"));
+    }
+
+    @Test
+    void returnsEveryRowSharingAValue() {
+        SubstringIndex index = new SubstringIndex(Arrays.asList("Paris", "Rome", "paris", "PARIS"));
+
+        assertEquals(rows(0, 2, 3), index.find("par"));
+    }
+
+    @Test
+    void skipsNullValues() {
+        SubstringIndex index = new SubstringIndex(Arrays.asList(null, "Cairo", null));
+
+        assertEquals(rows(1), index.find("a"));
+    }
+
+    @Test
+    void returnsNullForEmptyTerm() {
+        SubstringIndex index = new SubstringIndex(Arrays.asList("Paris"));
+
+        assertNull(index.find(null));
+        assertNull(index.find(""));
+        assertNull(index.find("   "));
+    }
+
+    @Test
+    void returnsIndependentResultSets() {
+        SubstringIndex index = new SubstringIndex(Arrays.asList("Paris", "Paris"));
+
+        index.find("Paris").clear();
+
+        assertEquals(rows(0, 1), index.find("Paris"));
+    }
+
+    @Test
+    void matchesLinearScan() {
+        String[] cities = {"Paris", "Tunis", "Istanbul", "Barcelona", "Dubaï", "New York", "Nice", "Bâle", "Sousse"};
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add(random.nextInt(10) == 0 ? null : cities[random.nextInt(cities.length)]);
+        }
+        SubstringIndex index = new SubstringIndex(values);
+
+        for (String term : new String[] {"a", "is", "an", "ice", "bale", "dubai", "ss", "york", "x"}) {
+            BitSet expected = new BitSet();
+            for (int row = 0; row < values.size(); row++) {
+                String value = values.get(row);
+                if (value != null && SubstringIndex.normalize(value).contains(SubstringIndex.normalize(term))) {
+                    expected.set(row);
+                }
+            }
+            assertEquals(expected, index.find(term), term);
+        }
+    }
+}
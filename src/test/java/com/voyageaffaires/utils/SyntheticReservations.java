@@ -0,0 +1,65 @@
+package com.voyageaffaires.utils;
+
+import com.voyageaffaires.models.Hotel;
+import com.voyageaffaires.models.Reservation;
+import com.voyageaffaires.models.Vol;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Generates reservations on the fly for the export benchmarks, so the
+ * source itself holds no rows in memory. Each reservation already carries
+ * its user name, flight and hotel: the export never needs the database.
+ */
+class SyntheticReservations implements Iterator<Reservation> {
+
+    private static final String[] STATUTS = {"EN_ATTENTE", "CONFIRMEE", "ANNULEE"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private final int count;
+    private final Vol[] vols = new Vol[20];
+    private final Hotel[] hotels = new Hotel[20];
+    private int next;
+
+    SyntheticReservations(int count) {
+        this.count = count;
+        for (int i = 0; i < vols.length; i++) {
+            LocalDateTime depart = FIRST_DAY.atTime(8, 0).plusDays(i);
+            vols[i] = new Vol("VOL-" + i, "Compagnie " + i, "Tunis", "Ville " + i,
+                              depart, depart.plusHours(3), 250 + 10 * i, 180);
+            hotels[i] = new Hotel("HOT-" + i, "Hôtel " + i, i + " rue de la Paix", "Ville " + i,
+                                  1 + i % 5, 80 + 5 * i);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next < count;
+    }
+
+    @Override
+    public Reservation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int n = next++;
+        Reservation reservation = new Reservation(String.format("RES-%08d", n), 1 + n % 500, 100 + n % 900);
+        reservation.setDateCreation(FIRST_DAY.plusDays(n % 365));
+        reservation.setStatut(STATUTS[n % STATUTS.length]);
+        reservation.setUtilisateurNom("Employé " + (1 + n % 500));
+        reservation.setMotifVoyage("Réunion client " + n % 50);
+
+        Vol vol = vols[n % vols.length];
+        reservation.setIdVol(vol.getIdVol());
+        reservation.setVol(vol);
+        Hotel hotel = hotels[n % hotels.length];
+        reservation.setIdHotel(hotel.getIdHotel());
+        reservation.setHotel(hotel);
+        reservation.setDateCheckin(reservation.getDateCreation().plusDays(7));
+        reservation.setDateCheckout(reservation.getDateCreation().plusDays(9));
+        return reservation;
+    }
+}
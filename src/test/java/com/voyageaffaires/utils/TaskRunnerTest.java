@@ -0,0 +1,164 @@
+package com.voyageaffaires.utils;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the delivery rules of TaskRunner and TaskRunner.Slot. Callbacks run
+ * on the JavaFX Application Thread, so the tests are skipped when the
+ * toolkit cannot start (e.g. no display).
+ */
+class TaskRunnerTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @BeforeAll
+    static void startToolkit() {
+        boolean available;
+        try {
+            Platform.startup(() -> { });
+            available = true;
+        } catch (IllegalStateException e) {
+            // Already started by another test
+            available = true;
+        } catch (RuntimeException e) {
+            available = false;
+        }
+        Assumptions.assumeTrue(available, "JavaFX toolkit unavailable (no display)");
+        Platform.setImplicitExit(false);
+    }
+
+    /** Runs an action on the FX thread and waits for it. */
+    private static void onFx(Runnable action) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                action.run();
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "FX thread busy");
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+    }
+
+    /** Waits for a latch, ignoring interrupts, like work that misses a cancellation. */
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // Keep waiting
+            }
+        }
+    }
+
+    @Test
+    void supersededTaskNeverDeliversItsResult() throws Exception {
+        TaskRunner.Slot slot = new TaskRunner.Slot();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstFinished = new CountDownLatch(1);
+        AtomicBoolean firstDelivered = new AtomicBoolean();
+        CompletableFuture<String> second = new CompletableFuture<>();
+
+        onFx(() -> slot.run(() -> {
+            try {
+                firstStarted.countDown();
+                awaitIgnoringInterrupts(release);
+                return "first";
+            } finally {
+                firstFinished.countDown();
+            }
+        }, result -> firstDelivered.set(true), null));
+        assertTrue(firstStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        onFx(() -> slot.run(() -> "second", second::complete, null));
+        release.countDown();
+
+        assertEquals("second", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(firstFinished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        // Let any pending callback of the first task reach the FX thread
+        onFx(() -> { });
+        onFx(() -> { });
+        assertFalse(firstDelivered.get());
+    }
+
+    @Test
+    void rejectionIsReportedThroughOnFailure() throws Exception {
+        TaskRunner runner = TaskRunner.getInstance();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Task<Void>> blockers = new ArrayList<>();
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+        try {
+            Task<Void> rejected = null;
+            // Fill the workers and the queue until the pool refuses a task
+            for (int i = 0; i < 1000 && rejected == null; i++) {
+                Task<Void> task = runner.run(() -> {
+                    awaitIgnoringInterrupts(release);
+                    return null;
+                }, result -> { }, failure::complete);
+                if (task.isCancelled()) {
+                    rejected = task;
+                } else {
+                    blockers.add(task);
+                }
+            }
+
+            assertNotNull(rejected, "Pool never saturated");
+            assertTrue(failure.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) instanceof RejectedExecutionException);
+        } finally {
+            release.countDown();
+        }
+        for (Task<Void> blocker : blockers) {
+            blocker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void cancellationInterruptsTheWorker() throws Exception {
+        TaskRunner.Slot slot = new TaskRunner.Slot();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean delivered = new AtomicBoolean();
+
+        onFx(() -> slot.run(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "done";
+        }, result -> delivered.set(true), error -> delivered.set(true)));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        onFx(slot::cancel);
+
+        assertTrue(interrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        onFx(() -> assertFalse(slot.isRunning()));
+        assertFalse(delivered.get());
+    }
+}